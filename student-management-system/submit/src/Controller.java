@@ -4,50 +4,329 @@
  * Resources used: Course lectures, W3 Schools
  * Statement: I worked alone on this project.
  */
-import java.util.HashMap;
-
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+import javax.management.JMException;
 
+import courses.Catalog;
 import courses.Course;
+import courses.CourseIndex;
+import files.BatchEnrollment;
 import files.FileInfoReader;
+import files.Journal;
+import files.Snapshot;
+import files.StudentStore;
+import messages.Messages;
+import messages.QueuedSink;
+import metrics.Metrics;
+import registration.RegistrationLottery;
 import roles.Admin;
 import roles.Professor;
 import roles.Student;
+import server.ApiServer;
+import server.ConsoleServer;
 
 public class Controller {
+	
+	/**
+	 * File that changes made while the system runs are recorded in
+	 */
+	private static final String JOURNAL_FILE = "journal.dat";
+	
+	/**
+	 * File all of the data is saved in for fast startup
+	 */
+	private static final String SNAPSHOT_FILE = "snapshot.dat";
+	
+	/**
+	 * Number of journal records at startup above which a new snapshot is saved, or the journal is compacted
+	 */
+	private static final long JOURNAL_SNAPSHOT_THRESHOLD = 10000;
+	
+	/**
+	 * Lock shared by the console and the API server, held for writing while an admin changes the data
+	 * and for reading while a student enrolls in or drops a course
+	 */
+	private static final ReadWriteLock DATA_LOCK = new ReentrantReadWriteLock();
+	
+	/**
+	 * Number of courses shown on each page of the catalog, set with -Dcatalog.pageSize
+	 */
+	private static final int CATALOG_PAGE_SIZE = Integer.getInteger("catalog.pageSize", Catalog.DEFAULT_PAGE_SIZE);
 
 	public static void main (String[] args) {
 		
 		//initialize data into the system
-		Map<String, Course> courses = new HashMap<>();
-		Map<String, Admin> admins = new HashMap<>();
-		Map<String, Professor> professors = new HashMap<>();
-		Map<String, Student> students = new HashMap<>();
-		
-		//create FileInfoReader instance
-		FileInfoReader fileReader = new FileInfoReader();
-		
-		//load data from files		
-		fileReader.loadCourses("courseInfo.txt", courses);
-		fileReader.loadAdmins("adminInfo.txt", admins);
-		fileReader.loadProfessors("profInfo.txt", professors);
-		fileReader.loadStudents("studentInfo.txt", students);		
-		
-		//launch the main menu
-		Scanner scanner = new Scanner(System.in);
-		handleMainMenu(admins, courses, professors, students, scanner);
+		//the maps are concurrent, since the API server reads them from many threads at once
+		//courses are also indexed by ID and name as they are put in and removed, so they can be searched
+		CourseIndex courses = new CourseIndex();
+		Map<String, Admin> admins = new ConcurrentHashMap<>();
+		Map<String, Professor> professors = new ConcurrentHashMap<>();
+		Map<String, Student> students = new ConcurrentHashMap<>();
+		
+		//initialize username indexes used for logins
+		Map<String, Professor> professorLogins = new ConcurrentHashMap<>();
+		Map<String, Student> studentLogins = new ConcurrentHashMap<>();
+		
+		//initialize name index used to find the professor lecturing a course
+		Map<String, Professor> professorsByName = new ConcurrentHashMap<>();
+		
+		//create FileInfoReader and Snapshot instances
+		//info files are parsed in parallel on one thread per core, set with -Dloader.threads (1 reads them line by line)
+		int loaderThreads = Integer.getInteger("loader.threads", Runtime.getRuntime().availableProcessors());
+		ForkJoinPool loaderPool = loaderThreads > 1 ? new ForkJoinPool(loaderThreads) : null;
+		FileInfoReader fileReader = new FileInfoReader(loaderPool);
+		Snapshot snapshot = new Snapshot();
+		
+		//with -Dstudents.lazy=true, students stay in the info file and are read when they log in or are looked up,
+		//keeping at most -Dstudents.cacheBytes of idle students in memory
+		StudentStore studentStore = null;
+		if (Boolean.getBoolean("students.lazy")) {
+			try {
+				studentStore = fileReader.loadStudentsLazily("studentInfo.txt", Long.getLong("students.cacheBytes", 64L << 20));
+				students = studentStore.byId();
+				studentLogins = studentStore.byUsername();
+			} catch (IOException e) {
+				System.out.println("Error indexing student file: " + e.getMessage());
+			}
+		}
+		
+		//load data from the snapshot, unless an info file was edited since it was saved
+		//the snapshot holds every student, so it isn't used when students are read on demand
+		long checkpoint = -1;
+		if (studentStore == null && snapshot.isNewerThan(SNAPSHOT_FILE, "courseInfo.txt", "adminInfo.txt", "profInfo.txt", "studentInfo.txt")) {
+			try {
+				checkpoint = snapshot.load(SNAPSHOT_FILE, admins, courses, professors, professorLogins, professorsByName, students, studentLogins);
+			} catch (IOException e) {
+				System.out.println("Error reading snapshot file: " + e.getMessage());
+			}
+		}
+		
+		//otherwise, load data from files
+		if (studentStore != null) {
+			fileReader.loadAll("courseInfo.txt", "adminInfo.txt", "profInfo.txt", null,
+					courses, admins, professors, professorLogins, professorsByName, null, null);
+		} else if (checkpoint < 0) {
+			fileReader.loadAll("courseInfo.txt", "adminInfo.txt", "profInfo.txt", "studentInfo.txt",
+					courses, admins, professors, professorLogins, professorsByName, students, studentLogins);
+		}
+		if (loaderPool != null) {
+			loaderPool.shutdown();
+		}
+		
+		//replay changes made since the snapshot, or since the info files were loaded
+		//records are forced to disk in groups, set with -Djournal.syncEvery and -Djournal.syncMillis
+		Journal journal = new Journal(JOURNAL_FILE, Integer.getInteger("journal.syncEvery", 32), Long.getLong("journal.syncMillis", 200));
+		try {
+			journal.replay(courses, professors, professorLogins, professorsByName, students, studentLogins, checkpoint);
+		} catch (IOException e) {
+			
+			//saving a snapshot or clearing the journal now would lose changes held only in the files that weren't read
+			System.out.println("Error reading journal file: " + e.getMessage());
+			System.out.println("Nothing was loaded or saved. If an info file was edited or touched after the snapshot was saved, "
+					+ "undo that or fix the snapshot file, then start again.");
+			try {
+				journal.close();
+				if (studentStore != null) {
+					studentStore.close();
+				}
+			} catch (IOException closing) {
+				System.out.println("Error closing files: " + closing.getMessage());
+			}
+			return;
+			
+		}
+		
+		//fill in each professor's teaching list
+		fileReader.linkCourses(courses, professorsByName);
+		
+		try {
+			
+			//when students are read on demand, startup always replays the journal over the info files,
+			//so once it gets long it is compacted to the records that rebuild the current data instead
+			//it is left alone while it is no more than twice the seats and waitlist places it has to rebuild anyway
+			if (studentStore != null) {
+				long places = 0;
+				for (Course course : courses.values()) {
+					places += course.getEnrolledStudents().size() + course.getWaitlist().size();
+				}
+				if (journal.getRecordCount() > Math.max(JOURNAL_SNAPSHOT_THRESHOLD, 2 * places)) {
+					journal.compact(courses, professors, professorsByName, students);
+				}
+				
+			//save a new snapshot after importing the info files, or once the journal gets long, and start the journal over
+			} else if (checkpoint < 0 || journal.getRecordCount() > JOURNAL_SNAPSHOT_THRESHOLD) {
+				checkpoint = Math.max(checkpoint + 1, System.currentTimeMillis());
+				snapshot.write(SNAPSHOT_FILE, checkpoint, admins, courses, professors, students);
+				journal.clear(checkpoint);
+				
+			//a journal from before the snapshot was saved is already in it, so it is started over
+			} else if (journal.getCheckpoint() != checkpoint) {
+				journal.clear(checkpoint);
+			}
+			
+		} catch (IOException e) {
+			System.out.println("Error writing snapshot file: " + e.getMessage());
+		}
+		
+		//publish the metrics over JMX, unless -Dmetrics.jmx=false
+		//enrollments replayed from the journal are not counted, so the counts start from what happens while running
+		Metrics.ENROLLMENT.reset();
+		if (!"false".equals(System.getProperty("metrics.jmx"))) {
+			try {
+				Metrics.register(ManagementFactory.getPlatformMBeanServer(), courses);
+			} catch (JMException e) {
+				System.out.println("Error publishing metrics: " + e.getMessage());
+			}
+		}
+		
+		//with -Dbatch.enroll, applies a file of "studentId; courseId" enrollment requests instead of launching the menu,
+		//writing the requests turned away to -Dbatch.results, on -Dbatch.threads threads
+		//the messages courses report along the way are written to -Dbatch.log in the background, or dropped
+		//requests are applied in rounds, every student's first request before anyone's second and so on, so a full
+		//course's last seats go to the earliest lines of the earliest round rather than to the earliest lines overall
+		String batchFile = System.getProperty("batch.enroll");
+		if (batchFile != null) {
+			int batchThreads = Integer.getInteger("batch.threads", Runtime.getRuntime().availableProcessors());
+			ForkJoinPool batchPool = batchThreads > 1 ? new ForkJoinPool(batchThreads) : null;
+			String resultFile = System.getProperty("batch.results", batchFile + ".results");
+			String logFile = System.getProperty("batch.log");
+			try (QueuedSink batchLog = logFile != null ? new QueuedSink(new FileWriter(logFile)) : null) {
+				long start = System.nanoTime();
+				BatchEnrollment batch = batchLog != null ? new BatchEnrollment(batchPool, batchLog) : new BatchEnrollment(batchPool);
+				Map<String, Long> summary = batch.run(batchFile, resultFile, courses, students, journal);
+				System.out.printf("Applied %d requests in %.1f s, writing the ones turned away to %s:%n",
+						summary.values().stream().mapToLong(Long::longValue).sum(), (System.nanoTime() - start) / 1e9, resultFile);
+				summary.forEach((outcome, count) -> System.out.println(outcome + ": " + count));
+			} catch (IOException e) {
+				System.out.println("Error applying batch file: " + e.getMessage());
+			} finally {
+				if (batchPool != null) {
+					batchPool.shutdown();
+				}
+			}
+			
+		//with -Dlottery.wishlists, hands out seats from a file of "studentId; courseId, courseId, ..." ranked wishlists
+		//instead of launching the menu, giving each student up to -Dlottery.maxCourses courses,
+		//by -Dlottery.priority (completed, or none for a plain lottery) with ties broken by -Dlottery.seed,
+		//on -Dlottery.threads threads
+		} else if (System.getProperty("lottery.wishlists") != null) {
+			int lotteryThreads = Integer.getInteger("lottery.threads", Runtime.getRuntime().availableProcessors());
+			ForkJoinPool lotteryPool = lotteryThreads > 1 ? new ForkJoinPool(lotteryThreads) : null;
+			long seed = Long.getLong("lottery.seed", System.nanoTime());
+			ToIntFunction<Student> priority = "none".equals(System.getProperty("lottery.priority"))
+					? RegistrationLottery.NO_PRIORITY : RegistrationLottery.COMPLETED_COURSES;
+			RegistrationLottery lottery = new RegistrationLottery(priority, Integer.getInteger("lottery.maxCourses", 5), seed, lotteryPool);
+			try {
+				long start = System.nanoTime();
+				lottery.submitFile(System.getProperty("lottery.wishlists"), courses, students);
+				Map<Student, List<Course>> allocation = lottery.allocate(journal);
+				long seats = allocation.values().stream().mapToLong(List::size).sum();
+				long placed = allocation.values().stream().filter(won -> !won.isEmpty()).count();
+				System.out.printf("Handed out %d seats to %d of %d students in %.1f s, with lottery seed %d.%n",
+						seats, placed, allocation.size(), (System.nanoTime() - start) / 1e9, seed);
+			} catch (IOException e) {
+				System.out.println("Error applying wishlist file: " + e.getMessage());
+			} finally {
+				if (lotteryPool != null) {
+					lotteryPool.shutdown();
+				}
+			}
+			
+		} else {
+			
+			//with -Dhttp.port, also serve the same actions as a JSON API while the console runs
+			//only on localhost, unless -Dhttp.host names another host or address to listen on
+			//requests run on virtual threads if the JDK has them, otherwise on -Dhttp.threads threads
+			//sessions unused for -Dhttp.sessionIdleMinutes are logged out
+			ApiServer apiServer = null;
+			Integer httpPort = Integer.getInteger("http.port");
+			if (httpPort != null) {
+				try {
+					apiServer = new ApiServer(System.getProperty("http.host"), httpPort, Integer.getInteger("http.threads", 64),
+							courses, admins, professors, professorLogins, professorsByName, students, studentLogins, journal, DATA_LOCK);
+					apiServer.setSessionIdleMillis(TimeUnit.MINUTES.toMillis(Integer.getInteger("http.sessionIdleMinutes", 30)));
+					apiServer.start();
+					System.out.println("Serving the API on port " + apiServer.getPort());
+				} catch (IOException e) {
+					System.out.println("Error starting the API server: " + e.getMessage());
+				}
+			}
+			
+			//with -Dconsole.port, also serve the main menu to terminals connecting on localhost, each in its own session
+			//at most -Dconsole.maxSessions sessions run at once
+			ConsoleServer consoleServer = null;
+			Integer consolePort = Integer.getInteger("console.port");
+			if (consolePort != null) {
+				Map<String, Student> sessionStudents = students;
+				Map<String, Student> sessionStudentLogins = studentLogins;
+				try {
+					consoleServer = new ConsoleServer(consolePort, Integer.getInteger("console.maxSessions", 10000),
+							sessionScanner -> handleMainMenu(admins, courses, professors, sessionStudents, professorLogins, sessionStudentLogins,
+									professorsByName, journal, sessionScanner));
+					consoleServer.start();
+					System.out.println("Serving the console on port " + consoleServer.getPort());
+				} catch (IOException e) {
+					System.out.println("Error starting the console server: " + e.getMessage());
+				}
+			}
+			
+			//launch the main menu
+			Scanner scanner = new Scanner(System.in);
+			handleMainMenu(admins, courses, professors, students, professorLogins, studentLogins, professorsByName, journal, scanner);
+			
+			//stop serving the API and console sessions before the journal is closed
+			if (apiServer != null) {
+				apiServer.close();
+			}
+			if (consoleServer != null) {
+				consoleServer.close();
+			}
+			
+		}
+			
+		//make sure every change is on disk before exiting
+		try {
+			journal.close();
+		} catch (IOException e) {
+			System.out.println("Error writing journal file: " + e.getMessage());
+		}
+		
+		//close the student info file
+		if (studentStore != null) {
+			try {
+				studentStore.close();
+			} catch (IOException e) {
+				System.out.println("Error closing student file: " + e.getMessage());
+			}
+		}
 
 	}
 	
 	/**
 	 * Handles the main menu where users can log in as an Admin, Professor, or Student
-	 * @param courses map of existing courses
+	 * @param courses index of existing courses
 	 * @param professors map of existing professors
 	 * @param students map of existing students
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param studentLogins map of existing students keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param journal to record changes in
 	 * @param scanner for user input
 	 */
-	private static void handleMainMenu(Map<String, Admin> admins, Map<String, Course> courses, Map<String, Professor> professors, Map<String, Student> students, Scanner scanner) {
+	private static void handleMainMenu(Map<String, Admin> admins, CourseIndex courses, Map<String, Professor> professors, Map<String, Student> students,
+			Map<String, Professor> professorLogins, Map<String, Student> studentLogins, Map<String, Professor> professorsByName, Journal journal, Scanner scanner) {
 		
 		while (true) {
 			
@@ -82,17 +361,17 @@ public class Controller {
 			
 				//if user enters '1', brings up the student menu
 				case 1:
-					handleStudentLogin(courses, students, scanner);
+					handleStudentLogin(courses, studentLogins, journal, scanner);
 					break;
 					
 				//if user enters '2', brings up the professor menu
 				case 2:
-					handleProfessorLogin(courses, professors, students, scanner);
+					handleProfessorLogin(courses, professorLogins, students, scanner);
 					break;
 					
 				//if user enters '3', brings up the admin menu
 				case 3:
-					handleAdminLogin(admins, courses, professors, students, scanner);
+					handleAdminLogin(admins, courses, professors, students, professorLogins, studentLogins, professorsByName, journal, scanner);
 					break;
 					
 				//if user enters '4', prints a message and exits the system
@@ -112,12 +391,12 @@ public class Controller {
 	
 	/**
 	 * Handles the Student login where users can view course info, add/drop courses, and view grades
-	 * @param courses map of courses
-	 * @param professors map of professors
-	 * @param students map of students
+	 * @param courses index of courses
+	 * @param studentLogins map of students keyed by username
+	 * @param journal to record changes in
 	 * @param scanner for user input
 	 */
-	private static void handleStudentLogin(Map<String, Course> courses, Map<String, Student> students, Scanner scanner) {
+	private static void handleStudentLogin(CourseIndex courses, Map<String, Student> studentLogins, Journal journal, Scanner scanner) {
 		
 		//prompts user for username
 		System.out.println("Please enter your username, or type 'q' to quit.");
@@ -137,18 +416,21 @@ public class Controller {
 			return;
 		}
 		
-		//iterates through the list of existing students to authenticate the login
-		for (Student student : students.values()) {
-			
-			//if authenticated, prints a welcome message for the student
-			if (student.authenticate(username, password)) {
-				System.out.println();
-				System.out.println("-------------------------");
-				System.out.println("Welcome, " + student.getName() + ":");
-				System.out.println("-------------------------");
-				handleStudentActions(student, courses, scanner);
-				return;
-			}
+		//looks up the student by username to authenticate the login, counting an unknown username as a failed login
+		long start = System.nanoTime();
+		Student student = studentLogins.get(username);
+		if (student == null) {
+			Metrics.LOGINS.record(false, System.nanoTime() - start);
+		}
+			
+		//if authenticated, prints a welcome message for the student
+		if (student != null && student.authenticate(username, password)) {
+			System.out.println();
+			System.out.println("-------------------------");
+			System.out.println("Welcome, " + student.getName() + ":");
+			System.out.println("-------------------------");
+			handleStudentActions(student, courses, journal, scanner);
+			return;
 		}
 		
 		//if login cannot be authenticated, prompts user to retry username and password
@@ -159,10 +441,11 @@ public class Controller {
 	/**
 	 * Handles the different menu actions from the student menu
 	 * @param student logged in
-	 * @param courses map of existing courses
+	 * @param courses index of existing courses
+	 * @param journal to record changes in
 	 * @param scanner for user input
 	 */
-	private static void handleStudentActions(Student student, Map<String, Course> courses, Scanner scanner) {
+	private static void handleStudentActions(Student student, CourseIndex courses, Journal journal, Scanner scanner) {
 		
 		while (true) {
 			
@@ -170,15 +453,26 @@ public class Controller {
 			student.displayMenu();
 			System.out.println();
 			System.out.println("Please enter your option, eg. '1': ");
-			int choice = scanner.nextInt();
-			scanner.nextLine();
+			
+			//prompts user to enter a choice
+			int choice;
+			
+			//verifies that input is an integer
+			try {
+				choice = Integer.parseInt(scanner.nextLine().trim());
+				
+			//if not, reprompts user for a valid input
+			} catch (NumberFormatException e) {
+				System.out.println("Invalid input. Please enter one of the numbers shown.");
+				continue;
+			}
 			
 			//uses switch statement to match user's input to one of the available options
 			switch (choice) {
 			
 				//if user enters '1', shows them the available courses
 				case 1:
-					student.viewAllCourses(courses);
+					student.viewAllCourses(courses, CATALOG_PAGE_SIZE, scanner);
 					break;
 				
 				//if user enters '2', allows them to add a course to their list
@@ -194,13 +488,21 @@ public class Controller {
 					if ("q".equalsIgnoreCase(addCourseId)) break;
 					
 					//if course ID is found, adds the course to student's list
-					if (courses.containsKey(addCourseId)) {
-						student.addCourse(courses.get(addCourseId));
-						
-					//if course ID is not found, prints an error message
-					} else {
-						System.out.println("Course " + addCourseId + " not found.");
-					}					
+					//under the read lock, so an admin can't delete the course meanwhile,
+					//and through the journal, which records the request in order if the student got a seat or joined the waitlist
+					DATA_LOCK.readLock().lock();
+					try {
+						Course addCourse = courses.get(addCourseId);
+						if (addCourse != null) {
+							Messages.report(journal.enroll(student, addCourse), addCourse.getName());
+							
+						//if course ID is not found, prints an error message
+						} else {
+							System.out.println("Course " + addCourseId + " not found.");
+						}
+					} finally {
+						DATA_LOCK.readLock().unlock();
+					}
 					break;
 					
 				//if user enters '3', shows them their enrolled courses
@@ -220,14 +522,20 @@ public class Controller {
 					//quits if user enters "q"
 					if ("q".equalsIgnoreCase(dropCourseId)) break;
 					
-					//if course ID is found, drops the course from the student's list
-					if (courses.containsKey(dropCourseId)) {
-						student.dropCourse(courses.get(dropCourseId));
-						
-					//if course ID is not found, prints an error message
-					} else {
-						System.out.println("Course " + dropCourseId + " not found.");
-					}					
+					//if course ID is found, drops the course from the student's list, locking the same way as adding
+					DATA_LOCK.readLock().lock();
+					try {
+						Course dropCourse = courses.get(dropCourseId);
+						if (dropCourse != null) {
+							Messages.report(journal.drop(student, dropCourse), dropCourse.getName());
+							
+						//if course ID is not found, prints an error message
+						} else {
+							System.out.println("Course " + dropCourseId + " not found.");
+						}
+					} finally {
+						DATA_LOCK.readLock().unlock();
+					}
 					break;
 					
 				//if user enters '5', shows them the courses they've taken along with their grades
@@ -235,8 +543,19 @@ public class Controller {
 					student.viewGrades();
 					break;
 					
-				//if user enters '6', returns to the main menu
+				//if user enters '6', shows them the courses matching part of an ID or name
 				case 6:
+					System.out.println("Please enter the start of a course ID or words from its name, eg. 'CIT59' or 'software'.");
+					student.searchCourses(courses, scanner.nextLine(), CourseIndex.DEFAULT_LIMIT);
+					break;
+					
+				//if user enters '7', shows them the courses they could still join without a clash
+				case 7:
+					student.viewCoursesThatFit(courses);
+					break;
+					
+				//if user enters '8', returns to the main menu
+				case 8:
 					System.out.println("Returning to the main menu.");
 					return;
 					
@@ -253,11 +572,11 @@ public class Controller {
 	/**
 	 * Handles the professor login where users can view course info or view student list
 	 * @param courses map of existing courses
-	 * @param professors map of existing professors
+	 * @param professorLogins map of existing professors keyed by username
 	 * @param students map of existing students
 	 * @param scanner for user input
 	 */
-	private static void handleProfessorLogin(Map<String, Course> courses, Map<String, Professor> professors, Map<String, Student> students, Scanner scanner) {
+	private static void handleProfessorLogin(Map<String, Course> courses, Map<String, Professor> professorLogins, Map<String, Student> students, Scanner scanner) {
 		
 		//prompts user for username
 		System.out.println("Please enter your username, or type 'q' to quit.");
@@ -277,19 +596,21 @@ public class Controller {
 			return;
 		}
 		
-		//iterates through the list of existing students to authenticate the login
-		for (Professor professor : professors.values()) {
+		//looks up the professor by username to authenticate the login, counting an unknown username as a failed login
+		long start = System.nanoTime();
+		Professor professor = professorLogins.get(username);
+		if (professor == null) {
+			Metrics.LOGINS.record(false, System.nanoTime() - start);
+		}
 			
-			//if authenticated, prints a welcome message for the professor
-			if (professor.authenticate(username, password)) {
-				System.out.println();
-				System.out.println("-------------------------");
-				System.out.println("Welcome, " + professor.getName() + ":");
-				System.out.println("-------------------------");
-				handleProfessorActions(professor, courses, students, scanner);
-				return;
-				
-			}
+		//if authenticated, prints a welcome message for the professor
+		if (professor != null && professor.authenticate(username, password)) {
+			System.out.println();
+			System.out.println("-------------------------");
+			System.out.println("Welcome, " + professor.getName() + ":");
+			System.out.println("-------------------------");
+			handleProfessorActions(professor, courses, students, scanner);
+			return;
 			
 		}
 		
@@ -307,8 +628,19 @@ public class Controller {
 			professor.displayMenu();
 			System.out.println();
 			System.out.println("Please enter your option, eg. '1': ");
-			int choice = scanner.nextInt();
-			scanner.nextLine();
+			
+			//prompts user to enter a choice
+			int choice;
+			
+			//verifies that input is an integer
+			try {
+				choice = Integer.parseInt(scanner.nextLine().trim());
+				
+			//if not, reprompts user for a valid input
+			} catch (NumberFormatException e) {
+				System.out.println("Invalid input. Please enter one of the numbers shown.");
+				continue;
+			}
 			
 			//uses switch statement to match user's input to one of the available options
 			switch (choice) {
@@ -362,9 +694,14 @@ public class Controller {
 	 * @param courses map of existing courses
 	 * @param professors map of existing professors
 	 * @param students map of existing students
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param studentLogins map of existing students keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param journal to record changes in
 	 * @param scanner for user input
 	 */
-	private static void handleAdminLogin(Map<String, Admin> admins, Map<String, Course> courses, Map<String, Professor> professors, Map<String, Student> students, Scanner scanner) {
+	private static void handleAdminLogin(Map<String, Admin> admins, Map<String, Course> courses, Map<String, Professor> professors, Map<String, Student> students,
+			Map<String, Professor> professorLogins, Map<String, Student> studentLogins, Map<String, Professor> professorsByName, Journal journal, Scanner scanner) {
 		
 		//prompts user for username
 		System.out.println("Please enter your username, or type 'q' to quit.");
@@ -384,16 +721,20 @@ public class Controller {
 			return;
 		}
 		
-		//retrieves admin data from map
+		//retrieves admin data from map, counting an unknown username as a failed login
+		long start = System.nanoTime();
 		Admin admin = admins.get(username);
+		if (admin == null) {
+			Metrics.LOGINS.record(false, System.nanoTime() - start);
+		}
 		
 		//authenticates admin login
-		if (admin.authenticate(username, password)) {
+		if (admin != null && admin.authenticate(username, password)) {
 			System.out.println();
 			System.out.println("-------------------------");
 			System.out.println("Welcome, " + admin.getName() + ":");
 			System.out.println("-------------------------");
-			handleAdminActions(admin, courses, professors, students, scanner);
+			handleAdminActions(admin, courses, professors, students, professorLogins, studentLogins, professorsByName, journal, scanner);
 			
 		//otherwise, prints an error message if login can't be authenticated
 		} else {
@@ -408,9 +749,14 @@ public class Controller {
 	 * @param courses
 	 * @param professors
 	 * @param students
+	 * @param professorLogins
+	 * @param studentLogins
+	 * @param professorsByName
+	 * @param journal
 	 * @param scanner
 	 */
-	private static void handleAdminActions(Admin admin, Map<String, Course> courses, Map<String, Professor> professors, Map<String, Student> students, Scanner scanner) {
+	private static void handleAdminActions(Admin admin, Map<String, Course> courses, Map<String, Professor> professors, Map<String, Student> students,
+			Map<String, Professor> professorLogins, Map<String, Student> studentLogins, Map<String, Professor> professorsByName, Journal journal, Scanner scanner) {
 		
 		while (true) {
 			
@@ -418,15 +764,26 @@ public class Controller {
 			admin.displayMenu();
 			System.out.println();
 			System.out.println("Please enter your option, eg. '1': ");
-			int choice = scanner.nextInt();
-			scanner.nextLine();
+			
+			//prompts user to enter a choice
+			int choice;
+			
+			//verifies that input is an integer
+			try {
+				choice = Integer.parseInt(scanner.nextLine().trim());
+				
+			//if not, reprompts user for a valid input
+			} catch (NumberFormatException e) {
+				System.out.println("Invalid input. Please enter one of the numbers shown.");
+				continue;
+			}
 			
 			//uses switch statement to match user's input to one of the available options
 			switch (choice) {
 			
 				//if user enters '1', shows them all courses
 				case 1:
-					admin.viewAllCourses(courses);
+					admin.viewAllCourses(courses, CATALOG_PAGE_SIZE, scanner);
 					break;
 					
 				//if user enters '2', allows them to add a course to the system
@@ -464,12 +821,58 @@ public class Controller {
 					
 					//input capacity
 					System.out.println("Capacity: ");
-					int capacity = scanner.nextInt();
-					scanner.nextLine();
+					int capacity;
+					try {
+						capacity = Integer.parseInt(scanner.nextLine().trim());
+						
+					//if capacity isn't a number, prints an error message
+					} catch (NumberFormatException e) {
+						System.out.println("Capacity must be a whole number.");
+						break;
+					}
 					
 					//creates a new Course object based on the info entered
-					Course course = new Course(courseId, courseName, lecturer, days, startTime, endTime, capacity);
-					admin.addCourse(courses, professors, course, scanner);
+					Course course;
+					try {
+						course = new Course(courseId, courseName, lecturer, days, startTime, endTime, capacity);
+						
+					//if days or times are malformed, prints an error message
+					} catch (IllegalArgumentException e) {
+						System.out.println(e.getMessage());
+						break;
+					}
+					
+					//asks about a lecturer who isn't in the system before taking the lock,
+					//so other sessions aren't held up while the admin types
+					Professor newLecturer = null;
+					if (findLecturer(course, professors, professorsByName) == null) {
+						newLecturer = admin.promptForProfessor(professors, scanner);
+					}
+					
+					//changes the data under the write lock, since API requests and other sessions may be using it
+					DATA_LOCK.writeLock().lock();
+					try {
+						
+						//records the professor too if the admin had to add them for this course
+						Professor courseLecturer = findLecturer(course, professors, professorsByName);
+						if (courseLecturer == null && newLecturer != null) {
+							if (!admin.addProfessor(courses, professors, professorLogins, professorsByName, newLecturer)) {
+								break;
+							}
+							journal.addProfessor(newLecturer);
+							System.out.println("Successfully added new professor: " + newLecturer.getName());
+							courseLecturer = newLecturer;
+						}
+						
+						//the lecturer may have been deleted from another session meanwhile
+						if (courseLecturer == null) {
+							System.out.println("The professor " + course.getLecturer() + " isn't in the system.");
+						} else if (admin.addCourse(courses, courseLecturer, course)) {
+							journal.addCourse(course, courseLecturer);
+						}
+					} finally {
+						DATA_LOCK.writeLock().unlock();
+					}
 					break;
 					
 				//if user enters '3', allows them to delete a course from the system
@@ -478,7 +881,14 @@ public class Controller {
 					//prompts user for course ID to delete and stores it in a String
 					System.out.println("Enter the course ID of the course you want to delete: ");
 					String deleteCourseId = scanner.nextLine();
-					admin.deleteCourse(courses, deleteCourseId);
+					DATA_LOCK.writeLock().lock();
+					try {
+						if (admin.deleteCourse(courses, professorsByName, deleteCourseId)) {
+							journal.deleteCourse(deleteCourseId);
+						}
+					} finally {
+						DATA_LOCK.writeLock().unlock();
+					}
 					break;
 					
 				//if user enters '4', allows them to add a new professor to the system
@@ -508,7 +918,14 @@ public class Controller {
 					
 					//creates a new Professor object based on the info entered
 					Professor professor = new Professor(profId, profName, profUsername, profPassword);
-					admin.addProfessor(professors, professor);
+					DATA_LOCK.writeLock().lock();
+					try {
+						if (admin.addProfessor(courses, professors, professorLogins, professorsByName, professor)) {
+							journal.addProfessor(professor);
+						}
+					} finally {
+						DATA_LOCK.writeLock().unlock();
+					}
 					break;
 					
 				//if user enters '5', allows them to delete a professor from the system
@@ -517,7 +934,14 @@ public class Controller {
 					//prompts user for professor ID to delete and stores it in a String
 					System.out.println("Enter the professor ID of the professor you want to delete: ");
 					String deleteProfId = scanner.nextLine();
-					admin.deleteProfessor(professors, deleteProfId);
+					DATA_LOCK.writeLock().lock();
+					try {
+						if (admin.deleteProfessor(professors, professorLogins, professorsByName, deleteProfId)) {
+							journal.deleteProfessor(deleteProfId);
+						}
+					} finally {
+						DATA_LOCK.writeLock().unlock();
+					}
 					break;
 					
 				//if user enters '6', allows them to add a new student to the system
@@ -547,7 +971,14 @@ public class Controller {
 					
 					//creates a new Student object based on the info entered
 					Student student = new Student(studentId, studentName, studentUsername, studentPassword);
-					admin.addStudent(students, student);
+					DATA_LOCK.writeLock().lock();
+					try {
+						if (admin.addStudent(students, studentLogins, student)) {
+							journal.addStudent(student);
+						}
+					} finally {
+						DATA_LOCK.writeLock().unlock();
+					}
 					break;
 					
 				//if user enters '7', allows them to delete a student from the system
@@ -556,7 +987,14 @@ public class Controller {
 					//prompts user for student ID to delete and stores it in a String
 					System.out.println("Enter the student ID of the student you want to delete: ");
 					String deleteStudentId = scanner.nextLine();
-					admin.deleteStudent(students, deleteStudentId);
+					DATA_LOCK.writeLock().lock();
+					try {
+						if (admin.deleteStudent(students, studentLogins, deleteStudentId)) {
+							journal.deleteStudent(deleteStudentId);
+						}
+					} finally {
+						DATA_LOCK.writeLock().unlock();
+					}
 					break;
 					
 				//if user enters '8', returns to the main menu
@@ -571,4 +1009,29 @@ public class Controller {
 			}
 		}
 	}
+	
+	/**
+	 * Finds the professor a newly added course was assigned to
+	 * @param course that was added
+	 * @param professors map of existing professors
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @return lecturer of the course, or null if none
+	 */
+	private static Professor findLecturer(Course course, Map<String, Professor> professors, Map<String, Professor> professorsByName) {
+		
+		//usually the lecturer is found by name
+		Professor lecturer = professorsByName.get(Professor.normalizeName(course.getLecturer()));
+		if (lecturer != null) {
+			return lecturer;
+		}
+		
+		//otherwise, the admin added a professor under a different name, so looks for the one teaching the course
+		for (Professor professor : professors.values()) {
+			if (professor.getCoursesTaught().contains(course)) {
+				return professor;
+			}
+		}
+		return null;
+		
+	}
 }
@@ -0,0 +1,215 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import courses.Course;
+import courses.CourseIndex;
+import files.Journal;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+import server.ApiServer;
+
+/**
+ * Measures the throughput and latency of the API server under many simultaneous users
+ * Starts a server on a free port over generated courses and students, then runs simulated users that each log in
+ * and repeatedly look at their courses, enroll in a random course, check their grades, and drop the course again
+ * Prints the requests per second and the latency percentiles of each kind of request
+ * Run as
+ * java benchmarks.ApiLoadBenchmark [users] [seconds] [serverThreads]
+ * @author Katie
+ */
+public class ApiLoadBenchmark {
+
+	//constants
+
+	/**
+	 * Number of courses and students in the generated data
+	 */
+	private static final int COURSES = 2000;
+	private static final int STUDENTS = 100000;
+
+	/**
+	 * Kinds of request the simulated users make, in the order they make them
+	 */
+	private static final String[] ACTIONS = {"courses", "enroll", "grades", "drop"};
+
+
+	public static void main(String[] args) throws Exception {
+
+		int users = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int serverThreads = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+		//generates courses spread over the week with plenty of seats, and students who have completed a few courses
+		CourseIndex courses = new CourseIndex();
+		Map<String, Professor> professors = new ConcurrentHashMap<>();
+		Map<String, Professor> professorsByName = new ConcurrentHashMap<>();
+		Map<String, Student> students = new ConcurrentHashMap<>();
+		Map<String, Student> studentLogins = new ConcurrentHashMap<>();
+		String[] days = {"MW", "TR", "F", "MWF", "S"};
+		for (int i = 0; i < COURSES; i++) {
+			int hour = 8 + (i / days.length) % 12;
+			Course course = new Course("CIS" + (1000 + i), "Course " + i, "Professor " + i % 100, days[i % days.length],
+					hour + ":00", hour + ":50", users);
+			courses.put(course.getId(), course);
+		}
+		for (int i = 0; i < 100; i++) {
+			Professor professor = new Professor("P" + i, "Professor " + i, "prof" + i, "password590");
+			professors.put(professor.getId(), professor);
+			professorsByName.put(Professor.normalizeName(professor.getName()), professor);
+		}
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student(String.format("%07d", i), "Student Name" + i, "student" + i, "password590");
+			student.addCompletedCourse("CIS" + (1000 + i % COURSES), "A");
+			students.put(student.getId(), student);
+			studentLogins.put(student.getUsername(), student);
+		}
+
+		//starts the server, recording changes in a journal that syncs in groups the way the system does by default
+		File journalFile = Files.createTempFile("apiLoadBenchmark", ".dat").toFile();
+		Journal journal = new Journal(journalFile.getPath(), 32, 200);
+		ApiServer server = new ApiServer(null, 0, serverThreads, courses, new ConcurrentHashMap<String, Admin>(), professors,
+				new ConcurrentHashMap<>(), professorsByName, students, studentLogins, journal, new ReentrantReadWriteLock());
+		server.start();
+		String base = "http://localhost:" + server.getPort() + "/api/";
+
+		//silences what enrolling prints while the users run
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newFixedThreadPool(8)).build();
+		ExecutorService userThreads = Executors.newFixedThreadPool(users);
+		long[][][] latencies = new long[users][ACTIONS.length][];
+		int[][] counts = new int[users][ACTIONS.length];
+		int[] errors = new int[users];
+		long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(1, seconds / 4));
+		long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+
+		List<Future<?>> running = new ArrayList<>();
+		for (int u = 0; u < users; u++) {
+			int user = u;
+			running.add(userThreads.submit(() -> {
+
+				Random random = new Random(user);
+				for (int a = 0; a < ACTIONS.length; a++) {
+					latencies[user][a] = new long[1024];
+				}
+				String token = login(client, base, "student" + user);
+
+				//runs through the actions until time is up, only recording them once the warmup is over
+				while (System.nanoTime() < end) {
+					String courseId = "CIS" + (1000 + random.nextInt(COURSES));
+					for (int a = 0; a < ACTIONS.length; a++) {
+						HttpRequest request = request(base, ACTIONS[a], token, courseId);
+						long start = System.nanoTime();
+						HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+						long nanos = System.nanoTime() - start;
+						if (response.statusCode() >= 500) {
+							errors[user]++;
+						}
+						if (start >= warmupEnd) {
+							if (counts[user][a] == latencies[user][a].length) {
+								latencies[user][a] = Arrays.copyOf(latencies[user][a], counts[user][a] * 2);
+							}
+							latencies[user][a][counts[user][a]++] = nanos;
+						}
+					}
+				}
+				return null;
+
+			}));
+		}
+		for (Future<?> user : running) {
+			user.get();
+		}
+		System.setOut(out);
+
+		//merges each user's latencies and prints the results for each kind of request
+		System.out.printf("%d users, %d s measured, %d server threads%n", users, seconds, serverThreads);
+		System.out.printf("%-10s %10s %10s %10s %10s %10s %10s%n", "Request", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+		long total = 0;
+		for (int a = 0; a < ACTIONS.length; a++) {
+			int count = 0;
+			for (int u = 0; u < users; u++) {
+				count += counts[u][a];
+			}
+			long[] merged = new long[count];
+			int position = 0;
+			for (int u = 0; u < users; u++) {
+				System.arraycopy(latencies[u][a], 0, merged, position, counts[u][a]);
+				position += counts[u][a];
+			}
+			Arrays.sort(merged);
+			total += count;
+			System.out.printf("%-10s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n", ACTIONS[a], count, (double) count / seconds,
+					percentile(merged, 0.50), percentile(merged, 0.90), percentile(merged, 0.99), percentile(merged, 1.0));
+		}
+		System.out.printf("%-10s %10d %10.1f%n", "all", total, (double) total / seconds);
+		System.out.println("Server errors: " + Arrays.stream(errors).sum());
+
+		//stops everything and cleans up the journal
+		userThreads.shutdown();
+		server.close();
+		journal.close();
+		journalFile.delete();
+		System.exit(0);
+
+	}
+
+	/**
+	 * Logs a student in and returns the session token
+	 */
+	private static String login(HttpClient client, String base, String username) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(base + "login")).POST(HttpRequest.BodyPublishers.ofString(
+				"{\"role\": \"student\", \"username\": \"" + username + "\", \"password\": \"password590\"}")).build();
+		String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+		int start = body.indexOf("\"token\":\"") + "\"token\":\"".length();
+		return body.substring(start, body.indexOf('"', start));
+	}
+
+	/**
+	 * Builds the request for one of the actions
+	 */
+	private static HttpRequest request(String base, String action, String token, String courseId) {
+		HttpRequest.Builder request;
+		switch (action) {
+			case "courses":
+				request = HttpRequest.newBuilder(URI.create(base + "student/courses")).GET();
+				break;
+			case "enroll":
+				request = HttpRequest.newBuilder(URI.create(base + "student/courses"))
+						.POST(HttpRequest.BodyPublishers.ofString("{\"courseId\": \"" + courseId + "\"}"));
+				break;
+			case "grades":
+				request = HttpRequest.newBuilder(URI.create(base + "student/grades")).GET();
+				break;
+			default:
+				request = HttpRequest.newBuilder(URI.create(base + "student/courses/" + courseId)).DELETE();
+		}
+		return request.header("Authorization", "Bearer " + token).build();
+	}
+
+	/**
+	 * Gets a percentile of sorted latencies in milliseconds
+	 */
+	private static double percentile(long[] sorted, double fraction) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(fraction * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+	}
+
+}
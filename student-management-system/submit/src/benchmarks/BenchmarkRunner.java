@@ -0,0 +1,197 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.regex.Pattern;
+
+/**
+ * Runs microbenchmarks the way a JMH run would: warmup iterations to let the JIT settle, then timed
+ * iterations whose scores are averaged with a confidence interval
+ * Each iteration calls the benchmark over and over for a fixed amount of time, folding every result into
+ * a sink so the JIT can't drop the work, and counts the memory allocated on the benchmark thread
+ * Anything the code under test prints is thrown away while it runs, so printing doesn't swamp the timings
+ * Results are printed as a table once each benchmark finishes
+ * @author Katie
+ */
+public class BenchmarkRunner {
+
+	//instance variables
+
+	/**
+	 * Number of warmup and measured iterations, and how long each iteration runs
+	 */
+	private final int warmups;
+	private final int iterations;
+	private final long iterationNanos;
+
+	/**
+	 * Benchmarks to run, matched against "name:param"
+	 */
+	private final Pattern filter;
+
+	/**
+	 * Where results are printed, since System.out is silenced while benchmarks run
+	 * This is System.out when the runner is created, so callers can silence System.out for their setup too
+	 */
+	private final PrintStream out = System.out;
+
+	/**
+	 * Counts the memory allocated by a thread
+	 */
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Results folded together so the benchmarks' work can't be optimized away
+	 */
+	private long sink;
+	private boolean headerPrinted;
+
+
+	//constructor
+
+	/**
+	 * Creates a runner
+	 * @param warmups number of iterations run before measuring
+	 * @param iterations number of measured iterations
+	 * @param iterationMillis how long each iteration runs, at least one call
+	 * @param filter regular expression benchmarks are run for if found in "name:param"
+	 */
+	public BenchmarkRunner(int warmups, int iterations, long iterationMillis, String filter) {
+		this.warmups = warmups;
+		this.iterations = iterations;
+		this.iterationNanos = iterationMillis * 1000000;
+		this.filter = Pattern.compile(filter);
+	}
+
+
+	//methods
+
+	/**
+	 * Checks if a benchmark is selected by the filter, so callers can skip setting it up
+	 * @param name of the benchmark
+	 * @param param value the benchmark is run with, or "" if none
+	 */
+	public boolean selected(String name, String param) {
+		return filter.matcher(name + ":" + param).find();
+	}
+
+	/**
+	 * Runs a benchmark and prints its score, unless it isn't selected
+	 * @param name of the benchmark
+	 * @param param value the benchmark is run with, or "" if none
+	 * @param benchmark to run, called once per operation
+	 */
+	public void run(String name, String param, Benchmark benchmark) throws Exception {
+
+		if (!selected(name, param)) {
+			return;
+		}
+
+		PrintStream previous = System.out;
+		long threadId = Thread.currentThread().getId();
+		double[] scores = new double[iterations];
+		long totalOps = 0;
+		long totalNanos = 0;
+		long totalBytes = 0;
+
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			for (int i = -warmups; i < iterations; i++) {
+
+				//calls the benchmark until the iteration's time is up
+				long ops = 0;
+				long allocated = threads.getThreadAllocatedBytes(threadId);
+				long start = System.nanoTime();
+				long elapsed;
+				do {
+					sink += benchmark.run();
+					ops++;
+					elapsed = System.nanoTime() - start;
+				} while (elapsed < iterationNanos);
+				long bytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+				//only measured iterations count
+				if (i >= 0) {
+					scores[i] = ops * 1e9 / elapsed;
+					totalOps += ops;
+					totalNanos += elapsed;
+					totalBytes += bytes;
+				}
+
+			}
+		} finally {
+			System.setOut(previous);
+		}
+
+		print(name, param, scores, totalNanos / (double) totalOps, totalBytes / (double) totalOps,
+				totalBytes / (totalNanos / 1e9) / (1 << 20));
+
+	}
+
+	/**
+	 * Prints a row of the results table, with the mean throughput and its 99.9% confidence interval
+	 */
+	private void print(String name, String param, double[] scores, double nanosPerOp, double bytesPerOp, double megabytesPerSecond) {
+
+		double mean = 0;
+		for (double score : scores) {
+			mean += score;
+		}
+		mean /= scores.length;
+
+		//uses the normal approximation rather than Student's t, which overstates the error by a little for few iterations
+		double variance = 0;
+		for (double score : scores) {
+			variance += (score - mean) * (score - mean);
+		}
+		double error = scores.length > 1 ? 3.29 * Math.sqrt(variance / (scores.length - 1) / scores.length) : Double.NaN;
+
+		if (!headerPrinted) {
+			out.printf("%-32s %9s %14s %12s %14s %12s %11s%n", "Benchmark", "Param", "ops/s", "error", "time/op", "alloc B/op", "alloc MB/s");
+			headerPrinted = true;
+		}
+		out.printf("%-32s %9s %14.3f %12s %14s %12.1f %11.1f%n", name, param, mean,
+				Double.isNaN(error) ? "" : String.format("+- %.3f", error), formatTime(nanosPerOp), bytesPerOp, megabytesPerSecond);
+
+	}
+
+	/**
+	 * Formats a time per operation in the most readable unit
+	 */
+	private static String formatTime(double nanos) {
+		if (nanos >= 1e9) {
+			return String.format("%.3f s", nanos / 1e9);
+		} else if (nanos >= 1e6) {
+			return String.format("%.3f ms", nanos / 1e6);
+		} else if (nanos >= 1e3) {
+			return String.format("%.3f us", nanos / 1e3);
+		}
+		return String.format("%.1f ns", nanos);
+	}
+
+	/**
+	 * Gets the results folded together so far, which callers can print so the work is kept
+	 */
+	public long getSink() {
+		return sink;
+	}
+
+
+	//nested classes
+
+	/**
+	 * One operation of a benchmark
+	 */
+	public interface Benchmark {
+
+		/**
+		 * Runs the operation once
+		 * @return a value that depends on the work done, so the JIT can't drop it
+		 */
+		long run() throws Exception;
+
+	}
+
+}
@@ -0,0 +1,396 @@
+package benchmarks;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import courses.Course;
+import courses.CourseFilter;
+import courses.CourseIndex;
+import courses.SeatResult;
+import files.FileInfoReader;
+import roles.Student;
+
+/**
+ * Baseline throughput and allocation for the hot paths of the system, run on BenchmarkRunner
+ * Covers loading the course and student info files at several sizes, checking two courses for a time conflict,
+ * adding and dropping courses for a student with a large schedule, adding students to a large roster alone and
+ * while other threads change it too, looking up and authenticating a student login the way the Controller does, and searching and filtering a large catalog
+ * Each benchmark is run for 5 warmup and 5 measured iterations of one second by default
+ * Run with a heap big enough for the largest size, e.g.
+ * java -Xms4g -Xmx4g benchmarks.CoreBenchmarks [filter] [sizes] [iterations]
+ * where filter is a regular expression matched against "benchmark:param", e.g. "loadStudents:10000$",
+ * and sizes is a comma-separated list of row counts for the file loads
+ * @author Katie
+ */
+public class CoreBenchmarks {
+
+	//constants
+
+	/**
+	 * Number of courses a student is enrolled in for the schedule benchmarks
+	 */
+	private static final int SCHEDULE_SIZE = 1000;
+
+	/**
+	 * Number of students already enrolled in the course for the roster benchmark
+	 */
+	private static final int ROSTER_SIZE = 100000;
+
+	/**
+	 * Number of student logins to look up among
+	 */
+	private static final int LOGINS = 1000000;
+
+	/**
+	 * Number of courses searched among
+	 */
+	private static final int CATALOG_SIZE = 50000;
+
+
+	public static void main(String[] args) throws Exception {
+
+		String filter = args.length > 0 ? args[0] : "";
+		String sizes = args.length > 1 ? args[1] : "10000,100000,1000000";
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		BenchmarkRunner runner = new BenchmarkRunner(iterations, iterations, 1000, filter);
+
+		//silences what the system prints while the benchmarks are set up, the runner still prints results
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		Path dir = Files.createTempDirectory("coreBenchmarks");
+		try {
+			for (String size : sizes.split(",")) {
+				fileLoads(runner, dir, Integer.parseInt(size.trim()));
+			}
+			timeConflicts(runner);
+			schedules(runner);
+			rosters(runner);
+			logins(runner);
+			searches(runner);
+			filters(runner);
+		} finally {
+
+			//cleans up the generated files
+			for (File file : dir.toFile().listFiles()) {
+				file.delete();
+			}
+			dir.toFile().delete();
+			System.setOut(out);
+
+		}
+
+		//prints the sink so the benchmarks' work is kept
+		System.out.println("(sink " + runner.getSink() + ")");
+
+	}
+
+	/**
+	 * Loads generated course and student info files with the given number of rows
+	 */
+	private static void fileLoads(BenchmarkRunner runner, Path dir, int rows) throws Exception {
+
+		String param = String.valueOf(rows);
+		FileInfoReader fileReader = new FileInfoReader();
+
+		if (runner.selected("loadCourses", param)) {
+			String courseFile = dir.resolve("courseInfo" + rows + ".txt").toString();
+			generateCourses(courseFile, rows);
+			runner.run("loadCourses", param, () -> {
+				Map<String, Course> courses = new HashMap<>();
+				fileReader.loadCourses(courseFile, courses);
+				return courses.size();
+			});
+			new File(courseFile).delete();
+		}
+
+		if (runner.selected("loadStudents", param)) {
+			String studentFile = dir.resolve("studentInfo" + rows + ".txt").toString();
+			generateStudents(studentFile, rows);
+			runner.run("loadStudents", param, () -> {
+				Map<String, Student> students = new HashMap<>();
+				fileReader.loadStudents(studentFile, students, new HashMap<>());
+				return students.size();
+			});
+			new File(studentFile).delete();
+		}
+
+	}
+
+	/**
+	 * Checks pairs of courses for a time conflict, a mix of different days, overlapping times, and back-to-back times
+	 */
+	private static void timeConflicts(BenchmarkRunner runner) throws Exception {
+
+		Course[] courses = new Course[1024];
+		String[] days = {"MW", "TR", "F", "MWF", "S"};
+		for (int i = 0; i < courses.length; i++) {
+			int start = 8 * 60 + (i * 37) % (10 * 60);
+			courses[i] = new Course("CIS" + i, "Course " + i, "Professor", days[i % days.length],
+					time(start), time(start + 50 + i % 3 * 15), 100);
+		}
+
+		int[] next = {0};
+		runner.run("hasTimeConflict", "", () -> {
+			int i = next[0]++ & (courses.length - 1);
+			return courses[i].hasTimeConflict(courses[(i * 7 + 1) & (courses.length - 1)]) ? 1 : 0;
+		});
+
+	}
+
+	/**
+	 * Adds and drops courses for a student already enrolled in many short courses spread over the week
+	 */
+	private static void schedules(BenchmarkRunner runner) throws Exception {
+
+		Student student = new Student("001", "Jane Smith", "janesmith", "pass123");
+		int perDay = SCHEDULE_SIZE / 7 + 1;
+		int length = 23 * 60 / perDay;
+		for (int i = 0; i < SCHEDULE_SIZE; i++) {
+			int start = (i / 7) * length;
+			student.addCourse(new Course("CIS" + i, "Course " + i, "Professor", "MTWRFSU".substring(i % 7, i % 7 + 1),
+					time(start), time(start + length - 1), 100));
+		}
+		String param = String.valueOf(SCHEDULE_SIZE);
+
+		//a course in the free hour at the end of every day, added and dropped again
+		Course free = new Course("CIS9999", "Free", "Professor", "MTWRFSU", "23:05", "23:55", 100);
+		runner.run("addDropCourse", param, () -> {
+			boolean added = student.addCourse(free);
+			boolean dropped = student.dropCourse(free);
+			return added && dropped ? 1 : 0;
+		});
+
+		//a course overlapping the middle of the schedule, which is turned away
+		Course conflicting = new Course("CIS9998", "Conflicting", "Professor", "W", "12:00", "12:30", 100);
+		runner.run("addCourseConflict", param, () -> student.addCourse(conflicting) ? 1 : 0);
+
+	}
+
+	/**
+	 * Adds and removes a student in a course that already has a large roster
+	 */
+	private static void rosters(BenchmarkRunner runner) throws Exception {
+
+		Course course = new Course("CIS101", "Intro to CS", "Professor", "MW", "10:00", "11:30", ROSTER_SIZE + 1);
+		for (int i = 0; i < ROSTER_SIZE; i++) {
+			course.addStudent(String.format("%07d", i));
+		}
+
+		runner.run("addRemoveStudent", String.valueOf(ROSTER_SIZE), () -> {
+			boolean added = course.addStudent("new");
+			boolean removed = course.removeStudent("new");
+			return added && removed ? 1 : 0;
+		});
+
+		//a full course turns the student away
+		runner.run("addStudentFull", String.valueOf(ROSTER_SIZE), () -> {
+			course.addStudent("new");
+			return course.addStudent("another") ? 1 : 0;
+		});
+		course.removeStudent("new");
+
+		//adds and removes a student while every other core does the same in the course, as when registration opens
+		int others = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		if (runner.selected("addRemoveStudentContended", String.valueOf(others))) {
+			course.setCapacity(ROSTER_SIZE + 1 + others);
+			AtomicBoolean stop = new AtomicBoolean();
+			List<Thread> threads = new ArrayList<>();
+			for (int i = 0; i < others; i++) {
+				String studentId = "other" + i;
+				Thread thread = new Thread(() -> {
+					while (!stop.get()) {
+						course.addStudent(studentId);
+						course.removeStudent(studentId);
+					}
+				});
+				thread.setDaemon(true);
+				thread.start();
+				threads.add(thread);
+			}
+			try {
+				runner.run("addRemoveStudentContended", String.valueOf(others), () -> {
+					boolean added = course.addStudent("new");
+					boolean removed = course.removeStudent("new");
+					return added && removed ? 1 : 0;
+				});
+			} finally {
+				stop.set(true);
+				for (Thread thread : threads) {
+					thread.join();
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Looks up and authenticates student logins the way Controller.handleStudentLogin does
+	 */
+	private static void logins(BenchmarkRunner runner) throws Exception {
+
+		if (!runner.selected("login", String.valueOf(LOGINS))) {
+			return;
+		}
+
+		Map<String, Student> studentLogins = new HashMap<>();
+		String[] usernames = new String[LOGINS];
+		for (int i = 0; i < LOGINS; i++) {
+			usernames[i] = "student" + i;
+			studentLogins.put(usernames[i], new Student(String.format("%07d", i), "Student Name" + i, usernames[i], "password590"));
+		}
+
+		//usernames are looked up in a scattered order, as new strings the way they come from the Scanner
+		int[] next = {0};
+		runner.run("login", String.valueOf(LOGINS), () -> {
+			int i = (int) Math.floorMod(next[0]++ * 2654435761L, (long) LOGINS);
+			String username = new String(usernames[i].toCharArray());
+			Student student = studentLogins.get(username);
+			return student != null && student.authenticate(username, "password590") ? 1 : 0;
+		});
+
+	}
+
+	/**
+	 * Searches a large catalog by the start of a course ID and by words from a course name
+	 */
+	private static void searches(BenchmarkRunner runner) throws Exception {
+
+		String param = String.valueOf(CATALOG_SIZE);
+		if (!runner.selected("searchIdPrefix", param) && !runner.selected("searchWord", param) && !runner.selected("searchWords", param)) {
+			return;
+		}
+
+		//courses in 50 departments, named with a few of a small set of words so each word is shared by many courses
+		String[] departments = new String[50];
+		for (int i = 0; i < departments.length; i++) {
+			departments[i] = "" + (char) ('A' + i % 26) + (char) ('A' + i / 26) + (char) ('A' + i * 7 % 26);
+		}
+		String[] words = {"Introduction", "Advanced", "Software", "Systems", "Data", "Theory", "Design", "Networks",
+				"Machine", "Learning", "Computer", "Graphics", "Security", "Databases", "Algorithms", "Seminar"};
+		CourseIndex courses = new CourseIndex();
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			String id = departments[i % departments.length] + (1000 + i / departments.length);
+			String name = words[i % words.length] + " " + words[i * 7 % words.length] + " " + words[i * 11 % words.length] + " " + i;
+			courses.put(id, new Course(id, name, "Professor", "MW", "10:00", "11:30", 100));
+		}
+
+		runner.run("searchIdPrefix", param, () -> courses.search("AAA10").size());
+		runner.run("searchWord", param, () -> courses.search("intro").size());
+		runner.run("searchWords", param, () -> courses.search("software des").size());
+
+	}
+
+	/**
+	 * Filters a large catalog by days, times, lecturer, and open seats, finds the courses fitting a student's schedule,
+	 * and enrolls in a course the index follows
+	 */
+	private static void filters(BenchmarkRunner runner) throws Exception {
+
+		String param = String.valueOf(CATALOG_SIZE);
+		boolean selected = false;
+		for (String name : new String[] {"filterDaysTimes", "filterNarrow", "filterLecturer", "filterOpenSeats", "fitSchedule", "enrollIndexed", "enrollPlain"}) {
+			selected |= runner.selected(name, param);
+		}
+		if (!selected) {
+			return;
+		}
+
+		//courses spread over the week and the day, taught by 5000 lecturers, with a random number of seats taken
+		String[] days = {"MW", "TR", "MWF", "F", "M", "T", "W", "R", "S"};
+		Random random = new Random(590);
+		CourseIndex courses = new CourseIndex();
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			int start = 8 * 60 + random.nextInt(12) * 60 + random.nextInt(4) * 15;
+			Course course = new Course("CIS" + i, "Course " + i, "Professor " + i % 5000, days[i % days.length],
+					time(start), time(start + 80), 50);
+			for (int taken = random.nextInt(51); taken > 0; taken--) {
+				course.enroll("S" + taken);
+			}
+			courses.put(course.getId(), course);
+		}
+
+		//the example from students: Tuesday/Thursday courses starting after 10:00 with open seats
+		CourseFilter daysAndTimes = new CourseFilter().on("TR").startingFrom("10:00").withOpenSeats(1);
+		runner.run("filterDaysTimes", param, () -> courses.filter(daysAndTimes).size());
+
+		//a narrow window on one day, where the bitmaps leave few candidates
+		CourseFilter narrow = new CourseFilter().onlyOn("S").startingFrom("19:00").endingBy("21:00");
+		runner.run("filterNarrow", param, () -> courses.filter(narrow).size());
+
+		//a lecturer's courses with open seats
+		CourseFilter lecturer = new CourseFilter().taughtBy("Professor 4242").withOpenSeats(1);
+		runner.run("filterLecturer", param, () -> courses.filter(lecturer).size());
+
+		//courses with plenty of open seats
+		CourseFilter roomy = new CourseFilter().withOpenSeats(45);
+		runner.run("filterOpenSeats", param, () -> courses.filter(roomy).size());
+
+		//every open course fitting around a full-time student's five courses, having completed a hundred others
+		Student student = new Student("001", "Jane Smith", "janesmith", "pass123");
+		for (int i = 0; student.getEnrolledCourses().size() < 5; i += 7) {
+			student.addCourse(courses.get("CIS" + i));
+		}
+		for (int i = 1; i <= 100; i++) {
+			student.addCompletedCourse("CIS" + (i * 13), "A");
+		}
+		runner.run("fitSchedule", param, () -> student.findCoursesThatFit(courses).size());
+
+		//enrolling and withdrawing moves the course among the courses ordered by open seats
+		Course followed = courses.get("CIS42");
+		runner.run("enrollIndexed", param, () -> {
+			boolean enrolled = followed.enroll("new") == SeatResult.SEATED;
+			boolean withdrawn = followed.withdraw("new") == SeatResult.WITHDRAWN;
+			return enrolled && withdrawn ? 1 : 0;
+		});
+		Course plain = new Course("CIS42", "Course 42", "Professor 42", "MW", "10:00", "11:20", 50);
+		runner.run("enrollPlain", param, () -> {
+			boolean enrolled = plain.enroll("new") == SeatResult.SEATED;
+			boolean withdrawn = plain.withdraw("new") == SeatResult.WITHDRAWN;
+			return enrolled && withdrawn ? 1 : 0;
+		});
+
+	}
+
+	/**
+	 * Formats minutes after midnight as a time, i.e. 630 as 10:30
+	 */
+	private static String time(int minutes) {
+		return String.format("%d:%02d", minutes / 60, minutes % 60);
+	}
+
+	/**
+	 * Writes a course info file with the given number of courses spread over the week
+	 */
+	private static void generateCourses(String courseFile, int courseCount) throws IOException {
+
+		String[] days = {"MW", "TR", "F", "MWF", "S"};
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(courseFile), 1 << 16)) {
+			for (int i = 0; i < courseCount; i++) {
+				int hour = 8 + (i / days.length) % 12;
+				writer.write("CIS" + i + "; Course " + i + "; Professor " + (i % 50) + "; "
+						+ days[i % days.length] + "; " + hour + ":00; " + hour + ":50; 100\n");
+			}
+		}
+
+	}
+
+	/**
+	 * Writes a student info file with the given number of students, each with a few completed courses
+	 */
+	private static void generateStudents(String studentFile, int studentCount) throws IOException {
+
+		String[] grades = {"A", "A-", "B+", "B", "C"};
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(studentFile), 1 << 16)) {
+			for (int i = 0; i < studentCount; i++) {
+				writer.write(String.format("%07d; Student Name%d; student%d; password590; CIS%d: %s, CIS%d: %s, CIS%d: %s%n",
+						i, i, i, 100 + i % 200, grades[i % grades.length], 100 + (i + 7) % 200,
+						grades[(i + 1) % grades.length], 100 + (i + 13) % 200, grades[(i + 2) % grades.length]));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,370 @@
+package benchmarks;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+/**
+ * Generates large, realistic info files in the same formats FileInfoReader reads, for sizing and benchmarking
+ * Courses are spread over departments, meeting patterns, and times of day the way a university catalog is,
+ * each lectured by one of the generated professors, and students have completed a few of the courses with a
+ * realistic spread of grades
+ * The same seed always generates the same files, and each line is worked out from its number alone,
+ * so the files are streamed to disk and can be far larger than the heap
+ * Run as
+ * java benchmarks.DatasetGenerator directory [students] [courses] [professors] [seed]
+ * @author Katie
+ */
+public class DatasetGenerator {
+
+	//constants
+
+	/**
+	 * Departments course IDs start with
+	 */
+	private static final String[] DEPARTMENTS = {"CIS", "CIT", "ESE", "MATH", "PHYS", "CHEM", "BIOL", "ECON",
+			"STAT", "PSYC", "HIST", "ENGL", "PHIL", "MEAM", "BE", "CBE", "MSE", "LING", "COGS", "NETS"};
+
+	/**
+	 * Words course names are made of
+	 */
+	private static final String[] LEVELS = {"Introduction to", "Foundations of", "Topics in", "Advanced",
+			"Seminar in", "Principles of", "Applied", "Theory of"};
+	private static final String[] TOPICS = {"Algorithms", "Data Structures", "Programming Languages", "Databases",
+			"Operating Systems", "Networks", "Machine Learning", "Linear Algebra", "Probability", "Statistics",
+			"Mechanics", "Thermodynamics", "Organic Chemistry", "Genetics", "Microeconomics", "Macroeconomics",
+			"Cognitive Science", "Ethics", "Logic", "World History", "Literature", "Signals and Systems",
+			"Computer Architecture", "Software Engineering", "Graphics", "Cryptography", "Robotics", "Optimization"};
+
+	/**
+	 * Names people are given, with up to 26 middle initials between them
+	 */
+	private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+			"Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+			"Sarah", "Charles", "Karen", "Wei", "Mei", "Hiroshi", "Yuki", "Arjun", "Priya", "Carlos", "Sofia",
+			"Ahmed", "Fatima", "Ivan", "Olga", "Kwame", "Amara", "Lars", "Ingrid", "Mateo", "Lucia", "Noah", "Emma"};
+	private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+			"Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore",
+			"Jackson", "Martin", "Lee", "Wu", "Chen", "Wang", "Kim", "Nguyen", "Patel", "Singh", "Tanaka", "Sato",
+			"Mueller", "Schmidt", "Rossi", "Silva", "Costa", "Ivanov", "Okafor", "Mensah", "Hansen", "Larsen", "Cohen"};
+
+	/**
+	 * Meeting patterns with how often each occurs out of 100, and how long each meeting lasts in minutes
+	 */
+	private static final String[] DAYS = {"MW", "TR", "MWF", "M", "T", "W", "R", "F", "S"};
+	private static final int[] DAY_WEIGHTS = {28, 30, 20, 4, 4, 4, 4, 4, 2};
+	private static final int[] DAY_MINUTES = {80, 80, 50, 170, 170, 170, 170, 170, 110};
+
+	/**
+	 * Start times as half hours after 8:00, with how often each occurs out of 100, most courses meeting late morning
+	 */
+	private static final int[] START_WEIGHTS = {4, 6, 9, 10, 10, 9, 6, 8, 8, 7, 6, 5, 4, 3, 2, 2, 1};
+
+	/**
+	 * Course capacities with how often each occurs out of 100
+	 */
+	private static final int[] CAPACITIES = {15, 25, 40, 60, 80, 120, 200, 300};
+	private static final int[] CAPACITY_WEIGHTS = {15, 20, 20, 15, 10, 10, 6, 4};
+
+	/**
+	 * Letter grades with how often each is given out of 100
+	 */
+	private static final String[] GRADES = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F"};
+	private static final int[] GRADE_WEIGHTS = {4, 22, 15, 14, 13, 9, 7, 6, 4, 3, 3};
+
+	/**
+	 * Most courses a student has completed
+	 */
+	private static final int MAX_COMPLETED = 32;
+
+	/**
+	 * Size of the buffer each file is written through
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+
+	//instance variables
+
+	/**
+	 * Number of students, courses, professors, and admins to generate
+	 */
+	private final long students;
+	private final int courses;
+	private final int professors;
+	private final int admins;
+
+	/**
+	 * Seed every line is generated from
+	 */
+	private final long seed;
+
+
+	//constructor
+
+	/**
+	 * Creates a generator
+	 * @param students number of students
+	 * @param courses number of courses
+	 * @param professors number of professors, who lecture the courses between them
+	 * @param admins number of admins
+	 * @param seed the same seed always generates the same files
+	 * @throws IllegalArgumentException if a number is out of range or there are more professors than unique names
+	 */
+	public DatasetGenerator(long students, int courses, int professors, int admins, long seed) {
+
+		//checks for numbers that can't make valid files
+		if (students < 0 || courses < 1 || professors < 1 || admins < 0) {
+			throw new IllegalArgumentException("There must be at least one course and one professor.");
+		}
+		if (courses > DEPARTMENTS.length * 9900) {
+			throw new IllegalArgumentException("Cannot generate more than " + DEPARTMENTS.length * 9900 + " courses.");
+		}
+		if (professors > FIRST_NAMES.length * 26 * LAST_NAMES.length) {
+			throw new IllegalArgumentException("Cannot generate more than " + FIRST_NAMES.length * 26 * LAST_NAMES.length + " professors.");
+		}
+
+		this.students = students;
+		this.courses = courses;
+		this.professors = professors;
+		this.admins = admins;
+		this.seed = seed;
+
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+			System.out.println("Usage: java benchmarks.DatasetGenerator directory [students] [courses] [professors] [seed]");
+			return;
+		}
+		long students = args.length > 1 ? Long.parseLong(args[1]) : 1000000;
+		int courses = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+		int professors = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, courses / 4);
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 590;
+
+		File dir = new File(args[0]);
+		dir.mkdirs();
+		long start = System.nanoTime();
+		new DatasetGenerator(students, courses, professors, 10, seed).writeAll(dir.getPath());
+		System.out.printf("Generated %d students, %d courses, and %d professors in %d ms, studentInfo.txt is %d MB%n",
+				students, courses, professors, (System.nanoTime() - start) / 1000000,
+				new File(dir, "studentInfo.txt").length() / (1024 * 1024));
+
+	}
+
+	/**
+	 * Writes courseInfo.txt, profInfo.txt, adminInfo.txt, and studentInfo.txt to a directory
+	 * @param dir to write the files in
+	 * @throws IOException if an error occurs while writing a file
+	 */
+	public void writeAll(String dir) throws IOException {
+		writeCourses(new File(dir, "courseInfo.txt").getPath());
+		writeProfessors(new File(dir, "profInfo.txt").getPath());
+		writeAdmins(new File(dir, "adminInfo.txt").getPath());
+		writeStudents(new File(dir, "studentInfo.txt").getPath());
+	}
+
+	/**
+	 * Writes the course info file: ID; name; lecturer; days; start time; end time; capacity
+	 * @param fileName to write
+	 * @throws IOException if an error occurs while writing the file
+	 */
+	public void writeCourses(String fileName) throws IOException {
+
+		try (Writer writer = open(fileName)) {
+			StringBuilder line = new StringBuilder(128);
+			for (int i = 0; i < courses; i++) {
+				Random random = random(1, i);
+
+				//picks a meeting pattern and a start time that ends by 22:00
+				int pattern = pick(random, DAY_WEIGHTS);
+				int start = 8 * 60 + 30 * pick(random, START_WEIGHTS);
+				int end = Math.min(start + DAY_MINUTES[pattern], 22 * 60);
+
+				line.setLength(0);
+				line.append(courseId(i)).append("; ")
+						.append(LEVELS[random.nextInt(LEVELS.length)]).append(' ').append(TOPICS[random.nextInt(TOPICS.length)]).append("; ")
+						.append(professorName(random.nextInt(professors))).append("; ")
+						.append(DAYS[pattern]).append("; ");
+				appendTime(line, start).append("; ");
+				appendTime(line, end).append("; ")
+						.append(CAPACITIES[pick(random, CAPACITY_WEIGHTS)]).append('\n');
+				writer.append(line);
+			}
+		}
+
+	}
+
+	/**
+	 * Writes the professor info file: name; ID; username; password
+	 * @param fileName to write
+	 * @throws IOException if an error occurs while writing the file
+	 */
+	public void writeProfessors(String fileName) throws IOException {
+
+		try (Writer writer = open(fileName)) {
+			for (int i = 0; i < professors; i++) {
+				writer.write(professorName(i) + "; P" + (i + 1) + "; prof" + (i + 1) + "; " + password(random(2, i)) + "\n");
+			}
+		}
+
+	}
+
+	/**
+	 * Writes the admin info file: ID; name; username; password
+	 * @param fileName to write
+	 * @throws IOException if an error occurs while writing the file
+	 */
+	public void writeAdmins(String fileName) throws IOException {
+
+		try (Writer writer = open(fileName)) {
+			for (int i = 0; i < admins; i++) {
+				writer.write(String.format("A%03d; admin; admin%02d; %s\n", i + 1, i + 1, password(random(3, i))));
+			}
+		}
+
+	}
+
+	/**
+	 * Writes the student info file: ID; name; username; password; course: grade, course: grade, ...
+	 * @param fileName to write
+	 * @throws IOException if an error occurs while writing the file
+	 */
+	public void writeStudents(String fileName) throws IOException {
+
+		try (Writer writer = open(fileName)) {
+			StringBuilder line = new StringBuilder(512);
+			int[] completed = new int[MAX_COMPLETED];
+			for (long i = 0; i < students; i++) {
+				Random random = random(4, i);
+				String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+				String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+				line.setLength(0);
+				line.append(studentId(i)).append("; ").append(first).append(' ').append(last).append("; ")
+						.append(Character.toLowerCase(first.charAt(0))).append(last.toLowerCase()).append(i + 1).append("; ")
+						.append(password(random));
+
+				//students in later years have completed more courses, each course at most once
+				int year = random.nextInt(5);
+				int count = Math.min(Math.min(year * 8 + random.nextInt(5), MAX_COMPLETED), courses);
+				for (int c = 0; c < count; c++) {
+					int course;
+					do {
+						course = random.nextInt(courses);
+					} while (contains(completed, c, course));
+					completed[c] = course;
+					line.append(c == 0 ? "; " : ", ").append(courseId(course)).append(": ").append(GRADES[pick(random, GRADE_WEIGHTS)]);
+				}
+				writer.append(line).append('\n');
+			}
+		}
+
+	}
+
+	/**
+	 * Gets the ID of a course, spreading the courses over the departments
+	 */
+	static String courseId(int course) {
+		return DEPARTMENTS[course % DEPARTMENTS.length] + (100 + course / DEPARTMENTS.length);
+	}
+
+	/**
+	 * Gets the ID of a student
+	 */
+	static String studentId(long student) {
+		return String.format("%08d", student + 1);
+	}
+
+	/**
+	 * Gets the unique name of a professor, scattering the names so neighbouring professors don't look alike
+	 */
+	String professorName(int professor) {
+
+		//steps through every combination of names once, using a step that shares no factor with their number
+		long combinations = (long) FIRST_NAMES.length * 26 * LAST_NAMES.length;
+		long step = 7919;
+		while (gcd(step, combinations) != 1) {
+			step += 2;
+		}
+		long name = (professor * step + seed) % combinations;
+		if (name < 0) {
+			name += combinations;
+		}
+
+		return FIRST_NAMES[(int) (name % FIRST_NAMES.length)] + " " + (char) ('A' + name / FIRST_NAMES.length % 26) + " "
+				+ LAST_NAMES[(int) (name / FIRST_NAMES.length / 26)];
+
+	}
+
+	/**
+	 * Gets the random numbers for one line of one file, the same every time for the same seed
+	 */
+	private Random random(int file, long line) {
+		return new Random(seed * 0x9E3779B97F4A7C15L + file * 0xC2B2AE3D27D4EB4FL + line);
+	}
+
+	/**
+	 * Picks an index with the given weights out of their total
+	 */
+	private static int pick(Random random, int[] weights) {
+		int total = 0;
+		for (int weight : weights) {
+			total += weight;
+		}
+		int value = random.nextInt(total);
+		for (int i = 0; i < weights.length; i++) {
+			value -= weights[i];
+			if (value < 0) {
+				return i;
+			}
+		}
+		return weights.length - 1;
+	}
+
+	/**
+	 * Makes a random password of letters and digits
+	 */
+	private static String password(Random random) {
+		String characters = "abcdefghijkmnpqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+		char[] password = new char[10];
+		for (int i = 0; i < password.length; i++) {
+			password[i] = characters.charAt(random.nextInt(characters.length()));
+		}
+		return new String(password);
+	}
+
+	/**
+	 * Appends minutes after midnight as a time, i.e. 630 as 10:30
+	 */
+	private static StringBuilder appendTime(StringBuilder line, int minutes) {
+		return line.append(minutes / 60).append(':').append(minutes % 60 < 10 ? "0" : "").append(minutes % 60);
+	}
+
+	/**
+	 * Checks if the first values of an array include a value
+	 */
+	private static boolean contains(int[] values, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the greatest common divisor of two numbers
+	 */
+	private static long gcd(long a, long b) {
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+	/**
+	 * Opens a file to write through a large buffer, in the charset FileInfoReader reads it in
+	 */
+	private static Writer open(String fileName) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), Charset.defaultCharset()), BUFFER_SIZE);
+	}
+
+}
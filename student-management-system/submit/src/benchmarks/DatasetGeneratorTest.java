@@ -0,0 +1,101 @@
+package benchmarks;
+
+import courses.Course;
+import files.FileInfoReader;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DatasetGeneratorTest {
+
+	private File dir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		dir = Files.createTempDirectory("testDatasetGenerator").toFile();
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		//clean up temp files
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+
+	}
+
+	@Test
+	void testFilesLoad() throws IOException {
+
+		new DatasetGenerator(5000, 800, 200, 3, 42).writeAll(dir.getPath());
+		Map<String, Course> courses = new HashMap<>();
+		Map<String, Admin> admins = new HashMap<>();
+		Map<String, Professor> professors = new HashMap<>();
+		Map<String, Professor> professorsByName = new HashMap<>();
+		Map<String, Student> students = new HashMap<>();
+		Map<String, Student> studentLogins = new HashMap<>();
+		FileInfoReader fileReader = new FileInfoReader();
+		fileReader.loadAll(new File(dir, "courseInfo.txt").getPath(), new File(dir, "adminInfo.txt").getPath(),
+				new File(dir, "profInfo.txt").getPath(), new File(dir, "studentInfo.txt").getPath(),
+				courses, admins, professors, new HashMap<>(), professorsByName, students, studentLogins);
+
+		//Test Case 1: Every line is valid, and every ID, username, and professor name is unique
+		assertEquals(800, courses.size());
+		assertEquals(3, admins.size());
+		assertEquals(200, professors.size());
+		assertEquals(200, professorsByName.size());
+		assertEquals(5000, students.size());
+		assertEquals(5000, studentLogins.size());
+
+		//Test Case 2: Every course is lectured by a generated professor
+		for (Course course : courses.values()) {
+			assertNotNull(professorsByName.get(Professor.normalizeName(course.getLecturer())), course.getLecturer());
+		}
+
+		//Test Case 3: Students have only completed courses in the catalog
+		int completed = 0;
+		for (Student student : students.values()) {
+			for (String courseId : student.getCompletedCourses().keySet()) {
+				assertTrue(courses.containsKey(courseId), courseId);
+				completed++;
+			}
+		}
+		assertTrue(completed > 5000);
+
+	}
+
+	@Test
+	void testSeeded() throws IOException {
+
+		File first = new File(dir, "first.txt");
+		File second = new File(dir, "second.txt");
+		File other = new File(dir, "other.txt");
+		new DatasetGenerator(1000, 100, 30, 1, 7).writeStudents(first.getPath());
+		new DatasetGenerator(1000, 100, 30, 1, 7).writeStudents(second.getPath());
+		new DatasetGenerator(1000, 100, 30, 1, 8).writeStudents(other.getPath());
+
+		//Test Case 1: The same seed generates the same file, and another seed a different one
+		assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath()));
+		assertFalse(Arrays.equals(Files.readAllBytes(first.toPath()), Files.readAllBytes(other.toPath())));
+
+		//Test Case 2: Too many professors for unique names is turned away
+		assertThrows(IllegalArgumentException.class, () -> new DatasetGenerator(1, 1, 1000000, 1, 7));
+
+	}
+
+}
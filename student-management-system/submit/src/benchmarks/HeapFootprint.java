@@ -0,0 +1,123 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import courses.Course;
+import courses.CourseIndex;
+import files.FileInfoReader;
+import roles.Admin;
+import roles.EnrollResult;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * Measures how much heap the system's data takes up once it is loaded, the way startup loads it
+ * Generates info files, loads the courses and then the students, and enrolls every student in a few courses,
+ * measuring the heap still in use after a full garbage collection at each step
+ * Run with a heap big enough to hold everything, e.g.
+ * java -Xmx6g benchmarks.HeapFootprint [students] [courses] [enrollments per student]
+ * @author Katie
+ */
+public class HeapFootprint {
+
+	public static void main(String[] args) throws Exception {
+
+		int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int courseCount = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		int enrollments = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+		//generates the info files in a temporary directory
+		Path dir = Files.createTempDirectory("heapFootprint");
+		new DatasetGenerator(studentCount, courseCount, Math.max(1, courseCount / 4), 10, 590).writeAll(dir.toString());
+
+		//fills in the maps the way Controller does
+		Map<String, Admin> admins = new ConcurrentHashMap<>();
+		CourseIndex courses = new CourseIndex();
+		Map<String, Professor> professors = new ConcurrentHashMap<>();
+		Map<String, Professor> professorLogins = new ConcurrentHashMap<>();
+		Map<String, Professor> professorsByName = new ConcurrentHashMap<>();
+		Map<String, Student> students = new ConcurrentHashMap<>();
+		Map<String, Student> studentLogins = new ConcurrentHashMap<>();
+
+		//enrolling reports each outcome, which isn't wanted here
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		ForkJoinPool pool = new ForkJoinPool();
+		long empty;
+		long loaded;
+		long enrolled;
+		int enrolledCount = 0;
+		try {
+			empty = usedHeap();
+
+			FileInfoReader reader = new FileInfoReader(pool);
+			reader.loadAll(dir.resolve("courseInfo.txt").toString(), dir.resolve("adminInfo.txt").toString(),
+					dir.resolve("profInfo.txt").toString(), dir.resolve("studentInfo.txt").toString(), courses, admins,
+					professors, professorLogins, professorsByName, students, studentLogins);
+			reader.linkCourses(courses, professorsByName);
+			loaded = usedHeap();
+
+			//makes room for everyone, so rosters rather than waitlists are measured
+			List<Course> courseList = new ArrayList<>(courses.values());
+			for (Course course : courseList) {
+				course.setCapacity(2 * enrollments * studentCount / courseCount + 100);
+			}
+
+			//enrolls each student in random courses, skipping ones that clash
+			Random random = new Random(590);
+			for (Student student : students.values()) {
+				for (int tries = 0, count = 0; count < enrollments && tries < 4 * enrollments; tries++) {
+					if (student.enroll(courseList.get(random.nextInt(courseList.size()))) == EnrollResult.ENROLLED) {
+						count++;
+						enrolledCount++;
+					}
+				}
+			}
+			enrolled = usedHeap();
+
+		} finally {
+			System.setOut(out);
+			pool.shutdown();
+			for (File file : dir.toFile().listFiles()) {
+				file.delete();
+			}
+			dir.toFile().delete();
+		}
+
+		System.out.printf("Loaded %d courses and %d students: %d MB (%d bytes per student)%n", courses.size(),
+				students.size(), (loaded - empty) >> 20, (loaded - empty) / Math.max(1, students.size()));
+		System.out.printf("Enrolled %d times: %d MB more (%d bytes per enrollment)%n", enrolledCount,
+				(enrolled - loaded) >> 20, (enrolled - loaded) / Math.max(1, enrolledCount));
+		System.out.printf("Total: %d MB%n", (enrolled - empty) >> 20);
+
+	}
+
+	/**
+	 * Gets the heap in use after collecting everything that can be collected
+	 */
+	private static long usedHeap() throws InterruptedException {
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(100);
+			used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+		}
+		return used;
+
+	}
+
+}
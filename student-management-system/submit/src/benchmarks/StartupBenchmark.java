@@ -0,0 +1,170 @@
+package benchmarks;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import courses.Course;
+import files.FileInfoReader;
+import files.Snapshot;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * Compares loading the info files, line by line and in parallel, against loading a snapshot at startup
+ * Generates info files for a large number of students, then times each way of loading them over a few rounds
+ * The first round shows a cold startup, while the best round shows the loaders once the JIT has warmed up
+ * Run with a heap big enough that garbage collection doesn't swamp the timings, e.g.
+ * java -Xms5g -Xmx5g -Xmn3g benchmarks.StartupBenchmark [students] [rounds] [threads]
+ * @author Katie
+ */
+public class StartupBenchmark {
+
+	//constants
+
+	/**
+	 * Number of courses and professors in the generated data
+	 */
+	private static final int COURSES = 200;
+	private static final int PROFESSORS = 50;
+
+
+	public static void main(String[] args) throws IOException {
+
+		int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		//generates the info files in a temporary directory
+		Path dir = Files.createTempDirectory("startupBenchmark");
+		String courseFile = dir.resolve("courseInfo.txt").toString();
+		String adminFile = dir.resolve("adminInfo.txt").toString();
+		String profFile = dir.resolve("profInfo.txt").toString();
+		String studentFile = dir.resolve("studentInfo.txt").toString();
+		String snapshotFile = dir.resolve("snapshot.dat").toString();
+		generate(courseFile, adminFile, profFile, studentFile, studentCount);
+		System.out.println("Generated " + studentCount + " students, studentInfo.txt is "
+				+ new File(studentFile).length() / (1024 * 1024) + " MB");
+
+		FileInfoReader fileReader = new FileInfoReader();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		FileInfoReader parallelReader = new FileInfoReader(pool);
+		Snapshot snapshot = new Snapshot();
+		long bestText = Long.MAX_VALUE;
+		long bestParallel = Long.MAX_VALUE;
+		long bestSnapshot = Long.MAX_VALUE;
+
+		for (int round = 1; round <= rounds; round++) {
+
+			//loads the info files line by line
+			Data text = new Data();
+			System.gc();
+			long start = System.nanoTime();
+			fileReader.loadCourses(courseFile, text.courses);
+			fileReader.loadAdmins(adminFile, text.admins);
+			fileReader.loadProfessors(profFile, text.professors, text.professorLogins, text.professorsByName);
+			fileReader.loadStudents(studentFile, text.students, text.studentLogins);
+			fileReader.linkCourses(text.courses, text.professorsByName);
+			long textNanos = System.nanoTime() - start;
+			text = null;
+
+			//loads the info files in parallel, the way startup imports them now
+			text = new Data();
+			System.gc();
+			start = System.nanoTime();
+			parallelReader.loadAll(courseFile, adminFile, profFile, studentFile, text.courses, text.admins, text.professors,
+					text.professorLogins, text.professorsByName, text.students, text.studentLogins);
+			parallelReader.linkCourses(text.courses, text.professorsByName);
+			long parallelNanos = System.nanoTime() - start;
+
+			//saves the same data as a snapshot
+			start = System.nanoTime();
+			snapshot.write(snapshotFile, round, text.admins, text.courses, text.professors, text.students);
+			long writeNanos = System.nanoTime() - start;
+			text = null;
+
+			//loads the snapshot, the way startup does when the info files haven't changed
+			Data binary = new Data();
+			System.gc();
+			start = System.nanoTime();
+			snapshot.load(snapshotFile, binary.admins, binary.courses, binary.professors, binary.professorLogins,
+					binary.professorsByName, binary.students, binary.studentLogins);
+			fileReader.linkCourses(binary.courses, binary.professorsByName);
+			long snapshotNanos = System.nanoTime() - start;
+
+			System.out.printf("Round %d: text load %d ms, parallel text load %d ms (%d threads), snapshot write %d ms (%d MB), snapshot load %d ms (%.1fx faster)%n",
+					round, textNanos / 1000000, parallelNanos / 1000000, threads, writeNanos / 1000000,
+					new File(snapshotFile).length() / (1024 * 1024), snapshotNanos / 1000000, (double) textNanos / snapshotNanos);
+			bestText = Math.min(bestText, textNanos);
+			bestParallel = Math.min(bestParallel, parallelNanos);
+			bestSnapshot = Math.min(bestSnapshot, snapshotNanos);
+
+		}
+
+		System.out.printf("Best: text load %d ms, parallel text load %d ms (%.1fx faster), snapshot load %d ms (%.1fx faster)%n",
+				bestText / 1000000, bestParallel / 1000000, (double) bestText / bestParallel,
+				bestSnapshot / 1000000, (double) bestText / bestSnapshot);
+		pool.shutdown();
+
+		//cleans up the generated files
+		for (String fileName : new String[] {courseFile, adminFile, profFile, studentFile, snapshotFile}) {
+			new File(fileName).delete();
+		}
+		dir.toFile().delete();
+
+	}
+
+	/**
+	 * Writes info files with the given number of students, each with a few completed courses
+	 */
+	private static void generate(String courseFile, String adminFile, String profFile, String studentFile,
+			int studentCount) throws IOException {
+
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(profFile))) {
+			for (int i = 0; i < PROFESSORS; i++) {
+				writer.write("Professor " + i + "; P" + i + "; prof" + i + "; password590\n");
+			}
+		}
+
+		//spreads courses over the week
+		String[] days = {"MW", "TR", "F", "MWF", "S"};
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(courseFile))) {
+			for (int i = 0; i < COURSES; i++) {
+				int hour = 8 + (i / days.length) % 12;
+				writer.write("CIS" + (100 + i) + "; Course " + i + "; Professor " + (i % PROFESSORS) + "; "
+						+ days[i % days.length] + "; " + hour + ":00; " + hour + ":50; " + studentCount + "\n");
+			}
+		}
+
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(adminFile))) {
+			writer.write("001; admin; admin01; password590\n");
+		}
+
+		String[] grades = {"A", "A-", "B+", "B", "C"};
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(studentFile), 1 << 16)) {
+			for (int i = 0; i < studentCount; i++) {
+				writer.write(String.format("%07d; Student Name%d; student%d; password590; CIS%d: %s, CIS%d: %s, CIS%d: %s%n",
+						i, i, i, 100 + i % COURSES, grades[i % grades.length], 100 + (i + 7) % COURSES,
+						grades[(i + 1) % grades.length], 100 + (i + 13) % COURSES, grades[(i + 2) % grades.length]));
+			}
+		}
+
+	}
+
+	/**
+	 * The maps and indexes startup fills in
+	 */
+	private static class Data {
+		final Map<String, Admin> admins = new HashMap<>();
+		final Map<String, Course> courses = new HashMap<>();
+		final Map<String, Professor> professors = new HashMap<>();
+		final Map<String, Professor> professorLogins = new HashMap<>();
+		final Map<String, Professor> professorsByName = new HashMap<>();
+		final Map<String, Student> students = new HashMap<>();
+		final Map<String, Student> studentLogins = new HashMap<>();
+	}
+
+}
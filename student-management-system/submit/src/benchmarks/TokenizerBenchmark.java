@@ -0,0 +1,136 @@
+package benchmarks;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import files.FileInfoReader;
+import roles.Student;
+
+/**
+ * Compares parsing the student info file with String.split and String.trim against FileInfoReader's tokenizer
+ * Generates a studentInfo.txt file, then times each way of parsing it over a few rounds,
+ * along with the memory each one allocates on the parsing thread
+ * Both build the same students, so the difference in allocation is what parsing itself throws away
+ * Run with a heap big enough that garbage collection doesn't swamp the timings, e.g.
+ * java -Xms4g -Xmx4g benchmarks.TokenizerBenchmark [students] [rounds]
+ * @author Katie
+ */
+public class TokenizerBenchmark {
+
+	//constants
+
+	/**
+	 * Number of courses in the generated completed course lists
+	 */
+	private static final int COURSES = 200;
+
+
+	public static void main(String[] args) throws IOException {
+
+		int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		//generates the student info file in a temporary directory
+		Path dir = Files.createTempDirectory("tokenizerBenchmark");
+		String studentFile = dir.resolve("studentInfo.txt").toString();
+		generate(studentFile, studentCount);
+		System.out.println("Generated " + studentCount + " students, studentInfo.txt is "
+				+ new File(studentFile).length() / (1024 * 1024) + " MB");
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		FileInfoReader fileReader = new FileInfoReader();
+		long bestSplit = Long.MAX_VALUE;
+		long bestTokenizer = Long.MAX_VALUE;
+
+		for (int round = 1; round <= rounds; round++) {
+
+			//parses the file with String.split, the way FileInfoReader used to
+			Map<String, Student> students = new HashMap<>();
+			System.gc();
+			long allocated = threads.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			splitLoad(studentFile, students, new HashMap<>());
+			long splitNanos = System.nanoTime() - start;
+			long splitBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+			students = null;
+
+			//parses the file with the tokenizer, line by line on this thread
+			students = new HashMap<>();
+			System.gc();
+			allocated = threads.getThreadAllocatedBytes(threadId);
+			start = System.nanoTime();
+			fileReader.loadStudents(studentFile, students, new HashMap<>());
+			long tokenizerNanos = System.nanoTime() - start;
+			long tokenizerBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+			students = null;
+
+			System.out.printf("Round %d: split %d ms (%d bytes/student), tokenizer %d ms (%d bytes/student), %.1fx faster, %.1fx less allocation%n",
+					round, splitNanos / 1000000, splitBytes / studentCount, tokenizerNanos / 1000000,
+					tokenizerBytes / studentCount, (double) splitNanos / tokenizerNanos, (double) splitBytes / tokenizerBytes);
+			bestSplit = Math.min(bestSplit, splitNanos);
+			bestTokenizer = Math.min(bestTokenizer, tokenizerNanos);
+
+		}
+
+		System.out.printf("Best: split %d ms, tokenizer %d ms (%.1fx faster)%n",
+				bestSplit / 1000000, bestTokenizer / 1000000, (double) bestSplit / bestTokenizer);
+
+		//cleans up the generated file
+		new File(studentFile).delete();
+		dir.toFile().delete();
+
+	}
+
+	/**
+	 * Writes a student info file with the given number of students, each with a few completed courses
+	 */
+	private static void generate(String studentFile, int studentCount) throws IOException {
+
+		String[] grades = {"A", "A-", "B+", "B", "C"};
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(studentFile), 1 << 16)) {
+			for (int i = 0; i < studentCount; i++) {
+				writer.write(String.format("%07d; Student Name%d; student%d; password590; CIS%d: %s, CIS%d: %s, CIS%d: %s%n",
+						i, i, i, 100 + i % COURSES, grades[i % grades.length], 100 + (i + 7) % COURSES,
+						grades[(i + 1) % grades.length], 100 + (i + 13) % COURSES, grades[(i + 2) % grades.length]));
+			}
+		}
+
+	}
+
+	/**
+	 * Loads students by splitting and trimming each line, the way FileInfoReader did before the tokenizer
+	 */
+	private static void splitLoad(String fileName, Map<String, Student> students, Map<String, Student> studentLogins)
+			throws IOException {
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] parts = line.split(";");
+				if (parts.length < 4) {
+					continue;
+				}
+				Student student = new Student(parts[0].trim(), parts[1].trim(), parts[2].trim(), parts[3].trim());
+				if (parts.length > 4) {
+					for (String courseGradePair : parts[4].split(",")) {
+						String[] courseGrade = courseGradePair.split(":");
+						if (courseGrade.length == 2) {
+							student.addCompletedCourse(courseGrade[0].trim(), courseGrade[1].trim());
+						}
+					}
+				}
+				Student replaced = students.put(student.getId(), student);
+				if (replaced != null) {
+					studentLogins.remove(replaced.getUsername(), replaced);
+				}
+				studentLogins.put(student.getUsername(), student);
+			}
+		}
+
+	}
+
+}
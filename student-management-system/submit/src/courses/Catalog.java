@@ -0,0 +1,232 @@
+package courses;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Scanner;
+
+/**
+ * Shows the courses in the system a page at a time, sorted by course ID
+ * A page is found from a cursor, the ID of the last course on the page before, so paging carries on from the
+ * right place even if courses are added or deleted in the meantime
+ * Each page is written through one buffer and flushed once, instead of one println per course
+ * @author Katie
+ */
+public class Catalog {
+
+	//constants
+
+	/**
+	 * Number of courses on a page unless another size is given
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 20;
+
+	/**
+	 * Order courses are shown in
+	 */
+	private static final Comparator<Course> BY_ID = Comparator.comparing(Course::getId);
+
+
+	//instance variables
+
+	/**
+	 * Map of courses keyed by ID, safe to read while it changes
+	 */
+	private final Map<String, Course> courses;
+
+	/**
+	 * Number of courses on a page
+	 */
+	private final int pageSize;
+
+
+	//constructor
+
+	/**
+	 * Creates a catalog of the courses in a map
+	 * @param courses map of courses keyed by ID
+	 * @param pageSize number of courses on a page
+	 */
+	public Catalog(Map<String, Course> courses, int pageSize) {
+
+		//checks that there are courses and room for one on a page
+		if (courses == null || pageSize < 1) {
+			throw new IllegalArgumentException("Catalog needs a courses map and a page size of at least 1.");
+		}
+
+		this.courses = courses;
+		this.pageSize = pageSize;
+
+	}
+
+
+	//methods
+
+	/**
+	 * Gets the page of courses after a cursor
+	 * Only the courses on the page are kept and sorted, so a page of a large catalog is found in one pass
+	 * @param cursor ID of the last course on the page before, or null for the first page
+	 * @return page of courses with IDs after the cursor, in ID order
+	 */
+	public Page page(String cursor) {
+
+		//keeps the pageSize smallest IDs after the cursor, dropping the largest kept so far when there are too many
+		PriorityQueue<Course> smallest = new PriorityQueue<>(BY_ID.reversed());
+		int before = 0;
+		int total = 0;
+		for (Course course : courses.values()) {
+			total++;
+			if (cursor != null && course.getId().compareTo(cursor) <= 0) {
+				before++;
+				continue;
+			}
+			if (smallest.size() < pageSize) {
+				smallest.add(course);
+			} else if (BY_ID.compare(course, smallest.peek()) < 0) {
+				smallest.poll();
+				smallest.add(course);
+			}
+		}
+
+		List<Course> page = new ArrayList<>(smallest);
+		Collections.sort(page, BY_ID);
+		return new Page(page, before, total);
+
+	}
+
+	/**
+	 * Writes the courses on a page, one line each, through one buffer flushed at the end
+	 * The stream is flushed but not closed
+	 * @param page to write
+	 * @param out to write to, such as System.out
+	 */
+	public static void print(Page page, PrintStream out) {
+		print(page.getCourses(), out);
+	}
+
+	/**
+	 * Writes courses, one line each, through one buffer flushed at the end
+	 * The stream is flushed but not closed
+	 * @param courses to write, in the order given
+	 * @param out to write to, such as System.out
+	 */
+	public static void print(List<Course> courses, PrintStream out) {
+
+		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
+		try {
+			for (Course course : courses) {
+				writer.write(course.toString());
+				writer.newLine();
+			}
+			writer.flush();
+		} catch (IOException e) {
+
+			//PrintStream never throws, so this can't happen, but it is reported the way PrintStream would
+			out.println("Error writing courses: " + e.getMessage());
+		}
+
+	}
+
+	/**
+	 * Shows the catalog a page at a time on System.out, asking before each page after the first
+	 * Stops after the last page, or when the user types q
+	 * @param header printed before the first page
+	 * @param scanner for user input
+	 */
+	public void browse(String header, Scanner scanner) {
+
+		System.out.println(header);
+		Page page = page(null);
+		while (true) {
+			print(page, System.out);
+
+			//stops after the last page
+			if (!page.hasNext()) {
+				return;
+			}
+
+			//asks whether to show the next page
+			System.out.println("Showing courses " + (page.getStart() + 1) + "-" + page.getEnd() + " of " + page.getTotal()
+					+ ". Press Enter for more, or type 'q' to stop: ");
+			if (!scanner.hasNextLine() || scanner.nextLine().trim().equalsIgnoreCase("q")) {
+				return;
+			}
+			page = page(page.getCursor());
+		}
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * One page of the catalog
+	 */
+	public static final class Page {
+
+		/**
+		 * Courses on the page in ID order, the number of courses before it, and the number in the catalog
+		 */
+		private final List<Course> courses;
+		private final int start;
+		private final int total;
+
+		Page(List<Course> courses, int start, int total) {
+			this.courses = Collections.unmodifiableList(courses);
+			this.start = start;
+			this.total = total;
+		}
+
+		/**
+		 * Gets the courses on the page in ID order
+		 */
+		public List<Course> getCourses() {
+			return courses;
+		}
+
+		/**
+		 * Gets the number of courses before the page
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Gets the number of courses up to the end of the page
+		 */
+		public int getEnd() {
+			return start + courses.size();
+		}
+
+		/**
+		 * Gets the number of courses in the catalog when the page was found
+		 */
+		public int getTotal() {
+			return total;
+		}
+
+		/**
+		 * Checks if there are courses after the page
+		 */
+		public boolean hasNext() {
+			return getEnd() < total;
+		}
+
+		/**
+		 * Gets the cursor of the next page, the ID of the last course on this one
+		 * @return cursor, or null if the page is empty
+		 */
+		public String getCursor() {
+			return courses.isEmpty() ? null : courses.get(courses.size() - 1).getId();
+		}
+
+	}
+
+}
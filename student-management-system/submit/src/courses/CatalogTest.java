@@ -0,0 +1,100 @@
+package courses;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CatalogTest {
+
+	private Map<String, Course> courses;
+
+	@BeforeEach
+	void setUp() {
+
+		//adds courses CIS100 to CIS124 out of order
+		courses = new ConcurrentHashMap<>();
+		for (int i = 24; i >= 0; i--) {
+			Course course = new Course("CIS1" + String.format("%02d", i), "Course " + i, "John Doe", "MW", "10:00", "11:00", 10);
+			courses.put(course.getId(), course);
+		}
+
+	}
+
+	/**
+	 * Gets the IDs of the courses on a page
+	 */
+	private static List<String> ids(Catalog.Page page) {
+		List<String> ids = new ArrayList<>();
+		for (Course course : page.getCourses()) {
+			ids.add(course.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	void testPages() {
+
+		Catalog catalog = new Catalog(courses, 10);
+
+		//Test Case 1: Pages are in ID order and follow on from the cursor
+		Catalog.Page first = catalog.page(null);
+		assertEquals(List.of("CIS100", "CIS101", "CIS102", "CIS103", "CIS104", "CIS105", "CIS106", "CIS107", "CIS108", "CIS109"), ids(first));
+		assertEquals("CIS109", first.getCursor());
+		assertTrue(first.hasNext());
+		Catalog.Page second = catalog.page(first.getCursor());
+		assertEquals("CIS110", ids(second).get(0));
+		assertEquals(10, second.getStart());
+		assertEquals(20, second.getEnd());
+
+		//Test Case 2: Courses deleted or added before the cursor don't shift the next page
+		courses.remove("CIS105");
+		courses.put("CIS099", new Course("CIS099", "Course 99", "John Doe", "MW", "10:00", "11:00", 10));
+		Catalog.Page third = catalog.page(second.getCursor());
+		assertEquals(List.of("CIS120", "CIS121", "CIS122", "CIS123", "CIS124"), ids(third));
+		assertEquals(25, third.getEnd());
+		assertFalse(third.hasNext());
+
+		//Test Case 3: A cursor past the last course gives an empty page
+		assertTrue(catalog.page("CIS999").getCourses().isEmpty());
+
+	}
+
+	@Test
+	void testBrowse() {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(bytes, true));
+		try {
+
+			//Test Case 1: Each page asks before the next, and q stops paging
+			new Catalog(courses, 10).browse("Available Courses:", new Scanner("\nq\n"));
+			String[] lines = bytes.toString().split(System.lineSeparator());
+			assertEquals("Available Courses:", lines[0]);
+			assertEquals(courses.get("CIS100").toString(), lines[1]);
+			assertTrue(lines[11].startsWith("Showing courses 1-10 of 25."));
+			assertEquals(courses.get("CIS110").toString(), lines[12]);
+			assertTrue(lines[22].startsWith("Showing courses 11-20 of 25."));
+			assertEquals(23, lines.length);
+
+			//Test Case 2: The last page ends the catalog without asking
+			bytes.reset();
+			new Catalog(courses, 30).browse("Available Courses:", new Scanner(""));
+			assertEquals(26, bytes.toString().split(System.lineSeparator()).length);
+
+		} finally {
+			System.setOut(console);
+		}
+
+	}
+
+}
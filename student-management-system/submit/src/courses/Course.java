@@ -1,7 +1,11 @@
 package courses;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ids.IdDictionary;
+import messages.Messages;
 
 /**
 * Represents a Course in the system
@@ -10,6 +14,14 @@ import java.util.List;
 */
 public class Course {
 	
+	//constants
+	
+	/**
+	 * Number of students who can wait for a seat in a full course unless changed with setWaitlistCapacity
+	 */
+	public static final int DEFAULT_WAITLIST_CAPACITY = 30;
+	
+	
 	//instance variables
 	
 	/**
@@ -17,6 +29,11 @@ public class Course {
 	 */
 	private String id;
 	
+	/**
+	 * Handle of the course's ID in IdDictionary.COURSES, or NONE until it is found there
+	 */
+	private int handle = IdDictionary.NONE;
+	
 	/**
 	 * Name of course
 	 */
@@ -42,15 +59,60 @@ public class Course {
 	 */
 	private String endTime;
 	
+	/**
+	 * Days the course is held as a bitmask, one bit per weekday
+	 */
+	private int dayMask;
+	
+	/**
+	 * Start time in minutes after midnight
+	 */
+	private int startMinute;
+	
+	/**
+	 * End time in minutes after midnight
+	 */
+	private int endMinute;
+	
 	/**
 	 * Maximum number of students in the course
 	 */
-	private int capacity;
+	private volatile int capacity;
+	
+	/**
+	 * Number of seats reserved by enrolled students, never more than capacity
+	 */
+	private final AtomicInteger seatsTaken = new AtomicInteger();
+	
+	/**
+	 * IDs of enrolled students, in the order they enrolled
+	 */
+	private final Roster enrolledStudents = new Roster();
 	
 	/**
-	 * List of enrolled students
+	 * Students waiting for a seat once the course is full
 	 */
-	private List<String> enrolledStudents;
+	private final Waitlist waitlist = new Waitlist(DEFAULT_WAITLIST_CAPACITY);
+	
+	/**
+	 * Number of times the fields shown in the course's line have been set, so a cached line knows when it is stale
+	 */
+	private volatile int version;
+	
+	/**
+	 * Line the course was last shown as, reused while its fields and seat count stay the same
+	 */
+	private volatile RenderedLine rendered;
+	
+	/**
+	 * Told whenever the number of open seats may have changed, or null
+	 */
+	private volatile SeatListener seatListener;
+	
+	/**
+	 * Slots the course is held in, worked out once and dropped whenever its days or times change
+	 */
+	private volatile WeeklySchedule.SlotMask slotMask;
 	
 	
 	//constructor
@@ -74,9 +136,6 @@ public class Course {
 		setStartTime(startTime);
 		setEndTime(endTime);
 		setCapacity(capacity);
-
-        //initializes array list for enrolled students
-		this.enrolledStudents = new ArrayList<>();
 	
 	}
 
@@ -95,6 +154,24 @@ public class Course {
 	 */
 	public void setId(String id) {
 		this.id = id;
+		this.handle = IdDictionary.NONE;
+		version++;
+	}
+	
+	/**
+	 * Gets the handle of the course's ID in IdDictionary.COURSES, which records keyed by course ID can use
+	 * instead of the ID itself
+	 * Creating a course doesn't give its ID a handle, so a course nobody has completed has none; once found,
+	 * the handle is kept, since handles never change
+	 * @return handle of the course's ID, or IdDictionary.NONE if nobody has completed a course with the ID
+	 */
+	public int getHandle() {
+		int handle = this.handle;
+		if (handle == IdDictionary.NONE) {
+			handle = IdDictionary.COURSES.find(id);
+			this.handle = handle;
+		}
+		return handle;
 	}
 
 	/**
@@ -109,6 +186,7 @@ public class Course {
 	 */
 	public void setName(String name) {
 		this.name = name;
+		version++;
 	}
 	
 	/**
@@ -123,6 +201,7 @@ public class Course {
 	 */
 	public void setLecturer(String lecturer) {
 		this.lecturer = lecturer;
+		version++;
 	}
 
 	/**
@@ -134,9 +213,20 @@ public class Course {
 
 	/**
 	 * Sets days course is held
+	 * @throws IllegalArgumentException if days contains anything other than day codes (i.e. "MWF")
 	 */
 	public void setDays(String days) {
+		this.dayMask = parseDays(days);
 		this.days = days;
+		slotMask = null;
+		version++;
+	}
+	
+	/**
+	 * Gets days course is held as a bitmask (bit 0 is Monday, bit 6 is Sunday)
+	 */
+	public int getDayMask() {
+		return dayMask;
 	}
 	
 	/**
@@ -148,9 +238,20 @@ public class Course {
 	
 	/**
 	 * Sets course's start time
+	 * @throws IllegalArgumentException if start time is not formatted as HH:mm
 	 */
 	public void setStartTime(String startTime) {
+		this.startMinute = parseTime(startTime);
 		this.startTime = startTime;
+		slotMask = null;
+		version++;
+	}
+	
+	/**
+	 * Gets course's start time in minutes after midnight
+	 */
+	public int getStartMinute() {
+		return startMinute;
 	}
 
 	/**
@@ -162,9 +263,34 @@ public class Course {
 	
 	/**
 	 * Sets course's end time
+	 * @throws IllegalArgumentException if end time is not formatted as HH:mm
 	 */
 	public void setEndTime(String endTime) {
+		this.endMinute = parseTime(endTime);
 		this.endTime = endTime;
+		slotMask = null;
+		version++;
+	}
+	
+	/**
+	 * Gets course's end time in minutes after midnight
+	 */
+	public int getEndMinute() {
+		return endMinute;
+	}
+	
+	/**
+	 * Gets the slots the course is held in, working them out the first time they are needed
+	 */
+	WeeklySchedule.SlotMask getSlotMask() {
+		
+		WeeklySchedule.SlotMask mask = slotMask;
+		if (mask == null) {
+			mask = new WeeklySchedule.SlotMask(this);
+			slotMask = mask;
+		}
+		return mask;
+		
 	}
 
 	/**
@@ -174,20 +300,68 @@ public class Course {
 		return capacity;
 	}
 	
+	/**
+	 * Gets the number of seats taken, which can be more than the capacity after it is lowered
+	 */
+	public int getSeatsTaken() {
+		return seatsTaken.get();
+	}
+
+	/**
+	 * Gets the number of seats not yet taken
+	 */
+	public int getOpenSeats() {
+		return Math.max(0, capacity - seatsTaken.get());
+	}
+	
 	/**
 	 * Sets capacity of course
+	 * If capacity goes up, students at the head of the waitlist are moved into the new seats
 	 */
 	public void setCapacity(int capacity) {
 		this.capacity = capacity;
+		version++;
+		promoteWaitlisted();
+		seatsChanged();
 	}
 
 	/**
-	 * Gets enrolled students in course
+	 * Gets enrolled students in course, in the order they enrolled
+	 * The set is read-only, since students must be added and removed through addStudent and removeStudent
 	 */
-	public List<String> getEnrolledStudents() {
+	public Set<String> getEnrolledStudents() {
 		return enrolledStudents;
 	}
 	
+	/**
+	 * Gets IDs of students waiting for a seat, in the order they joined the waitlist
+	 */
+	public List<String> getWaitlist() {
+		return waitlist.ids();
+	}
+	
+	/**
+	 * Gets the number of students who can wait for a seat at once
+	 */
+	public int getWaitlistCapacity() {
+		return waitlist.getCapacity();
+	}
+	
+	/**
+	 * Sets the number of students who can wait for a seat at once
+	 */
+	public void setWaitlistCapacity(int waitlistCapacity) {
+		waitlist.setCapacity(waitlistCapacity);
+	}
+	
+	/**
+	 * Sets what is told whenever the number of open seats may have changed, replacing any set before
+	 * @param seatListener to tell, or null to stop telling anything
+	 */
+	void setSeatListener(SeatListener seatListener) {
+		this.seatListener = seatListener;
+	}
+	
 	
 	//helper methods
 	
@@ -196,41 +370,139 @@ public class Course {
 	 * @return true if course is full, false if not
 	 */
 	private boolean isFull() {
-		return enrolledStudents.size() >= capacity;
+		return seatsTaken.get() >= capacity;
 	}
 	
 	/**
-	 * Checks if a course overlaps days with another course
-	 * @param otherDays the other course is held
-	 * @return true if days of both courses overlap, false if not
+	 * Reserves a seat without locking, retrying if another thread takes a seat at the same time
+	 * @return true if a seat was reserved, false if the course is full
 	 */
-	private boolean daysOverlap(String otherDays) {
+	private boolean reserveSeat() {
 		
-		//iterates through each day each course is offered
-		for (char day : this.days.toCharArray()) {
+		while (true) {
+			int taken = seatsTaken.get();
+			
+			//fails once every seat is taken
+			if (taken >= capacity) {
+				return false;
+			}
 			
-			//if both courses overlap days, return true
-			if (otherDays.indexOf(day) != -1) {
+			//takes the seat only if no other thread took one since it was read
+			if (seatsTaken.compareAndSet(taken, taken + 1)) {
 				return true;
 			}
 		}
 		
-		return false;
+	}
+	
+	/**
+	 * Tells the seat listener, if there is one, that the number of open seats may have changed
+	 */
+	private void seatsChanged() {
+		SeatListener listener = seatListener;
+		if (listener != null) {
+			listener.seatsChanged(this);
+		}
+	}
+	
+	/**
+	 * Moves students from the head of the waitlist into any open seats
+	 * Each open seat is reserved before it is offered, so promotion can't overbook the course,
+	 * and students who can no longer take the course are dropped from the waitlist
+	 */
+	private void promoteWaitlisted() {
+		
+		//keeps going while students are waiting and seats can be reserved for them
+		while (!waitlist.isEmpty() && reserveSeat()) {
+			Enrollee next = waitlist.poll();
+			
+			//gives the seat back if another thread emptied the waitlist in the meantime
+			if (next == null) {
+				seatsTaken.decrementAndGet();
+				continue;
+			}
+			
+			//gives the seat back if the student can't take it or is somehow already enrolled
+			if (!next.acceptSeat(this) || !enrolledStudents.enroll(next.getId())) {
+				seatsTaken.decrementAndGet();
+			}
+		}
+		
+	}
+	
+	/**
+	 * Parses a days string (i.e. MWF) into a bitmask with one bit per weekday
+	 * Days are coded M, T, W, R, F, S, U for Monday through Sunday
+	 * @param days string to parse
+	 * @return days as a bitmask
+	 * @throws IllegalArgumentException if days is empty or contains an unknown day code
+	 */
+	static int parseDays(String days) {
 		
-	}	
+		//checks if days is null or empty
+		if (days == null || days.isEmpty()) {
+			throw new IllegalArgumentException("Days cannot be null or empty.");
+		}
+		
+		//sets the bit for each day the course is held
+		int mask = 0;
+		for (int i = 0; i < days.length(); i++) {
+			int day = "MTWRFSU".indexOf(days.charAt(i));
+			if (day == -1) {
+				throw new IllegalArgumentException("Invalid days: " + days);
+			}
+			mask |= 1 << day;
+		}
+		
+		return mask;
+		
+	}
 	
 	/**
-	 * Parses a time string (i.e. 10:30) into an integer (i.e. 1030)
+	 * Parses a time string (i.e. 10:30) into minutes after midnight (i.e. 630)
 	 * @param time string to parse
-	 * @return time as an integer
+	 * @return time in minutes after midnight
+	 * @throws IllegalArgumentException if time is not formatted as HH:mm
 	 */
-	private int parseTime(String time) {
+	static int parseTime(String time) {
+		
+		//checks if time is null
+		if (time == null) {
+			throw new IllegalArgumentException("Time cannot be null.");
+		}
+		
+		//finds the : separator, which needs 1-2 digits before it and exactly 2 after it
+		int colon = time.indexOf(':');
+		if (colon < 1 || colon > 2 || time.length() != colon + 3) {
+			throw new IllegalArgumentException("Invalid time: " + time);
+		}
+		
+		//reads the hours and minutes digit by digit
+		int hours = 0;
+		int minutes = 0;
+		for (int i = 0; i < time.length(); i++) {
+			if (i == colon) {
+				continue;
+			}
+			
+			char c = time.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException("Invalid time: " + time);
+			}
+			
+			if (i < colon) {
+				hours = hours * 10 + (c - '0');
+			} else {
+				minutes = minutes * 10 + (c - '0');
+			}
+		}
 		
-		//splits the time into components based on the : separator
-		String[] parts = time.split(":");
+		//checks that the time is a real time of day
+		if (hours > 23 || minutes > 59) {
+			throw new IllegalArgumentException("Invalid time: " + time);
+		}
 		
-		//returns the time as a combined integer
-		return Integer.parseInt(parts[0]) * 100 + Integer.parseInt(parts[1]);
+		return hours * 60 + minutes;
 		
 	}
 	
@@ -238,11 +510,22 @@ public class Course {
 	//methods
 	
 	/**
-	 * Adds a student to the course
+	 * Adds a student to the course, reporting why if they can't be added
+	 * Safe to call from many threads at once; the course never goes over capacity
 	 * @param studentId of student to add
 	 * @return true if student was added, false if not
 	 */
 	public boolean addStudent(String studentId) {
+		return Messages.report(enroll(studentId), studentId) == SeatResult.SEATED;
+	}
+	
+	/**
+	 * Adds a student to the course the same way addStudent does, leaving the outcome to the caller
+	 * Safe to call from many threads at once; the course never goes over capacity
+	 * @param studentId of student to add
+	 * @return SEATED, FULL, or ALREADY_ENROLLED
+	 */
+	public SeatResult enroll(String studentId) {
 		
 		//checks if student ID is null or empty
 		if (studentId == null || studentId.trim().isEmpty()) {
@@ -254,34 +537,48 @@ public class Course {
 		
 		//checks if course is full
 		if (isFull()) {
-			
-			//prints error message if course is full and student cannot be added
-			System.out.println("Cannot add student " + studentId + " to course. Course is already full.");
-			return false;
-			
+			return SeatResult.FULL;
 		}
 		
 		//checks if student is already enrolled in course
 		if (enrolledStudents.contains(studentId)) {
-			
-			//prints error message if student is already enrolled and cannot be added again
-			System.out.println("Cannot add student " + studentId + " to course. Student is already enrolled.");
-			return false;
+			return SeatResult.ALREADY_ENROLLED;
+		}
 		
+		//reserves a seat, which fails if other threads took the last seats in the meantime
+		if (!reserveSeat()) {
+			return SeatResult.FULL;
 		}
 		
 		//if course is not full and student is not already enrolled, successfully enrolls student in course
-		enrolledStudents.add(studentId);
-		return true;	
+		if (!enrolledStudents.enroll(studentId)) {
+			
+			//gives the seat back if the same student enrolled from another thread in the meantime
+			seatsTaken.decrementAndGet();
+			return SeatResult.ALREADY_ENROLLED;
+			
+		}
+		
+		seatsChanged();
+		return SeatResult.SEATED;
 		
 	}
 	
 	/**
-	 * Removes a student from the course
+	 * Removes a student from the course, reporting it if they weren't enrolled
 	 * @param studentId of student to remove
 	 * @return true if student was removed, false if not
 	 */
 	public boolean removeStudent(String studentId) {
+		return Messages.report(withdraw(studentId), studentId) == SeatResult.WITHDRAWN;
+	}
+	
+	/**
+	 * Removes a student from the course the same way removeStudent does, leaving the outcome to the caller
+	 * @param studentId of student to remove
+	 * @return WITHDRAWN or NOT_ENROLLED
+	 */
+	public SeatResult withdraw(String studentId) {
 		
 		//checks if student ID is null or empty
 		if (studentId == null || studentId.trim().isEmpty()) {
@@ -291,20 +588,74 @@ public class Course {
 			
 		}
 		
-		//checks if student is enrolled and can be removed
-		if (enrolledStudents.remove(studentId)) {			
-			return true;
-			
-		} else {
-			
-			//returns false if student is not enrolled in the course and can't be removed
-			System.out.println("Cannot remove student " + studentId + " from course. Student is not enrolled.");
-			return false;
-			
-		}		
+		//checks if student is enrolled and can be removed, then frees their seat for the waitlist
+		if (enrolledStudents.withdraw(studentId)) {
+			seatsTaken.decrementAndGet();
+			promoteWaitlisted();
+			seatsChanged();
+			return SeatResult.WITHDRAWN;
+		}
+		
+		//the student is not enrolled in the course and can't be removed
+		return SeatResult.NOT_ENROLLED;
+		
+	}
+	
+	/**
+	 * Adds a student to the end of the waitlist for the course, reporting why if they can't be added
+	 * If a seat opened up in the meantime, the head of the waitlist is moved into it straight away
+	 * @param enrollee to add
+	 * @return true if added to the waitlist, false if already enrolled, already waiting, or the waitlist is full
+	 */
+	public boolean joinWaitlist(Enrollee enrollee) {
+		
+		//checks if enrollee is null
+		if (enrollee == null) {
+			throw new IllegalArgumentException("Enrollee cannot be null.");
+		}
+		
+		return Messages.report(enqueue(enrollee), enrollee.getId()) == SeatResult.WAITLISTED;
+		
+	}
+	
+	/**
+	 * Adds a student to the end of the waitlist the same way joinWaitlist does, leaving the outcome to the caller
+	 * @param enrollee to add
+	 * @return WAITLISTED, ENROLLED_NOT_WAITLISTED, or WAITLIST_UNAVAILABLE
+	 */
+	public SeatResult enqueue(Enrollee enrollee) {
+		
+		//checks if enrollee is null
+		if (enrollee == null) {
+			throw new IllegalArgumentException("Enrollee cannot be null.");
+		}
+		
+		//checks if student is already enrolled in course
+		if (enrolledStudents.contains(enrollee.getId())) {
+			return SeatResult.ENROLLED_NOT_WAITLISTED;
+		}
+		
+		//checks if student is already waiting or the waitlist has no room
+		if (!waitlist.offer(enrollee)) {
+			return SeatResult.WAITLIST_UNAVAILABLE;
+		}
+		
+		//covers a seat that was freed while the student was joining
+		promoteWaitlisted();
+		seatsChanged();
+		return SeatResult.WAITLISTED;
 		
 	}
 	
+	/**
+	 * Removes a student from the waitlist for the course
+	 * @param studentId of student to remove
+	 * @return true if student was removed, false if they weren't waiting
+	 */
+	public boolean leaveWaitlist(String studentId) {
+		return waitlist.remove(studentId);
+	}
+	
 	/**
 	 * Checks if a course has a time conflict with another course
 	 * @param other course to check
@@ -313,34 +664,60 @@ public class Course {
 	public boolean hasTimeConflict(Course other) {
 		
 		//checks if both courses are held on overlapping days
-		if (!daysOverlap(other.getDays())) {
+		if ((this.dayMask & other.dayMask) == 0) {
 			
 			//if courses don't overlap days, a time conflict cannot exist
 			return false;
 			
 		}
 		
-		//converts times to comparable integers (i.e. "10:30" -> 1030)
-		int thisStart = parseTime(this.startTime);
-		int thisEnd = parseTime(this.endTime);
-		int otherStart = parseTime(other.startTime);
-		int otherEnd = parseTime(other.endTime);
-		
 		//check for time overlap
-		return (thisStart < otherEnd && thisEnd > otherStart);
+		return (this.startMinute < other.endMinute && this.endMinute > other.startMinute);
 		
 	}
 		
 	/**
 	 * Returns the course as a string
+	 * The string is cached, and only built again once a field or the number of enrolled students changes
 	 */
 	@Override
 	public String toString() {
 		
-		return id + ": " + name + ", Professor " + lecturer + ", " + days +
+		//reuses the last line if nothing it shows has changed since
+		int currentVersion = version;
+		int enrolled = enrolledStudents.size();
+		RenderedLine line = rendered;
+		if (line != null && line.version == currentVersion && line.enrolled == enrolled) {
+			return line.text;
+		}
+		
+		//otherwise, builds the line again, which is checked against the version it was built from next time
+		String text = id + ": " + name + ", Professor " + lecturer + ", " + days +
 				" from " + startTime + " to " + endTime +
-				" (Capacity: " + enrolledStudents.size() + "/" + capacity + ")";
+				" (Capacity: " + enrolled + "/" + capacity + ")";
+		rendered = new RenderedLine(currentVersion, enrolled, text);
+		return text;
 		
 	}	
+	
+	
+	//nested classes
+	
+	/**
+	 * Line a course was shown as, with the version of its fields and number of enrolled students it was built from
+	 */
+	private static class RenderedLine {
+		
+		final int version;
+		final int enrolled;
+		final String text;
+		
+		RenderedLine(int version, int enrolled, String text) {
+			this.version = version;
+			this.enrolled = enrolled;
+			this.text = text;
+		}
+		
+	}
 
 }
@@ -0,0 +1,204 @@
+package courses;
+
+/**
+ * Conditions a course has to meet to be found by CourseIndex.filter, such as
+ * "held on Tuesday and Thursday, starting at 10:00 or later, with open seats, taught by John Doe"
+ * Each condition is set with its own method, which returns the filter so they can be chained, and a filter with
+ * no conditions matches every course
+ * @author Katie
+ */
+public class CourseFilter {
+
+	//constants
+
+	/**
+	 * Day mask with a bit for each day of the week
+	 */
+	static final int EVERY_DAY = (1 << 7) - 1;
+
+	/**
+	 * Minutes in a day, the latest a course can end
+	 */
+	static final int END_OF_DAY = 24 * 60;
+
+
+	//instance variables
+
+	/**
+	 * Days a course has to be held on, as a day mask
+	 */
+	private int onDays;
+
+	/**
+	 * Days a course can be held on, as a day mask
+	 */
+	private int onlyOnDays = EVERY_DAY;
+
+	/**
+	 * Earliest a course can start, in minutes after midnight
+	 */
+	private int startingFrom;
+
+	/**
+	 * Latest a course can end, in minutes after midnight
+	 */
+	private int endingBy = END_OF_DAY;
+
+	/**
+	 * Normalized name of the lecturer teaching the course, or null for any lecturer
+	 */
+	private String lecturer;
+
+	/**
+	 * Fewest open seats the course has to have
+	 */
+	private int openSeats;
+
+
+	//methods
+
+	/**
+	 * Only matches courses held on every one of the given days, and maybe others
+	 * @param days coded M, T, W, R, F, S, U for Monday through Sunday, e.g. "TR"
+	 * @return this filter
+	 * @throws IllegalArgumentException if days is empty or contains an unknown day code
+	 */
+	public CourseFilter on(String days) {
+		this.onDays = Course.parseDays(days);
+		return this;
+	}
+
+	/**
+	 * Only matches courses held on none but the given days
+	 * @param days coded M, T, W, R, F, S, U for Monday through Sunday, e.g. "TR"
+	 * @return this filter
+	 * @throws IllegalArgumentException if days is empty or contains an unknown day code
+	 */
+	public CourseFilter onlyOn(String days) {
+		this.onlyOnDays = Course.parseDays(days);
+		return this;
+	}
+
+	/**
+	 * Only matches courses starting at or after a time
+	 * @param time formatted as HH:mm, e.g. "10:00"
+	 * @return this filter
+	 * @throws IllegalArgumentException if time is not formatted as HH:mm
+	 */
+	public CourseFilter startingFrom(String time) {
+		this.startingFrom = Course.parseTime(time);
+		return this;
+	}
+
+	/**
+	 * Only matches courses ending at or before a time
+	 * @param time formatted as HH:mm, e.g. "15:00"
+	 * @return this filter
+	 * @throws IllegalArgumentException if time is not formatted as HH:mm
+	 */
+	public CourseFilter endingBy(String time) {
+		this.endingBy = Course.parseTime(time);
+		return this;
+	}
+
+	/**
+	 * Only matches courses taught by a lecturer, ignoring case and surrounding spaces
+	 * @param lecturer name of the lecturer
+	 * @return this filter
+	 * @throws IllegalArgumentException if lecturer is null or empty
+	 */
+	public CourseFilter taughtBy(String lecturer) {
+
+		//checks if lecturer is null or empty
+		if (lecturer == null || lecturer.trim().isEmpty()) {
+			throw new IllegalArgumentException("Lecturer cannot be null or empty.");
+		}
+
+		this.lecturer = normalizeLecturer(lecturer);
+		return this;
+
+	}
+
+	/**
+	 * Only matches courses with at least a number of seats not yet taken
+	 * @param openSeats fewest open seats, e.g. 1 for courses that aren't full
+	 * @return this filter
+	 * @throws IllegalArgumentException if openSeats is negative
+	 */
+	public CourseFilter withOpenSeats(int openSeats) {
+
+		//checks if open seats is negative
+		if (openSeats < 0) {
+			throw new IllegalArgumentException("Open seats cannot be negative.");
+		}
+
+		this.openSeats = openSeats;
+		return this;
+
+	}
+
+	/**
+	 * Checks if a course meets every condition, as it is now
+	 * @param course to check
+	 * @return true if the course matches, false if not
+	 */
+	public boolean matches(Course course) {
+		return (course.getDayMask() & onDays) == onDays
+				&& (course.getDayMask() & ~onlyOnDays) == 0
+				&& course.getStartMinute() >= startingFrom
+				&& course.getEndMinute() <= endingBy
+				&& (lecturer == null || lecturer.equals(normalizeLecturer(course.getLecturer())))
+				&& course.getOpenSeats() >= openSeats;
+	}
+
+	/**
+	 * Normalizes a lecturer's name so names differing only in case or surrounding spaces are the same,
+	 * the same way Professor.normalizeName does
+	 */
+	static String normalizeLecturer(String lecturer) {
+		return lecturer.trim().toLowerCase();
+	}
+
+	/**
+	 * Gets the days a course has to be held on, as a day mask
+	 */
+	int getOnDays() {
+		return onDays;
+	}
+
+	/**
+	 * Gets the days a course can be held on, as a day mask
+	 */
+	int getOnlyOnDays() {
+		return onlyOnDays;
+	}
+
+	/**
+	 * Gets the earliest a course can start, in minutes after midnight
+	 */
+	int getStartingFrom() {
+		return startingFrom;
+	}
+
+	/**
+	 * Gets the latest a course can end, in minutes after midnight
+	 */
+	int getEndingBy() {
+		return endingBy;
+	}
+
+	/**
+	 * Gets the normalized name of the lecturer, or null for any lecturer
+	 */
+	String getLecturer() {
+		return lecturer;
+	}
+
+	/**
+	 * Gets the fewest open seats a course has to have
+	 */
+	int getOpenSeats() {
+		return openSeats;
+	}
+
+}
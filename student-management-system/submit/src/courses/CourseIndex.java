@@ -0,0 +1,891 @@
+package courses;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Map of courses keyed by ID that also indexes each course so it can be found by part of its ID or name
+ * Stands in for the courses map, so loading the course file, adding and deleting courses, and replaying the journal
+ * keep the index current just by putting courses in and removing them
+ * IDs are indexed in sorted order for prefix searches, such as "CIT59", and names are split into lowercase words,
+ * each with the courses whose name has it, for word searches, such as "software eng"
+ * The courses under each word are kept in the order they rank in, shortest name first, so a search goes through
+ * the best matches first and stops once no later course could make the limit, instead of looking at every course
+ * Courses can also be filtered by days, times, lecturer, and open seats: each course has a slot in bitmaps of the
+ * days it is held on and the hours it starts and ends in, so day and time conditions are answered a word of 64
+ * courses at a time, and courses are kept ordered by open seats, catching up with enrollments whenever a filter needs the order
+ * Reading is safe while the map changes, like ConcurrentHashMap; changes are made one at a time
+ * @author Katie
+ */
+public class CourseIndex extends AbstractMap<String, Course> {
+
+	//constants
+
+	/**
+	 * Number of courses a search returns unless another limit is given
+	 */
+	public static final int DEFAULT_LIMIT = 10;
+
+	/**
+	 * Ranks of a match, best first: the whole ID, the start of the ID, every word of the name,
+	 * or every word of the name with the last one only the start of a word, as while it is being typed
+	 */
+	private static final int EXACT_ID = 0;
+	private static final int ID_PREFIX = 1;
+	private static final int NAME_WORDS = 2;
+	private static final int NAME_PREFIX = 3;
+
+	/**
+	 * Number of buckets each day is split into for the start and end time bitmaps, and the minutes in each
+	 */
+	private static final int TIME_BUCKETS = 24;
+	private static final int BUCKET_MINUTES = CourseFilter.END_OF_DAY / TIME_BUCKETS;
+
+	/**
+	 * Order matches are returned in: by rank, then for name matches shorter names first since more of them matched,
+	 * then by ID
+	 */
+	private static final Comparator<Match> BEST_FIRST = Comparator.<Match>comparingInt(match -> match.rank)
+			.thenComparingInt(match -> match.rank < NAME_WORDS ? 0 : match.length)
+			.thenComparing(match -> match.key);
+
+
+	//instance variables
+
+	/**
+	 * Courses keyed by ID
+	 */
+	private final Map<String, Course> courses = new ConcurrentHashMap<>();
+
+	/**
+	 * Keys of the courses with each uppercase ID, in ID order
+	 */
+	private final NavigableMap<String, Set<String>> ids = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Courses with each lowercase word in their name, in word order
+	 */
+	private final NavigableMap<String, Postings> words = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Keys of the courses taught by each normalized lecturer name
+	 */
+	private final Map<String, Set<String>> lecturers = new ConcurrentHashMap<>();
+
+	/**
+	 * Courses ordered by open seats, most first, and the courses whose seats changed since they were put in order
+	 * Enrolling and dropping only mark the course as moved, and filters put the moved courses back in order
+	 * before going through them, so the cost of keeping the order falls on the filters rather than every enrollment
+	 */
+	private final Postings seats = new Postings();
+	private final Set<Terms> moved = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Bitmaps of the courses' days and times by slot, and the slots freed by removed courses, to be reused first
+	 */
+	private volatile Bitmaps bitmaps = new Bitmaps(64);
+	private final BitSet freeSlots = new BitSet();
+	private int slotCount;
+
+	/**
+	 * What each course was indexed under, so it can be taken out of the index even if it has changed since
+	 */
+	private final Map<String, Terms> terms = new ConcurrentHashMap<>();
+
+
+	//constructors
+
+	/**
+	 * Creates an empty index
+	 */
+	public CourseIndex() {
+	}
+
+	/**
+	 * Creates an index of the courses in a map
+	 * @param courses map of courses keyed by ID
+	 */
+	public CourseIndex(Map<String, Course> courses) {
+		putAll(courses);
+	}
+
+
+	//methods
+
+	@Override
+	public Course get(Object key) {
+		return courses.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return courses.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return courses.size();
+	}
+
+	/**
+	 * Adds a course, or replaces the course with the same key, and indexes it by its ID, name, lecturer, days,
+	 * and times as they are now, and by its open seats as they change
+	 */
+	@Override
+	public synchronized Course put(String key, Course course) {
+
+		//checks for a key and course, since ConcurrentHashMap can't hold null
+		if (key == null || course == null) {
+			throw new NullPointerException("Course index can't hold a null key or course.");
+		}
+
+		//replaces the course and its place in the index
+		Course replaced = courses.put(key, course);
+		unindex(key);
+		Terms indexed = new Terms(key, course, takeSlot());
+		ids.computeIfAbsent(indexed.id, id -> ConcurrentHashMap.newKeySet()).add(key);
+		for (String word : indexed.words) {
+			words.computeIfAbsent(word, w -> new Postings()).add(new Posting(key, indexed.length));
+		}
+		lecturers.computeIfAbsent(indexed.lecturer, lecturer -> ConcurrentHashMap.newKeySet()).add(key);
+		bitmaps.mark(indexed, true);
+
+		//orders the course by its open seats, and keeps it in order as they change
+		synchronized (indexed) {
+			indexed.openSeats = course.getOpenSeats();
+			seats.add(new Posting(key, -indexed.openSeats));
+		}
+		course.setSeatListener(changed -> moved.add(indexed));
+		terms.put(key, indexed);
+		return replaced;
+
+	}
+
+	/**
+	 * Removes a course and takes it out of the index
+	 */
+	@Override
+	public synchronized Course remove(Object key) {
+
+		Course removed = courses.remove(key);
+		if (removed != null) {
+			unindex((String) key);
+		}
+		return removed;
+
+	}
+
+	@Override
+	public synchronized void clear() {
+		for (String key : courses.keySet()) {
+			remove(key);
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<String, Course>> entrySet() {
+		return new Entries();
+	}
+
+	/**
+	 * Finds the courses matching a search, up to DEFAULT_LIMIT
+	 * @param query start of a course ID, or words from a course name
+	 * @return matching courses, best first
+	 */
+	public List<Course> search(String query) {
+		return search(query, DEFAULT_LIMIT);
+	}
+
+	/**
+	 * Finds the courses whose ID starts with the query, or whose name has every word in it, the last one
+	 * only needing to start a word, ignoring case
+	 * Matches on the whole ID come first, then the start of the ID in ID order, then every word of the name,
+	 * then the rest, name matches with shorter names first, then by ID
+	 * @param query start of a course ID, or words from a course name
+	 * @param limit most courses to return
+	 * @return matching courses, best first, or an empty list if nothing matches
+	 */
+	public List<Course> search(String query, int limit) {
+
+		//checks for a query and room for a result
+		if (query == null || limit < 1) {
+			throw new IllegalArgumentException("Search needs a query and a limit of at least 1.");
+		}
+
+		//keeps the best matches, dropping the worst kept so far when there are too many
+		PriorityQueue<Match> best = new PriorityQueue<>(BEST_FIRST.reversed());
+		Set<String> matched = new HashSet<>();
+
+		//courses whose ID starts with the query come in ID order, after the one with the whole ID,
+		//so only the first few are needed
+		String id = query.trim().toUpperCase(Locale.ROOT);
+		if (!id.isEmpty()) {
+			for (Map.Entry<String, Set<String>> posting : prefixed(ids, id).entrySet()) {
+				int rank = posting.getKey().equals(id) ? EXACT_ID : ID_PREFIX;
+				for (String key : posting.getValue()) {
+					if (matched.size() == limit) {
+						return sorted(best);
+					}
+					offer(best, limit, matched, new Match(key, courses.get(key), rank, 0));
+				}
+			}
+		}
+
+		//checks that the query has words to search names for
+		String[] queryWords = words(query);
+		if (queryWords.length == 0) {
+			return sorted(best);
+		}
+		String last = queryWords[queryWords.length - 1];
+
+		//with one word, takes the courses with it, then the courses with each word starting with it,
+		//going through each shortest name first until the rest can't make the limit
+		if (queryWords.length == 1) {
+			offerAll(best, limit, matched, words.get(last), NAME_WORDS);
+			for (Map.Entry<String, Postings> posting : prefixed(words, last).entrySet()) {
+				if (best.size() == limit && best.peek().rank < NAME_PREFIX) {
+					break;
+				}
+				if (!posting.getKey().equals(last)) {
+					offerAll(best, limit, matched, posting.getValue(), NAME_PREFIX);
+				}
+			}
+			return sorted(best);
+		}
+
+		//with more words, goes through the courses with the rarest of the whole words, shortest name first,
+		//keeping the ones with the rest of them too, until the rest can't make the limit even at the best rank left
+		List<Postings> postings = new ArrayList<>();
+		for (int i = 0; i < queryWords.length - 1; i++) {
+			Postings posting = words.get(queryWords[i]);
+			if (posting == null) {
+				return sorted(best);
+			}
+			postings.add(posting);
+		}
+		postings.sort(Comparator.comparingInt(Postings::size));
+		int bestRank = words.containsKey(last) ? NAME_WORDS : NAME_PREFIX;
+		for (Posting posting : postings.get(0)) {
+			if (beaten(best, limit, new Match(posting.key, null, bestRank, posting.order))) {
+				break;
+			}
+			Terms indexed = terms.get(posting.key);
+			if (indexed == null || !hasAll(postings, posting)) {
+				continue;
+			}
+			if (indexed.has(last)) {
+				offer(best, limit, matched, new Match(posting.key, courses.get(posting.key), NAME_WORDS, posting.order));
+			} else if (indexed.hasPrefix(last)) {
+				offer(best, limit, matched, new Match(posting.key, courses.get(posting.key), NAME_PREFIX, posting.order));
+			}
+		}
+		return sorted(best);
+
+	}
+
+	/**
+	 * Finds the courses meeting every condition of a filter, up to DEFAULT_LIMIT
+	 * @param filter conditions to meet
+	 * @return matching courses, most open seats first
+	 */
+	public List<Course> filter(CourseFilter filter) {
+		return filter(filter, DEFAULT_LIMIT);
+	}
+
+	/**
+	 * Finds the courses meeting every condition of a filter, most open seats first, then by ID
+	 * A lecturer's courses are checked one by one; otherwise the day and time conditions are answered by
+	 * intersecting bitmaps, and the courses left are either all checked, if there are few, or gone through
+	 * most open seats first until the limit is reached, whichever should check fewer courses
+	 * @param filter conditions to meet
+	 * @param limit most courses to return
+	 * @return matching courses, most open seats first, or an empty list if nothing matches
+	 */
+	public List<Course> filter(CourseFilter filter, int limit) {
+
+		//checks for a filter and room for a result
+		if (filter == null || limit < 1) {
+			throw new IllegalArgumentException("Filter needs conditions and a limit of at least 1.");
+		}
+
+		//keeps the matches with the most open seats, dropping the one with the fewest when there are too many
+		TreeMap<Posting, Course> found = new TreeMap<>();
+
+		//a lecturer only teaches a few courses, so each of them is checked
+		if (filter.getLecturer() != null) {
+			for (String key : lecturers.getOrDefault(filter.getLecturer(), Collections.emptySet())) {
+				keep(found, limit, key, courses.get(key), filter);
+			}
+			return new ArrayList<>(found.values());
+		}
+
+		//narrows the courses down to the ones in the right days and hours
+		Bitmaps current = bitmaps;
+		long[] candidates = current.candidates(filter);
+		long count = 0;
+		for (long word : candidates) {
+			count += Long.bitCount(word);
+		}
+
+		//checks every candidate when there are fewer of them than the courses the walk by open seats would expect
+		//to go through before finding enough, limit * size / count
+		if (count * count <= (long) limit * size()) {
+			for (int i = 0; i < candidates.length; i++) {
+				for (long word = candidates[i]; word != 0; word &= word - 1) {
+					Terms indexed = current.slots[i * 64 + Long.numberOfTrailingZeros(word)];
+					if (indexed != null) {
+						keep(found, limit, indexed.key, indexed.course, filter);
+					}
+				}
+			}
+			return new ArrayList<>(found.values());
+		}
+
+		//otherwise, goes through the courses with the most open seats until enough candidates match,
+		//skipping a course seen before that was moved further along by a change to its seats
+		reorderMoved();
+		Set<String> seen = new HashSet<>();
+		for (Posting posting : seats) {
+			if (-posting.order < filter.getOpenSeats() || found.size() == limit) {
+				break;
+			}
+			Terms indexed = terms.get(posting.key);
+			if (indexed != null && seen.add(posting.key) && indexed.slot < candidates.length * 64
+					&& (candidates[indexed.slot >>> 6] & 1L << indexed.slot) != 0) {
+				keep(found, limit, indexed.key, indexed.course, filter);
+			}
+		}
+		return new ArrayList<>(found.values());
+
+	}
+
+	/**
+	 * Splits text into its distinct lowercase words of letters and digits, in the order they first appear
+	 */
+	static String[] words(String text) {
+
+		List<String> words = new ArrayList<>();
+		for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+			if (!word.isEmpty() && !words.contains(word)) {
+				words.add(word);
+			}
+		}
+		return words.toArray(new String[0]);
+
+	}
+
+	/**
+	 * Takes a course's key out of the index under the terms it was indexed with
+	 */
+	private void unindex(String key) {
+
+		Terms indexed = terms.remove(key);
+		if (indexed == null) {
+			return;
+		}
+
+		//stops following the course's open seats
+		indexed.course.setSeatListener(null);
+		synchronized (indexed) {
+			indexed.removed = true;
+			seats.remove(new Posting(key, -indexed.openSeats));
+		}
+		moved.remove(indexed);
+
+		//takes the course out of every other index and frees its slot
+		unpost(ids, indexed.id, key);
+		for (String word : indexed.words) {
+			unpost(words, word, new Posting(key, indexed.length));
+		}
+		unpost(lecturers, indexed.lecturer, key);
+		bitmaps.mark(indexed, false);
+		freeSlots.set(indexed.slot);
+
+	}
+
+	/**
+	 * Takes a free slot for a new course, the lowest one freed if there is one,
+	 * making the bitmaps bigger when every slot is taken
+	 */
+	private int takeSlot() {
+
+		int slot = freeSlots.nextSetBit(0);
+		if (slot >= 0) {
+			freeSlots.clear(slot);
+			return slot;
+		}
+		if (slotCount == bitmaps.slots.length) {
+			bitmaps = bitmaps.grow();
+		}
+		return slotCount++;
+
+	}
+
+	/**
+	 * Moves each course whose seats changed to its place among the courses ordered by open seats
+	 * A course is unmarked before it is moved, so a change made while it is moved marks it again for next time,
+	 * and its open seats are reread while holding the lock on its terms, so whichever thread moves it last leaves
+	 * it in the right place
+	 */
+	private void reorderMoved() {
+
+		for (Iterator<Terms> marked = moved.iterator(); marked.hasNext();) {
+			Terms indexed = marked.next();
+			marked.remove();
+			synchronized (indexed) {
+				int openSeats = indexed.course.getOpenSeats();
+				if (indexed.removed || openSeats == indexed.openSeats) {
+					continue;
+				}
+				seats.remove(new Posting(indexed.key, -indexed.openSeats));
+				indexed.openSeats = openSeats;
+				seats.add(new Posting(indexed.key, -openSeats));
+			}
+		}
+
+	}
+
+	/**
+	 * Keeps a course if it meets a filter and has more open seats than the fewest kept, or there is room
+	 */
+	private static void keep(TreeMap<Posting, Course> found, int limit, String key, Course course, CourseFilter filter) {
+
+		if (course == null || !filter.matches(course)) {
+			return;
+		}
+
+		//skips the course without making room if it has no more open seats than the fewest kept
+		Posting posting = new Posting(key, -course.getOpenSeats());
+		if (found.size() == limit && posting.compareTo(found.lastKey()) > 0) {
+			return;
+		}
+		found.put(posting, course);
+		if (found.size() > limit) {
+			found.pollLastEntry();
+		}
+
+	}
+
+	/**
+	 * Removes a value from the set under a term, and the term once nothing is left under it
+	 */
+	private static <T> void unpost(Map<String, ? extends Set<T>> index, String term, T value) {
+
+		Set<T> values = index.get(term);
+		if (values != null) {
+			values.remove(value);
+			if (values.isEmpty()) {
+				index.remove(term);
+			}
+		}
+
+	}
+
+	/**
+	 * Gets the terms in an index that start with a prefix, in order
+	 */
+	private static <V> NavigableMap<String, V> prefixed(NavigableMap<String, V> index, String prefix) {
+		return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+	}
+
+	/**
+	 * Checks if a course is in every one of the sets of courses
+	 */
+	private static boolean hasAll(List<Postings> postings, Posting posting) {
+		for (Postings courses : postings) {
+			if (!courses.contains(posting)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the matches kept fill the limit and are all better than a match
+	 */
+	private static boolean beaten(PriorityQueue<Match> best, int limit, Match match) {
+		return best.size() == limit && BEST_FIRST.compare(match, best.peek()) >= 0;
+	}
+
+	/**
+	 * Offers the courses under a word with the same rank, shortest name first, stopping at the first that can't make the limit
+	 */
+	private void offerAll(PriorityQueue<Match> best, int limit, Set<String> matched, Postings postings, int rank) {
+
+		if (postings == null) {
+			return;
+		}
+		for (Posting posting : postings) {
+			Match match = new Match(posting.key, courses.get(posting.key), rank, posting.order);
+			if (beaten(best, limit, match)) {
+				return;
+			}
+			offer(best, limit, matched, match);
+		}
+
+	}
+
+	/**
+	 * Keeps a match if there is room or it is better than the worst kept,
+	 * unless its course already matched or was removed since it was found
+	 */
+	private static void offer(PriorityQueue<Match> best, int limit, Set<String> matched, Match match) {
+
+		//skips a course already matched with a better rank
+		if (match.course == null || beaten(best, limit, match) || !matched.add(match.key)) {
+			return;
+		}
+
+		//keeps the match, dropping the worst kept if there is no room
+		if (best.size() == limit) {
+			best.poll();
+		}
+		best.add(match);
+
+	}
+
+	/**
+	 * Gets the courses kept, best first
+	 */
+	private static List<Course> sorted(PriorityQueue<Match> best) {
+
+		List<Match> matches = new ArrayList<>(best);
+		matches.sort(BEST_FIRST);
+		List<Course> found = new ArrayList<>(matches.size());
+		for (Match match : matches) {
+			found.add(match.course);
+		}
+		return found;
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * Everything a course was indexed under: its uppercase ID, name length, lowercase name words, normalized lecturer,
+	 * and the slot its days and times are in the bitmaps under
+	 * The open seats it is ordered by are updated when a filter puts it back in order, while holding the lock on the terms
+	 */
+	private static class Terms {
+
+		final String key;
+		final Course course;
+		final String id;
+		final int length;
+		final String[] words;
+		final String lecturer;
+		final int slot;
+		final int dayMask;
+		final int startBucket;
+		final int endBucket;
+		int openSeats;
+		boolean removed;
+
+		Terms(String key, Course course, int slot) {
+			this.key = key;
+			this.course = course;
+			this.id = course.getId().toUpperCase(Locale.ROOT);
+			this.length = course.getName().length();
+			this.words = words(course.getName());
+			this.lecturer = CourseFilter.normalizeLecturer(course.getLecturer());
+			this.slot = slot;
+			this.dayMask = course.getDayMask();
+			this.startBucket = course.getStartMinute() / BUCKET_MINUTES;
+			this.endBucket = Math.min(TIME_BUCKETS - 1, course.getEndMinute() / BUCKET_MINUTES);
+		}
+
+		/**
+		 * Checks if the course was indexed under a word
+		 */
+		boolean has(String word) {
+			for (String indexed : words) {
+				if (indexed.equals(word)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Checks if the course was indexed under a word starting with a prefix
+		 */
+		boolean hasPrefix(String prefix) {
+			for (String indexed : words) {
+				if (indexed.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Course under a word of its name, ordered by the length of the name, then by key,
+	 * or a course by its open seats, ordered by minus the open seats so the most come first
+	 */
+	private static class Posting implements Comparable<Posting> {
+
+		final String key;
+		final int order;
+
+		Posting(String key, int order) {
+			this.key = key;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Posting other) {
+			return order != other.order ? Integer.compare(order, other.order) : key.compareTo(other.key);
+		}
+
+	}
+
+	/**
+	 * Courses in order, counting them as they are added and removed since a skip list has to walk every entry to count them
+	 */
+	private static class Postings extends ConcurrentSkipListSet<Posting> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public boolean add(Posting posting) {
+			boolean added = super.add(posting);
+			if (added) {
+				count.incrementAndGet();
+			}
+			return added;
+		}
+
+		@Override
+		public boolean remove(Object posting) {
+			boolean removed = super.remove(posting);
+			if (removed) {
+				count.decrementAndGet();
+			}
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			while (pollFirst() != null) {
+				count.decrementAndGet();
+			}
+		}
+
+		@Override
+		public int size() {
+			return count.get();
+		}
+
+	}
+
+	/**
+	 * Bitmaps with a bit for each slot: one of every course in the index, one for each day of the week,
+	 * one for each hour of the courses starting in that hour or later, and one for each hour of the courses ending
+	 * in that hour or earlier, so each condition of a filter is a single AND; along with the terms of the course in each slot
+	 * Replaced with bigger ones once the slots fill up, so they are read from one snapshot
+	 */
+	private static class Bitmaps {
+
+		final Terms[] slots;
+		final long[] live;
+		final long[][] days = new long[7][];
+		final long[][] starts = new long[TIME_BUCKETS][];
+		final long[][] ends = new long[TIME_BUCKETS][];
+
+		Bitmaps(int capacity) {
+			this(new Terms[capacity], new long[capacity / 64]);
+			for (int i = 0; i < days.length; i++) {
+				days[i] = new long[live.length];
+			}
+			for (int i = 0; i < TIME_BUCKETS; i++) {
+				starts[i] = new long[live.length];
+				ends[i] = new long[live.length];
+			}
+		}
+
+		private Bitmaps(Terms[] slots, long[] live) {
+			this.slots = slots;
+			this.live = live;
+		}
+
+		/**
+		 * Copies the bitmaps into ones with twice as many slots
+		 */
+		Bitmaps grow() {
+			Bitmaps grown = new Bitmaps(Arrays.copyOf(slots, slots.length * 2), Arrays.copyOf(live, live.length * 2));
+			for (int i = 0; i < days.length; i++) {
+				grown.days[i] = Arrays.copyOf(days[i], live.length * 2);
+			}
+			for (int i = 0; i < TIME_BUCKETS; i++) {
+				grown.starts[i] = Arrays.copyOf(starts[i], live.length * 2);
+				grown.ends[i] = Arrays.copyOf(ends[i], live.length * 2);
+			}
+			return grown;
+		}
+
+		/**
+		 * Sets or clears the bits of a course in its slot
+		 */
+		void mark(Terms indexed, boolean set) {
+
+			int word = indexed.slot >>> 6;
+			long bit = 1L << indexed.slot;
+			slots[indexed.slot] = set ? indexed : null;
+			flip(live, word, bit, set);
+			for (int day = 0; day < days.length; day++) {
+				if ((indexed.dayMask & 1 << day) != 0) {
+					flip(days[day], word, bit, set);
+				}
+			}
+			for (int bucket = 0; bucket <= indexed.startBucket; bucket++) {
+				flip(starts[bucket], word, bit, set);
+			}
+			for (int bucket = indexed.endBucket; bucket < TIME_BUCKETS; bucket++) {
+				flip(ends[bucket], word, bit, set);
+			}
+
+		}
+
+		private static void flip(long[] bitmap, int word, long bit, boolean set) {
+			bitmap[word] = set ? bitmap[word] | bit : bitmap[word] & ~bit;
+		}
+
+		/**
+		 * Finds the slots of the courses that may meet a filter's day and time conditions, a word at a time
+		 * Courses starting or ending in the same hour as the filter's times are kept, to be checked exactly later
+		 * @return bitmap of the slots, which is the live bitmap itself if the filter has no day or time conditions
+		 */
+		long[] candidates(CourseFilter filter) {
+
+			//works out which bitmaps the conditions need
+			int on = filter.getOnDays();
+			int off = CourseFilter.EVERY_DAY & ~filter.getOnlyOnDays();
+			int firstStart = filter.getStartingFrom() / BUCKET_MINUTES;
+			int lastEnd = Math.min(TIME_BUCKETS - 1, filter.getEndingBy() / BUCKET_MINUTES);
+			if (on == 0 && off == 0 && firstStart == 0 && lastEnd == TIME_BUCKETS - 1) {
+				return live;
+			}
+
+			//picks out the bitmaps of the days courses have to be held on and the days they can't be
+			List<long[]> held = new ArrayList<>();
+			List<long[]> notHeld = new ArrayList<>();
+			for (int day = 0; day < days.length; day++) {
+				if ((on & 1 << day) != 0) {
+					held.add(days[day]);
+				} else if ((off & 1 << day) != 0) {
+					notHeld.add(days[day]);
+				}
+			}
+
+			//intersects the live courses with each condition
+			long[] found = new long[live.length];
+			for (int i = 0; i < live.length; i++) {
+				long word = live[i];
+				for (long[] day : held) {
+					word &= day[i];
+				}
+				for (long[] day : notHeld) {
+					word &= ~day[i];
+				}
+				if (firstStart > 0) {
+					word &= starts[firstStart][i];
+				}
+				if (lastEnd < TIME_BUCKETS - 1) {
+					word &= ends[lastEnd][i];
+				}
+				found[i] = word;
+			}
+			return found;
+
+		}
+
+	}
+
+	/**
+	 * Course found by a search, with how well it matched
+	 */
+	private static class Match {
+
+		final String key;
+		final Course course;
+		final int rank;
+		final int length;
+
+		Match(String key, Course course, int rank, int length) {
+			this.key = key;
+			this.course = course;
+			this.rank = rank;
+			this.length = length;
+		}
+
+	}
+
+	/**
+	 * Entries of the map, removing through the index
+	 */
+	private class Entries extends AbstractSet<Map.Entry<String, Course>> {
+
+		@Override
+		public Iterator<Map.Entry<String, Course>> iterator() {
+
+			Iterator<Map.Entry<String, Course>> entries = courses.entrySet().iterator();
+			return new Iterator<Map.Entry<String, Course>>() {
+
+				private String last;
+
+				@Override
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+
+				@Override
+				public Map.Entry<String, Course> next() {
+					Map.Entry<String, Course> entry = entries.next();
+					last = entry.getKey();
+					return new AbstractMap.SimpleImmutableEntry<>(entry);
+				}
+
+				@Override
+				public void remove() {
+					if (last == null) {
+						throw new IllegalStateException();
+					}
+					CourseIndex.this.remove(last);
+					last = null;
+				}
+
+			};
+
+		}
+
+		@Override
+		public int size() {
+			return courses.size();
+		}
+
+	}
+
+}
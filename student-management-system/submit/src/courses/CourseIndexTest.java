@@ -0,0 +1,268 @@
+package courses;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CourseIndexTest {
+
+	private CourseIndex courses;
+
+	@BeforeEach
+	void setUp() {
+
+		courses = new CourseIndex();
+		put("CIT590", "Programming Languages and Techniques");
+		put("CIT591", "Introduction to Software Development");
+		put("CIT593", "Introduction to Computer Systems");
+		put("CIT5900", "Software Engineering Seminar");
+		put("CIS120", "Programming Languages and Techniques I");
+		put("ESE350", "Embedded Systems");
+
+	}
+
+	/**
+	 * Puts a course in the index under its ID
+	 */
+	private void put(String id, String name) {
+		courses.put(id, new Course(id, name, "John Doe", "MW", "10:00", "11:30", 10));
+	}
+
+	/**
+	 * Gets the IDs of the courses found by a search
+	 */
+	private List<String> search(String query, int limit) {
+		List<String> ids = new ArrayList<>();
+		for (Course course : courses.search(query, limit)) {
+			ids.add(course.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	void testSearchIds() {
+
+		//Test Case 1: The start of an ID finds courses in ID order, ignoring case
+		assertEquals(List.of("CIT590", "CIT5900", "CIT591", "CIT593"), search("cit59", 10));
+
+		//Test Case 2: The whole ID comes first, and the limit keeps the best
+		assertEquals(List.of("CIT590", "CIT5900"), search("CIT590", 2));
+		assertEquals(List.of("CIT590"), search("CIT590", 1));
+
+		//Test Case 3: Nothing matches an unknown ID
+		assertTrue(search("MATH", 10).isEmpty());
+
+	}
+
+	@Test
+	void testSearchNames() {
+
+		//Test Case 1: A word finds the courses with it, shorter names first
+		assertEquals(List.of("CIT593", "CIT591"), search("introduction", 10));
+
+		//Test Case 2: Every word has to match, and the last only has to start a word
+		assertEquals(List.of("CIT5900", "CIT591"), search("software", 10));
+		assertEquals(List.of("CIT591"), search("Software dev", 10));
+		assertEquals(List.of("CIT590", "CIS120"), search("programming languages", 10));
+
+		//Test Case 3: Whole words rank above words only started
+		assertEquals(List.of("ESE350", "CIT593"), search("systems", 10));
+		assertEquals(List.of("ESE350", "CIT593"), search("sys", 10));
+		put("CS101", "Sys");
+		assertEquals("CS101", search("sys", 10).get(0));
+
+		//Test Case 4: A query with no words finds nothing
+		assertTrue(search("   ", 10).isEmpty());
+
+	}
+
+	@Test
+	void testChanges() {
+
+		//Test Case 1: Removed courses are no longer found
+		assertNotNull(courses.remove("CIT591"));
+		assertEquals(List.of("CIT5900"), search("software", 10));
+		assertEquals(List.of("CIT590", "CIT5900", "CIT593"), search("CIT59", 10));
+
+		//Test Case 2: A replaced course is found by its new name only
+		put("CIT593", "Operating Systems");
+		assertEquals(List.of("CIT593"), search("operating", 10));
+		assertTrue(search("computer", 10).isEmpty());
+		assertEquals(6 - 1, courses.size());
+
+		//Test Case 3: Removing through the map's entries updates the index
+		Iterator<String> keys = courses.keySet().iterator();
+		while (keys.hasNext()) {
+			if (keys.next().startsWith("ESE")) {
+				keys.remove();
+			}
+		}
+		assertFalse(courses.containsKey("ESE350"));
+		assertTrue(search("embedded", 10).isEmpty());
+
+		//Test Case 4: Clearing empties the index
+		courses.clear();
+		assertTrue(search("CIT", 10).isEmpty());
+		assertTrue(courses.isEmpty());
+
+	}
+
+	/**
+	 * Gets the IDs of the courses meeting a filter
+	 */
+	private List<String> filter(CourseFilter filter, int limit) {
+		List<String> ids = new ArrayList<>();
+		for (Course course : courses.filter(filter, limit)) {
+			ids.add(course.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	void testFilter() {
+
+		courses.clear();
+		courses.put("CIS101", new Course("CIS101", "Intro", "John Doe", "TR", "09:00", "10:30", 10));
+		courses.put("CIS102", new Course("CIS102", "Data", "John Doe", "TR", "10:30", "12:00", 20));
+		courses.put("CIS103", new Course("CIS103", "Systems", "Jane Roe", "MTWR", "13:00", "14:00", 30));
+		courses.put("CIS104", new Course("CIS104", "Theory", "Jane Roe", "T", "10:00", "11:00", 40));
+
+		//Test Case 1: A filter with no conditions matches every course, most open seats first
+		assertEquals(List.of("CIS104", "CIS103", "CIS102", "CIS101"), filter(new CourseFilter(), 10));
+
+		//Test Case 2: Courses held on the days, and on no others
+		assertEquals(List.of("CIS104", "CIS103", "CIS102", "CIS101"), filter(new CourseFilter().on("T"), 10));
+		assertEquals(List.of("CIS103", "CIS102", "CIS101"), filter(new CourseFilter().on("TR"), 10));
+		assertEquals(List.of("CIS104", "CIS102", "CIS101"), filter(new CourseFilter().onlyOn("TR"), 10));
+
+		//Test Case 3: Courses starting from and ending by a time, checked to the minute within the hour
+		assertEquals(List.of("CIS103", "CIS102"), filter(new CourseFilter().on("TR").startingFrom("10:01"), 10));
+		assertEquals(List.of("CIS104", "CIS101"), filter(new CourseFilter().endingBy("11:00"), 10));
+		assertEquals(List.of("CIS104"), filter(new CourseFilter().startingFrom("10:00").endingBy("11:00"), 10));
+
+		//Test Case 4: Courses taught by a lecturer, ignoring case
+		assertEquals(List.of("CIS102", "CIS101"), filter(new CourseFilter().taughtBy(" john doe"), 10));
+		assertEquals(List.of("CIS103"), filter(new CourseFilter().taughtBy("Jane Roe").on("M"), 10));
+		assertTrue(filter(new CourseFilter().taughtBy("Nobody"), 10).isEmpty());
+
+		//Test Case 5: The limit keeps the courses with the most open seats
+		assertEquals(List.of("CIS104", "CIS103"), filter(new CourseFilter(), 2));
+
+	}
+
+	@Test
+	void testFilterSeats() {
+
+		courses.clear();
+		Course small = new Course("CIS101", "Intro", "John Doe", "MW", "09:00", "10:30", 2);
+		Course large = new Course("CIS102", "Data", "John Doe", "TR", "10:30", "12:00", 3);
+		courses.put("CIS101", small);
+		courses.put("CIS102", large);
+
+		//Test Case 1: Courses with fewer open seats than asked for are left out
+		assertEquals(List.of("CIS102"), filter(new CourseFilter().withOpenSeats(3), 10));
+
+		//Test Case 2: Open seats are kept up as students enroll and drop
+		large.enroll("001");
+		large.enroll("002");
+		assertEquals(List.of("CIS101", "CIS102"), filter(new CourseFilter().withOpenSeats(1), 10));
+		large.enroll("003");
+		assertEquals(List.of("CIS101"), filter(new CourseFilter().withOpenSeats(1), 10));
+		large.withdraw("001");
+		large.withdraw("002");
+		small.setCapacity(1);
+		assertEquals(List.of("CIS102", "CIS101"), filter(new CourseFilter().withOpenSeats(1), 10));
+
+		//Test Case 3: A removed course stops being followed
+		courses.remove("CIS102");
+		large.withdraw("003");
+		assertEquals(List.of("CIS101"), filter(new CourseFilter(), 10));
+
+	}
+
+	@Test
+	void testFilterMatchesScan() {
+
+		//fills a catalog big enough to need several bitmap words, with seats taken, some courses removed and others
+		//put back in their slots
+		courses.clear();
+		Random random = new Random(590);
+		List<Course> all = new ArrayList<>();
+		String[] days = {"M", "T", "MW", "TR", "MWF", "F", "S", "U", "MTWRF"};
+		String[] lecturers = {"John Doe", "Jane Roe", "Alan Turing", "Grace Hopper"};
+		for (int i = 0; i < 1000; i++) {
+			int start = 8 * 60 + random.nextInt(12 * 60);
+			Course course = new Course(String.format("CIS%04d", i), "Course " + i, lecturers[random.nextInt(lecturers.length)],
+					days[random.nextInt(days.length)], String.format("%d:%02d", start / 60, start % 60),
+					String.format("%d:%02d", (start + 50) / 60, (start + 50) % 60), 1 + random.nextInt(40));
+			for (int j = random.nextInt(course.getCapacity() + 1); j > 0; j--) {
+				course.enroll("S" + j);
+			}
+			courses.put(course.getId(), course);
+			all.add(course);
+		}
+		for (int i = 0; i < 200; i++) {
+			courses.remove(all.get(random.nextInt(all.size())).getId());
+		}
+		for (int i = 0; i < 100; i++) {
+			Course course = all.get(random.nextInt(all.size()));
+			courses.put(course.getId(), course);
+		}
+
+		//Test Case 1: Filters answered from the bitmaps or by open seats find the same courses as checking each one
+		String[] times = {"08:00", "10:30", "12:00", "15:45", "20:00"};
+		for (int i = 0; i < 500; i++) {
+			CourseFilter filter = new CourseFilter();
+			if (random.nextBoolean()) {
+				filter.on(days[random.nextInt(days.length)]);
+			}
+			if (random.nextInt(4) == 0) {
+				filter.onlyOn(days[random.nextInt(days.length)]);
+			}
+			if (random.nextBoolean()) {
+				filter.startingFrom(times[random.nextInt(times.length)]);
+			}
+			if (random.nextBoolean()) {
+				filter.endingBy(times[random.nextInt(times.length)]);
+			}
+			if (random.nextInt(4) == 0) {
+				filter.taughtBy(lecturers[random.nextInt(lecturers.length)]);
+			}
+			filter.withOpenSeats(random.nextInt(4) == 0 ? random.nextInt(20) : 0);
+			int limit = 1 + random.nextInt(30);
+
+			List<String> expected = new ArrayList<>();
+			courses.values().stream().filter(filter::matches)
+					.sorted(Comparator.comparingInt(Course::getOpenSeats).reversed().thenComparing(Course::getId))
+					.limit(limit).forEach(course -> expected.add(course.getId()));
+			assertEquals(expected, filter(filter, limit));
+		}
+
+	}
+
+	@Test
+	void testInvalidSearch() {
+
+		//Test Case 1: A null query or filter, a limit below 1, or a bad condition is rejected
+		assertThrows(IllegalArgumentException.class, () -> courses.search(null, 10));
+		assertThrows(IllegalArgumentException.class, () -> courses.search("CIT", 0));
+		assertThrows(IllegalArgumentException.class, () -> courses.filter(null, 10));
+		assertThrows(IllegalArgumentException.class, () -> courses.filter(new CourseFilter(), 0));
+		assertThrows(IllegalArgumentException.class, () -> new CourseFilter().on("TX"));
+		assertThrows(IllegalArgumentException.class, () -> new CourseFilter().startingFrom("25:00"));
+		assertThrows(IllegalArgumentException.class, () -> new CourseFilter().withOpenSeats(-1));
+
+		//Test Case 2: Null keys and courses are rejected
+		assertThrows(NullPointerException.class, () -> courses.put(null, courses.get("CIT590")));
+		assertThrows(NullPointerException.class, () -> courses.put("CIT000", null));
+
+	}
+
+}
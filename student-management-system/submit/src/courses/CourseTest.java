@@ -49,6 +49,22 @@ class CourseTest {
 		
 	}
 	
+	@Test
+	void testEnrolledStudentsOrder() {
+		
+		//Test Case 1: Students are listed in enrollment order
+		course1.addStudent("003");
+		course1.addStudent("001");
+		course1.addStudent("002");
+		course1.removeStudent("001");
+		course1.addStudent("001");
+		assertArrayEquals(new String[] {"003", "002", "001"}, course1.getEnrolledStudents().toArray());
+		
+		//Test Case 2: The roster can't be changed from outside the course
+		assertThrows(UnsupportedOperationException.class, () -> course1.getEnrolledStudents().add("004"));
+		
+	}
+	
 	@Test
 	void testHasTimeConflict() {
 		
@@ -64,6 +80,53 @@ class CourseTest {
 		Course nonConflictingCourse = new Course("CIS105", "Web Design", "John Doe", "TR", "13:00", "14:30", 50);
 		assertFalse(course1.hasTimeConflict(nonConflictingCourse));
 		
+		//Test Case 4: Back-to-back courses on the same days don't conflict
+		Course backToBack = new Course("CIS106", "Networks", "Jane Smith", "MWF", "11:30", "12:30", 50);
+		assertFalse(course1.hasTimeConflict(backToBack));
+		assertFalse(backToBack.hasTimeConflict(course1));
+		
+	}
+	
+	@Test
+	void testParseDaysAndTimes() {
+		
+		//Test Case 1: Days and times are parsed when the course is created
+		Course course = new Course("CIS106", "Networks", "Jane Smith", "MWF", "9:05", "10:00", 50);
+		assertEquals(0b10101, course.getDayMask());
+		assertEquals(9 * 60 + 5, course.getStartMinute());
+		assertEquals(10 * 60, course.getEndMinute());
+		
+		//Test Case 2: Malformed days and times are rejected
+		assertThrows(IllegalArgumentException.class, () -> course.setDays("MX"));
+		assertThrows(IllegalArgumentException.class, () -> course.setStartTime("10.30"));
+		assertThrows(IllegalArgumentException.class, () -> course.setEndTime("25:00"));
+		assertThrows(IllegalArgumentException.class, () -> course.setEndTime("10:3"));
+		
+		//Test Case 3: Rejected values leave the course unchanged
+		assertEquals("MWF", course.getDays());
+		assertEquals("10:00", course.getEndTime());
+		
+	}
+
+	@Test
+	void testToString() {
+		
+		//Test Case 1: The line is reused while nothing it shows changes
+		String line = course1.toString();
+		assertEquals("CIS101: Intro to CS, Professor John Doe, MW from 10:00 to 11:30 (Capacity: 0/30)", line);
+		assertSame(line, course1.toString());
+		
+		//Test Case 2: The line is built again once the seat count changes
+		course1.addStudent("001");
+		assertEquals("CIS101: Intro to CS, Professor John Doe, MW from 10:00 to 11:30 (Capacity: 1/30)", course1.toString());
+		course1.removeStudent("001");
+		assertEquals(line, course1.toString());
+		
+		//Test Case 3: The line is built again once a field changes
+		course1.setName("Programming");
+		course1.setCapacity(40);
+		assertEquals("CIS101: Programming, Professor John Doe, MW from 10:00 to 11:30 (Capacity: 0/40)", course1.toString());
+		
 	}
 
 }
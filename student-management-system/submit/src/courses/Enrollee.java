@@ -0,0 +1,24 @@
+package courses;
+
+/**
+ * Someone who can wait for a seat in a course and be enrolled once one opens up
+ * Lets a course hand a freed seat to the head of its waitlist without knowing about students
+ * @author Katie
+ */
+public interface Enrollee {
+
+	/**
+	 * Gets the ID the enrollee is listed under in course rosters
+	 * @return ID of enrollee
+	 */
+	String getId();
+	
+	/**
+	 * Offers the enrollee a seat that has been reserved for them
+	 * The enrollee re-checks that they can still take the course and records the enrollment if so
+	 * @param course with the reserved seat
+	 * @return true if the seat was taken, false if the enrollee can no longer take the course
+	 */
+	boolean acceptSeat(Course course);
+	
+}
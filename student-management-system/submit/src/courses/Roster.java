@@ -0,0 +1,139 @@
+package courses;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe set of the student IDs enrolled in a course, kept in enrollment order
+ * Membership is a concurrent hash map lookup, while a skip list ordered by enrollment
+ * number remembers the order students were added in
+ * The set itself is read-only; students are added and removed through enroll and withdraw
+ * @author Katie
+ */
+class Roster extends AbstractSet<String> {
+
+	//instance variables
+
+	/**
+	 * Enrollment number of each enrolled student
+	 */
+	private final ConcurrentHashMap<String, Long> positions = new ConcurrentHashMap<>();
+
+	/**
+	 * Enrolled students ordered by enrollment number
+	 */
+	private final ConcurrentSkipListMap<Long, String> order = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Next enrollment number to hand out
+	 */
+	private final AtomicLong nextPosition = new AtomicLong();
+
+
+	//methods
+
+	/**
+	 * Adds a student to the end of the roster
+	 * @param studentId of student to add
+	 * @return true if the student was added, false if they were already enrolled
+	 */
+	boolean enroll(String studentId) {
+
+		//claims a place in the order first, so a student is never a member without one
+		long position = nextPosition.getAndIncrement();
+		order.put(position, studentId);
+
+		//gives the place back if the student was already enrolled
+		if (positions.putIfAbsent(studentId, position) != null) {
+			order.remove(position);
+			return false;
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * Removes a student from the roster
+	 * @param studentId of student to remove
+	 * @return true if the student was removed, false if they weren't enrolled
+	 */
+	boolean withdraw(String studentId) {
+
+		Long position = positions.remove(studentId);
+		if (position == null) {
+			return false;
+		}
+
+		order.remove(position);
+		return true;
+
+	}
+
+	/**
+	 * Checks if a student is enrolled
+	 */
+	@Override
+	public boolean contains(Object studentId) {
+		return studentId != null && positions.containsKey(studentId);
+	}
+
+	/**
+	 * Gets the number of enrolled students
+	 */
+	@Override
+	public int size() {
+		return positions.size();
+	}
+
+	/**
+	 * Goes through the enrolled students in enrollment order
+	 * Places claimed by students who turned out to be enrolled already are skipped
+	 */
+	@Override
+	public Iterator<String> iterator() {
+
+		Iterator<Map.Entry<Long, String>> entries = order.entrySet().iterator();
+
+		return new Iterator<String>() {
+
+			private String next;
+
+			@Override
+			public boolean hasNext() {
+
+				//moves ahead to the next place that belongs to an enrolled student
+				while (next == null && entries.hasNext()) {
+					Map.Entry<Long, String> entry = entries.next();
+					if (entry.getKey().equals(positions.get(entry.getValue()))) {
+						next = entry.getValue();
+					}
+				}
+
+				return next != null;
+
+			}
+
+			@Override
+			public String next() {
+
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				String studentId = next;
+				next = null;
+				return studentId;
+
+			}
+
+		};
+
+	}
+
+}
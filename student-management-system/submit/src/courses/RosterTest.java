@@ -0,0 +1,127 @@
+package courses;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RosterTest {
+
+	@Test
+	void testOrder() {
+
+		Roster roster = new Roster();
+
+		//Test Case 1: Students are kept once each, in the order they enrolled
+		assertTrue(roster.enroll("003"));
+		assertTrue(roster.enroll("001"));
+		assertTrue(roster.enroll("002"));
+		assertFalse(roster.enroll("001"));
+		assertEquals(List.of("003", "001", "002"), new ArrayList<>(roster));
+		assertEquals(3, roster.size());
+
+		//Test Case 2: A student who withdraws and enrolls again goes to the end
+		assertTrue(roster.withdraw("003"));
+		assertFalse(roster.withdraw("003"));
+		assertFalse(roster.contains("003"));
+		assertTrue(roster.enroll("003"));
+		assertEquals(List.of("001", "002", "003"), new ArrayList<>(roster));
+
+		//Test Case 3: The order holds across many students coming and going
+		List<String> expected = new ArrayList<>(List.of("001", "002", "003"));
+		for (int i = 0; i < 2000; i++) {
+			String id = "S" + i;
+			assertTrue(roster.enroll(id));
+			expected.add(id);
+			if (i % 3 == 0) {
+				assertTrue(roster.withdraw(id));
+				expected.remove(id);
+			}
+		}
+		assertEquals(expected, new ArrayList<>(roster));
+		assertEquals(expected.size(), roster.size());
+		assertFalse(roster.contains("S0"));
+		assertTrue(roster.contains("S1"));
+
+	}
+
+	@Test
+	void testConcurrentChanges() throws Exception {
+
+		Roster roster = new Roster();
+		int threads = 8;
+		int rounds = 50000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger sharedEnrolled = new AtomicInteger();
+		try {
+
+			//each thread enrolls students of its own, keeping one in 50, while all of them race for shared ones
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < rounds; i++) {
+						String own = "T" + thread + "-" + i;
+						assertTrue(roster.enroll(own));
+						assertTrue(roster.contains(own));
+						if (i % 50 != 0) {
+							assertTrue(roster.withdraw(own));
+						}
+						if (roster.enroll("shared" + i % 50)) {
+							sharedEnrolled.incrementAndGet();
+						}
+						if (i % 7 == 0 && roster.withdraw("shared" + i % 50)) {
+							sharedEnrolled.decrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+
+		} finally {
+			executor.shutdown();
+		}
+
+		//Test Case 1: Every student a thread kept is enrolled once, and nobody is lost or doubled
+		List<String> enrolled = new ArrayList<>(roster);
+		Set<String> unique = new HashSet<>(enrolled);
+		assertEquals(enrolled.size(), unique.size());
+		assertEquals(threads * rounds / 50 + sharedEnrolled.get(), roster.size());
+		assertEquals(roster.size(), enrolled.size());
+		for (int t = 0; t < threads; t++) {
+			for (int i = 0; i < rounds; i += 50) {
+				assertTrue(unique.contains("T" + t + "-" + i));
+			}
+		}
+
+		//Test Case 2: Each thread's own students are in the order it enrolled them
+		for (int t = 0; t < threads; t++) {
+			String prefix = "T" + t + "-";
+			int last = -1;
+			for (String id : enrolled) {
+				if (id.startsWith(prefix)) {
+					int i = Integer.parseInt(id.substring(prefix.length()));
+					assertTrue(i > last, id);
+					last = i;
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,18 @@
+package courses;
+
+/**
+ * Told by a course whenever the number of its open seats may have changed, so an index of courses by open seats
+ * can keep up as students enroll and drop
+ * Called on the thread that changed the seats, after the change, so it should be quick
+ * @author Katie
+ */
+@FunctionalInterface
+interface SeatListener {
+
+	/**
+	 * Called after the number of open seats in a course may have changed
+	 * @param course whose seats changed
+	 */
+	void seatsChanged(Course course);
+
+}
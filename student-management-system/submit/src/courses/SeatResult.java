@@ -0,0 +1,66 @@
+package courses;
+
+import messages.Outcome;
+
+/**
+ * Outcome of adding a student to a course, removing them, or putting them on its waitlist
+ * Messages are filled in with the student's ID
+ * @author Katie
+ */
+public enum SeatResult implements Outcome {
+
+	/**
+	 * The student got a seat
+	 */
+	SEATED(null),
+
+	/**
+	 * Every seat was taken
+	 */
+	FULL("Cannot add student %s to course. Course is already full."),
+
+	/**
+	 * The student already had a seat
+	 */
+	ALREADY_ENROLLED("Cannot add student %s to course. Student is already enrolled."),
+
+	/**
+	 * The student gave up their seat
+	 */
+	WITHDRAWN(null),
+
+	/**
+	 * The student had no seat to give up
+	 */
+	NOT_ENROLLED("Cannot remove student %s from course. Student is not enrolled."),
+
+	/**
+	 * The student joined the waitlist
+	 */
+	WAITLISTED(null),
+
+	/**
+	 * The student had a seat, so didn't need to wait for one
+	 */
+	ENROLLED_NOT_WAITLISTED("Cannot add student %s to waitlist. Student is already enrolled."),
+
+	/**
+	 * The student was already waiting, or the waitlist was full
+	 */
+	WAITLIST_UNAVAILABLE("Cannot add student %s to waitlist. Student is already waiting or the waitlist is full.");
+
+	/**
+	 * Message shown for the outcome, or null if nothing is shown
+	 */
+	private final String message;
+
+	SeatResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+}
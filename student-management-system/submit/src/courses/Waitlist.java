@@ -0,0 +1,133 @@
+package courses;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Bounded first-come-first-served waitlist for a full course
+ * Joining, leaving, and taking the head of the line are all constant time
+ * @author Katie
+ */
+class Waitlist {
+	
+	//instance variables
+	
+	/**
+	 * Waiting enrollees keyed by ID, in the order they joined
+	 */
+	private final LinkedHashMap<String, Enrollee> entries = new LinkedHashMap<>();
+	
+	/**
+	 * Maximum number of enrollees who can wait at once
+	 */
+	private int capacity;
+	
+	
+	//constructor
+	
+	/**
+	 * Creates an empty waitlist
+	 * @param capacity maximum number of enrollees who can wait at once
+	 */
+	Waitlist(int capacity) {
+		setCapacity(capacity);
+	}
+	
+	
+	//getters and setters
+	
+	/**
+	 * Gets the maximum number of enrollees who can wait at once
+	 */
+	synchronized int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Sets the maximum number of enrollees who can wait at once
+	 * Enrollees already waiting keep their place if the waitlist shrinks
+	 */
+	synchronized void setCapacity(int capacity) {
+		
+		//checks if capacity is negative
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Waitlist capacity cannot be negative.");
+		}
+		
+		this.capacity = capacity;
+		
+	}
+	
+	
+	//methods
+	
+	/**
+	 * Adds an enrollee to the end of the waitlist
+	 * @param enrollee to add
+	 * @return true if added, false if the waitlist is full or they are already waiting
+	 */
+	synchronized boolean offer(Enrollee enrollee) {
+		
+		if (entries.size() >= capacity || entries.containsKey(enrollee.getId())) {
+			return false;
+		}
+		
+		entries.put(enrollee.getId(), enrollee);
+		return true;
+		
+	}
+	
+	/**
+	 * Takes the enrollee at the head of the waitlist
+	 * @return enrollee who has waited longest, or null if nobody is waiting
+	 */
+	synchronized Enrollee poll() {
+		
+		Iterator<Enrollee> head = entries.values().iterator();
+		if (!head.hasNext()) {
+			return null;
+		}
+		
+		Enrollee enrollee = head.next();
+		head.remove();
+		return enrollee;
+		
+	}
+	
+	/**
+	 * Removes an enrollee from the waitlist
+	 * @param id of enrollee to remove
+	 * @return true if removed, false if they weren't waiting
+	 */
+	synchronized boolean remove(String id) {
+		return entries.remove(id) != null;
+	}
+	
+	/**
+	 * Checks if an enrollee is waiting
+	 * @param id of enrollee
+	 * @return true if waiting, false if not
+	 */
+	synchronized boolean contains(String id) {
+		return entries.containsKey(id);
+	}
+	
+	/**
+	 * Checks if nobody is waiting
+	 * @return true if the waitlist is empty, false if not
+	 */
+	synchronized boolean isEmpty() {
+		return entries.isEmpty();
+	}
+	
+	/**
+	 * Gets the IDs of waiting enrollees in the order they joined
+	 * @return copy of the waiting IDs
+	 */
+	synchronized List<String> ids() {
+		return new ArrayList<>(entries.keySet());
+	}
+	
+}
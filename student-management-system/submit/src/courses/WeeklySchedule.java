@@ -0,0 +1,157 @@
+package courses;
+
+import java.util.Arrays;
+
+/**
+ * Represents the weekly time slots occupied by a set of courses
+ * Each day is split into 5 minute slots stored as bits, so checking a new course
+ * against the whole schedule only takes a few word-level ANDs
+ * @author Katie
+ */
+public class WeeklySchedule {
+
+	//constants
+
+	/**
+	 * Length of each time slot in minutes
+	 */
+	private static final int SLOT_MINUTES = 5;
+
+	/**
+	 * Number of 64-bit words needed to hold one day of slots
+	 */
+	private static final int WORDS_PER_DAY = (24 * 60 / SLOT_MINUTES + 63) / 64;
+
+
+	//instance variables
+
+	/**
+	 * Occupied slots for each day of the week, Monday first
+	 * Only allocated once a course is added, since most loaded students aren't enrolled in anything yet
+	 */
+	private long[] slots;
+
+
+	//methods
+
+	/**
+	 * Marks the slots a course is held in as occupied
+	 * @param course to add
+	 */
+	public void add(Course course) {
+
+		//needs its slots before anything is marked
+		if (slots == null) {
+			slots = new long[7 * WORDS_PER_DAY];
+		}
+
+		SlotMask mask = course.getSlotMask();
+		for (int i = 0; i < mask.words.length; i++) {
+			slots[mask.words[i]] |= mask.bits[i];
+		}
+
+	}
+
+	/**
+	 * Clears every slot in the schedule
+	 */
+	public void clear() {
+		if (slots != null) {
+			Arrays.fill(slots, 0L);
+		}
+	}
+
+	/**
+	 * Checks if a course is held during any occupied slot
+	 * Slots are 5 minutes long, so an overlap means the course may conflict with the schedule,
+	 * while no overlap means it definitely doesn't
+	 * @param course to check
+	 * @return true if the course touches an occupied slot, false if not
+	 */
+	public boolean overlaps(Course course) {
+
+		SlotMask mask = course.getSlotMask();
+
+		//courses without a proper time range can't be placed in slots, so they always need a closer look
+		if (mask.unplaced) {
+			return true;
+		}
+
+		//an empty schedule has nothing to check against
+		if (slots == null) {
+			return false;
+		}
+
+		for (int i = 0; i < mask.words.length; i++) {
+			if ((slots[mask.words[i]] & mask.bits[i]) != 0) {
+				return true;
+			}
+		}
+
+		return false;
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * Slots a course is held in, worked out once from its days and times so checking it against a schedule is
+	 * only a few ANDs, with no division or day-by-day walk
+	 * Kept by the course and built again once its days or times change
+	 */
+	static final class SlotMask {
+
+		/**
+		 * Index of each schedule word the course touches, and the bits it touches in that word
+		 */
+		final int[] words;
+		final long[] bits;
+
+		/**
+		 * True if the course has no proper time range, so it can't be placed in slots at all
+		 */
+		final boolean unplaced;
+
+		/**
+		 * Works out the slots a course is held in
+		 * @param course to work out
+		 */
+		SlotMask(Course course) {
+
+			//finds the first and last slot the course touches
+			int first = course.getStartMinute() / SLOT_MINUTES;
+			int last = (course.getEndMinute() - 1) / SLOT_MINUTES;
+			unplaced = course.getEndMinute() <= course.getStartMinute();
+			int span = unplaced ? 0 : (last >>> 6) - (first >>> 6) + 1;
+			words = new int[Integer.bitCount(course.getDayMask()) * span];
+			bits = new long[words.length];
+
+			//goes through each day the course is held
+			int i = 0;
+			int days = course.getDayMask();
+			for (int day = 0; days != 0 && span > 0; day++, days >>>= 1) {
+				if ((days & 1) == 0) {
+					continue;
+				}
+
+				//goes through each word covering the course's slots on that day, keeping only the bits between
+				//the first and last slot
+				for (int word = first >>> 6; word <= last >>> 6; word++, i++) {
+					long wordBits = -1L;
+					if (word == first >>> 6) {
+						wordBits &= -1L << (first & 63);
+					}
+					if (word == last >>> 6) {
+						wordBits &= -1L >>> (63 - (last & 63));
+					}
+					words[i] = day * WORDS_PER_DAY + word;
+					bits[i] = wordBits;
+				}
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package courses;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WeeklyScheduleTest {
+	
+	private WeeklySchedule schedule;
+	
+	@BeforeEach
+	void setUp() {
+		schedule = new WeeklySchedule();
+		schedule.add(new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 30));
+	}
+
+	@Test
+	void testOverlaps() {
+		
+		//Test Case 1: Overlapping days and times
+		assertTrue(schedule.overlaps(new Course("CIS103", "Operating Systems", "Bob Bobby", "W", "11:00", "12:30", 50)));
+		
+		//Test Case 2: Same times on other days
+		assertFalse(schedule.overlaps(new Course("CIS102", "Data Structures", "Jane Smith", "TRF", "10:00", "11:30", 50)));
+		
+		//Test Case 3: Back-to-back courses don't overlap
+		assertFalse(schedule.overlaps(new Course("CIS104", "Algorithms", "James Bond", "MW", "11:30", "13:00", 50)));
+		assertFalse(schedule.overlaps(new Course("CIS105", "Web Design", "John Doe", "MW", "08:00", "10:00", 50)));
+		
+		//Test Case 4: Courses spanning a slot word boundary are still found
+		schedule.add(new Course("CIS106", "Networks", "Jane Smith", "F", "05:00", "06:00", 50));
+		assertTrue(schedule.overlaps(new Course("CIS107", "Databases", "Jane Smith", "F", "05:15", "05:20", 50)));
+		
+	}
+	
+	@Test
+	void testClear() {
+		
+		//Test Case 1: Clearing frees every slot
+		schedule.clear();
+		assertFalse(schedule.overlaps(new Course("CIS103", "Operating Systems", "Bob Bobby", "MW", "10:00", "11:30", 50)));
+		
+	}
+
+}
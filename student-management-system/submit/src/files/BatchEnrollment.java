@@ -0,0 +1,466 @@
+package files;
+
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import courses.Course;
+import messages.MessageSink;
+import messages.Messages;
+import roles.EnrollResult;
+import roles.Student;
+
+/**
+ * Applies a file of enrollment requests from the registration office, one "studentId; courseId" pair per line
+ * Each request is handled like Student.addCourse: students who already completed the course, or who have a time
+ * conflict, are turned away, and students who find the course full join its waitlist if there is room
+ * Every request that is turned away gets a "line; studentId; courseId; REASON" record in a results file, where
+ * the reason is an EnrollResult name, INVALID_LINE, UNKNOWN_STUDENT, or UNKNOWN_COURSE
+ * Requests are applied in rounds: round n holds each student's nth request in the file, so within a round every
+ * student appears at most once and different courses share nothing but the course itself
+ * Seats therefore go by round before line: a student's first request can take a course's last seat ahead of another
+ * student's second request for it, even if that request is on an earlier line
+ * Within a round, each course's requests are applied in file order on one thread, and courses run in parallel
+ * on a fork-join pool, so the results are the same on every run however many threads there are
+ * @author Katie
+ */
+public class BatchEnrollment {
+
+	//constants
+
+	/**
+	 * Size of the buffer the request file is read through
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Fewest requests handed to a task, so small courses are grouped together
+	 */
+	private static final int MIN_TASK_REQUESTS = 1024;
+
+	/**
+	 * Reasons a request is turned away before it reaches a student
+	 */
+	public static final String INVALID_LINE = "INVALID_LINE";
+	public static final String UNKNOWN_STUDENT = "UNKNOWN_STUDENT";
+	public static final String UNKNOWN_COURSE = "UNKNOWN_COURSE";
+
+	/**
+	 * Outcomes of applied requests, indexed by outcome code, followed by the codes of the reasons above
+	 */
+	private static final EnrollResult[] RESULTS = EnrollResult.values();
+	private static final int INVALID_LINE_CODE = RESULTS.length;
+	private static final int UNKNOWN_STUDENT_CODE = RESULTS.length + 1;
+	private static final int UNKNOWN_COURSE_CODE = RESULTS.length + 2;
+
+	/**
+	 * Names of every outcome, indexed by outcome code
+	 */
+	private static final String[] OUTCOMES = new String[RESULTS.length + 3];
+	static {
+		for (EnrollResult result : RESULTS) {
+			OUTCOMES[result.ordinal()] = result.name();
+		}
+		OUTCOMES[INVALID_LINE_CODE] = INVALID_LINE;
+		OUTCOMES[UNKNOWN_STUDENT_CODE] = UNKNOWN_STUDENT;
+		OUTCOMES[UNKNOWN_COURSE_CODE] = UNKNOWN_COURSE;
+	}
+
+
+	//instance variables
+
+	/**
+	 * Pool courses are enrolled on in parallel, or null to apply every request on the calling thread
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Sink the outcomes courses report while requests are applied go to
+	 */
+	private final MessageSink messages;
+
+
+	//constructors
+
+	/**
+	 * Creates a batch processor that drops the outcomes courses report, since every request's outcome is
+	 * already in the results file
+	 * @param pool courses are enrolled on in parallel, or null to apply every request on the calling thread
+	 */
+	public BatchEnrollment(ForkJoinPool pool) {
+		this(pool, MessageSink.DISCARD);
+	}
+
+	/**
+	 * Creates a batch processor
+	 * @param pool courses are enrolled on in parallel, or null to apply every request on the calling thread
+	 * @param messages sink for the outcomes courses report while requests are applied, such as a QueuedSink,
+	 * which is not closed by the batch
+	 */
+	public BatchEnrollment(ForkJoinPool pool, MessageSink messages) {
+
+		//checks if sink is null
+		if (messages == null) {
+			throw new IllegalArgumentException("Sink cannot be null.");
+		}
+
+		this.pool = pool;
+		this.messages = messages;
+
+	}
+
+
+	//methods
+
+	/**
+	 * Applies a file of enrollment requests and writes a record for each one turned away
+	 * Requests are applied round by round, each student's nth request before anyone's (n+1)th, and in file order
+	 * within a round, so a course's seats go in file order only among requests of the same round
+	 * Requests that enroll a student or put them on a waitlist are recorded in the journal, in an order that
+	 * replays to the same seats and waitlists, and forced to disk together at the end
+	 * Nothing else may change the data while the batch runs
+	 * @param requestFile with a "studentId; courseId" pair per line
+	 * @param resultFile to write the records of requests turned away to
+	 * @param courses map of courses keyed by ID
+	 * @param students map of students keyed by ID
+	 * @param journal to record changes in, or null
+	 * @return number of requests with each outcome, keyed by EnrollResult name or reason, in a fixed order
+	 * @throws IOException if an error occurs while reading the requests or writing the results
+	 */
+	public Map<String, Long> run(String requestFile, String resultFile, Map<String, Course> courses, Map<String, Student> students,
+			Journal journal) throws IOException {
+
+		Requests requests = read(requestFile, courses, students);
+		int[] order = schedule(requests);
+
+		//courses report every student they turn away, so those go to the batch's own sink
+		MessageSink console = Messages.setSink(messages);
+		try {
+			apply(requests, order);
+		} finally {
+			Messages.setSink(console);
+		}
+
+		//records accepted requests in the order they were applied
+		if (journal != null) {
+			List<String> studentIds = new ArrayList<>();
+			List<String> courseIds = new ArrayList<>();
+			for (int i : order) {
+				if (RESULTS[requests.outcomes[i]].isAccepted()) {
+					studentIds.add(requests.students[i].getId());
+					courseIds.add(requests.courses[i].getId());
+				}
+			}
+			journal.enrollAll(studentIds, courseIds);
+		}
+
+		//writes the requests turned away in file order, counting every outcome
+		long[] counts = new long[OUTCOMES.length];
+		try (Writer writer = new BufferedWriter(new FileWriter(resultFile), BUFFER_SIZE)) {
+			for (int i = 0; i < requests.size; i++) {
+				int outcome = requests.outcomes[i];
+				counts[outcome]++;
+				if (outcome < RESULTS.length && RESULTS[outcome].isAccepted()) {
+					continue;
+				}
+				writer.write(Integer.toString(requests.lines[i]));
+				writer.write("; ");
+				writer.write(requests.studentIds[i] != null ? requests.studentIds[i] : requests.students[i].getId());
+				writer.write("; ");
+				writer.write(requests.courseIds[i] != null ? requests.courseIds[i] : requests.courses[i].getId());
+				writer.write("; ");
+				writer.write(OUTCOMES[outcome]);
+				writer.write('\n');
+			}
+		}
+
+		Map<String, Long> summary = new LinkedHashMap<>();
+		for (int i = 0; i < OUTCOMES.length; i++) {
+			summary.put(OUTCOMES[i], counts[i]);
+		}
+		return summary;
+
+	}
+
+	/**
+	 * Reads the request file line by line, looking up each student and course
+	 * Blank lines are skipped, and requests that can't be looked up are given their outcome straight away
+	 */
+	private static Requests read(String requestFile, Map<String, Course> courses, Map<String, Student> students) throws IOException {
+
+		Requests requests = new Requests();
+		try (Reader reader = new FileReader(requestFile)) {
+			RecordTokenizer tokenizer = new RecordTokenizer();
+			char[] buffer = new char[BUFFER_SIZE];
+			int length = 0;
+			int line = 0;
+			boolean endOfFile = false;
+
+			while (!endOfFile) {
+
+				//fills the buffer after whatever is left of the last line
+				int read = reader.read(buffer, length, buffer.length - length);
+				if (read < 0) {
+					endOfFile = true;
+				} else {
+					length += read;
+				}
+
+				//reads through each whole line in the buffer
+				tokenizer.reset(buffer, 0, length);
+				while (tokenizer.nextLine(endOfFile)) {
+					line++;
+					if (tokenizer.fieldCount() == 0 || tokenizer.fieldCount() == 1 && tokenizer.isEmpty(0)) {
+						continue;
+					}
+					if (tokenizer.fieldCount() != 2 || tokenizer.isEmpty(0) || tokenizer.isEmpty(1)) {
+						requests.reject(line, "", "", INVALID_LINE_CODE);
+						continue;
+					}
+
+					//looks up the student and the course
+					String studentId = tokenizer.field(0);
+					String courseId = tokenizer.field(1);
+					Student student = students.get(studentId);
+					Course course = courses.get(courseId);
+					if (student == null) {
+						requests.reject(line, studentId, courseId, UNKNOWN_STUDENT_CODE);
+					} else if (course == null) {
+						requests.reject(line, studentId, courseId, UNKNOWN_COURSE_CODE);
+					} else {
+						requests.add(line, student, course);
+					}
+				}
+
+				//moves the unfinished line to the front, making room if it fills the buffer
+				length -= tokenizer.position();
+				System.arraycopy(buffer, tokenizer.position(), buffer, 0, length);
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+
+			}
+		}
+		return requests;
+
+	}
+
+	/**
+	 * Orders the requests to apply by round, then by course in order of first request within the round,
+	 * then by line, leaving out requests that were already given an outcome
+	 * @return indexes of requests in the order to apply them, with each course's requests in a round next to each other
+	 */
+	private static int[] schedule(Requests requests) {
+
+		//numbers each student's requests to find the round each falls in
+		int[] rounds = new int[requests.size];
+		int roundCount = 0;
+		int count = 0;
+		Map<Student, Integer> seen = new IdentityHashMap<>();
+		for (int i = 0; i < requests.size; i++) {
+			if (requests.students[i] != null) {
+				int round = seen.merge(requests.students[i], 1, Integer::sum) - 1;
+				rounds[i] = round;
+				roundCount = Math.max(roundCount, round + 1);
+				count++;
+			}
+		}
+
+		//sorts the requests by round, keeping them in line order within each round
+		int[] roundStarts = new int[roundCount + 1];
+		for (int i = 0; i < requests.size; i++) {
+			if (requests.students[i] != null) {
+				roundStarts[rounds[i] + 1]++;
+			}
+		}
+		for (int round = 0; round < roundCount; round++) {
+			roundStarts[round + 1] += roundStarts[round];
+		}
+		int[] byRound = new int[count];
+		int[] next = Arrays.copyOf(roundStarts, roundCount);
+		for (int i = 0; i < requests.size; i++) {
+			if (requests.students[i] != null) {
+				byRound[next[rounds[i]]++] = i;
+			}
+		}
+
+		//within each round, sorts the requests by course, keeping them in line order within each course
+		int[] order = new int[count];
+		requests.groupEnds = new int[count];
+		requests.groupCount = 0;
+		Map<Course, Integer> groups = new IdentityHashMap<>();
+		int[] groupOf = new int[count];
+		for (int round = 0; round < roundCount; round++) {
+			int start = roundStarts[round];
+			int end = roundStarts[round + 1];
+
+			groups.clear();
+			for (int k = start; k < end; k++) {
+				groupOf[k - start] = groups.computeIfAbsent(requests.courses[byRound[k]], course -> groups.size());
+			}
+			int[] groupStarts = new int[groups.size() + 1];
+			for (int k = start; k < end; k++) {
+				groupStarts[groupOf[k - start] + 1]++;
+			}
+			for (int group = 0; group < groups.size(); group++) {
+				groupStarts[group + 1] += groupStarts[group];
+			}
+			int[] groupNext = Arrays.copyOf(groupStarts, groups.size());
+			for (int k = start; k < end; k++) {
+				order[start + groupNext[groupOf[k - start]]++] = byRound[k];
+			}
+			for (int group = 0; group < groups.size(); group++) {
+				requests.groupEnds[requests.groupCount++] = start + groupStarts[group + 1];
+			}
+			requests.roundEnds.add(requests.groupCount);
+		}
+		return order;
+
+	}
+
+	/**
+	 * Applies the requests round by round, running the courses of each round in parallel
+	 */
+	private void apply(Requests requests, int[] order) {
+
+		int group = 0;
+		int start = 0;
+		for (int roundEnd : requests.roundEnds) {
+
+			//splits the round into tasks at course boundaries, each with at least MIN_TASK_REQUESTS requests
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			int taskStart = start;
+			for (; group < roundEnd; group++) {
+				int groupEnd = requests.groupEnds[group];
+				if (groupEnd - taskStart >= MIN_TASK_REQUESTS || group == roundEnd - 1) {
+					tasks.add(new Enrollments(requests, order, taskStart, groupEnd));
+					taskStart = groupEnd;
+				}
+			}
+
+			//each round finishes before the next starts, since a student's later requests depend on the earlier ones
+			if (pool == null || tasks.size() == 1) {
+				tasks.forEach(ForkJoinTask::invoke);
+			} else {
+				pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+			}
+			start = taskStart;
+
+		}
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * Requests read from the file, kept in parallel arrays indexed in file order
+	 */
+	private static class Requests {
+
+		int size;
+		int[] lines = new int[1024];
+		Student[] students = new Student[1024];
+		Course[] courses = new Course[1024];
+
+		/**
+		 * Outcome code of each request, set once the request is applied or turned away
+		 */
+		byte[] outcomes = new byte[1024];
+
+		/**
+		 * IDs as written in the file, kept only for requests turned away before reaching a student
+		 */
+		String[] studentIds = new String[1024];
+		String[] courseIds = new String[1024];
+
+		/**
+		 * End of each course's requests within the order they are applied, and the number of courses in every
+		 * round so far
+		 */
+		int[] groupEnds;
+		int groupCount;
+		List<Integer> roundEnds = new ArrayList<>();
+
+		/**
+		 * Adds a request to apply
+		 */
+		void add(int line, Student student, Course course) {
+			grow();
+			lines[size] = line;
+			students[size] = student;
+			courses[size] = course;
+			size++;
+		}
+
+		/**
+		 * Adds a request turned away before reaching a student
+		 */
+		void reject(int line, String studentId, String courseId, int outcome) {
+			grow();
+			lines[size] = line;
+			studentIds[size] = studentId;
+			courseIds[size] = courseId;
+			outcomes[size] = (byte) outcome;
+			size++;
+		}
+
+		/**
+		 * Makes room for another request
+		 */
+		private void grow() {
+			if (size == lines.length) {
+				int capacity = size * 2;
+				lines = Arrays.copyOf(lines, capacity);
+				students = Arrays.copyOf(students, capacity);
+				courses = Arrays.copyOf(courses, capacity);
+				outcomes = Arrays.copyOf(outcomes, capacity);
+				studentIds = Arrays.copyOf(studentIds, capacity);
+				courseIds = Arrays.copyOf(courseIds, capacity);
+			}
+		}
+
+	}
+
+	/**
+	 * Applies a run of requests in order, covering whole courses of one round
+	 */
+	private static class Enrollments extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Requests requests;
+		private final int[] order;
+		private final int start;
+		private final int end;
+
+		Enrollments(Requests requests, int[] order, int start, int end) {
+			this.requests = requests;
+			this.order = order;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			for (int k = start; k < end; k++) {
+				int i = order[k];
+				requests.outcomes[i] = (byte) requests.students[i].enroll(requests.courses[i]).ordinal();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,177 @@
+package files;
+
+import courses.Course;
+import roles.Professor;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchEnrollmentTest {
+
+	private File requestFile;
+	private File resultFile;
+	private File journalFile;
+	private Map<String, Course> courses;
+	private Map<String, Student> students;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		requestFile = Files.createTempFile("testBatchRequests", ".txt").toFile();
+		resultFile = Files.createTempFile("testBatchResults", ".txt").toFile();
+		journalFile = Files.createTempFile("testBatchJournal", ".dat").toFile();
+		journalFile.delete();
+		courses = new HashMap<>();
+		students = new HashMap<>();
+
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		//clean up temp files
+		requestFile.delete();
+		resultFile.delete();
+		journalFile.delete();
+
+	}
+
+	/**
+	 * Creates courses on different days with the given capacities, plus CIS199 meeting at the same time as CIS100
+	 */
+	private void addCourses(int... capacities) {
+		String[] days = {"M", "T", "W", "R", "F"};
+		for (int i = 0; i < capacities.length; i++) {
+			Course course = new Course("CIS10" + i, "Course " + i, "John Doe", days[i % days.length], "10:00", "11:00", capacities[i]);
+			course.setWaitlistCapacity(1);
+			courses.put(course.getId(), course);
+		}
+		courses.put("CIS199", new Course("CIS199", "Clashing Course", "John Doe", "M", "10:30", "11:30", 10));
+	}
+
+	@Test
+	void testOutcomes() throws IOException {
+
+		addCourses(2, 10);
+		for (int i = 1; i <= 4; i++) {
+			students.put("00" + i, new Student("00" + i, "Student " + i, "student" + i, "pass"));
+		}
+		students.get("004").addCompletedCourse("CIS101", "A");
+		Files.writeString(requestFile.toPath(), String.join("\n",
+				"001; CIS100", "002; CIS100", "", "003; CIS100", "004; CIS100", "001; CIS199", "004; CIS101",
+				"005; CIS100", "001; CIS999", "oops", "001; CIS100") + "\n");
+
+		Map<String, Long> summary;
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			summary = new BatchEnrollment(null).run(requestFile.getPath(), resultFile.getPath(), courses, students, journal);
+			assertEquals(3, journal.getRecordCount());
+		}
+
+		//Test Case 1: Seats go in file order, then the waitlist fills, then students are turned away
+		assertTrue(courses.get("CIS100").getEnrolledStudents().contains("001"));
+		assertTrue(courses.get("CIS100").getEnrolledStudents().contains("002"));
+		assertEquals(List.of("003"), courses.get("CIS100").getWaitlist());
+		assertEquals(2, (long) summary.get("ENROLLED"));
+		assertEquals(1, (long) summary.get("WAITLISTED"));
+		assertEquals(1, (long) summary.get("FULL"));
+
+		//Test Case 2: Every request turned away gets a record with its line and reason
+		assertEquals(List.of(
+				"5; 004; CIS100; FULL",
+				"6; 001; CIS199; TIME_CONFLICT",
+				"7; 004; CIS101; ALREADY_COMPLETED",
+				"8; 005; CIS100; UNKNOWN_STUDENT",
+				"9; 001; CIS999; UNKNOWN_COURSE",
+				"10; ; ; INVALID_LINE",
+				"11; 001; CIS100; ALREADY_ENROLLED"), Files.readAllLines(resultFile.toPath()));
+
+		//Test Case 3: Replaying the journal gives the same seats and waitlist
+		Map<String, Course> replayedCourses = new HashMap<>();
+		Map<String, Student> replayedStudents = new HashMap<>();
+		for (Course course : courses.values()) {
+			replayedCourses.put(course.getId(), new Course(course.getId(), course.getName(), course.getLecturer(), course.getDays(),
+					course.getStartTime(), course.getEndTime(), course.getCapacity()));
+		}
+		for (Student student : students.values()) {
+			replayedStudents.put(student.getId(), new Student(student.getId(), student.getName(), student.getUsername(), "pass"));
+		}
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			journal.replay(replayedCourses, new HashMap<>(), new HashMap<>(), new HashMap<String, Professor>(), replayedStudents, new HashMap<>());
+		}
+		assertEquals(courses.get("CIS100").getEnrolledStudents(), replayedCourses.get("CIS100").getEnrolledStudents());
+		assertEquals(courses.get("CIS100").getWaitlist(), replayedCourses.get("CIS100").getWaitlist());
+
+	}
+
+	@Test
+	void testRounds() throws IOException {
+
+		addCourses(1, 10);
+		students.put("001", new Student("001", "Student 1", "student1", "pass"));
+		students.put("002", new Student("002", "Student 2", "student2", "pass"));
+		Files.writeString(requestFile.toPath(), String.join("\n", "001; CIS101", "001; CIS100", "002; CIS100") + "\n");
+		new BatchEnrollment(null).run(requestFile.getPath(), resultFile.getPath(), courses, students, null);
+
+		//Test Case 1: A student's first request takes the last seat ahead of an earlier line's second request
+		assertEquals(List.of("002"), new ArrayList<>(courses.get("CIS100").getEnrolledStudents()));
+		assertEquals(List.of("001"), courses.get("CIS100").getWaitlist());
+
+	}
+
+	@Test
+	void testParallelMatchesSequential() throws IOException {
+
+		//many students asking for a few small courses, some of which clash
+		int[] capacities = new int[20];
+		for (int i = 0; i < capacities.length; i++) {
+			capacities[i] = 50 + i * 10;
+		}
+		Random random = new Random(1);
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			for (int j = 0; j < 4; j++) {
+				int course = random.nextInt(capacities.length + 1);
+				lines.add(String.format("S%04d; %s", i, course == capacities.length ? "CIS199" : "CIS10" + course));
+			}
+		}
+		Files.write(requestFile.toPath(), lines);
+
+		//Test Case 1: Running on a pool gives the same results as running on one thread
+		List<Map<String, Course>> runs = new ArrayList<>();
+		List<List<String>> results = new ArrayList<>();
+		for (ForkJoinPool pool : new ForkJoinPool[] {null, new ForkJoinPool(8)}) {
+			courses = new HashMap<>();
+			students = new HashMap<>();
+			addCourses(capacities);
+			for (int i = 0; i < 5000; i++) {
+				String id = String.format("S%04d", i);
+				students.put(id, new Student(id, "Student " + i, "student" + i, "pass"));
+			}
+			new BatchEnrollment(pool).run(requestFile.getPath(), resultFile.getPath(), courses, students, null);
+			runs.add(courses);
+			results.add(Files.readAllLines(resultFile.toPath()));
+		}
+		for (String id : runs.get(0).keySet()) {
+			assertEquals(runs.get(0).get(id).getEnrolledStudents(), runs.get(1).get(id).getEnrolledStudents(), id);
+			assertEquals(runs.get(0).get(id).getWaitlist(), runs.get(1).get(id).getWaitlist(), id);
+		}
+		assertEquals(results.get(0), results.get(1));
+		assertFalse(results.get(0).isEmpty());
+
+	}
+
+}
@@ -1,9 +1,18 @@
 package files;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 import courses.Course;
+import metrics.Metrics;
 import roles.Admin;
 import roles.Professor;
 import roles.Student;
@@ -11,244 +20,668 @@ import roles.Student;
 /**
  * Reads and parses input files for the Student Management System
  * Loads data for admins, professors, students, and courses
+ * Files are either read line by line on the calling thread, or memory-mapped and parsed in chunks on a fork-join pool
+ * Either way, lines are split into fields by a RecordTokenizer, so parsing only creates the values it keeps
  * @author Katie
  */
 public class FileInfoReader {
-		
+
+	//constants
+
+	/**
+	 * Smallest piece a mapped file is split into, so small files are parsed in one go
+	 */
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * Largest piece a mapped file is split into, so each piece fits in one array
+	 */
+	private static final long MAX_CHUNK_SIZE = 1 << 30;
+
+	/**
+	 * Number of pieces a mapped file is split into per thread, so threads that finish early can take more
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * Number of characters read at a time when reading a file line by line
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Charset the info files are read in, the same one FileReader uses
+	 */
+	static final Charset CHARSET = Charset.defaultCharset();
+
+
+	//instance variables
+
+	/**
+	 * Pool that mapped files are parsed on, or null to read files line by line
+	 */
+	private final ForkJoinPool pool;
+
+
+	//constructors
+
+	/**
+	 * Creates a FileInfoReader that reads each file line by line on the calling thread
+	 */
+	public FileInfoReader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a FileInfoReader that memory-maps each file, splits it into pieces at line breaks,
+	 * and parses the pieces in parallel on the given pool
+	 * The result is the same as reading the file line by line, including which entry wins for a repeated ID
+	 * @param pool to parse files on, or null to read files line by line
+	 */
+	public FileInfoReader(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+
+	//methods
+
+	/**
+	 * Loads all four info files, or all but the student info file
+	 * When parsing on a pool the files are loaded at the same time, otherwise one after another
+	 * Messages about invalid data are printed in file order either way
+	 * @param courseFile path to the courseInfo.txt file
+	 * @param adminFile path to the adminInfo.txt file
+	 * @param profFile path to the profInfo.txt file
+	 * @param studentFile path to the studentInfo.txt file, or null to leave the students out
+	 * @param courses map of courses keyed by ID
+	 * @param admins map of admins keyed by username
+	 * @param professors map of professors keyed by ID
+	 * @param professorLogins map of professors keyed by username
+	 * @param professorsByName map of professors keyed by normalized name
+	 * @param students map of students keyed by ID
+	 * @param studentLogins map of students keyed by username
+	 */
+	public void loadAll(String courseFile, String adminFile, String profFile, String studentFile,
+			Map<String, Course> courses, Map<String, Admin> admins, Map<String, Professor> professors,
+			Map<String, Professor> professorLogins, Map<String, Professor> professorsByName,
+			Map<String, Student> students, Map<String, Student> studentLogins) {
+
+		//without a pool, loads the files one after another
+		if (pool == null) {
+			loadCourses(courseFile, courses);
+			loadAdmins(adminFile, admins);
+			loadProfessors(profFile, professors, professorLogins, professorsByName);
+			if (studentFile != null) {
+				loadStudents(studentFile, students, studentLogins);
+			}
+			return;
+		}
+
+		//starts each file, each filling in its own maps
+		List<FileLoad<?>> loads = new ArrayList<>(Arrays.asList(
+				courseLoad(courseFile, courses),
+				adminLoad(adminFile, admins),
+				professorLoad(profFile, professors, professorLogins, professorsByName)));
+		if (studentFile != null) {
+			loads.add(studentLoad(studentFile, students, studentLogins));
+		}
+		for (FileLoad<?> load : loads) {
+			pool.execute(load);
+		}
+
+		//waits for each file in turn and prints its messages
+		for (FileLoad<?> load : loads) {
+			printMessages(load.join());
+		}
+
+	}
+
 	/**
 	 * Reads and parses course info from the info file and loads data into courses list
+	 * Loading into a CourseIndex builds its search index as each course is put in
 	 * @param filePath to the courseInfo.txt file
 	 * @throws IOException if an error occurs while reading the file
 	 */
 	public void loadCourses(String fileName, Map<String, Course> courses) {
-		
-		//tries to read the file
-		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-			String line;
-			
-			//reads through each line in the file
-			while ((line = reader.readLine()) != null) {
-				
-				//splits the line into components
-				String[] parts = line.split(";");
-				
-				//checks if the line has the correct number of components
-				if (parts.length == 7) {
-					
-					//if valid, parses through each component
-					String courseId = parts[0].trim();
-					String courseName = parts[1].trim();
-					String lecturer = parts[2].trim();
-					String days = parts[3].trim();
-					String startTime = parts[4].trim();
-					String endTime = parts[5].trim();
-					int capacity = Integer.parseInt(parts[6].trim());
-					
-					//check for missing fields and skips invalid entries
-					if (courseId.isEmpty() || courseName.isEmpty() || lecturer.isEmpty() ||
-						days.isEmpty() || startTime.isEmpty() || endTime.isEmpty()) {
-						System.out.println("Invalid course data: " + line);
-						continue;
-					}					
-					
-					//creates a new Course object with the parsed components and adds to map
-					Course course = new Course(courseId, courseName, lecturer, days, startTime, endTime, capacity);
-					courses.put(courseId, course);
-				
-                //if line has wrong number of components, prints a message saying data is invalid
-				} else {
-					System.out.println("Invalid course data: " + line);
-				}
-				
-			}				
-		
-        //catches error when reading course file
-		} catch (IOException e) {
-			System.out.println("Error reading courses file: " + e.getMessage());
-
-        //catches error when parsing course capacity
-		} catch (NumberFormatException e) {
-			System.out.println("Error parsing course capacity: " + e.getMessage());
-		}
-		
+		load(courseLoad(fileName, courses));
 	}
-	
+
 	/**
 	 * Reads and parses student info from the info file and loads data into students map
 	 * @param filePath to the studentInfo.txt file
 	 * @throws IOException if an error occurs while reading the file
 	 */
 	public void loadStudents(String fileName, Map<String, Student> students) {
-		
-		//tries to read the file
-		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-			String line;
-			
-			//reads through each line in the file
-			while ((line = reader.readLine()) != null) {
-				
-				//splits the line into components
-				String[] parts = line.split(";");
-				
-				//checks if the line has the correct number of fields
-				if (parts.length >= 4) {
-					
-					//if valid, parses through each component
-					String studentId = parts[0].trim(); 
-					String studentName = parts[1].trim(); 
-					String studentUsername = parts[2].trim(); 
-					String studentPassword = parts[3].trim();
-					
-					//check for missing fields and skips invalid entries
-					if (studentId.isEmpty() || studentName.isEmpty() ||
-						studentUsername.isEmpty() || studentPassword.isEmpty()) {
-						System.out.println("Invalid student data: " + line);
-						continue;
-					}
-					
-					//creates a new Student object using the parsed components
-					Student student = new Student(studentId, studentName, studentUsername, studentPassword);
-					
-					//parses courses and grades if available
-					if (parts.length > 4) {
-						String[] coursesWithGrades = parts[4].split(",");
-						
-						//iterates through each course grade pair
-						for (String courseGradePair : coursesWithGrades) {
-							String[] courseGrade = courseGradePair.split(":");
-							
-                            //checks for the correct number of components and parses course ID and letter grade
-							if (courseGrade.length == 2) {
-								String courseId = courseGrade[0].trim();
-								String grade = courseGrade[1].trim();
-
-                                //adds the course to completed courses
-								student.addCompletedCourse(courseId, grade);
-
-                            //if wrong number of components, prints an error message
-							} else {
-								System.out.println("Invalid course-grade data for student: " + line);
-							}
-						}
-					}
-					
-					//adds the Student to the map
-					students.put(studentId, student);
+		loadStudents(fileName, students, new HashMap<>());
+	}
 
-                //if line has wrong number of fields, prints an error message		
-				} else {
-					System.out.println("Invalid student data: " + line);
-				}
-						
-			}					
+	/**
+	 * Reads and parses student info from the info file and loads data into students map
+	 * Also indexes each student by username so logins don't need to scan every student
+	 * @param filePath to the studentInfo.txt file
+	 * @param students map of students keyed by ID
+	 * @param studentLogins map of students keyed by username
+	 */
+	public void loadStudents(String fileName, Map<String, Student> students, Map<String, Student> studentLogins) {
+		load(studentLoad(fileName, students, studentLogins));
+	}
 
-        //catches error when reading file	
-		} catch (IOException e) {
-			System.out.println("Error reading students file: " + e.getMessage());
-		}
-				
+	/**
+	 * Opens the student info file without loading it, so each student is read from the file when they are first needed
+	 * The first time, an index of where each student's line starts is saved next to the file as fileName.idx,
+	 * and it is reused until the info file changes
+	 * @param fileName of the studentInfo.txt file
+	 * @param cacheBytes most memory the idle students read from the file should take up
+	 * @return store whose byId and byUsername maps stand in for the students and studentLogins maps
+	 * @throws IOException if an error occurs while reading the file or its index
+	 */
+	public StudentStore loadStudentsLazily(String fileName, long cacheBytes) throws IOException {
+		return StudentStore.open(fileName, cacheBytes);
 	}
-	
+
 	/**
 	 * Reads and parses professor info from the info file and loads data into professors map
 	 * @param filePath to the profInfo.txt file
 	 * @throws IOException if an error occurs while reading the file
 	 */
 	public void loadProfessors(String fileName, Map<String, Professor> professors) {
-		
-		//tries to read the file
-		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-			String line;
-			
-			//reads through each line in the file
-			while ((line = reader.readLine()) != null) {
-				
-				//splits the line into components
-				String[] parts = line.split(";");
-				
-				//checks if the line has the correct number of fields
-				if (parts.length == 4) {
-					
-					//if valid, parses through each component
-					String profName = parts[0].trim();
-					String profId = parts[1].trim();
-					String profUsername = parts[2].trim();
-					String profPassword = parts[3].trim();
-					
-					//check for missing fields and skips invalid entries
-					if (profId.isEmpty() || profName.isEmpty() ||
-						profUsername.isEmpty() || profPassword.isEmpty()) {
-						System.out.println("Invalid professor data: " + line);
-						continue;
-					}
-					
-					//creates a new Professor object using the parsed components and adds to map
-					Professor professor = new Professor(profId, profName, profUsername, profPassword);
-					professors.put(profId, professor);					
-				
-                //if line has wrong number of fields, prints an error message
-				} else {
-					System.out.println("Invalid professor data: " + line);
-				}
-				
-			}		
-		
-        //catches error when reading file
-		} catch (IOException e) {
-			System.out.println("Error reading professors file: " + e.getMessage());
+		loadProfessors(fileName, professors, new HashMap<>(), new HashMap<>());
+	}
+
+	/**
+	 * Reads and parses professor info from the info file and loads data into professors map
+	 * Also indexes each professor by username for logins and by normalized name for lecturer lookups
+	 * @param filePath to the profInfo.txt file
+	 * @param professors map of professors keyed by ID
+	 * @param professorLogins map of professors keyed by username
+	 * @param professorsByName map of professors keyed by normalized name
+	 */
+	public void loadProfessors(String fileName, Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName) {
+		load(professorLoad(fileName, professors, professorLogins, professorsByName));
+	}
+
+	/**
+	 * Links each course to the professor who lectures it, filling in each professor's teaching list
+	 * Courses whose lecturer is not a known professor are left unlinked
+	 * @param courses map of loaded courses
+	 * @param professorsByName map of loaded professors keyed by normalized name
+	 */
+	public void linkCourses(Map<String, Course> courses, Map<String, Professor> professorsByName) {
+
+		//looks up the lecturer of each course by name
+		for (Course course : courses.values()) {
+			Professor professor = professorsByName.get(Professor.normalizeName(course.getLecturer()));
+
+			//adds the course to the professor's teaching list
+			if (professor != null) {
+				professor.assignCourse(course);
+			}
 		}
-		
+
 	}
-	
+
 	/**
 	 * Reads and parses admin info from the info file and loads data into admins map
 	 * @param filePath to the adminInfo.txt file
-	 * @throws IOException if an error occurs while reading the file 
+	 * @throws IOException if an error occurs while reading the file
 	 */
 	public void loadAdmins(String fileName, Map<String, Admin> admins) {
-		
-		//tries to read the file
-		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-			String line;
-			
-			//reads through each line in the file
-			while ((line = reader.readLine()) != null) {
-				
-				//splits the line into components
-				String[] parts = line.split(";");
-				
-				//checks if the line has the correct number of fields
-				if (parts.length == 4) {
-					
-					//if valid, parses through each component
-					String adminId = parts[0].trim();
-					String adminName = parts[1].trim();
-					String adminUsername = parts[2].trim();
-					String adminPassword = parts[3].trim();
-					
-					//check for missing fields and skips invalid entries
-					if (adminId.isEmpty() || adminName.isEmpty() ||
-						adminUsername.isEmpty() || adminPassword.isEmpty()) {
-						System.out.println("Invalid admin data: " + line);
-						continue;
-					}
-					
-					//creates a new Admin object from the parsed components and adds to map
-					Admin admin = new Admin(adminId, adminName, adminUsername, adminPassword);			
-					admins.put(adminUsername, admin);
-				
-                //if line has wrong number of fields, prints an error message
+		load(adminLoad(fileName, admins));
+	}
+
+	/**
+	 * Creates the load of a course info file
+	 */
+	private static FileLoad<Course> courseLoad(String fileName, Map<String, Course> courses) {
+		return new FileLoad<>(fileName, "courses", FileInfoReader::parseCourse, course -> courses.put(course.getId(), course));
+	}
+
+	/**
+	 * Creates the load of a student info file
+	 */
+	private static FileLoad<Student> studentLoad(String fileName, Map<String, Student> students, Map<String, Student> studentLogins) {
+		return new FileLoad<>(fileName, "students", FileInfoReader::parseStudent, student -> {
+
+			//adds the Student to the map, replacing the login of any student with the same ID
+			Student replaced = students.put(student.getId(), student);
+			if (replaced != null) {
+				studentLogins.remove(replaced.getUsername(), replaced);
+			}
+
+			//indexes the Student by username for login
+			studentLogins.put(student.getUsername(), student);
+
+		});
+	}
+
+	/**
+	 * Creates the load of a professor info file
+	 */
+	private static FileLoad<Professor> professorLoad(String fileName, Map<String, Professor> professors,
+			Map<String, Professor> professorLogins, Map<String, Professor> professorsByName) {
+		return new FileLoad<>(fileName, "professors", FileInfoReader::parseProfessor, professor -> {
+
+			//adds the Professor to the map, replacing the indexes of any professor with the same ID
+			Professor replaced = professors.put(professor.getId(), professor);
+			if (replaced != null) {
+				professorLogins.remove(replaced.getUsername(), replaced);
+				professorsByName.remove(Professor.normalizeName(replaced.getName()), replaced);
+			}
+
+			//indexes the Professor by username for login and by name for lecturer lookups
+			professorLogins.put(professor.getUsername(), professor);
+			professorsByName.put(Professor.normalizeName(professor.getName()), professor);
+
+		});
+	}
+
+	/**
+	 * Creates the load of an admin info file
+	 */
+	private static FileLoad<Admin> adminLoad(String fileName, Map<String, Admin> admins) {
+		return new FileLoad<>(fileName, "admins", FileInfoReader::parseAdmin, admin -> admins.put(admin.getUsername(), admin));
+	}
+
+	/**
+	 * Loads a file line by line on the calling thread, or in pieces on the pool if there is one
+	 * @param load of the file
+	 */
+	private <T> void load(FileLoad<T> load) {
+
+		//parses the mapped file on the pool
+		if (pool != null) {
+			printMessages(pool.invoke(load));
+			return;
+		}
+
+		//tries to read the file, timing the load and counting its records
+		long start = System.nanoTime();
+		long records = 0;
+		try (Reader reader = new FileReader(load.fileName)) {
+			RecordTokenizer tokenizer = new RecordTokenizer();
+			char[] buffer = new char[BUFFER_SIZE];
+			int length = 0;
+			boolean endOfFile = false;
+
+			while (!endOfFile) {
+
+				//fills the buffer after whatever is left of the last line
+				int read = reader.read(buffer, length, buffer.length - length);
+				if (read < 0) {
+					endOfFile = true;
 				} else {
-					System.out.println("Invalid admin data: " + line);
+					length += read;
+				}
+
+				//reads through each whole line in the buffer, printing messages as they come
+				tokenizer.reset(buffer, 0, length);
+				while (tokenizer.nextLine(endOfFile)) {
+					T record = load.parser.parse(tokenizer, System.out::println);
+					if (record != null) {
+						load.loader.accept(record);
+						records++;
+					}
 				}
-				
-			}	
-		
-        //catches error when reading file
+
+				//moves the unfinished line to the front, making room if it fills the buffer
+				length -= tokenizer.position();
+				System.arraycopy(buffer, tokenizer.position(), buffer, 0, length);
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+
+			}
+
+		//catches error when reading file
 		} catch (IOException e) {
-			System.out.println("Error reading admins file: " + e.getMessage());
+			System.out.println("Error reading " + load.type + " file: " + e.getMessage());
+
+		//catches error that stops the rest of the file from loading
+		} catch (LoadException e) {
+			System.out.println(e.getMessage());
+		}
+		Metrics.fileLoad(load.type).record(load.fileName, records, System.nanoTime() - start);
+
+	}
+
+	/**
+	 * Prints messages about a loaded file
+	 * @param messages to print
+	 */
+	private static void printMessages(List<String> messages) {
+		for (String message : messages) {
+			System.out.println(message);
+		}
+	}
+
+	/**
+	 * Parses a line of the course info file
+	 * Lecturers, days, and times repeat across courses, so they are interned
+	 * @param record tokenizer at the line to parse
+	 * @param messages to report invalid data to
+	 * @return parsed course, or null if the line is invalid
+	 * @throws LoadException if the capacity is not a number, which stops the rest of the file from loading
+	 */
+	private static Course parseCourse(RecordTokenizer record, Consumer<String> messages) throws LoadException {
+
+		//checks if the line has the correct number of components
+		if (record.fieldCount() != 7) {
+			messages.accept("Invalid course data: " + record.line());
+			return null;
+		}
+
+		//parses the course capacity
+		int capacity;
+		try {
+			capacity = record.intField(6);
+
+		//catches error when parsing course capacity
+		} catch (NumberFormatException e) {
+			throw new LoadException("Error parsing course capacity: " + e.getMessage());
+		}
+
+		//check for missing fields and skips invalid entries
+		for (int field = 0; field < 6; field++) {
+			if (record.isEmpty(field)) {
+				messages.accept("Invalid course data: " + record.line());
+				return null;
+			}
+		}
+
+		//creates a new Course object with the parsed components
+		try {
+			return new Course(record.field(0), record.field(1), record.internedField(2), record.internedField(3),
+					record.internedField(4), record.internedField(5), capacity);
+
+		//skips entries with malformed days or times
+		} catch (IllegalArgumentException e) {
+			messages.accept("Invalid course data: " + record.line());
+			return null;
+		}
+
+	}
+
+	/**
+	 * Parses a line of the student info file
+	 * Completed course IDs and grades repeat across students, so they are interned
+	 * @param record tokenizer at the line to parse
+	 * @param messages to report invalid data to
+	 * @return parsed student, or null if the line is invalid
+	 */
+	static Student parseStudent(RecordTokenizer record, Consumer<String> messages) {
+
+		//checks if the line has the correct number of fields
+		if (record.fieldCount() < 4) {
+			messages.accept("Invalid student data: " + record.line());
+			return null;
+		}
+
+		//check for missing fields and skips invalid entries
+		if (record.isEmpty(0) || record.isEmpty(1) || record.isEmpty(2) || record.isEmpty(3)) {
+			messages.accept("Invalid student data: " + record.line());
+			return null;
 		}
-		
-	}	
 
-}
\ No newline at end of file
+		//creates a new Student object using the parsed components
+		Student student = new Student(record.field(0), record.field(1), record.field(2), record.field(3));
+
+		//parses courses and grades if available
+		if (record.fieldCount() > 4) {
+
+			//iterates through each course grade pair
+			record.startList(4, ',');
+			while (record.nextItem()) {
+
+				//checks for the correct number of components and adds the course to completed courses
+				if (record.splitPair(':')) {
+					student.addCompletedCourse(record.key(), record.value());
+
+				//if wrong number of components, reports an error message
+				} else {
+					messages.accept("Invalid course-grade data for student: " + record.line());
+				}
+			}
+		}
+
+		return student;
+
+	}
+
+	/**
+	 * Parses a line of the professor info file
+	 * @param record tokenizer at the line to parse
+	 * @param messages to report invalid data to
+	 * @return parsed professor, or null if the line is invalid
+	 */
+	private static Professor parseProfessor(RecordTokenizer record, Consumer<String> messages) {
+
+		//checks if the line has the correct number of fields, and skips entries with missing fields
+		if (record.fieldCount() != 4 || record.isEmpty(0) || record.isEmpty(1) || record.isEmpty(2) || record.isEmpty(3)) {
+			messages.accept("Invalid professor data: " + record.line());
+			return null;
+		}
+
+		//creates a new Professor object from the name, ID, username, and password
+		return new Professor(record.field(1), record.field(0), record.field(2), record.field(3));
+
+	}
+
+	/**
+	 * Parses a line of the admin info file
+	 * @param record tokenizer at the line to parse
+	 * @param messages to report invalid data to
+	 * @return parsed admin, or null if the line is invalid
+	 */
+	private static Admin parseAdmin(RecordTokenizer record, Consumer<String> messages) {
+
+		//checks if the line has the correct number of fields, and skips entries with missing fields
+		if (record.fieldCount() != 4 || record.isEmpty(0) || record.isEmpty(1) || record.isEmpty(2) || record.isEmpty(3)) {
+			messages.accept("Invalid admin data: " + record.line());
+			return null;
+		}
+
+		//creates a new Admin object from the ID, name, username, and password
+		return new Admin(record.field(0), record.internedField(1), record.field(2), record.field(3));
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * Parses one line of an info file
+	 */
+	private interface LineParser<T> {
+
+		/**
+		 * @param record tokenizer at the line to parse
+		 * @param messages to report invalid data to
+		 * @return parsed record, or null if the line is invalid
+		 * @throws LoadException if the rest of the file should not be loaded
+		 */
+		T parse(RecordTokenizer record, Consumer<String> messages) throws LoadException;
+
+	}
+
+	/**
+	 * Thrown when a line is so malformed that the rest of the file is not loaded
+	 */
+	private static class LoadException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		LoadException(String message) {
+			super(message);
+		}
+
+	}
+
+	/**
+	 * Loads one info file by mapping it and parsing pieces of it in parallel
+	 * Each piece parses its lines into a list of records in file order, and the pieces are then added
+	 * to the maps in file order, so a repeated ID and the login and name indexes come out exactly as they
+	 * would reading line by line
+	 * Returns the messages about the file in the order they would have been printed
+	 */
+	private static class FileLoad<T> extends RecursiveTask<List<String>> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Path to the file, what kind of data it holds, how to parse a line, and how to add a parsed record
+		 */
+		final String fileName;
+		final String type;
+		final LineParser<T> parser;
+		final Consumer<T> loader;
+
+		FileLoad(String fileName, String type, LineParser<T> parser, Consumer<T> loader) {
+			this.fileName = fileName;
+			this.type = type;
+			this.parser = parser;
+			this.loader = loader;
+		}
+
+		@Override
+		protected List<String> compute() {
+
+			long loadStart = System.nanoTime();
+			List<String> messages = new ArrayList<>();
+			List<Chunk<T>> chunks = new ArrayList<>();
+
+			//opened the same way FileReader opens it, so a missing file gives the same message
+			try (RandomAccessFile file = new RandomAccessFile(fileName, "r")) {
+				FileChannel channel = file.getChannel();
+				long size = channel.size();
+
+				//splits the file into pieces of roughly equal size, a few per thread
+				long count = Math.min(getPool().getParallelism() * CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE);
+				count = Math.max(count, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+				count = Math.max(count, 1);
+
+				//ends each piece just after a line break, so no line is split between two pieces
+				long start = 0;
+				for (long i = 1; i <= count && start < size; i++) {
+					long end = i == count ? size : nextLine(channel, Math.max(start, size / count * i));
+					if (end > start) {
+						chunks.add(new Chunk<>(channel, start, end, this));
+					}
+					start = end;
+				}
+
+				//parses the pieces while the file is still open
+				invokeAll(chunks);
+
+			//catches error when reading file
+			} catch (IOException e) {
+				messages.add("Error reading " + type + " file: " + e.getMessage());
+				Metrics.fileLoad(type).record(fileName, 0, System.nanoTime() - loadStart);
+				return messages;
+			}
+
+			//adds each piece's records in file order, stopping where an error stopped the file from loading
+			long records = 0;
+			for (Chunk<T> chunk : chunks) {
+				for (T record : chunk.records) {
+					loader.accept(record);
+				}
+				records += chunk.records.size();
+				messages.addAll(chunk.messages);
+				if (chunk.error != null) {
+					messages.add(chunk.error);
+					break;
+				}
+			}
+			Metrics.fileLoad(type).record(fileName, records, System.nanoTime() - loadStart);
+
+			return messages;
+
+		}
+
+		/**
+		 * Finds the start of the first line after a position
+		 * @param channel of the file
+		 * @param position to search from
+		 * @return position just after the next line break, or the end of the file if there is none
+		 * @throws IOException if an error occurs while reading the file
+		 */
+		private static long nextLine(FileChannel channel, long position) throws IOException {
+
+			ByteBuffer buffer = ByteBuffer.allocate(8192);
+			while (channel.read(buffer, position) > 0) {
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					position++;
+					if (buffer.get() == '\n') {
+						return position;
+					}
+				}
+				buffer.clear();
+			}
+			return channel.size();
+
+		}
+
+	}
+
+	/**
+	 * Parses one piece of a mapped file into records, keeping its messages to be printed later
+	 */
+	private static class Chunk<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Where the piece is in the file and which file load it is part of
+		 */
+		private final FileChannel channel;
+		private final long start;
+		private final long end;
+		private final FileLoad<T> load;
+
+		/**
+		 * Records parsed from the piece, messages about invalid lines, and the error that stopped parsing, if any
+		 */
+		final List<T> records = new ArrayList<>();
+		final List<String> messages = new ArrayList<>();
+		String error;
+
+		Chunk(FileChannel channel, long start, long end, FileLoad<T> load) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.load = load;
+		}
+
+		@Override
+		protected void compute() {
+
+			try {
+
+				//decodes the mapped piece into characters
+				CharBuffer chars = CHARSET.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+
+				//parses each line in the piece, keeping the valid records
+				RecordTokenizer tokenizer = new RecordTokenizer();
+				tokenizer.reset(chars.array(), chars.arrayOffset() + chars.position(), chars.arrayOffset() + chars.limit());
+				while (tokenizer.nextLine(true)) {
+					T record = load.parser.parse(tokenizer, messages::add);
+					if (record != null) {
+						records.add(record);
+					}
+				}
+
+			//catches error when reading file
+			} catch (IOException e) {
+				error = "Error reading " + load.type + " file: " + e.getMessage();
+
+			//catches error that stops the rest of the file from loading
+			} catch (LoadException e) {
+				error = e.getMessage();
+			}
+
+		}
+
+	}
+
+}
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -131,6 +132,36 @@ class FileInfoReaderTest {
 		
 	}
 	
+	@Test
+	void testLoadStudentLogins() throws IOException {
+		
+		//create temporary file
+		File tempFile = Files.createTempFile("testStudentLogins", ".txt").toFile();
+		
+		//write test data to temp file
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))){
+			writer.write("001; John Doe; johndoe; password; CIS101:A\n");
+			writer.write("002; Jane Smith; janesmith; pass123\n");
+			writer.write("002; Jane Smith; jsmith; pass123\n"); //same ID loaded again with a new username
+		}
+		
+		//calls the loadStudents method with a username index
+		Map<String, Student> studentLogins = new HashMap<>();
+		fileInfoReader.loadStudents(tempFile.getAbsolutePath(), students, studentLogins);
+		
+		//Test Case 1: Students are indexed by username
+		assertEquals(2, studentLogins.size());
+		assertSame(students.get("001"), studentLogins.get("johndoe"));
+		
+		//Test Case 2: The last entry for an ID replaces the earlier login
+		assertFalse(studentLogins.containsKey("janesmith"));
+		assertSame(students.get("002"), studentLogins.get("jsmith"));
+		
+		//clean up temp file
+		tempFile.delete();
+		
+	}
+	
 	@Test
 	void testLoadProfessors () throws IOException {
 		
@@ -177,6 +208,44 @@ class FileInfoReaderTest {
 		
 	}
 	
+	@Test
+	void testLinkCourses() throws IOException {
+		
+		//create temporary files
+		File courseFile = Files.createTempFile("testCourses", ".txt").toFile();
+		File profFile = Files.createTempFile("testProfessors", ".txt").toFile();
+		
+		//write test data to temp files
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(courseFile))){
+			writer.write("CIS101; Intro to CS; John Doe; MW; 10:00; 11:30; 30\n");
+			writer.write("CIS102; Data Structures; JOHN DOE; TR; 12:00; 13:30; 50\n");
+			writer.write("CIS103; Operating Systems; Bob Bobby; MW; 14:00; 15:30; 50\n"); //lecturer is not a professor
+		}
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(profFile))){
+			writer.write("John Doe; 001; johndoe; password\n");
+		}
+		
+		//loads and links the courses and professors
+		Map<String, Professor> professorsByName = new HashMap<>();
+		fileInfoReader.loadCourses(courseFile.getAbsolutePath(), courses);
+		fileInfoReader.loadProfessors(profFile.getAbsolutePath(), professors, new HashMap<>(), professorsByName);
+		fileInfoReader.linkCourses(courses, professorsByName);
+		
+		//Test Case 1: Professors are indexed by normalized name
+		Professor professor = professors.get("001");
+		assertSame(professor, professorsByName.get("john doe"));
+		
+		//Test Case 2: Courses are linked to their lecturer regardless of case
+		assertEquals(2, professor.getCoursesTaught().size());
+		assertTrue(professor.getCoursesTaught().contains(courses.get("CIS101")));
+		assertTrue(professor.getCoursesTaught().contains(courses.get("CIS102")));
+		
+		//clean up temp files
+		courseFile.delete();
+		profFile.delete();
+		
+	}
+	
 	@Test
 	void testLoadAdmins () throws IOException {
 		
@@ -222,4 +291,112 @@ class FileInfoReaderTest {
 		tempFile.delete();		
 		
 	}
+	
+	@Test
+	void testParallelLoadStudents() throws IOException {
+		
+		//create temporary file big enough to be split into several pieces
+		File tempFile = Files.createTempFile("testStudents", ".txt").toFile();
+		
+		//write test data to temp file, repeating IDs across the file and mixing line breaks
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))){
+			for (int i = 0; i < 100000; i++) {
+				writer.write(String.format("%05d; Student %d; user%d; password; CIS101:A, CIS102:B", i % 60000, i, i));
+				writer.write(i % 3 == 0 ? "\r\n" : "\n");
+				if (i % 10000 == 0) {
+					writer.write(";; invalid; pass\n"); //missing student ID and name
+				}
+			}
+			writer.write("99999; Last Student; last; password"); //no line break at the end
+		}
+		
+		//loads the file line by line and in parallel
+		Map<String, Student> studentLogins = new HashMap<>();
+		fileInfoReader.loadStudents(tempFile.getAbsolutePath(), students, studentLogins);
+		Map<String, Student> parallelStudents = new HashMap<>();
+		Map<String, Student> parallelLogins = new HashMap<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		new FileInfoReader(pool).loadStudents(tempFile.getAbsolutePath(), parallelStudents, parallelLogins);
+		pool.shutdown();
+		
+		//Test Case 1: The same students are loaded
+		assertEquals(60001, parallelStudents.size());
+		assertEquals(students.keySet(), parallelStudents.keySet());
+		assertEquals(studentLogins.keySet(), parallelLogins.keySet());
+		
+		//Test Case 2: The last entry for an ID wins, as it does line by line
+		assertEquals("Student 99999", parallelStudents.get("39999").getName());
+		assertSame(parallelStudents.get("39999"), parallelLogins.get("user99999"));
+		assertFalse(parallelLogins.containsKey("user39999"));
+		assertEquals("last", parallelStudents.get("99999").getUsername());
+		assertEquals(2, parallelStudents.get("00000").getCompletedCourses().size());
+		
+		//clean up temp file
+		tempFile.delete();
+		
+	}
+	
+	@Test
+	void testParallelLoadAll() throws IOException {
+		
+		//create temporary files
+		File courseFile = Files.createTempFile("testCourses", ".txt").toFile();
+		File adminFile = Files.createTempFile("testAdmins", ".txt").toFile();
+		File profFile = Files.createTempFile("testProfessors", ".txt").toFile();
+		File studentFile = Files.createTempFile("testStudents", ".txt").toFile();
+		
+		//write test data to temp files
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(courseFile))){
+			writer.write("CIS101; Intro to CS; John Doe; MW; 10:00; 11:30; 30\n");
+			writer.write("CIS102; Data Structures; Jane Smith; TR; 12:00; 13:30; many\n"); //capacity stops the rest of the file
+			writer.write("CIS103; Operating Systems; John Doe; MW; 14:00; 15:30; 50\n");
+		}
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(adminFile))){
+			writer.write("001; Admin John; admin01; adminpass\n");
+		}
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(profFile))){
+			writer.write("John Doe; 001; johndoe; password\n");
+			writer.write("Johnny Doe; 001; jdoe; password\n"); //same ID loaded again with a new name
+		}
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(studentFile))){
+			writer.write("001; Jane Doe; janedoe; password; CIS101:A\n");
+		}
+		
+		//loads all four files at the same time
+		Map<String, Professor> professorLogins = new HashMap<>();
+		Map<String, Professor> professorsByName = new HashMap<>();
+		Map<String, Student> studentLogins = new HashMap<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		new FileInfoReader(pool).loadAll(courseFile.getAbsolutePath(), adminFile.getAbsolutePath(), profFile.getAbsolutePath(),
+				studentFile.getAbsolutePath(), courses, admins, professors, professorLogins, professorsByName, students, studentLogins);
+		pool.shutdown();
+		
+		//Test Case 1: Each file is loaded into its own maps
+		assertTrue(admins.containsKey("admin01"));
+		assertSame(students.get("001"), studentLogins.get("janedoe"));
+		
+		//Test Case 2: A bad capacity stops the course file from loading, as it does line by line
+		assertEquals(1, courses.size());
+		assertTrue(courses.containsKey("CIS101"));
+		
+		//Test Case 3: The last professor with an ID replaces the earlier one's indexes
+		assertEquals(1, professors.size());
+		assertSame(professors.get("001"), professorsByName.get("johnny doe"));
+		assertFalse(professorsByName.containsKey("john doe"));
+		assertFalse(professorLogins.containsKey("johndoe"));
+		
+		//Test Case 4: A missing file leaves its map empty
+		Map<String, Admin> missingAdmins = new HashMap<>();
+		pool = new ForkJoinPool(2);
+		new FileInfoReader(pool).loadAdmins(adminFile.getAbsolutePath() + ".missing", missingAdmins);
+		pool.shutdown();
+		assertTrue(missingAdmins.isEmpty());
+		
+		//clean up temp files
+		courseFile.delete();
+		adminFile.delete();
+		profFile.delete();
+		studentFile.delete();
+		
+	}
 }
@@ -0,0 +1,1064 @@
+package files;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import courses.Course;
+import messages.MessageSink;
+import messages.Messages;
+import roles.Admin;
+import roles.DropResult;
+import roles.EnrollResult;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * Append-only journal of the changes made while the system is running
+ * The info files are only read at startup, so every enrollment, drop, and admin add/delete is
+ * recorded here and replayed on top of the info files the next time the system starts
+ * Records are written in groups: they are forced to disk once enough records are waiting
+ * or once the oldest waiting record is old enough, whichever comes first
+ * Once the data is saved in a snapshot, the journal is cleared and starts with a checkpoint record
+ * naming that snapshot, so only the changes made after the snapshot are replayed on top of it
+ * @author Katie
+ */
+public class Journal implements Closeable {
+
+	//record types
+
+	private static final byte ADD_COURSE = 1;
+	private static final byte DELETE_COURSE = 2;
+	private static final byte ADD_PROFESSOR = 3;
+	private static final byte DELETE_PROFESSOR = 4;
+	private static final byte ADD_STUDENT = 5;
+	private static final byte DELETE_STUDENT = 6;
+	private static final byte ENROLL = 7;
+	private static final byte DROP = 8;
+	private static final byte CHECKPOINT = 9;
+	private static final byte SEAT = 10;
+	private static final byte WAIT = 11;
+
+	/**
+	 * Largest record the journal will read back, used to spot a corrupted length
+	 */
+	private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+	/**
+	 * Number of locks courses and students share for keeping their changes in order, a power of two
+	 */
+	private static final int ORDER_LOCKS = 256;
+
+
+	//instance variables
+
+	/**
+	 * Path of the journal file
+	 */
+	private final Path path;
+
+	/**
+	 * Number of records that may wait before they are forced to disk
+	 */
+	private final int syncEvery;
+
+	/**
+	 * Background task that forces waiting records to disk, or null if only syncEvery applies
+	 */
+	private final ScheduledExecutorService syncer;
+
+	/**
+	 * Stream records are appended to, opened on the first append
+	 */
+	private DataOutputStream out;
+
+	/**
+	 * Channel of the journal file, used to force records to disk
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Length of the journal up to the end of its last complete record
+	 */
+	private long validLength = -1;
+
+	/**
+	 * Number of records written but not yet forced to disk
+	 */
+	private int pending;
+
+	/**
+	 * True while a batch of records is written, so they are forced to disk together once it is done
+	 */
+	private boolean inBatch;
+
+	/**
+	 * Number of records in the journal
+	 */
+	private long recordCount;
+
+	/**
+	 * Checkpoint number of the snapshot the journal continues from, or -1 if it continues from the info files
+	 */
+	private long checkpoint = -1;
+
+	/**
+	 * IDs of the courses, professors, and students the journal has added or deleted, used for compaction
+	 */
+	private final Set<String> touchedCourses = new HashSet<>();
+	private final Set<String> touchedProfessors = new HashSet<>();
+	private final Set<String> touchedStudents = new HashSet<>();
+
+	/**
+	 * Locks shared out among courses and students by ID, held while a student's seat in a course changes and is recorded
+	 */
+	private final Object[] orderLocks = new Object[ORDER_LOCKS];
+
+	/**
+	 * Reusable buffer each record is encoded into before it is framed and appended
+	 */
+	private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+	private final DataOutputStream record = new DataOutputStream(recordBytes);
+
+
+	//constructor
+
+	/**
+	 * Creates a journal backed by the given file
+	 * @param fileName of the journal file, created on the first append if missing
+	 * @param syncEvery number of records that may wait before they are forced to disk, 1 to force every record
+	 * @param syncMillis longest time a record may wait before it is forced to disk, 0 to only use syncEvery
+	 */
+	public Journal(String fileName, int syncEvery, long syncMillis) {
+
+		//checks for invalid settings
+		if (fileName == null || fileName.trim().isEmpty() || syncEvery < 1 || syncMillis < 0) {
+			throw new IllegalArgumentException("Journal needs a file name, syncEvery of at least 1, and a non-negative syncMillis.");
+		}
+
+		this.path = Paths.get(fileName);
+		this.syncEvery = syncEvery;
+		for (int i = 0; i < ORDER_LOCKS; i++) {
+			orderLocks[i] = new Object();
+		}
+
+		//starts a background task that forces waiting records to disk
+		if (syncMillis > 0) {
+			syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+				Thread thread = new Thread(task, "journal-sync");
+				thread.setDaemon(true);
+				return thread;
+			});
+			syncer.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+		} else {
+			syncer = null;
+		}
+
+	}
+
+
+	//getters
+
+	/**
+	 * Gets the number of records in the journal
+	 */
+	public synchronized long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Gets the checkpoint number of the snapshot the journal continues from, or -1 if it continues from the info files
+	 */
+	public synchronized long getCheckpoint() {
+		return checkpoint;
+	}
+
+
+	//recording methods
+
+	/**
+	 * Records a course added by an admin
+	 * @param course that was added
+	 * @param lecturer professor the course was assigned to, or null if none
+	 */
+	public synchronized void addCourse(Course course, Professor lecturer) {
+
+		try {
+			record.writeByte(ADD_COURSE);
+			writeCourse(course, lecturer);
+			syncIfDue(append());
+			touchedCourses.add(course.getId());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing journal: " + e.getMessage(), e);
+		}
+
+	}
+
+	/**
+	 * Records a course deleted by an admin
+	 * @param courseId of the deleted course
+	 */
+	public synchronized void deleteCourse(String courseId) {
+		syncIfDue(appendId(DELETE_COURSE, courseId));
+		touchedCourses.add(courseId);
+	}
+
+	/**
+	 * Records a professor added by an admin
+	 * @param professor that was added
+	 */
+	public synchronized void addProfessor(Professor professor) {
+
+		try {
+			record.writeByte(ADD_PROFESSOR);
+			writeProfessor(professor);
+			syncIfDue(append());
+			touchedProfessors.add(professor.getId());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing journal: " + e.getMessage(), e);
+		}
+
+	}
+
+	/**
+	 * Records a professor deleted by an admin
+	 * @param professorId of the deleted professor
+	 */
+	public synchronized void deleteProfessor(String professorId) {
+		syncIfDue(appendId(DELETE_PROFESSOR, professorId));
+		touchedProfessors.add(professorId);
+	}
+
+	/**
+	 * Records a student added by an admin
+	 * @param student that was added
+	 */
+	public synchronized void addStudent(Student student) {
+
+		try {
+			record.writeByte(ADD_STUDENT);
+			writeStudent(student);
+			syncIfDue(append());
+			touchedStudents.add(student.getId());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing journal: " + e.getMessage(), e);
+		}
+
+	}
+
+	/**
+	 * Records a student deleted by an admin
+	 * @param studentId of the deleted student
+	 */
+	public synchronized void deleteStudent(String studentId) {
+		syncIfDue(appendId(DELETE_STUDENT, studentId));
+		touchedStudents.add(studentId);
+	}
+
+	/**
+	 * Enrolls a student in a course, or puts them on its waitlist, and records it if they got either
+	 * The change and its record are made holding locks for the course and the student, so the records for each course
+	 * and each student are in the order their seats changed and replay to the same result, while changes to other
+	 * courses carry on; the journal's own lock is only held while the record is written
+	 * @param student to enroll
+	 * @param course to enroll them in
+	 * @return outcome of the request, reported by the caller
+	 */
+	public EnrollResult enroll(Student student, Course course) {
+		return inOrder(lockNumbers(List.of(student.getId(), course.getId())), 0, () -> {
+			EnrollResult result = student.enroll(course);
+			if (result.isAccepted()) {
+				enroll(student.getId(), course.getId());
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Drops a student from a course, or takes them off its waitlist, and records it if they were on either
+	 * Holds the same locks as enroll, plus the locks of every student on the course's waitlist, since the seat freed
+	 * can go to any of them and the records of the student who takes it have to stay in the order their seats changed
+	 * @param student to drop
+	 * @param course to drop them from
+	 * @return outcome of the request, reported by the caller
+	 */
+	public DropResult drop(Student student, Course course) {
+
+		//students only join the waitlist under the course's lock, so once it is held the waitlist is checked again
+		//in case someone joined before it was taken
+		while (true) {
+			int[] locks = waitlistLocks(student, course);
+			DropResult outcome = inOrder(locks, 0, () -> {
+				for (int lock : waitlistLocks(student, course)) {
+					if (Arrays.binarySearch(locks, lock) < 0) {
+						return null;
+					}
+				}
+				DropResult result = student.drop(course);
+				if (result.isAccepted()) {
+					drop(student.getId(), course.getId());
+				}
+				return result;
+			});
+			if (outcome != null) {
+				return outcome;
+			}
+		}
+
+	}
+
+	/**
+	 * Records a student adding a course, whether they got a seat or joined the waitlist
+	 * Replaying the request against the same earlier state gives the same result
+	 * @param studentId of the student
+	 * @param courseId of the course
+	 */
+	public void enroll(String studentId, String courseId) {
+		syncIfDue(appendPair(ENROLL, studentId, courseId));
+	}
+
+	/**
+	 * Records many students adding courses, forcing every record to disk together once all are written
+	 * @param studentIds of the students, in the order they added the courses
+	 * @param courseIds of the courses, in the same order
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	public synchronized void enrollAll(List<String> studentIds, List<String> courseIds) throws IOException {
+
+		//checks that every student has a course
+		if (studentIds.size() != courseIds.size()) {
+			throw new IllegalArgumentException("Every student ID needs a course ID.");
+		}
+
+		inBatch = true;
+		try {
+			for (int i = 0; i < studentIds.size(); i++) {
+				appendPair(ENROLL, studentIds.get(i), courseIds.get(i));
+			}
+		} finally {
+			inBatch = false;
+		}
+		sync();
+
+	}
+
+	/**
+	 * Records a student dropping a course or leaving its waitlist
+	 * @param studentId of the student
+	 * @param courseId of the course
+	 */
+	public void drop(String studentId, String courseId) {
+		syncIfDue(appendPair(DROP, studentId, courseId));
+	}
+
+	/**
+	 * Forces every record written so far to disk
+	 * The records are handed to the file under the journal's lock, but forced to disk outside it,
+	 * so other threads can keep appending while the disk catches up
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	public void sync() throws IOException {
+
+		FileChannel written;
+		synchronized (this) {
+
+			//nothing to do if nothing is waiting
+			if (out == null || pending == 0) {
+				return;
+			}
+
+			out.flush();
+			pending = 0;
+			written = channel;
+
+		}
+
+		try {
+			written.force(false);
+		} catch (ClosedChannelException e) {
+			//closing, clearing, or compacting the journal meanwhile forced or replaced the file itself
+		}
+
+	}
+
+	/**
+	 * Forces waiting records to disk and closes the journal
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+
+		if (syncer != null) {
+			syncer.shutdown();
+		}
+
+		//forces the file even if nothing is waiting, since another thread may have handed records to it and not forced them yet
+		if (out != null) {
+			out.flush();
+			channel.force(false);
+			pending = 0;
+			out.close();
+			out = null;
+			channel = null;
+
+			//the file is read again if the journal is reopened
+			validLength = -1;
+		}
+
+	}
+
+
+	/**
+	 * Empties the journal once its changes are saved in a snapshot, leaving only a checkpoint record naming that snapshot
+	 * @param snapshotCheckpoint checkpoint number the snapshot was saved with
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	public synchronized void clear(long snapshotCheckpoint) throws IOException {
+
+		//checks for an invalid checkpoint number
+		if (snapshotCheckpoint < 0) {
+			throw new IllegalArgumentException("Checkpoint number cannot be negative.");
+		}
+
+		//starts the journal over
+		if (out != null) {
+			out.close();
+		}
+		openForAppend(path, 0);
+		recordCount = 0;
+		touchedCourses.clear();
+		touchedProfessors.clear();
+		touchedStudents.clear();
+
+		//writes the checkpoint record and forces it to disk straight away
+		record.writeByte(CHECKPOINT);
+		record.writeLong(snapshotCheckpoint);
+		append();
+		sync();
+		checkpoint = snapshotCheckpoint;
+
+	}
+
+
+	//replay and compaction
+
+	/**
+	 * Applies the journal on top of data loaded from the info files
+	 * Stops at the first incomplete or corrupted record, which is what a crash mid-write leaves behind,
+	 * and cuts it off before anything new is appended
+	 * Courses added by the journal are linked to their lecturer, but callers should still call
+	 * FileInfoReader.linkCourses afterwards to link courses to professors the journal added
+	 * @param courses map of courses keyed by ID
+	 * @param professors map of professors keyed by ID
+	 * @param professorLogins map of professors keyed by username
+	 * @param professorsByName map of professors keyed by normalized name
+	 * @param students map of students keyed by ID
+	 * @param studentLogins map of students keyed by username
+	 * @return number of records applied
+	 * @throws IOException if an error occurs while reading the journal
+	 */
+	public long replay(Map<String, Course> courses, Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, Map<String, Student> students, Map<String, Student> studentLogins) throws IOException {
+		return replay(courses, professors, professorLogins, professorsByName, students, studentLogins, -1);
+	}
+
+	/**
+	 * Applies the journal on top of data loaded from a snapshot, or from the info files if snapshotCheckpoint is -1
+	 * A journal that doesn't continue from the given snapshot was written before the snapshot was saved,
+	 * so its changes are already in the snapshot and nothing is applied
+	 * A journal that continues from a snapshot can't be applied to the info files, since the data it changes is only
+	 * in that snapshot, so it is refused before anything is applied rather than replayed over the wrong data
+	 * @param courses map of courses keyed by ID
+	 * @param professors map of professors keyed by ID
+	 * @param professorLogins map of professors keyed by username
+	 * @param professorsByName map of professors keyed by normalized name
+	 * @param students map of students keyed by ID
+	 * @param studentLogins map of students keyed by username
+	 * @param snapshotCheckpoint checkpoint number of the loaded snapshot, or -1 if the info files were loaded
+	 * @return number of records applied
+	 * @throws IOException if an error occurs while reading the journal, or if snapshotCheckpoint is -1 and the journal
+	 * continues from a snapshot
+	 */
+	public synchronized long replay(Map<String, Course> courses, Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, Map<String, Student> students, Map<String, Student> studentLogins,
+			long snapshotCheckpoint) throws IOException {
+
+		//checks if the journal was already opened for appending
+		if (out != null) {
+			throw new IllegalStateException("Journal must be replayed before anything is appended.");
+		}
+
+		//the replayed operations report the same outcomes they did the first time, so those are dropped
+		Admin replayer = new Admin("journal", "Journal", "journal", "journal");
+		MessageSink console = Messages.setSink(MessageSink.DISCARD);
+
+		try {
+			long[] applied = new long[1];
+			scan(payload -> {
+
+				//checks if the changes were made on top of a snapshot that wasn't loaded
+				if (snapshotCheckpoint < 0 && checkpoint >= 0) {
+					throw notLoaded();
+				}
+
+				//skips changes already in the loaded snapshot, since the checkpoint record always comes first
+				if (snapshotCheckpoint >= 0 && checkpoint != snapshotCheckpoint) {
+					return;
+				}
+
+				apply(payload, replayer, courses, professors, professorLogins, professorsByName, students, studentLogins);
+				applied[0]++;
+
+			});
+
+			//a journal with no changes yet still means the data is in the snapshot
+			if (snapshotCheckpoint < 0 && checkpoint >= 0) {
+				throw notLoaded();
+			}
+			return applied[0];
+		} finally {
+			Messages.setSink(console);
+		}
+
+	}
+
+	/**
+	 * Rewrites the journal as the shortest list of records that rebuilds the current data on top of the info files
+	 * Every course, professor, and student the journal ever touched is written once as it is now, or as deleted,
+	 * followed by each course's roster and waitlist in order
+	 * Rosters and waitlists are written as the places students hold rather than as requests, so replaying them puts
+	 * each student back where they were without checking for conflicts again; a request replayed in a different
+	 * order across courses could turn out differently, such as a clash with a course written earlier
+	 * Only a journal that continues from the info files can be compacted; one that continues from a snapshot
+	 * is shortened by saving a new snapshot and clearing it instead
+	 * @param courses map of courses keyed by ID
+	 * @param professors map of professors keyed by ID
+	 * @param professorsByName map of professors keyed by normalized name
+	 * @param students map of students keyed by ID
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	public synchronized void compact(Map<String, Course> courses, Map<String, Professor> professors,
+			Map<String, Professor> professorsByName, Map<String, Student> students) throws IOException {
+
+		//reads the journal first if it hasn't been yet
+		if (out == null && validLength < 0) {
+			scan(payload -> { });
+		}
+
+		//checks if the journal continues from a snapshot, whose rosters can't be rebuilt by adding students
+		if (checkpoint >= 0) {
+			throw new IllegalStateException("Journal continues from a snapshot and must be cleared instead of compacted.");
+		}
+
+		//finishes the current journal and switches appends over to a new file
+		if (out != null) {
+			sync();
+			out.close();
+		}
+
+		Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+		openForAppend(compacted, 0);
+		recordCount = 0;
+
+		try {
+
+			//writes professors first, since courses refer to them
+			for (String professorId : touchedProfessors) {
+				Professor professor = professors.get(professorId);
+				if (professor != null) {
+					record.writeByte(ADD_PROFESSOR);
+					writeProfessor(professor);
+					append();
+				} else {
+					appendId(DELETE_PROFESSOR, professorId);
+				}
+			}
+
+			//writes courses, linking each to its current lecturer
+			for (String courseId : touchedCourses) {
+				Course course = courses.get(courseId);
+				if (course != null) {
+					record.writeByte(ADD_COURSE);
+					writeCourse(course, professorsByName.get(Professor.normalizeName(course.getLecturer())));
+					append();
+				} else {
+					appendId(DELETE_COURSE, courseId);
+				}
+			}
+
+			//writes students
+			for (String studentId : touchedStudents) {
+				Student student = students.get(studentId);
+				if (student != null) {
+					record.writeByte(ADD_STUDENT);
+					writeStudent(student);
+					append();
+				} else {
+					appendId(DELETE_STUDENT, studentId);
+				}
+			}
+
+			//writes each course's roster with each student's grade, then its waitlist, in order
+			for (Course course : courses.values()) {
+				for (String studentId : course.getEnrolledStudents()) {
+					Student student = students.get(studentId);
+					String grade = student == null ? null : student.getEnrolledCourses().get(course);
+					if (grade != null) {
+						record.writeByte(SEAT);
+						record.writeUTF(studentId);
+						record.writeUTF(course.getId());
+						record.writeUTF(grade);
+						append();
+					}
+				}
+				for (String studentId : course.getWaitlist()) {
+					appendPair(WAIT, studentId, course.getId());
+				}
+			}
+
+			//forces the new journal to disk before it replaces the old one
+			out.flush();
+			channel.force(false);
+			pending = 0;
+
+		} catch (IOException | RuntimeException e) {
+			out.close();
+			out = null;
+			Files.deleteIfExists(compacted);
+			throw e;
+		}
+
+		//swaps the new journal in and keeps appending to it
+		out.close();
+		Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		validLength = Files.size(path);
+		openForAppend(path, validLength);
+
+	}
+
+
+	//helper methods
+
+	/**
+	 * Reads each complete record in the journal file and hands its payload to the handler
+	 * Also records where the last complete record ends and which snapshot the journal continues from
+	 * @param handler for each record's payload
+	 * @return number of records read
+	 * @throws IOException if an error occurs while reading the journal
+	 */
+	private long scan(RecordHandler handler) throws IOException {
+
+		validLength = 0;
+		recordCount = 0;
+		checkpoint = -1;
+
+		//nothing to read if the journal doesn't exist yet
+		if (!Files.exists(path)) {
+			return 0;
+		}
+
+		CRC32 crc = new CRC32();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+
+			while (true) {
+
+				//reads the record's length and checksum, stopping at the end of the file
+				int length;
+				long checksum;
+				try {
+					length = in.readInt();
+					checksum = in.readInt() & 0xFFFFFFFFL;
+				} catch (EOFException e) {
+					break;
+				}
+
+				//stops at a length that can't be right
+				if (length <= 0 || length > MAX_RECORD_LENGTH) {
+					break;
+				}
+
+				//reads the payload, stopping if it was cut off
+				byte[] payload = new byte[length];
+				try {
+					in.readFully(payload);
+				} catch (EOFException e) {
+					break;
+				}
+
+				//stops if the payload doesn't match its checksum
+				crc.reset();
+				crc.update(payload);
+				if (crc.getValue() != checksum) {
+					break;
+				}
+
+				//notes which snapshot the journal continues from, handing every other record on
+				DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(payload));
+				if (payload[0] == CHECKPOINT) {
+					recordIn.readByte();
+					checkpoint = recordIn.readLong();
+				} else {
+					handler.handle(recordIn);
+				}
+				validLength += 8 + length;
+				recordCount++;
+
+			}
+
+		}
+
+		return recordCount;
+
+	}
+
+	/**
+	 * Applies a single record to the loaded data
+	 */
+	private void apply(DataInputStream in, Admin replayer, Map<String, Course> courses, Map<String, Professor> professors,
+			Map<String, Professor> professorLogins, Map<String, Professor> professorsByName,
+			Map<String, Student> students, Map<String, Student> studentLogins) throws IOException {
+
+		byte type = in.readByte();
+		switch (type) {
+
+			//replaces any course with the same ID and links it to its lecturer
+			case ADD_COURSE: {
+				Course course = new Course(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readInt());
+				String lecturerId = in.readUTF();
+				replayer.removeCourse(courses, professorsByName, course.getId());
+				courses.put(course.getId(), course);
+				touchedCourses.add(course.getId());
+
+				Professor lecturer = professors.get(lecturerId);
+				if (lecturer != null) {
+					lecturer.assignCourse(course);
+				}
+				break;
+			}
+
+			case DELETE_COURSE: {
+				String courseId = in.readUTF();
+				replayer.removeCourse(courses, professorsByName, courseId);
+				touchedCourses.add(courseId);
+				break;
+			}
+
+			//replaces any professor with the same ID
+			case ADD_PROFESSOR: {
+				Professor professor = new Professor(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+				replayer.removeProfessor(professors, professorLogins, professorsByName, professor.getId());
+				professors.put(professor.getId(), professor);
+				professorLogins.put(professor.getUsername(), professor);
+				professorsByName.put(Professor.normalizeName(professor.getName()), professor);
+				touchedProfessors.add(professor.getId());
+				break;
+			}
+
+			case DELETE_PROFESSOR: {
+				String professorId = in.readUTF();
+				replayer.removeProfessor(professors, professorLogins, professorsByName, professorId);
+				touchedProfessors.add(professorId);
+				break;
+			}
+
+			//replaces any student with the same ID
+			case ADD_STUDENT: {
+				Student student = new Student(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+				int completed = in.readInt();
+				for (int i = 0; i < completed; i++) {
+					student.addCompletedCourse(in.readUTF(), in.readUTF());
+				}
+				replayer.removeStudent(students, studentLogins, student.getId());
+				students.put(student.getId(), student);
+				studentLogins.put(student.getUsername(), student);
+				touchedStudents.add(student.getId());
+				break;
+			}
+
+			case DELETE_STUDENT: {
+				String studentId = in.readUTF();
+				replayer.removeStudent(students, studentLogins, studentId);
+				touchedStudents.add(studentId);
+				break;
+			}
+
+			//repeats the student's request, skipping students or courses that no longer exist
+			case ENROLL:
+			case DROP: {
+				Student student = students.get(in.readUTF());
+				Course course = courses.get(in.readUTF());
+				if (student != null && course != null) {
+					if (type == ENROLL) {
+						student.enroll(course);
+					} else {
+						student.drop(course);
+					}
+				}
+				break;
+			}
+
+			//puts the student back in their seat, written by compact, skipping students or courses that no longer exist
+			case SEAT: {
+				Student student = students.get(in.readUTF());
+				Course course = courses.get(in.readUTF());
+				String grade = in.readUTF();
+				if (student != null && course != null && course.addStudent(student.getId())) {
+					Map<Course, String> enrolledCourses = new HashMap<>(student.getEnrolledCourses());
+					enrolledCourses.put(course, grade);
+					student.setEnrolledCourses(enrolledCourses);
+				}
+				break;
+			}
+
+			//puts the student back on the waitlist, written by compact after the course's roster
+			case WAIT: {
+				Student student = students.get(in.readUTF());
+				Course course = courses.get(in.readUTF());
+				if (student != null && course != null) {
+					student.joinWaitlist(course);
+				}
+				break;
+			}
+
+			default:
+				throw new IOException("Unknown journal record type " + type);
+
+		}
+
+	}
+
+	/**
+	 * Writes a course's fields and its lecturer's ID to the current record
+	 */
+	private void writeCourse(Course course, Professor lecturer) throws IOException {
+
+		record.writeUTF(course.getId());
+		record.writeUTF(course.getName());
+		record.writeUTF(course.getLecturer());
+		record.writeUTF(course.getDays());
+		record.writeUTF(course.getStartTime());
+		record.writeUTF(course.getEndTime());
+		record.writeInt(course.getCapacity());
+		record.writeUTF(lecturer == null ? "" : lecturer.getId());
+
+	}
+
+	/**
+	 * Writes a professor's fields to the current record
+	 */
+	private void writeProfessor(Professor professor) throws IOException {
+
+		record.writeUTF(professor.getId());
+		record.writeUTF(professor.getName());
+		record.writeUTF(professor.getUsername());
+		record.writeUTF(professor.getPassword());
+
+	}
+
+	/**
+	 * Writes a student's fields and completed courses to the current record
+	 */
+	private void writeStudent(Student student) throws IOException {
+
+		record.writeUTF(student.getId());
+		record.writeUTF(student.getName());
+		record.writeUTF(student.getUsername());
+		record.writeUTF(student.getPassword());
+		record.writeInt(student.getCompletedCourses().size());
+		for (Map.Entry<String, String> entry : student.getCompletedCourses().entrySet()) {
+			record.writeUTF(entry.getKey());
+			record.writeUTF(entry.getValue());
+		}
+
+	}
+
+	/**
+	 * Appends a record holding a single ID
+	 */
+	private synchronized boolean appendId(byte type, String id) {
+
+		try {
+			record.writeByte(type);
+			record.writeUTF(id);
+			return append();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing journal: " + e.getMessage(), e);
+		}
+
+	}
+
+	/**
+	 * Appends a record holding a student ID and a course ID
+	 */
+	private synchronized boolean appendPair(byte type, String studentId, String courseId) {
+
+		try {
+			record.writeByte(type);
+			record.writeUTF(studentId);
+			record.writeUTF(courseId);
+			return append();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error writing journal: " + e.getMessage(), e);
+		}
+
+	}
+
+	/**
+	 * Frames the current record with its length and checksum and appends it
+	 * @return true if syncEvery records are now waiting and should be forced to disk, once the caller lets go of the lock
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	private boolean append() throws IOException {
+
+		try {
+
+			//opens the journal on the first append, cutting off any incomplete record left by a crash
+			if (out == null) {
+				if (validLength < 0) {
+					scan(payload -> { });
+				}
+				openForAppend(path, validLength);
+			}
+
+			//writes the length, checksum, and payload
+			CRC32 crc = new CRC32();
+			crc.update(recordBytes.toByteArray());
+			out.writeInt(recordBytes.size());
+			out.writeInt((int) crc.getValue());
+			recordBytes.writeTo(out);
+			recordCount++;
+
+			//the group of waiting records is forced to disk together
+			return ++pending >= syncEvery && !inBatch;
+
+		} finally {
+			recordBytes.reset();
+		}
+
+	}
+
+	/**
+	 * Opens a journal file for appending after cutting it to the given length
+	 */
+	private void openForAppend(Path file, long length) throws IOException {
+
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		channel.truncate(length);
+		channel.position(length);
+		out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+	}
+
+	/**
+	 * Forces the waiting records to disk if append said a group is full
+	 */
+	private void syncIfDue(boolean due) {
+
+		if (due) {
+			try {
+				sync();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Error writing journal: " + e.getMessage(), e);
+			}
+		}
+
+	}
+
+	/**
+	 * Runs a change holding order locks, taking them from the lowest numbered up so no two changes can wait on each other
+	 * @param locks numbers of the locks, in increasing order with none repeated
+	 * @param from index of the first lock not yet held
+	 */
+	private <T> T inOrder(int[] locks, int from, Supplier<T> change) {
+
+		if (from == locks.length) {
+			return change.get();
+		}
+		synchronized (orderLocks[locks[from]]) {
+			return inOrder(locks, from + 1, change);
+		}
+
+	}
+
+	/**
+	 * Gets the numbers of the order locks for some IDs, in increasing order with none repeated
+	 */
+	private static int[] lockNumbers(List<String> ids) {
+
+		int[] locks = new int[ids.size()];
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = orderLock(ids.get(i));
+		}
+		Arrays.sort(locks);
+
+		//keeps one of each lock shared by more than one ID
+		int count = 0;
+		for (int lock : locks) {
+			if (count == 0 || locks[count - 1] != lock) {
+				locks[count++] = lock;
+			}
+		}
+		return Arrays.copyOf(locks, count);
+
+	}
+
+	/**
+	 * Gets the numbers of the order locks for a student dropping a course and for everyone on its waitlist
+	 */
+	private static int[] waitlistLocks(Student student, Course course) {
+
+		List<String> ids = new ArrayList<>(course.getWaitlist());
+		ids.add(student.getId());
+		ids.add(course.getId());
+		return lockNumbers(ids);
+
+	}
+
+	/**
+	 * Gets the number of the order lock for an ID
+	 */
+	private static int orderLock(String id) {
+		int hash = id.hashCode();
+		return (hash ^ (hash >>> 16)) & (ORDER_LOCKS - 1);
+	}
+
+	/**
+	 * Forces waiting records to disk from the background task, reporting any error
+	 */
+	private void syncQuietly() {
+
+		try {
+			sync();
+		} catch (IOException e) {
+			System.err.println("Error writing journal: " + e.getMessage());
+		}
+
+	}
+
+	/**
+	 * Creates the error for a journal continuing from a snapshot that wasn't loaded
+	 */
+	private IOException notLoaded() {
+		return new IOException("Journal continues from snapshot " + checkpoint + ", which was not loaded.");
+	}
+
+	/**
+	 * Handles the payload of a single record while scanning the journal
+	 */
+	private interface RecordHandler {
+		void handle(DataInputStream payload) throws IOException;
+	}
+
+}
@@ -0,0 +1,395 @@
+package files;
+
+import courses.Course;
+import roles.EnrollResult;
+import roles.Professor;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JournalTest {
+
+	private File journalFile;
+	private Map<String, Course> courses;
+	private Map<String, Professor> professors;
+	private Map<String, Professor> professorLogins;
+	private Map<String, Professor> professorsByName;
+	private Map<String, Student> students;
+	private Map<String, Student> studentLogins;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		//create an empty journal location
+		journalFile = Files.createTempFile("testJournal", ".dat").toFile();
+		journalFile.delete();
+
+		courses = new HashMap<>();
+		professors = new HashMap<>();
+		professorLogins = new HashMap<>();
+		professorsByName = new HashMap<>();
+		students = new HashMap<>();
+		studentLogins = new HashMap<>();
+
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		//clean up journal files
+		journalFile.delete();
+		new File(journalFile.getPath() + ".compact").delete();
+
+	}
+
+	/**
+	 * Records a professor, a course with one seat, and two students who both add it
+	 */
+	private void recordSession(Journal journal) {
+
+		Professor professor = new Professor("P01", "John Doe", "johndoe", "password");
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1);
+		Student student1 = new Student("001", "Jane Smith", "janesmith", "pass123");
+		Student student2 = new Student("002", "Bob Bobby", "bobby", "pass");
+		student1.addCompletedCourse("CIS100", "A");
+
+		journal.addProfessor(professor);
+		journal.addCourse(course, professor);
+		journal.addStudent(student1);
+		journal.addStudent(student2);
+		journal.enroll("001", "CIS101");
+		journal.enroll("002", "CIS101");
+
+	}
+
+	/**
+	 * Replays the journal file into the test maps
+	 */
+	private long replay() throws IOException {
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			return journal.replay(courses, professors, professorLogins, professorsByName, students, studentLogins);
+		}
+	}
+
+	@Test
+	void testReplay() throws IOException {
+
+		try (Journal journal = new Journal(journalFile.getPath(), 4, 0)) {
+			recordSession(journal);
+			assertEquals(6, journal.getRecordCount());
+		}
+
+		//Test Case 1: Every record is applied
+		assertEquals(6, replay());
+
+		//Test Case 2: Admin changes are rebuilt with their indexes
+		assertSame(professors.get("P01"), professorLogins.get("johndoe"));
+		assertSame(professors.get("P01"), professorsByName.get("john doe"));
+		assertTrue(professors.get("P01").getCoursesTaught().contains(courses.get("CIS101")));
+		assertSame(students.get("002"), studentLogins.get("bobby"));
+		assertEquals("A", students.get("001").getCompletedCourses().get("CIS100"));
+
+		//Test Case 3: Enrollments are repeated in order, so the second student is waitlisted again
+		Course course = courses.get("CIS101");
+		assertTrue(course.getEnrolledStudents().contains("001"));
+		assertEquals("002", course.getWaitlist().get(0));
+
+	}
+
+	@Test
+	void testTornRecord() throws IOException {
+
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			recordSession(journal);
+		}
+
+		//cut the last record in half, like a crash in the middle of a write
+		try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+			file.setLength(file.length() - 5);
+		}
+
+		//Test Case 1: The torn record is skipped
+		assertEquals(5, replay());
+		assertTrue(courses.get("CIS101").getWaitlist().isEmpty());
+
+		//Test Case 2: The torn record is cut off before anything new is appended
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			journal.drop("001", "CIS101");
+		}
+
+		//the new record is only readable if it was written where the torn one started
+		courses.clear();
+		students.clear();
+		assertEquals(6, replay());
+		assertFalse(courses.get("CIS101").getEnrolledStudents().contains("001"));
+
+	}
+
+	@Test
+	void testCheckpoint() throws IOException {
+
+		//start the journal over from snapshot 7, then record a session
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			journal.clear(7);
+			recordSession(journal);
+			assertEquals(7, journal.getRecordCount());
+		}
+
+		//Test Case 1: The records are applied on top of snapshot 7
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			assertEquals(6, journal.replay(courses, professors, professorLogins, professorsByName, students, studentLogins, 7));
+			assertEquals(7, journal.getCheckpoint());
+		}
+
+		//Test Case 2: A newer snapshot already has the records, so none are applied
+		courses.clear();
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			assertEquals(0, journal.replay(courses, professors, professorLogins, professorsByName, students, studentLogins, 8));
+			assertTrue(courses.isEmpty());
+
+			//Test Case 3: A journal continuing from a snapshot is cleared rather than compacted
+			assertThrows(IllegalStateException.class, () -> journal.compact(courses, professors, professorsByName, students));
+		}
+
+		//Test Case 4: The records can't be applied to the info files, since the data they change is in snapshot 7
+		long length = journalFile.length();
+		assertThrows(IOException.class, this::replay);
+		assertTrue(courses.isEmpty());
+		assertEquals(length, journalFile.length());
+
+	}
+
+	@Test
+	void testInfoFileTouchedAfterSnapshot() throws IOException {
+
+		//saves a snapshot holding a course, then records an enrollment on top of it
+		File snapshotFile = Files.createTempFile("testSnapshot", ".dat").toFile();
+		File infoFile = Files.createTempFile("testCourseInfo", ".txt").toFile();
+		try {
+			Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1);
+			courses.put("CIS101", course);
+			new Snapshot().write(snapshotFile.getPath(), 7, new HashMap<>(), courses, professors, students);
+			try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+				journal.clear(7);
+				journal.enroll("001", "CIS101");
+			}
+
+			//touches the info file after the snapshot was saved
+			infoFile.setLastModified(snapshotFile.lastModified() + 2000);
+			courses.clear();
+
+			//Test Case 1: The snapshot is no longer newer than the info files, so startup reads the info files
+			assertFalse(new Snapshot().isNewerThan(snapshotFile.getPath(), infoFile.getPath()));
+
+			//Test Case 2: The journal is refused on top of the info files, leaving it as it was
+			long length = journalFile.length();
+			try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+				assertThrows(IOException.class, () -> journal.replay(courses, professors, professorLogins, professorsByName,
+						students, studentLogins, -1));
+			}
+			assertEquals(length, journalFile.length());
+
+			//Test Case 3: The journal still applies on top of the snapshot it continues from
+			try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+				assertEquals(7, new Snapshot().load(snapshotFile.getPath(), new HashMap<>(), courses, professors,
+						professorLogins, professorsByName, students, studentLogins));
+				assertEquals(1, journal.replay(courses, professors, professorLogins, professorsByName, students,
+						studentLogins, 7));
+			}
+		} finally {
+			snapshotFile.delete();
+			infoFile.delete();
+		}
+
+	}
+
+	@Test
+	void testConcurrentEnrollments() throws Exception {
+
+		//students add and drop a small course on several threads at once, recorded as they go,
+		//with few enough of them that everyone gets a seat or a waitlist place
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 5);
+		List<Student> everyone = new ArrayList<>();
+		try (Journal journal = new Journal(journalFile.getPath(), 8, 0)) {
+			journal.addCourse(course, null);
+			for (int i = 0; i < 30; i++) {
+				Student student = new Student(String.format("%03d", i), "Student " + i, "student" + i, "pass");
+				journal.addStudent(student);
+				everyone.add(student);
+			}
+
+			Thread[] threads = new Thread[3];
+			for (int t = 0; t < threads.length; t++) {
+				List<Student> mine = everyone.subList(t * 10, t * 10 + 10);
+				threads[t] = new Thread(() -> {
+					for (Student student : mine) {
+						journal.enroll(student, course);
+					}
+					for (int i = 0; i < mine.size(); i += 3) {
+						journal.drop(mine.get(i), course);
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+
+		//Test Case 1: Replaying the records puts every student back in the same seat or waitlist place
+		assertEquals(1 + 30 + 30 + 12, replay());
+		assertEquals(new ArrayList<>(course.getEnrolledStudents()), new ArrayList<>(courses.get("CIS101").getEnrolledStudents()));
+		assertEquals(course.getWaitlist(), courses.get("CIS101").getWaitlist());
+
+	}
+
+	@Test
+	void testDropPromotesConcurrently() throws Exception {
+
+		//each of several full courses has a student waiting for the seat, who adds a clashing course while the seat
+		//is freed on another thread, pausing after the course is added but before it is recorded
+		Course clash = new Course("CIS200", "Clashing", "John Doe", "MW", "11:00", "12:00", 100);
+		List<Student> dropping = new ArrayList<>();
+		List<Student> waiting = new ArrayList<>();
+		List<Course> full = new ArrayList<>();
+		Map<Student, CountDownLatch> added = new HashMap<>();
+		try (Journal journal = new Journal(journalFile.getPath(), 64, 0)) {
+			journal.addCourse(clash, null);
+			for (int i = 0; i < 20; i++) {
+				Course course = new Course(String.format("CIS%03d", i), "Course " + i, "John Doe", "MW", "10:00", "11:30", 1);
+				Student holder = new Student(String.format("A%03d", i), "Holder " + i, "holder" + i, "pass");
+				CountDownLatch latch = new CountDownLatch(1);
+				Student waiter = new Student(String.format("B%03d", i), "Waiter " + i, "waiter" + i, "pass") {
+					@Override
+					public EnrollResult enroll(Course enrolling) {
+						EnrollResult result = super.enroll(enrolling);
+						if (enrolling == clash) {
+							latch.countDown();
+							try {
+								Thread.sleep(5);
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+							}
+						}
+						return result;
+					}
+				};
+				journal.addCourse(course, null);
+				journal.addStudent(holder);
+				journal.addStudent(waiter);
+				journal.enroll(holder, course);
+				journal.enroll(waiter, course);
+				full.add(course);
+				dropping.add(holder);
+				waiting.add(waiter);
+				added.put(waiter, latch);
+			}
+
+			//frees each seat once its waiting student has added the clashing course, but maybe not recorded it yet
+			Thread dropper = new Thread(() -> {
+				try {
+					for (int i = 0; i < full.size(); i++) {
+						added.get(waiting.get(i)).await();
+						journal.drop(dropping.get(i), full.get(i));
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			dropper.start();
+			for (Student waiter : waiting) {
+				journal.enroll(waiter, clash);
+			}
+			dropper.join();
+		}
+		replay();
+
+		//Test Case 1: Replaying the records keeps each waiting student in the clashing course they added first,
+		//rather than giving them the freed seat
+		for (Student waiter : waiting) {
+			assertEquals(List.of("CIS200"), courseIds(waiter), waiter.getId());
+			assertEquals(List.of("CIS200"), courseIds(students.get(waiter.getId())), waiter.getId());
+		}
+
+	}
+
+	/**
+	 * Gets the IDs of the courses a student is enrolled in, sorted
+	 */
+	private static List<String> courseIds(Student student) {
+		List<String> ids = new ArrayList<>();
+		for (Course course : student.getEnrolledCourses().keySet()) {
+			ids.add(course.getId());
+		}
+		ids.sort(Comparator.naturalOrder());
+		return ids;
+	}
+
+	@Test
+	void testCompact() throws IOException {
+
+		//goes through courses in reverse order of ID, so the clashing course comes before the one waited for
+		courses = new TreeMap<>(Comparator.reverseOrder());
+
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			recordSession(journal);
+
+			//drop and re-add the course a few times, passing the seat back and forth
+			for (int i = 0; i < 3; i++) {
+				journal.drop("001", "CIS101");
+				journal.enroll("001", "CIS101");
+			}
+
+			//the student left waiting adds a course at the same time
+			journal.addCourse(new Course("CIS102", "Data Structures", "John Doe", "MW", "10:00", "11:30", 5), null);
+			journal.enroll("001", "CIS102");
+		}
+
+		//replays the long journal, then compacts it
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			assertEquals(14, journal.replay(courses, professors, professorLogins, professorsByName, students, studentLogins));
+			journal.compact(courses, professors, professorsByName, students);
+
+			//Test Case 1: The compacted journal only holds one record per change
+			assertEquals(8, journal.getRecordCount());
+		}
+		assertEquals(List.of("002"), new ArrayList<>(courses.get("CIS101").getEnrolledStudents()));
+		assertEquals(List.of("001"), courses.get("CIS101").getWaitlist());
+		assertEquals(List.of("001"), new ArrayList<>(courses.get("CIS102").getEnrolledStudents()));
+
+		//Test Case 2: Replaying the compacted journal gives the same data
+		courses.clear();
+		professors.clear();
+		professorLogins.clear();
+		professorsByName.clear();
+		students.clear();
+		studentLogins.clear();
+		assertEquals(8, replay());
+		assertEquals(List.of("002"), new ArrayList<>(courses.get("CIS101").getEnrolledStudents()));
+		assertEquals(List.of("001"), new ArrayList<>(courses.get("CIS102").getEnrolledStudents()));
+		assertTrue(students.get("001").getEnrolledCourses().containsKey(courses.get("CIS102")));
+		assertTrue(students.get("002").getEnrolledCourses().containsKey(courses.get("CIS101")));
+		assertFalse(new File(journalFile.getPath() + ".compact").exists());
+
+		//Test Case 3: The student is still waiting for the course they clash with, even though it is written later
+		assertEquals(List.of("001"), courses.get("CIS101").getWaitlist());
+
+	}
+
+}
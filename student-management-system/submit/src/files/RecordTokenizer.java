@@ -0,0 +1,422 @@
+package files;
+
+import java.util.Arrays;
+
+/**
+ * Splits the lines of an info file into fields straight from a buffer of characters
+ * One tokenizer is reused for every line, so the only strings it creates are the field values asked for
+ * Values that repeat from line to line, like grades and day codes, can be interned so each is created once
+ * Lines and fields are split the same way BufferedReader.readLine, String.split, and String.trim would split them
+ * A tokenizer is not thread-safe; each thread parsing a file uses its own
+ * @author Katie
+ */
+final class RecordTokenizer {
+
+	//constants
+
+	/**
+	 * Separator between the fields of a line
+	 */
+	private static final char FIELD_SEPARATOR = ';';
+
+	/**
+	 * Number of slots in the intern table, a power of two
+	 */
+	private static final int INTERN_SLOTS = 4096;
+
+	/**
+	 * Longest value that is interned, since long values rarely repeat
+	 */
+	private static final int MAX_INTERN_LENGTH = 64;
+
+
+	//instance variables
+
+	/**
+	 * Buffer being read, the position of the next line, and the end of the text in the buffer
+	 */
+	private char[] chars;
+	private int position;
+	private int limit;
+
+	/**
+	 * Start and end of the current line, without its line break
+	 */
+	private int lineStart;
+	private int lineEnd;
+
+	/**
+	 * Start and end of each field of the current line, before trimming
+	 */
+	private int[] fieldStarts = new int[8];
+	private int[] fieldEnds = new int[8];
+	private int fieldCount;
+
+	/**
+	 * Start of the next item in the current list, or -1 if there are no more, and the end of the list
+	 */
+	private int nextItem;
+	private int listEnd;
+	private char listSeparator;
+
+	/**
+	 * Start and end of the current item, and of its key and value once split into a pair
+	 */
+	private int itemStart;
+	private int itemEnd;
+	private int keyEnd;
+	private int valueStart;
+
+	/**
+	 * Interned values, found by the hash of their characters
+	 */
+	private final String[] internTable = new String[INTERN_SLOTS];
+	private int internCount;
+
+
+	//methods
+
+	/**
+	 * Starts reading lines from a buffer
+	 * @param chars buffer to read
+	 * @param start of the text in the buffer
+	 * @param end of the text in the buffer
+	 */
+	void reset(char[] chars, int start, int end) {
+		this.chars = chars;
+		this.position = start;
+		this.limit = end;
+		this.fieldCount = 0;
+	}
+
+	/**
+	 * Gets the position of the first character not yet read as part of a line
+	 */
+	int position() {
+		return position;
+	}
+
+	/**
+	 * Moves to the next line, ending in \n, \r, or \r\n
+	 * @param endOfInput true if no more text will follow the buffer, so a last line without a line break is read
+	 * @return true if there is a next line, false if the rest of the buffer is not a whole line
+	 */
+	boolean nextLine(boolean endOfInput) {
+
+		for (int i = position; i < limit; i++) {
+			char c = chars[i];
+			if (c == '\n' || c == '\r') {
+
+				//a \r at the end of the buffer might be followed by a \n in the text that comes next
+				if (c == '\r' && i + 1 == limit && !endOfInput) {
+					return false;
+				}
+				split(position, i);
+				position = c == '\r' && i + 1 < limit && chars[i + 1] == '\n' ? i + 2 : i + 1;
+				return true;
+
+			}
+		}
+
+		//the last line of the input doesn't need a line break
+		if (endOfInput && position < limit) {
+			split(position, limit);
+			position = limit;
+			return true;
+		}
+		return false;
+
+	}
+
+	/**
+	 * Splits a line into fields, dropping empty fields at the end the way String.split does
+	 */
+	private void split(int start, int end) {
+
+		lineStart = start;
+		lineEnd = end;
+		fieldCount = 0;
+
+		//an empty line is a single empty field, but a line of only separators has no fields
+		int last = stripSeparators(start, end, FIELD_SEPARATOR);
+		if (start < end && last == start) {
+			return;
+		}
+
+		int fieldStart = start;
+		for (int i = start; i < last; i++) {
+			if (chars[i] == FIELD_SEPARATOR) {
+				addField(fieldStart, i);
+				fieldStart = i + 1;
+			}
+		}
+		addField(fieldStart, last);
+
+	}
+
+	/**
+	 * Adds the bounds of a field, making room for more fields if needed
+	 */
+	private void addField(int start, int end) {
+		if (fieldCount == fieldStarts.length) {
+			fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+			fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+		}
+		fieldStarts[fieldCount] = start;
+		fieldEnds[fieldCount] = end;
+		fieldCount++;
+	}
+
+	/**
+	 * Gets the current line as a string, for messages about invalid data
+	 */
+	String line() {
+		return new String(chars, lineStart, lineEnd - lineStart);
+	}
+
+	/**
+	 * Gets the number of fields in the current line
+	 */
+	int fieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Checks if a field is empty once trimmed
+	 * @param field index
+	 * @return true if the field is empty, false if not
+	 */
+	boolean isEmpty(int field) {
+		return trimStart(fieldStarts[field], fieldEnds[field]) == fieldEnds[field];
+	}
+
+	/**
+	 * Gets a trimmed field as a new string
+	 * @param field index
+	 * @return value of the field
+	 */
+	String field(int field) {
+		int start = trimStart(fieldStarts[field], fieldEnds[field]);
+		return new String(chars, start, trimEnd(start, fieldEnds[field]) - start);
+	}
+
+	/**
+	 * Gets a trimmed field, sharing one string for every line with the same value
+	 * @param field index
+	 * @return value of the field
+	 */
+	String internedField(int field) {
+		int start = trimStart(fieldStarts[field], fieldEnds[field]);
+		return intern(start, trimEnd(start, fieldEnds[field]));
+	}
+
+	/**
+	 * Checks if a trimmed field has the given value, without creating a string
+	 * @param field index
+	 * @param value to compare with
+	 * @return true if the field has the value, false if not
+	 */
+	boolean fieldEquals(int field, String value) {
+		int start = trimStart(fieldStarts[field], fieldEnds[field]);
+		return matches(value, start, trimEnd(start, fieldEnds[field]) - start);
+	}
+
+	/**
+	 * Parses a trimmed field as a decimal integer without creating a string, unless the field is unusual
+	 * @param field index
+	 * @return value of the field
+	 * @throws NumberFormatException if the field is not an integer, with the same message as Integer.parseInt
+	 */
+	int intField(int field) {
+
+		int start = trimStart(fieldStarts[field], fieldEnds[field]);
+		int end = trimEnd(start, fieldEnds[field]);
+		boolean negative = start < end && chars[start] == '-';
+		int i = negative || start < end && chars[start] == '+' ? start + 1 : start;
+
+		//values of up to 9 plain digits can't overflow, anything else is left to Integer.parseInt
+		if (i == end || end - i > 9) {
+			return Integer.parseInt(new String(chars, start, end - start));
+		}
+		int value = 0;
+		for (; i < end; i++) {
+			char c = chars[i];
+			if (c < '0' || c > '9') {
+				return Integer.parseInt(new String(chars, start, end - start));
+			}
+			value = value * 10 + (c - '0');
+		}
+		return negative ? -value : value;
+
+	}
+
+	/**
+	 * Starts reading a field as a list of items, splitting it the way String.split would
+	 * @param field index
+	 * @param separator between items
+	 */
+	void startList(int field, char separator) {
+
+		int start = fieldStarts[field];
+		listSeparator = separator;
+		listEnd = stripSeparators(start, fieldEnds[field], separator);
+
+		//an empty field is a single empty item, but a field of only separators has no items
+		nextItem = start < fieldEnds[field] && listEnd == start ? -1 : start;
+
+	}
+
+	/**
+	 * Moves to the next item in the list
+	 * @return true if there is a next item, false if not
+	 */
+	boolean nextItem() {
+
+		if (nextItem < 0) {
+			return false;
+		}
+		itemStart = nextItem;
+		itemEnd = indexOf(listSeparator, itemStart, listEnd);
+		nextItem = itemEnd < listEnd ? itemEnd + 1 : -1;
+		return true;
+
+	}
+
+	/**
+	 * Splits the current item into a key and a value, the way String.split would split it into two parts
+	 * @param separator between the key and the value
+	 * @return true if the item has exactly two parts, false if not
+	 */
+	boolean splitPair(char separator) {
+
+		//an empty item, or one of only separators, doesn't have two parts
+		int end = stripSeparators(itemStart, itemEnd, separator);
+		if (end == itemStart) {
+			return false;
+		}
+
+		//the item needs exactly one separator
+		keyEnd = indexOf(separator, itemStart, end);
+		if (keyEnd == end || indexOf(separator, keyEnd + 1, end) < end) {
+			return false;
+		}
+		valueStart = keyEnd + 1;
+		itemEnd = end;
+		return true;
+
+	}
+
+	/**
+	 * Gets the trimmed key of the current pair, interned
+	 */
+	String key() {
+		int start = trimStart(itemStart, keyEnd);
+		return intern(start, trimEnd(start, keyEnd));
+	}
+
+	/**
+	 * Gets the trimmed value of the current pair, interned
+	 */
+	String value() {
+		int start = trimStart(valueStart, itemEnd);
+		return intern(start, trimEnd(start, itemEnd));
+	}
+
+	/**
+	 * Finds a character between two positions
+	 * @return position of the character, or the end position if it isn't there
+	 */
+	private int indexOf(char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (chars[i] == c) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * Drops separators from the end of a range, the way String.split drops empty strings from the end
+	 * @return new end of the range
+	 */
+	private int stripSeparators(int start, int end, char separator) {
+		while (end > start && chars[end - 1] == separator) {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * Skips whitespace at the start of a range, the way String.trim does
+	 * @return new start of the range
+	 */
+	private int trimStart(int start, int end) {
+		while (start < end && chars[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Drops whitespace from the end of a range, the way String.trim does
+	 * @return new end of the range
+	 */
+	private int trimEnd(int start, int end) {
+		while (end > start && chars[end - 1] <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * Gets the string for a range of characters, reusing the one made for the same characters before
+	 * Once the table is half full, new values are no longer added to it
+	 * @return string with the characters of the range
+	 */
+	private String intern(int start, int end) {
+
+		int length = end - start;
+		if (length > MAX_INTERN_LENGTH) {
+			return new String(chars, start, length);
+		}
+
+		//hashes the characters the same way String.hashCode does
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+
+		//looks for the value, moving to the next slot when another value is in the way
+		int slot = (hash ^ (hash >>> 16)) & (INTERN_SLOTS - 1);
+		for (String value = internTable[slot]; value != null; value = internTable[slot]) {
+			if (value.hashCode() == hash && matches(value, start, length)) {
+				return value;
+			}
+			slot = (slot + 1) & (INTERN_SLOTS - 1);
+		}
+
+		String value = new String(chars, start, length);
+		if (internCount < INTERN_SLOTS / 2) {
+			internTable[slot] = value;
+			internCount++;
+		}
+		return value;
+
+	}
+
+	/**
+	 * Checks if a string has the same characters as a range of the buffer
+	 */
+	private boolean matches(String value, int start, int length) {
+		if (value.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (value.charAt(i) != chars[start + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
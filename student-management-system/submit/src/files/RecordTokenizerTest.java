@@ -0,0 +1,137 @@
+package files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RecordTokenizerTest {
+
+	private RecordTokenizer tokenizer;
+
+	@BeforeEach
+	void setUp() {
+		tokenizer = new RecordTokenizer();
+	}
+
+	/**
+	 * Reads every line of the text and returns the trimmed fields of each
+	 */
+	private List<List<String>> read(String text) {
+		List<List<String>> lines = new ArrayList<>();
+		tokenizer.reset(text.toCharArray(), 0, text.length());
+		while (tokenizer.nextLine(true)) {
+			List<String> fields = new ArrayList<>();
+			for (int i = 0; i < tokenizer.fieldCount(); i++) {
+				fields.add(tokenizer.field(i));
+			}
+			lines.add(fields);
+		}
+		return lines;
+	}
+
+	/**
+	 * Splits and trims a line with String methods, the way the info files used to be parsed
+	 */
+	private List<String> split(String line) {
+		List<String> fields = new ArrayList<>();
+		for (String part : line.split(";")) {
+			fields.add(part.trim());
+		}
+		return fields;
+	}
+
+	@Test
+	void testFieldsMatchStringSplit() {
+
+		String[] lines = {"001; John Doe; johndoe; password", "", ";;;", "a;;b", ";a", "a; b ;;", " ; ", "CIS105; Web; ; MW; 13:00;; 100"};
+
+		//Test Case 1: Each line splits into the same fields as String.split and String.trim
+		for (String line : lines) {
+			List<List<String>> read = read(line + "\n");
+			assertEquals(1, read.size());
+			assertEquals(split(line), read.get(0), line);
+		}
+
+		//Test Case 2: Lines can end in \n, \r, or \r\n, and the last line doesn't need a line break
+		List<List<String>> read = read("a;b\r\nc\rd\n\ne");
+		assertEquals(5, read.size());
+		assertEquals(List.of("a", "b"), read.get(0));
+		assertEquals(List.of("c"), read.get(1));
+		assertEquals(List.of("d"), read.get(2));
+		assertEquals(List.of(""), read.get(3));
+		assertEquals(List.of("e"), read.get(4));
+
+	}
+
+	@Test
+	void testUnfinishedLine() {
+
+		char[] chars = "a;b\nc;d\r".toCharArray();
+		tokenizer.reset(chars, 0, chars.length);
+
+		//Test Case 1: A line without a line break is left for more input
+		assertTrue(tokenizer.nextLine(false));
+		assertFalse(tokenizer.nextLine(false));
+		assertEquals(4, tokenizer.position());
+
+		//Test Case 2: A \r at the end of the buffer waits to see if a \n follows, unless the input has ended
+		assertTrue(tokenizer.nextLine(true));
+		assertEquals("c;d", tokenizer.line());
+		assertEquals(chars.length, tokenizer.position());
+
+	}
+
+	@Test
+	void testPairs() {
+
+		String[] lists = {" CIS101: A, CIS102 :B ", "CIS101:A,,CIS102:B", "CIS101:A,", ",", "", "CIS101:", ":A", "A:B:", "A::B", "A:B:C"};
+
+		for (String list : lists) {
+
+			//splits the list with String methods
+			List<String> expected = new ArrayList<>();
+			for (String pair : list.split(",")) {
+				String[] parts = pair.split(":");
+				expected.add(parts.length == 2 ? parts[0].trim() + "=" + parts[1].trim() : "invalid");
+			}
+
+			//splits the list with the tokenizer
+			List<String> actual = new ArrayList<>();
+			read("001; x; x; x;" + list + "; extra\n");
+			tokenizer.startList(4, ',');
+			while (tokenizer.nextItem()) {
+				actual.add(tokenizer.splitPair(':') ? tokenizer.key() + "=" + tokenizer.value() : "invalid");
+			}
+
+			//Test Case 1: Each list has the same pairs as String.split would give
+			assertEquals(expected, actual, list);
+		}
+
+	}
+
+	@Test
+	void testIntFieldAndInterning() {
+
+		read("30; +7; -12; 2147483647; many; A; A\n");
+
+		//Test Case 1: Integers parse the same way as Integer.parseInt
+		assertEquals(30, tokenizer.intField(0));
+		assertEquals(7, tokenizer.intField(1));
+		assertEquals(-12, tokenizer.intField(2));
+		assertEquals(Integer.MAX_VALUE, tokenizer.intField(3));
+		NumberFormatException e = assertThrows(NumberFormatException.class, () -> tokenizer.intField(4));
+		assertEquals(assertThrows(NumberFormatException.class, () -> Integer.parseInt("many")).getMessage(), e.getMessage());
+
+		//Test Case 2: Repeated values share one string
+		assertSame(tokenizer.internedField(5), tokenizer.internedField(6));
+		read("B; A\n");
+		assertSame(tokenizer.internedField(1), tokenizer.internedField(1));
+		assertNotSame(tokenizer.field(1), tokenizer.field(1));
+
+	}
+
+}
@@ -0,0 +1,422 @@
+package files;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import courses.Course;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * Saves and loads all of the system's data as a single binary file
+ * Loading a snapshot reads the whole file in one go and decodes it straight from the buffer,
+ * which is much faster than parsing the info files line by line
+ * Course IDs and grades repeat across students, so each is stored once in a table and shared when loaded
+ * The info files are still used to import and export data; the snapshot only speeds up startup
+ * @author Katie
+ */
+public class Snapshot {
+
+	//constants
+
+	/**
+	 * Version of the snapshot format, bumped whenever the layout changes
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Marks the start of a snapshot file ("SMSS")
+	 */
+	private static final int MAGIC = 0x534D5353;
+
+	/**
+	 * Size of the header: magic, version, checkpoint, body length, and body checksum
+	 */
+	private static final int HEADER_LENGTH = 24;
+
+
+	//methods
+
+	/**
+	 * Checks if a snapshot file exists and was saved after every given info file was last changed
+	 * @param fileName of the snapshot file
+	 * @param infoFileNames of the info files the snapshot was made from
+	 * @return true if the snapshot is newer than every info file, false if not
+	 */
+	public boolean isNewerThan(String fileName, String... infoFileNames) {
+
+		File snapshotFile = new File(fileName);
+		if (!snapshotFile.isFile()) {
+			return false;
+		}
+
+		//an info file edited after the snapshot was saved means the snapshot is out of date
+		for (String infoFileName : infoFileNames) {
+			if (new File(infoFileName).lastModified() > snapshotFile.lastModified()) {
+				return false;
+			}
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * Saves admins, courses, professors, students, and each course's roster and waitlist to a snapshot file
+	 * The snapshot is written to a temporary file first and then moved over the old one,
+	 * so a crash while saving leaves the old snapshot in place
+	 * @param fileName of the snapshot file
+	 * @param checkpoint number identifying this snapshot, which the journal continues from
+	 * @param admins map of admins
+	 * @param courses map of courses
+	 * @param professors map of professors
+	 * @param students map of students
+	 * @throws IOException if an error occurs while writing the file
+	 */
+	public void write(String fileName, long checkpoint, Map<String, Admin> admins, Map<String, Course> courses,
+			Map<String, Professor> professors, Map<String, Student> students) throws IOException {
+
+		Path path = Paths.get(fileName);
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			//leaves room for the header, which needs the body's length and checksum
+			channel.position(HEADER_LENGTH);
+			Output out = new Output(channel);
+
+			//writes admins
+			out.writeInt(admins.size());
+			for (Admin admin : admins.values()) {
+				out.writeString(admin.getId());
+				out.writeString(admin.getName());
+				out.writeString(admin.getUsername());
+				out.writeString(admin.getPassword());
+			}
+
+			//writes professors
+			out.writeInt(professors.size());
+			for (Professor professor : professors.values()) {
+				out.writeString(professor.getId());
+				out.writeString(professor.getName());
+				out.writeString(professor.getUsername());
+				out.writeString(professor.getPassword());
+			}
+
+			//writes courses
+			out.writeInt(courses.size());
+			for (Course course : courses.values()) {
+				out.writeString(course.getId());
+				out.writeString(course.getName());
+				out.writeString(course.getLecturer());
+				out.writeString(course.getDays());
+				out.writeString(course.getStartTime());
+				out.writeString(course.getEndTime());
+				out.writeInt(course.getCapacity());
+				out.writeInt(course.getWaitlistCapacity());
+			}
+
+			//writes the table of course IDs and grades students refer to
+			Map<String, Integer> table = new LinkedHashMap<>();
+			for (Student student : students.values()) {
+				for (Map.Entry<String, String> entry : student.getCompletedCourses().entrySet()) {
+					table.putIfAbsent(entry.getKey(), table.size());
+					table.putIfAbsent(entry.getValue(), table.size());
+				}
+			}
+			out.writeInt(table.size());
+			for (String value : table.keySet()) {
+				out.writeString(value);
+			}
+
+			//writes students and their completed courses as table positions
+			out.writeInt(students.size());
+			for (Student student : students.values()) {
+				out.writeString(student.getId());
+				out.writeString(student.getName());
+				out.writeString(student.getUsername());
+				out.writeString(student.getPassword());
+				out.writeInt(student.getCompletedCourses().size());
+				for (Map.Entry<String, String> entry : student.getCompletedCourses().entrySet()) {
+					out.writeInt(table.get(entry.getKey()));
+					out.writeInt(table.get(entry.getValue()));
+				}
+			}
+
+			//writes each course's roster with grades, then its waitlist, in the same order as the courses
+			for (Course course : courses.values()) {
+				List<String[]> roster = new ArrayList<>();
+				for (String studentId : course.getEnrolledStudents()) {
+					Student student = students.get(studentId);
+					String grade = student == null ? null : student.getEnrolledCourses().get(course);
+					if (grade != null) {
+						roster.add(new String[] {studentId, grade});
+					}
+				}
+				out.writeInt(roster.size());
+				for (String[] entry : roster) {
+					out.writeString(entry[0]);
+					out.writeString(entry[1]);
+				}
+
+				List<String> waitlist = course.getWaitlist();
+				out.writeInt(waitlist.size());
+				for (String studentId : waitlist) {
+					out.writeString(studentId);
+				}
+			}
+			out.flush();
+
+			//checks that the body fits in a single buffer when loaded
+			long length = out.length;
+			if (length > Integer.MAX_VALUE - HEADER_LENGTH) {
+				throw new IOException("Snapshot is too large: " + length + " bytes");
+			}
+
+			//fills in the header and forces the file to disk
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(MAGIC).putInt(VERSION).putLong(checkpoint).putInt((int) length).putInt((int) out.crc.getValue());
+			header.flip();
+			channel.write(header, 0);
+			channel.force(true);
+
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+
+		//swaps the new snapshot in
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+	}
+
+	/**
+	 * Loads a snapshot file into the given maps and indexes
+	 * The file's version and checksum are checked before any map is changed
+	 * @param fileName of the snapshot file
+	 * @param admins map of admins keyed by username
+	 * @param courses map of courses keyed by ID
+	 * @param professors map of professors keyed by ID
+	 * @param professorLogins map of professors keyed by username
+	 * @param professorsByName map of professors keyed by normalized name
+	 * @param students map of students keyed by ID
+	 * @param studentLogins map of students keyed by username
+	 * @return checkpoint number the snapshot was saved with
+	 * @throws IOException if the file can't be read, is from another version, or is corrupted
+	 */
+	public long load(String fileName, Map<String, Admin> admins, Map<String, Course> courses,
+			Map<String, Professor> professors, Map<String, Professor> professorLogins, Map<String, Professor> professorsByName,
+			Map<String, Student> students, Map<String, Student> studentLogins) throws IOException {
+
+		//reads the whole file into one buffer
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName)));
+
+		//checks the header
+		if (buffer.remaining() < HEADER_LENGTH || buffer.getInt() != MAGIC) {
+			throw new IOException("Not a snapshot file: " + fileName);
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported snapshot version " + version + ", expected " + VERSION);
+		}
+		long checkpoint = buffer.getLong();
+		int length = buffer.getInt();
+		long checksum = buffer.getInt() & 0xFFFFFFFFL;
+
+		//checks the body against its length and checksum
+		if (length != buffer.remaining()) {
+			throw new IOException("Snapshot is truncated: expected " + length + " bytes, found " + buffer.remaining());
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER_LENGTH, length);
+		if (crc.getValue() != checksum) {
+			throw new IOException("Snapshot checksum does not match");
+		}
+
+		try {
+
+			//reads admins
+			for (int i = buffer.getInt(); i > 0; i--) {
+				Admin admin = new Admin(readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+				admins.put(admin.getUsername(), admin);
+			}
+
+			//reads professors, indexing them by username and name
+			for (int i = buffer.getInt(); i > 0; i--) {
+				Professor professor = new Professor(readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+				professors.put(professor.getId(), professor);
+				professorLogins.put(professor.getUsername(), professor);
+				professorsByName.put(Professor.normalizeName(professor.getName()), professor);
+			}
+
+			//reads courses, keeping them in file order for the enrollments
+			int courseCount = buffer.getInt();
+			Course[] courseOrder = new Course[courseCount];
+			for (int i = 0; i < courseCount; i++) {
+				Course course = new Course(readString(buffer), readString(buffer), readString(buffer),
+						readString(buffer), readString(buffer), readString(buffer), buffer.getInt());
+				course.setWaitlistCapacity(buffer.getInt());
+				courses.put(course.getId(), course);
+				courseOrder[i] = course;
+			}
+
+			//reads the table of course IDs and grades
+			String[] table = new String[buffer.getInt()];
+			for (int i = 0; i < table.length; i++) {
+				table[i] = readString(buffer);
+			}
+
+			//reads students and their completed courses, sharing the strings in the table
+			for (int i = buffer.getInt(); i > 0; i--) {
+				Student student = new Student(readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+				Map<String, String> completedCourses = student.getCompletedCourses();
+				for (int j = buffer.getInt(); j > 0; j--) {
+					completedCourses.put(table[buffer.getInt()], table[buffer.getInt()]);
+				}
+				students.put(student.getId(), student);
+				studentLogins.put(student.getUsername(), student);
+			}
+
+			//reads each course's roster and waitlist, collecting each student's enrolled courses
+			Map<Student, Map<Course, String>> enrollments = new HashMap<>();
+			for (Course course : courseOrder) {
+				for (int i = buffer.getInt(); i > 0; i--) {
+					String studentId = readString(buffer);
+					String grade = readString(buffer);
+					Student student = students.get(studentId);
+					if (student != null && course.addStudent(student.getId())) {
+						enrollments.computeIfAbsent(student, s -> new HashMap<>()).put(course, grade);
+					}
+				}
+
+				for (int i = buffer.getInt(); i > 0; i--) {
+					Student student = students.get(readString(buffer));
+					if (student != null) {
+						student.joinWaitlist(course);
+					}
+				}
+			}
+
+			//hands each student their enrolled courses in one go, so their schedule is only built once
+			for (Map.Entry<Student, Map<Course, String>> entry : enrollments.entrySet()) {
+				entry.getKey().setEnrolledCourses(entry.getValue());
+			}
+
+		//a checksum match with a bad layout means the file was written by a different format
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Snapshot is corrupted: " + e.getMessage(), e);
+		}
+
+		return checkpoint;
+
+	}
+
+
+	//helper methods
+
+	/**
+	 * Reads a string written by writeString straight from the buffer's backing array
+	 */
+	private static String readString(ByteBuffer buffer) {
+
+		int length = buffer.getShort() & 0xFFFF;
+		int position = buffer.position();
+		if (length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		buffer.position(position + length);
+		return new String(buffer.array(), position, length, StandardCharsets.UTF_8);
+
+	}
+
+	/**
+	 * Encodes the body of a snapshot into a buffer, writing it to the file and adding it to the checksum each time it fills up
+	 */
+	private static class Output {
+
+		/**
+		 * Buffer the body is encoded into, big enough for the longest string
+		 */
+		private final ByteBuffer buffer = ByteBuffer.allocate(1 << 17);
+
+		/**
+		 * Checksum of the body written so far
+		 */
+		private final CRC32 crc = new CRC32();
+
+		/**
+		 * Number of body bytes written so far
+		 */
+		private long length;
+
+		/**
+		 * Channel of the file being written
+		 */
+		private final FileChannel channel;
+
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Writes an int
+		 */
+		void writeInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+		}
+
+		/**
+		 * Writes a string as its UTF-8 length followed by its UTF-8 bytes
+		 */
+		void writeString(String value) throws IOException {
+
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > 0xFFFF) {
+				throw new IOException("Value too long for snapshot: " + value.substring(0, 32) + "...");
+			}
+			ensure(2 + bytes.length);
+			buffer.putShort((short) bytes.length);
+			buffer.put(bytes);
+
+		}
+
+		/**
+		 * Writes out the buffer if it doesn't have room for the given number of bytes
+		 */
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		/**
+		 * Writes the buffer to the file and adds it to the checksum
+		 */
+		void flush() throws IOException {
+
+			buffer.flip();
+			length += buffer.remaining();
+			crc.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+
+		}
+
+	}
+
+}
@@ -0,0 +1,158 @@
+package files;
+
+import courses.Course;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnapshotTest {
+
+	private Snapshot snapshot;
+	private File snapshotFile;
+	private Map<String, Admin> admins;
+	private Map<String, Course> courses;
+	private Map<String, Professor> professors;
+	private Map<String, Student> students;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		snapshot = new Snapshot();
+		snapshotFile = Files.createTempFile("testSnapshot", ".dat").toFile();
+
+		//one admin, one professor, and a one-seat course with a student enrolled and one waiting
+		admins = new HashMap<>();
+		admins.put("admin01", new Admin("A01", "Admin One", "admin01", "password"));
+
+		professors = new HashMap<>();
+		professors.put("P01", new Professor("P01", "John Doe", "johndoe", "password"));
+
+		courses = new LinkedHashMap<>();
+		courses.put("CIS101", new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1));
+		courses.put("CIS102", new Course("CIS102", "Data Structures", "John Doe", "TR", "12:00", "13:30", 50));
+
+		students = new LinkedHashMap<>();
+		Student student1 = new Student("001", "Jane Smith", "janesmith", "pass123");
+		Student student2 = new Student("002", "Bob Bobby", "bobby", "pass");
+		student1.addCompletedCourse("CIS100", "A");
+		students.put("001", student1);
+		students.put("002", student2);
+
+		student1.addCourse(courses.get("CIS101"));
+		student2.addCourse(courses.get("CIS101"));
+		student2.addCourse(courses.get("CIS102"));
+
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		//clean up temp file
+		snapshotFile.delete();
+
+	}
+
+	@Test
+	void testWriteAndLoad() throws IOException {
+
+		snapshot.write(snapshotFile.getPath(), 42, admins, courses, professors, students);
+
+		Map<String, Admin> loadedAdmins = new HashMap<>();
+		Map<String, Course> loadedCourses = new HashMap<>();
+		Map<String, Professor> loadedProfessors = new HashMap<>();
+		Map<String, Professor> professorLogins = new HashMap<>();
+		Map<String, Professor> professorsByName = new HashMap<>();
+		Map<String, Student> loadedStudents = new HashMap<>();
+		Map<String, Student> studentLogins = new HashMap<>();
+		long checkpoint = snapshot.load(snapshotFile.getPath(), loadedAdmins, loadedCourses, loadedProfessors,
+				professorLogins, professorsByName, loadedStudents, studentLogins);
+
+		//Test Case 1: The checkpoint number and every record are loaded
+		assertEquals(42, checkpoint);
+		assertEquals("Admin One", loadedAdmins.get("admin01").getName());
+		assertSame(loadedProfessors.get("P01"), professorLogins.get("johndoe"));
+		assertSame(loadedProfessors.get("P01"), professorsByName.get("john doe"));
+		assertSame(loadedStudents.get("002"), studentLogins.get("bobby"));
+		assertEquals("A", loadedStudents.get("001").getCompletedCourses().get("CIS100"));
+
+		Course course = loadedCourses.get("CIS101");
+		assertEquals("MW", course.getDays());
+		assertEquals("11:30", course.getEndTime());
+		assertEquals(1, course.getCapacity());
+
+		//Test Case 2: Rosters, waitlists, and each student's enrolled courses are restored
+		assertEquals(new ArrayList<>(courses.get("CIS101").getEnrolledStudents()), new ArrayList<>(course.getEnrolledStudents()));
+		assertEquals(courses.get("CIS101").getWaitlist(), course.getWaitlist());
+		assertEquals("Not Graded", loadedStudents.get("001").getEnrolledCourses().get(course));
+		assertTrue(loadedStudents.get("002").getEnrolledCourses().containsKey(loadedCourses.get("CIS102")));
+
+		//Test Case 3: A waiting student still moves into a seat that opens up
+		loadedStudents.get("001").dropCourse(course);
+		assertTrue(loadedStudents.get("002").getEnrolledCourses().containsKey(course));
+
+	}
+
+	@Test
+	void testCorruptedSnapshot() throws IOException {
+
+		snapshot.write(snapshotFile.getPath(), 1, admins, courses, professors, students);
+
+		//flip a byte in the body
+		try (RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw")) {
+			file.seek(file.length() - 3);
+			int value = file.read();
+			file.seek(file.length() - 3);
+			file.write(value ^ 0xFF);
+		}
+
+		//Test Case 1: The checksum catches it and nothing is loaded
+		Map<String, Student> loadedStudents = new HashMap<>();
+		assertThrows(IOException.class, () -> snapshot.load(snapshotFile.getPath(), new HashMap<>(), new HashMap<>(),
+				new HashMap<>(), new HashMap<>(), new HashMap<>(), loadedStudents, new HashMap<>()));
+		assertTrue(loadedStudents.isEmpty());
+
+		//Test Case 2: A file that isn't a snapshot is rejected
+		Files.write(snapshotFile.toPath(), "001; John Doe; johndoe; password\n".getBytes());
+		assertThrows(IOException.class, () -> snapshot.load(snapshotFile.getPath(), new HashMap<>(), new HashMap<>(),
+				new HashMap<>(), new HashMap<>(), new HashMap<>(), loadedStudents, new HashMap<>()));
+
+	}
+
+	@Test
+	void testIsNewerThan() throws IOException {
+
+		File infoFile = Files.createTempFile("testInfo", ".txt").toFile();
+		snapshot.write(snapshotFile.getPath(), 1, admins, courses, professors, students);
+
+		//Test Case 1: The snapshot is newer than an info file written before it
+		infoFile.setLastModified(snapshotFile.lastModified() - 10000);
+		assertTrue(snapshot.isNewerThan(snapshotFile.getPath(), infoFile.getPath()));
+
+		//Test Case 2: Editing an info file makes the snapshot out of date
+		infoFile.setLastModified(snapshotFile.lastModified() + 10000);
+		assertFalse(snapshot.isNewerThan(snapshotFile.getPath(), infoFile.getPath()));
+
+		//Test Case 3: A missing snapshot is never newer
+		assertFalse(snapshot.isNewerThan(snapshotFile.getPath() + ".missing", infoFile.getPath()));
+
+		//clean up temp file
+		infoFile.delete();
+
+	}
+
+}
@@ -0,0 +1,531 @@
+package files;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import roles.Student;
+
+/**
+ * Finds students in the student info file by ID or username without loading the file
+ * The index is a sidecar file next to the info file holding two hash tables, one keyed by student ID and
+ * one by username, that give the byte offset of each student's line; the info file itself holds the keys
+ * The sidecar is memory-mapped, so opening an index takes the same time and heap however many students there are
+ * It is rebuilt whenever the info file's length or modification time no longer match the ones it was built from
+ * Lines are found by their \n and \r bytes, so the info file must be in an ASCII-compatible charset such as UTF-8
+ * Lookups can run on many threads at once, since the tables are only read and each thread reads lines through its
+ * own reader
+ * @author Katie
+ */
+final class StudentIndex implements Closeable {
+
+	//constants
+
+	/**
+	 * Marks the start of a sidecar file ("SMSI")
+	 */
+	private static final int MAGIC = 0x534D5349;
+
+	/**
+	 * Version of the sidecar format, bumped whenever the layout changes
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Size of the header: magic, version, info file length and modification time, slot count, and student count
+	 */
+	private static final int HEADER_LENGTH = 40;
+
+	/**
+	 * Most slots a table can have, so each table fits in one mapping
+	 */
+	private static final long MAX_SLOTS = 1L << 28;
+
+	/**
+	 * Each slot holds the top bits of the key's hash above the line's offset plus one, or 0 if the slot is empty
+	 */
+	private static final int OFFSET_BITS = 40;
+	private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+	/**
+	 * Fields of a student line holding the keys
+	 */
+	private static final int ID_FIELD = 0;
+	private static final int USERNAME_FIELD = 2;
+
+
+	//instance variables
+
+	/**
+	 * Channel of the student info file, which lines are read from
+	 */
+	private final FileChannel students;
+
+	/**
+	 * Tables of offsets by student ID and by username
+	 */
+	private final LongBuffer ids;
+	private final LongBuffer usernames;
+
+	/**
+	 * Number of slots in each table, a power of two
+	 */
+	private final int slots;
+
+	/**
+	 * Number of distinct student IDs in the info file
+	 */
+	private final long idCount;
+
+	/**
+	 * Reads the lines the tables point to, one reader per thread since a reader keeps the last line it read
+	 */
+	private final ThreadLocal<LineReader> reader;
+
+
+	//constructor
+
+	private StudentIndex(FileChannel students, LongBuffer ids, LongBuffer usernames, int slots, long idCount) throws IOException {
+		this.students = students;
+		this.ids = ids;
+		this.usernames = usernames;
+		this.slots = slots;
+		this.idCount = idCount;
+		long size = students.size();
+		this.reader = ThreadLocal.withInitial(() -> new LineReader(students, size, 4096));
+	}
+
+
+	//methods
+
+	/**
+	 * Opens the index of a student info file, building the sidecar file first if it is missing or out of date
+	 * Building the sidecar parses every line once and prints messages about invalid data, the same as loading the file
+	 * @param fileName of the student info file
+	 * @param indexName of the sidecar file
+	 * @return index of the file
+	 * @throws IOException if an error occurs while reading the info file or reading or writing the sidecar
+	 */
+	static StudentIndex open(String fileName, String indexName) throws IOException {
+
+		File file = new File(fileName);
+		Path indexPath = Paths.get(indexName);
+		if (!file.isFile()) {
+			throw new FileNotFoundException(fileName + " (No such file or directory)");
+		}
+
+		//builds the sidecar unless one was already built from this version of the info file
+		long length = file.length();
+		long modified = file.lastModified();
+		if (!matches(indexPath, length, modified)) {
+			build(fileName, indexPath, length, modified);
+		}
+
+		FileChannel students = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+
+			//reads the header
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			index.read(header, 0);
+			header.flip();
+			header.position(24);
+			int slots = (int) header.getLong();
+			long idCount = header.getLong();
+
+			//maps the tables, which stay mapped after the channel is closed
+			long tableLength = (long) slots * Long.BYTES;
+			LongBuffer ids = index.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH, tableLength).asLongBuffer();
+			LongBuffer usernames = index.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH + tableLength, tableLength).asLongBuffer();
+			return new StudentIndex(students, ids, usernames, slots, idCount);
+
+		} catch (IOException | RuntimeException e) {
+			students.close();
+			throw e;
+		}
+
+	}
+
+	/**
+	 * Checks if a sidecar file exists and was built from an info file with the given length and modification time
+	 */
+	private static boolean matches(Path indexPath, long length, long modified) throws IOException {
+
+		if (!Files.isRegularFile(indexPath) || Files.size(indexPath) < HEADER_LENGTH) {
+			return false;
+		}
+
+		try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			index.read(header, 0);
+			header.flip();
+			return header.getInt() == MAGIC && header.getInt() == VERSION
+					&& header.getLong() == length && header.getLong() == modified;
+		}
+
+	}
+
+	/**
+	 * Builds the sidecar file for an info file
+	 * The tables are filled in straight in the mapped sidecar, so building doesn't need heap for them either
+	 * The sidecar is written to a temporary file first and then moved over the old one
+	 */
+	private static void build(String fileName, Path indexPath, long length, long modified) throws IOException {
+
+		Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+		try (FileChannel students = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+				FileChannel index = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			//sizes the tables to be at most half full, counting every line break as a student
+			long lines = countLines(students);
+			long slots = 16;
+			while (slots < 2 * lines) {
+				slots *= 2;
+			}
+			if (slots > MAX_SLOTS) {
+				throw new IOException("Too many students to index in " + fileName);
+			}
+
+			//maps the tables, which start out as zeros meaning empty
+			long tableLength = slots * Long.BYTES;
+			MappedByteBuffer idMap = index.map(FileChannel.MapMode.READ_WRITE, HEADER_LENGTH, tableLength);
+			MappedByteBuffer usernameMap = index.map(FileChannel.MapMode.READ_WRITE, HEADER_LENGTH + tableLength, tableLength);
+			StudentIndex builder = new StudentIndex(students, idMap.asLongBuffer(), usernameMap.asLongBuffer(), (int) slots, 0);
+
+			//adds each valid student in file order, so a later line with the same ID or username replaces an earlier one
+			long idCount = 0;
+			LineReader scanner = new LineReader(students, length, 1 << 20);
+			Consumer<String> messages = System.out::println;
+			for (long offset = 0; offset < length; offset = scanner.next) {
+				RecordTokenizer record = scanner.read(offset);
+				if (FileInfoReader.parseStudent(record, messages) == null) {
+					continue;
+				}
+				if (builder.put(builder.ids, record.field(ID_FIELD), ID_FIELD, offset)) {
+					idCount++;
+				}
+				builder.put(builder.usernames, record.field(USERNAME_FIELD), USERNAME_FIELD, offset);
+			}
+			idMap.force();
+			usernameMap.force();
+
+			//writes the header last, so a sidecar cut off while building is never used
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(MAGIC).putInt(VERSION).putLong(length).putLong(modified).putLong(slots).putLong(idCount);
+			header.flip();
+			index.write(header, 0);
+			index.force(true);
+
+		}
+
+		Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+	}
+
+	/**
+	 * Counts the line break bytes in a file, which is at least the number of lines that end in one
+	 */
+	private static long countLines(FileChannel channel) throws IOException {
+
+		long lines = 1;
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		for (long position = 0; channel.read(buffer, position) > 0; position += buffer.limit()) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				byte b = buffer.get();
+				if (b == '\n' || b == '\r') {
+					lines++;
+				}
+			}
+			buffer.clear();
+		}
+		return lines;
+
+	}
+
+	/**
+	 * Gets the number of distinct student IDs in the info file
+	 */
+	long idCount() {
+		return idCount;
+	}
+
+	/**
+	 * Gets the number of slots in each table
+	 */
+	int slots() {
+		return slots;
+	}
+
+	/**
+	 * Finds the line of the student with an ID
+	 * @param id of the student
+	 * @return offset of the student's line, or -1 if there is no student with the ID
+	 * @throws IOException if an error occurs while reading the info file
+	 */
+	long findId(String id) throws IOException {
+		return find(ids, id, ID_FIELD);
+	}
+
+	/**
+	 * Finds the line of the student that logs in with a username
+	 * The last line with the username is only a login if it is also the last line with its student's ID,
+	 * since loading the file line by line drops the login of a student replaced by a later line
+	 * @param username of the student
+	 * @return offset of the student's line, or -1 if no student logs in with the username
+	 * @throws IOException if an error occurs while reading the info file
+	 */
+	long findUsername(String username) throws IOException {
+
+		long offset = find(usernames, username, USERNAME_FIELD);
+		if (offset < 0 || findId(reader.get().read(offset).field(ID_FIELD)) != offset) {
+			return -1;
+		}
+		return offset;
+
+	}
+
+	/**
+	 * Gets the offset in a slot of the ID table
+	 * @param slot index
+	 * @return offset of the line in the slot, or -1 if the slot is empty
+	 */
+	long idSlot(int slot) {
+		return (ids.get(slot) & OFFSET_MASK) - 1;
+	}
+
+	/**
+	 * Gets the offset in a slot of the username table, if it is the line of a student who logs in with that username
+	 * @param slot index
+	 * @return offset of the line in the slot, or -1 if the slot is empty or no longer a login
+	 * @throws IOException if an error occurs while reading the info file
+	 */
+	long usernameSlot(int slot) throws IOException {
+		long offset = (usernames.get(slot) & OFFSET_MASK) - 1;
+		if (offset < 0 || findId(reader.get().read(offset).field(ID_FIELD)) != offset) {
+			return -1;
+		}
+		return offset;
+	}
+
+	/**
+	 * Reads the line at an offset
+	 * @param offset of the line
+	 * @return tokenizer at the line, valid until the next read on the current thread
+	 * @throws IOException if an error occurs while reading the info file
+	 */
+	RecordTokenizer read(long offset) throws IOException {
+		return reader.get().read(offset);
+	}
+
+	/**
+	 * Gets the length in bytes of the line last read on the current thread, including its line break
+	 */
+	int lastLength() {
+		return reader.get().length;
+	}
+
+	/**
+	 * Parses the student on the line at an offset
+	 * @param offset of the line
+	 * @return student on the line
+	 * @throws IOException if an error occurs while reading the info file, or the line no longer holds a valid student
+	 */
+	Student readStudent(long offset) throws IOException {
+		Student student = FileInfoReader.parseStudent(reader.get().read(offset), message -> { });
+		if (student == null) {
+			throw new IOException("Student info file changed since it was indexed");
+		}
+		return student;
+	}
+
+	/**
+	 * Finds a key in a table
+	 * @return offset of the line with the key, or -1 if it isn't there
+	 */
+	private long find(LongBuffer table, String key, int field) throws IOException {
+
+		int hash = key.hashCode();
+		long fingerprint = fingerprint(hash);
+		for (int slot = slot(hash); ; slot = (slot + 1) & (slots - 1)) {
+			long entry = table.get(slot);
+			if (entry == 0) {
+				return -1;
+			}
+
+			//only reads the line if the hash matches
+			long offset = (entry & OFFSET_MASK) - 1;
+			if ((entry & ~OFFSET_MASK) == fingerprint && reader.get().read(offset).fieldEquals(field, key)) {
+				return offset;
+			}
+		}
+
+	}
+
+	/**
+	 * Adds a key to a table while building, replacing the offset of a key that is already there
+	 * @return true if the key is new, false if it replaced one
+	 */
+	private boolean put(LongBuffer table, String key, int field, long offset) throws IOException {
+
+		int hash = key.hashCode();
+		long fingerprint = fingerprint(hash);
+		for (int slot = slot(hash); ; slot = (slot + 1) & (slots - 1)) {
+			long entry = table.get(slot);
+			if (entry == 0 || (entry & ~OFFSET_MASK) == fingerprint
+					&& reader.get().read((entry & OFFSET_MASK) - 1).fieldEquals(field, key)) {
+				table.put(slot, fingerprint | (offset + 1));
+				return entry == 0;
+			}
+		}
+
+	}
+
+	/**
+	 * Gets the slot a hash starts looking from
+	 */
+	private int slot(int hash) {
+		return (hash ^ (hash >>> 16)) & (slots - 1);
+	}
+
+	/**
+	 * Gets the top bits of a hash kept in a slot to skip most lines that can't match
+	 */
+	private static long fingerprint(int hash) {
+		return ((long) hash >>> 8) << OFFSET_BITS;
+	}
+
+	/**
+	 * Closes the info file
+	 */
+	@Override
+	public void close() throws IOException {
+		students.close();
+	}
+
+
+	//nested classes
+
+	/**
+	 * Reads single lines of the info file at given offsets through a window of the file,
+	 * so reading lines one after another only goes to the file once per window
+	 */
+	private static final class LineReader {
+
+		private final FileChannel channel;
+		private final long size;
+		private ByteBuffer window;
+		private long windowStart = -1;
+
+		/**
+		 * Decodes each line into characters for the tokenizer
+		 */
+		private final CharsetDecoder decoder = FileInfoReader.CHARSET.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private CharBuffer chars = CharBuffer.allocate(256);
+		private final RecordTokenizer tokenizer = new RecordTokenizer();
+
+		/**
+		 * Length of the last line read, including its line break, and the offset of the line after it
+		 */
+		int length;
+		long next;
+
+		LineReader(FileChannel channel, long size, int windowSize) {
+			this.channel = channel;
+			this.size = size;
+			this.window = ByteBuffer.allocate(windowSize);
+		}
+
+		/**
+		 * Reads the line at an offset
+		 * @return tokenizer at the line
+		 */
+		RecordTokenizer read(long offset) throws IOException {
+
+			//finds the end of the line, moving the window to the line or making it bigger if needed
+			int start = -1;
+			int end = -1;
+			while (end < 0) {
+				if (windowStart < 0 || offset < windowStart || offset >= windowStart + window.limit()) {
+					fill(offset);
+				}
+				start = (int) (offset - windowStart);
+				end = lineEnd(start);
+				if (end < 0 && start == 0) {
+					window = ByteBuffer.allocate(window.capacity() * 2);
+				}
+				if (end < 0) {
+					windowStart = -1;
+				}
+			}
+
+			//decodes the line along with its line break, so the tokenizer sees a whole line
+			length = end - start;
+			next = offset + length;
+			ByteBuffer line = window.duplicate();
+			line.limit(end).position(start);
+			int needed = (int) (length * decoder.maxCharsPerByte()) + 1;
+			if (chars.capacity() < needed) {
+				chars = CharBuffer.allocate(needed);
+			}
+			chars.clear();
+			decoder.reset();
+			decoder.decode(line, chars, true);
+			decoder.flush(chars);
+			tokenizer.reset(chars.array(), 0, chars.position());
+			tokenizer.nextLine(true);
+			return tokenizer;
+
+		}
+
+		/**
+		 * Fills the window with the file from an offset
+		 */
+		private void fill(long offset) throws IOException {
+			window.clear();
+			while (window.hasRemaining() && channel.read(window, offset + window.position()) > 0) {
+			}
+			window.flip();
+			windowStart = offset;
+		}
+
+		/**
+		 * Finds the end of the line starting at a position in the window, just after its line break
+		 * @return end of the line, or -1 if the window ends before the line does
+		 */
+		private int lineEnd(int start) {
+
+			boolean endOfFile = windowStart + window.limit() >= size;
+			for (int i = start; i < window.limit(); i++) {
+				byte b = window.get(i);
+				if (b == '\n') {
+					return i + 1;
+				}
+				if (b == '\r') {
+
+					//a \r at the end of the window might be followed by a \n
+					if (i + 1 < window.limit()) {
+						return window.get(i + 1) == '\n' ? i + 2 : i + 1;
+					}
+					return endOfFile ? i + 1 : -1;
+				}
+			}
+			return endOfFile ? window.limit() : -1;
+
+		}
+
+	}
+
+}
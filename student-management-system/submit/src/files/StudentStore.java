@@ -0,0 +1,598 @@
+package files;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+import roles.Student;
+
+/**
+ * Students that stay in the student info file and are only loaded when they are needed
+ * A student is read from the file the first time they log in or are looked up by ID, for example from a course roster,
+ * and kept in a cache that is held to a memory budget by dropping the students used longest ago
+ * Only idle students are dropped, since everything about them is still in the file; students who are enrolled in
+ * or waiting for a course are kept for as long as they stay that way, including a dropped student someone still held
+ * who enrolls afterwards
+ * Lookups only hold the store's lock while looking in memory, so reading a student from the file doesn't hold up others
+ * Students added, replaced, or deleted while the system runs are kept in memory on top of the file
+ * The students are seen through two maps, by ID and by username, which work like the maps loading the whole file fills in
+ * @author Katie
+ */
+public class StudentStore implements Closeable {
+
+	//constants
+
+	/**
+	 * Rough heap size of a student apart from the text of their line, used to keep the cache within its budget
+	 */
+	private static final long STUDENT_BYTES = 600;
+
+
+	//instance variables
+
+	/**
+	 * Index of the student info file
+	 */
+	private final StudentIndex index;
+
+	/**
+	 * Most memory the cached idle students should take up, and how much they take up now
+	 */
+	private final long cacheBytes;
+	private long cachedBytes;
+
+	/**
+	 * Students read from the file, with the most recently used last
+	 */
+	private final LinkedHashMap<String, Cached> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Students read from the file who were enrolled in or waiting for a course when they would have been dropped
+	 */
+	private final Map<String, Student> active = new HashMap<>();
+
+	/**
+	 * Students dropped from the cache, kept until they are garbage collected so anyone still
+	 * holding one gets the same object back from the maps
+	 */
+	private final Map<String, Dropped> dropped = new HashMap<>();
+	private final ReferenceQueue<Student> collected = new ReferenceQueue<>();
+
+	/**
+	 * Students added or replaced while the system runs by ID and by username, or null if deleted
+	 */
+	private final Map<String, Student> changed = new HashMap<>();
+	private final Map<String, Student> changedLogins = new HashMap<>();
+
+	/**
+	 * Students read from the file who were later replaced or deleted by ID, which their login
+	 * still leads to until it is changed too, just like the maps loading the whole file fills in
+	 */
+	private final Map<String, Student> replaced = new HashMap<>();
+
+	/**
+	 * Difference the changes make to the number of students and logins, and the number of logins in the file once counted
+	 */
+	private long sizeChange;
+	private long loginSizeChange;
+	private long fileLogins = -1;
+
+	/**
+	 * Maps of the students by ID and by username
+	 */
+	private final Map<String, Student> byId = new Ids();
+	private final Map<String, Student> byUsername = new Logins();
+
+
+	//constructor
+
+	private StudentStore(StudentIndex index, long cacheBytes) {
+		this.index = index;
+		this.cacheBytes = cacheBytes;
+	}
+
+
+	//methods
+
+	/**
+	 * Opens the students in a student info file, building or reusing its sidecar index
+	 * @param fileName of the student info file
+	 * @param cacheBytes most memory the cached idle students should take up
+	 * @return store of the students in the file
+	 * @throws IOException if an error occurs while reading the info file or its index
+	 */
+	public static StudentStore open(String fileName, long cacheBytes) throws IOException {
+
+		//checks for an invalid budget
+		if (cacheBytes < 0) {
+			throw new IllegalArgumentException("Cache budget cannot be negative.");
+		}
+
+		return new StudentStore(StudentIndex.open(fileName, fileName + ".idx"), cacheBytes);
+
+	}
+
+	/**
+	 * Gets the map of students keyed by ID, loading each student from the file when they are looked up
+	 */
+	public Map<String, Student> byId() {
+		return byId;
+	}
+
+	/**
+	 * Gets the map of students keyed by username, loading each student from the file when they log in
+	 */
+	public Map<String, Student> byUsername() {
+		return byUsername;
+	}
+
+	/**
+	 * Gets the number of students read from the file that are held in memory
+	 */
+	public synchronized int getLoadedCount() {
+		forgetCollected();
+		return cache.size() + active.size() + dropped.size();
+	}
+
+	/**
+	 * Closes the student info file
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		index.close();
+	}
+
+	/**
+	 * Gets a student by ID, reading them from the file if they aren't in memory
+	 */
+	private Student get(String id) {
+
+		//looks for the student in memory
+		synchronized (this) {
+			if (changed.containsKey(id)) {
+				return changed.get(id);
+			}
+			Student student = loaded(id);
+			if (student != null) {
+				return student;
+			}
+		}
+
+		//otherwise, reads the student from the file without the lock
+		Student student;
+		long bytes;
+		try {
+			long offset = index.findId(id);
+			if (offset < 0) {
+				synchronized (this) {
+					return changed.get(id);
+				}
+			}
+			student = index.readStudent(offset);
+			bytes = STUDENT_BYTES + 2L * index.lastLength();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		//keeps the student another thread read or changed in the meantime, so everyone gets the same object
+		synchronized (this) {
+			if (changed.containsKey(id)) {
+				return changed.get(id);
+			}
+			Student loaded = loaded(id);
+			if (loaded != null) {
+				return loaded;
+			}
+			cache(id, student, bytes);
+			return student;
+		}
+
+	}
+
+	/**
+	 * Gets a student read from the file who is still in memory, or null
+	 */
+	private Student loaded(String id) {
+
+		Cached cached = cache.get(id);
+		if (cached != null) {
+			return cached.student;
+		}
+		Student student = active.get(id);
+		if (student != null) {
+			if (student.isIdle()) {
+				active.remove(id);
+				cache(id, student, STUDENT_BYTES);
+			}
+			return student;
+		}
+		forgetCollected();
+		Dropped reference = dropped.remove(id);
+		if (reference != null && (student = reference.get()) != null) {
+			student.setActiveListener(null);
+			cache(id, student, reference.bytes);
+			return student;
+		}
+		return null;
+
+	}
+
+	/**
+	 * Gets a student by username, reading them from the file if they aren't in memory
+	 */
+	private Student getLogin(String username) {
+
+		synchronized (this) {
+			if (changedLogins.containsKey(username)) {
+				return changedLogins.get(username);
+			}
+		}
+
+		String id;
+		try {
+			long offset = index.findUsername(username);
+			if (offset < 0) {
+				synchronized (this) {
+					return changedLogins.get(username);
+				}
+			}
+			id = index.read(offset).field(0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		//a student replaced or deleted by ID is still the one their login leads to
+		synchronized (this) {
+			if (changedLogins.containsKey(username)) {
+				return changedLogins.get(username);
+			}
+			if (changed.containsKey(id)) {
+				return replaced.get(id);
+			}
+		}
+		return get(id);
+
+	}
+
+	/**
+	 * Adds a student read from the file to the cache, dropping the least recently used idle students
+	 * if the cache goes over its budget
+	 */
+	private void cache(String id, Student student, long bytes) {
+
+		cache.put(id, new Cached(student, bytes));
+		cachedBytes += bytes;
+
+		//keeps at least the student just added
+		Iterator<Map.Entry<String, Cached>> eldest = cache.entrySet().iterator();
+		while (cachedBytes > cacheBytes && cache.size() > 1) {
+			Map.Entry<String, Cached> entry = eldest.next();
+			Cached evicted = entry.getValue();
+			eldest.remove();
+			cachedBytes -= evicted.bytes;
+
+			//students enrolled in or waiting for a course only exist in memory, so they are kept
+			//a dropped student is listened to from before checking, so enrolling at the same time still keeps them
+			evicted.student.setActiveListener(this::keep);
+			if (evicted.student.isIdle()) {
+				dropped.put(entry.getKey(), new Dropped(entry.getKey(), evicted.student, evicted.bytes, collected));
+			} else {
+				evicted.student.setActiveListener(null);
+				active.put(entry.getKey(), evicted.student);
+			}
+		}
+
+	}
+
+	/**
+	 * Keeps a dropped student in memory once they enroll in or start waiting for a course,
+	 * since whoever still holds them can change them without going through the maps
+	 */
+	private synchronized void keep(Student student) {
+		Dropped reference = dropped.get(student.getId());
+		if (reference != null && reference.get() == student) {
+			dropped.remove(student.getId());
+			student.setActiveListener(null);
+			active.put(student.getId(), student);
+		}
+	}
+
+	/**
+	 * Forgets dropped students that have been garbage collected
+	 */
+	private void forgetCollected() {
+		for (Dropped reference; (reference = (Dropped) collected.poll()) != null; ) {
+			dropped.remove(reference.id, reference);
+		}
+	}
+
+	/**
+	 * Removes a student read from the file from memory, once they are replaced or deleted
+	 */
+	private void forget(String id) {
+		Cached cached = cache.remove(id);
+		if (cached != null) {
+			cachedBytes -= cached.bytes;
+		}
+		active.remove(id);
+		dropped.remove(id);
+	}
+
+	/**
+	 * Adds or replaces a student by ID
+	 */
+	private synchronized Student put(String id, Student student) {
+		Student previous = get(id);
+		if (previous != null && !changed.containsKey(id)) {
+			replaced.put(id, previous);
+		}
+		forget(id);
+		changed.put(id, student);
+		if (previous == null) {
+			sizeChange++;
+		}
+		return previous;
+	}
+
+	/**
+	 * Deletes a student by ID
+	 */
+	private synchronized Student remove(String id) {
+		Student previous = get(id);
+		if (previous != null) {
+			if (!changed.containsKey(id)) {
+				replaced.put(id, previous);
+			}
+			forget(id);
+			changed.put(id, null);
+			sizeChange--;
+		}
+		return previous;
+	}
+
+	/**
+	 * Adds or replaces a login
+	 */
+	private synchronized Student putLogin(String username, Student student) {
+		Student previous = getLogin(username);
+		changedLogins.put(username, student);
+		if (previous == null) {
+			loginSizeChange++;
+		}
+		return previous;
+	}
+
+	/**
+	 * Deletes a login
+	 */
+	private synchronized Student removeLogin(String username) {
+		Student previous = getLogin(username);
+		if (previous != null) {
+			changedLogins.put(username, null);
+			loginSizeChange--;
+		}
+		return previous;
+	}
+
+	/**
+	 * Gets the number of students
+	 */
+	private synchronized int size() {
+		return (int) (index.idCount() + sizeChange);
+	}
+
+	/**
+	 * Gets the number of logins, counting the logins in the file the first time
+	 */
+	private synchronized int loginSize() {
+		if (fileLogins < 0) {
+			try {
+				fileLogins = 0;
+				for (int slot = 0; slot < index.slots(); slot++) {
+					if (index.usernameSlot(slot) >= 0) {
+						fileLogins++;
+					}
+				}
+			} catch (IOException e) {
+				fileLogins = -1;
+				throw new UncheckedIOException(e);
+			}
+		}
+		return (int) (fileLogins + loginSizeChange);
+	}
+
+	/**
+	 * Lists the keys of a map: the keys in the file that weren't changed, then the changed keys that weren't deleted
+	 * Walking the whole file reads every student, so this is only for the rare callers that need every student
+	 * @param logins true to list usernames, false to list IDs
+	 */
+	private synchronized List<String> keys(boolean logins) {
+
+		Map<String, Student> changes = logins ? changedLogins : changed;
+		List<String> keys = new ArrayList<>();
+		try {
+			for (int slot = 0; slot < index.slots(); slot++) {
+				long offset = logins ? index.usernameSlot(slot) : index.idSlot(slot);
+				if (offset >= 0) {
+					String key = index.read(offset).field(logins ? 2 : 0);
+					if (!changes.containsKey(key)) {
+						keys.add(key);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (Map.Entry<String, Student> entry : changes.entrySet()) {
+			if (entry.getValue() != null) {
+				keys.add(entry.getKey());
+			}
+		}
+		return keys;
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * A cached student and the memory they are counted as taking up
+	 */
+	private static class Cached {
+
+		final Student student;
+		final long bytes;
+
+		Cached(Student student, long bytes) {
+			this.student = student;
+			this.bytes = bytes;
+		}
+
+	}
+
+	/**
+	 * A student dropped from the cache, remembering their ID to be forgotten once collected
+	 */
+	private static class Dropped extends WeakReference<Student> {
+
+		final String id;
+		final long bytes;
+
+		Dropped(String id, Student student, long bytes, ReferenceQueue<Student> queue) {
+			super(student, queue);
+			this.id = id;
+			this.bytes = bytes;
+		}
+
+	}
+
+	/**
+	 * Map of the students by ID
+	 */
+	private class Ids extends AbstractMap<String, Student> {
+
+		@Override
+		public Student get(Object key) {
+			return key instanceof String ? StudentStore.this.get((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Student put(String key, Student value) {
+			return StudentStore.this.put(Objects.requireNonNull(key), Objects.requireNonNull(value));
+		}
+
+		@Override
+		public Student remove(Object key) {
+			return key instanceof String ? StudentStore.this.remove((String) key) : null;
+		}
+
+		@Override
+		public int size() {
+			return StudentStore.this.size();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Student>> entrySet() {
+			return new Entries(this, false);
+		}
+
+	}
+
+	/**
+	 * Map of the students by username
+	 */
+	private class Logins extends AbstractMap<String, Student> {
+
+		@Override
+		public Student get(Object key) {
+			return key instanceof String ? getLogin((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Student put(String key, Student value) {
+			return putLogin(Objects.requireNonNull(key), Objects.requireNonNull(value));
+		}
+
+		@Override
+		public Student remove(Object key) {
+			return key instanceof String ? removeLogin((String) key) : null;
+		}
+
+		@Override
+		public int size() {
+			return loginSize();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Student>> entrySet() {
+			return new Entries(this, true);
+		}
+
+	}
+
+	/**
+	 * Entries of one of the maps, loading each student as the entries are walked
+	 */
+	private class Entries extends AbstractSet<Map.Entry<String, Student>> {
+
+		private final Map<String, Student> map;
+		private final boolean logins;
+
+		Entries(Map<String, Student> map, boolean logins) {
+			this.map = map;
+			this.logins = logins;
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Student>> iterator() {
+
+			Iterator<String> keys = keys(logins).iterator();
+			return new Iterator<Map.Entry<String, Student>>() {
+
+				private String last;
+
+				@Override
+				public boolean hasNext() {
+					return keys.hasNext();
+				}
+
+				@Override
+				public Map.Entry<String, Student> next() {
+					last = keys.next();
+					return new AbstractMap.SimpleImmutableEntry<>(last, map.get(last));
+				}
+
+				@Override
+				public void remove() {
+					if (last == null) {
+						throw new IllegalStateException();
+					}
+					map.remove(last);
+					last = null;
+				}
+
+			};
+
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+	}
+
+}
@@ -0,0 +1,196 @@
+package files;
+
+import courses.Course;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StudentStoreTest {
+
+	private File studentFile;
+	private File indexFile;
+	private StudentStore store;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		//three students, with 002 listed twice so the second line wins, and one invalid line
+		studentFile = Files.createTempFile("testStudentStore", ".txt").toFile();
+		indexFile = new File(studentFile.getPath() + ".idx");
+		try (PrintWriter writer = new PrintWriter(new FileWriter(studentFile))) {
+			writer.println("001; Jane Smith; janesmith; pass123; CIS100: A, CIS101: B");
+			writer.println("002; Bob Bobby; bobby; pass");
+			writer.println("invalid line");
+			writer.println("003; Tom Hanks; tomhanks; pass1");
+			writer.print("002; Bob Robert; bobrobert; pass2");
+		}
+
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+
+		//clean up temp files
+		if (store != null) {
+			store.close();
+		}
+		studentFile.delete();
+		indexFile.delete();
+
+	}
+
+	/**
+	 * Loads the student file the usual way, to compare against
+	 */
+	private Map<String, Student> loadEagerly(Map<String, Student> studentLogins) {
+		Map<String, Student> students = new HashMap<>();
+		new FileInfoReader().loadStudents(studentFile.getPath(), students, studentLogins);
+		return students;
+	}
+
+	@Test
+	void testLookups() throws IOException {
+
+		store = StudentStore.open(studentFile.getPath(), 1 << 20);
+		Map<String, Student> studentLogins = new HashMap<>();
+		Map<String, Student> expected = loadEagerly(studentLogins);
+
+		//Test Case 1: Students are found by ID with the same data as loading the whole file
+		assertEquals(expected.size(), store.byId().size());
+		for (Student student : expected.values()) {
+			Student found = store.byId().get(student.getId());
+			assertNotNull(found);
+			assertEquals(student.getName(), found.getName());
+			assertEquals(student.getUsername(), found.getUsername());
+			assertEquals(student.getCompletedCourses(), found.getCompletedCourses());
+		}
+		assertNull(store.byId().get("004"));
+
+		//Test Case 2: Logins follow the last line for each ID
+		assertEquals(studentLogins.keySet(), store.byUsername().keySet());
+		assertNull(store.byUsername().get("bobby"));
+		assertSame(store.byId().get("002"), store.byUsername().get("bobrobert"));
+
+		//Test Case 3: The same student object is returned while they are cached
+		assertSame(store.byId().get("001"), store.byUsername().get("janesmith"));
+
+	}
+
+	@Test
+	void testIndexReused() throws IOException {
+
+		//Test Case 1: Opening the file saves an index next to it
+		store = StudentStore.open(studentFile.getPath(), 1 << 20);
+		assertTrue(indexFile.exists());
+		long modified = indexFile.lastModified();
+		store.close();
+
+		//Test Case 2: The index is reused while the info file is unchanged
+		store = StudentStore.open(studentFile.getPath(), 1 << 20);
+		assertEquals(modified, indexFile.lastModified());
+		assertEquals("Tom Hanks", store.byId().get("003").getName());
+		store.close();
+
+		//Test Case 3: The index is rebuilt once the info file changes
+		try (PrintWriter writer = new PrintWriter(new FileWriter(studentFile, true))) {
+			writer.println();
+			writer.println("004; Amy Adams; amyadams; pass4");
+		}
+		store = StudentStore.open(studentFile.getPath(), 1 << 20);
+		assertEquals("Amy Adams", store.byUsername().get("amyadams").getName());
+		assertEquals(4, store.byId().size());
+
+	}
+
+	@Test
+	void testEviction() throws IOException {
+
+		//a budget too small for more than one student
+		store = StudentStore.open(studentFile.getPath(), 1);
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 10);
+
+		//Test Case 1: Students dropped from the cache are read again with the same data
+		for (int round = 0; round < 3; round++) {
+			for (String id : new String[] {"001", "002", "003"}) {
+				assertEquals(id, store.byId().get(id).getId());
+			}
+		}
+		assertEquals("B", store.byId().get("001").getCompletedCourses().get("CIS101"));
+
+		//Test Case 2: An enrolled student is kept in memory rather than read again
+		Student enrolled = store.byId().get("003");
+		assertTrue(enrolled.addCourse(course));
+		store.byId().get("001");
+		store.byId().get("002");
+		enrolled = null;
+		System.gc();
+		Student found = store.byId().get("003");
+		assertTrue(found.getEnrolledCourses().containsKey(course));
+
+		//Test Case 3: A student who drops every course can be dropped from the cache again
+		assertTrue(found.dropCourse(course));
+		assertTrue(found.isIdle());
+
+		//Test Case 4: A student still held after being dropped from the cache is kept once they enroll
+		Student held = store.byId().get("002");
+		store.byId().get("001");
+		store.byId().get("003");
+		assertTrue(held.addCourse(course));
+		held = null;
+		System.gc();
+		assertTrue(store.byId().get("002").getEnrolledCourses().containsKey(course));
+		assertTrue(course.getEnrolledStudents().contains("002"));
+
+	}
+
+	@Test
+	void testChanges() throws IOException {
+
+		store = StudentStore.open(studentFile.getPath(), 1 << 20);
+		Student student = new Student("005", "Sam Stone", "samstone", "pass5");
+
+		//Test Case 1: Added students are found by ID and username
+		assertNull(store.byId().put("005", student));
+		assertNull(store.byUsername().put("samstone", student));
+		assertSame(student, store.byId().get("005"));
+		assertSame(student, store.byUsername().get("samstone"));
+		assertEquals(4, store.byId().size());
+		assertEquals(4, store.byUsername().size());
+
+		//Test Case 2: Deleted students are no longer found, even though their line is still in the file
+		Student deleted = store.byId().remove("001");
+		assertNotNull(deleted);
+		assertTrue(store.byUsername().remove("janesmith", deleted));
+		assertNull(store.byId().get("001"));
+		assertNull(store.byUsername().get("janesmith"));
+		assertEquals(3, store.byId().size());
+		assertFalse(store.byId().containsKey("001"));
+		assertFalse(store.byId().keySet().contains("001"));
+		assertTrue(store.byId().keySet().contains("005"));
+
+		//Test Case 3: A replaced student keeps their login until it is changed too, as with the usual maps
+		Student original = store.byId().get("003");
+		Student replacement = new Student("003", "Tom Hanks", "thanks", "pass1");
+		assertSame(original, store.byId().put("003", replacement));
+		assertSame(original, store.byUsername().get("tomhanks"));
+		assertTrue(store.byUsername().remove("tomhanks", original));
+		assertNull(store.byUsername().put("thanks", replacement));
+		assertNull(store.byUsername().get("tomhanks"));
+		assertSame(replacement, store.byUsername().get("thanks"));
+		assertEquals(3, store.byUsername().size());
+
+	}
+
+}
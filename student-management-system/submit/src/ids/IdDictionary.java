@@ -0,0 +1,222 @@
+package ids;
+
+/**
+ * Gives each distinct ID a dense int handle, 0 for the first ID seen, 1 for the next, and so on
+ * Records keep handles instead of ID strings, so each ID string is kept once, here, and checking or comparing an ID
+ * they hold is an int comparison
+ * Handles are never taken back, so a handle stays valid for as long as the program runs, even after its ID is deleted;
+ * only IDs from records that are kept are given handles, so a dictionary grows with the data, not with the requests
+ * Looking up an ID takes no lock; handing out a new handle takes the dictionary's lock
+ * @author Katie
+ */
+public final class IdDictionary {
+
+	//constants
+
+	/**
+	 * IDs of courses students have completed, given handles as completed courses are loaded or added
+	 * Courses that exist but that nobody has completed have no handle
+	 */
+	public static final IdDictionary COURSES = new IdDictionary();
+
+	/**
+	 * Grades of completed courses, which repeat across students even more than course IDs do
+	 */
+	public static final IdDictionary GRADES = new IdDictionary();
+
+	/**
+	 * Returned by find for an ID without a handle
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * Number of slots a new dictionary starts with, a power of two
+	 */
+	private static final int INITIAL_SLOTS = 64;
+
+
+	//instance variables
+
+	/**
+	 * Current table, replaced with a bigger one as it fills up
+	 * Only the newest table is ever written to, and only under the dictionary's lock; its size is written last,
+	 * so a thread reading the size sees every handle counted in it
+	 */
+	private volatile Table table = new Table(INITIAL_SLOTS);
+
+
+	//methods
+
+	/**
+	 * Gets the handle of an ID, giving it the next handle if it doesn't have one yet
+	 * @param id to get the handle of
+	 * @return handle of the ID
+	 * @throws IllegalArgumentException if id is null
+	 */
+	public int handle(String id) {
+
+		//checks if id is null
+		if (id == null) {
+			throw new IllegalArgumentException("ID cannot be null.");
+		}
+
+		//most IDs already have a handle, found without locking
+		int handle = table.find(id);
+		if (handle != NONE) {
+			return handle;
+		}
+
+		return add(id);
+
+	}
+
+	/**
+	 * Gets the handle of an ID without giving it one
+	 * @param id to find
+	 * @return handle of the ID, or NONE if it doesn't have one or id is null
+	 */
+	public int find(String id) {
+		return id == null ? NONE : table.find(id);
+	}
+
+	/**
+	 * Gets the ID a handle was given to
+	 * @param handle of the ID
+	 * @return the ID, the same string for every call
+	 * @throws IllegalArgumentException if no ID has been given the handle
+	 */
+	public String id(int handle) {
+
+		String id = table.id(handle);
+		if (id == null) {
+			throw new IllegalArgumentException("No ID has the handle " + handle + ".");
+		}
+		return id;
+
+	}
+
+	/**
+	 * Gets the number of handles handed out
+	 */
+	public int size() {
+		return table.size;
+	}
+
+	/**
+	 * Gives an ID the next handle, unless another thread got there first
+	 */
+	private synchronized int add(String id) {
+
+		Table current = table;
+		int handle = current.find(id);
+		if (handle != NONE) {
+			return handle;
+		}
+
+		//moves to a table twice the size once this one is half full
+		if (current.size >= current.ids.length) {
+			current = current.grow();
+			table = current;
+		}
+
+		return current.add(id);
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * IDs by handle, and an open addressing hash table from each ID to its handle
+	 */
+	private static final class Table {
+
+		/**
+		 * IDs by handle, with room for half as many IDs as there are slots
+		 */
+		final String[] ids;
+
+		/**
+		 * Handle plus one of the ID hashing to each slot or the next free one after it, or 0 if the slot is empty
+		 */
+		final int[] slots;
+
+		/**
+		 * Number of handles handed out, written after the ID and slot of the newest handle
+		 */
+		volatile int size;
+
+		Table(int slotCount) {
+			ids = new String[slotCount / 2];
+			slots = new int[slotCount];
+		}
+
+		/**
+		 * Finds the handle of an ID, or NONE
+		 */
+		int find(String id) {
+
+			int count = size;
+			int mask = slots.length - 1;
+			for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+
+				//a slot filled after the size was read was empty when every counted ID was added, so it ends the run
+				int handle = slots[slot] - 1;
+				if (handle == NONE || handle >= count) {
+					return NONE;
+				}
+				if (ids[handle].equals(id)) {
+					return handle;
+				}
+			}
+
+		}
+
+		/**
+		 * Gets the ID with a handle, or null
+		 */
+		String id(int handle) {
+			return handle >= 0 && handle < size ? ids[handle] : null;
+		}
+
+		/**
+		 * Gives an ID known to be missing the next handle, filling in its ID and slot before counting it
+		 */
+		int add(String id) {
+
+			int handle = size;
+			ids[handle] = id;
+			int mask = slots.length - 1;
+			int slot = hash(id) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = handle + 1;
+			size = handle + 1;
+			return handle;
+
+		}
+
+		/**
+		 * Copies the IDs into a table twice the size, keeping their handles
+		 */
+		Table grow() {
+
+			Table bigger = new Table(slots.length * 2);
+			for (int handle = 0; handle < size; handle++) {
+				bigger.add(ids[handle]);
+			}
+			return bigger;
+
+		}
+
+		/**
+		 * Spreads an ID's hash code so IDs differing only in their last characters land far apart
+		 */
+		private static int hash(String id) {
+			return id.hashCode() * 0x9E3779B9 >>> 7;
+		}
+
+	}
+
+}
@@ -0,0 +1,104 @@
+package ids;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class IdDictionaryTest {
+
+	@Test
+	void testHandles() {
+
+		IdDictionary dictionary = new IdDictionary();
+
+		//Test Case 1: IDs get dense handles in the order they are first seen, and keep them
+		assertEquals(0, dictionary.handle("CIT590"));
+		assertEquals(1, dictionary.handle("CIT591"));
+		assertEquals(0, dictionary.handle(new String("CIT590")));
+		assertEquals(2, dictionary.size());
+
+		//Test Case 2: Finding an ID doesn't give it a handle
+		assertEquals(IdDictionary.NONE, dictionary.find("CIT592"));
+		assertEquals(IdDictionary.NONE, dictionary.find(null));
+		assertEquals(1, dictionary.find("CIT591"));
+		assertEquals(2, dictionary.size());
+
+		//Test Case 3: Each handle gives back the first string its ID was seen as
+		String id = new String("CIT593");
+		int handle = dictionary.handle(id);
+		assertSame(id, dictionary.id(handle));
+		assertSame(id, dictionary.id(dictionary.handle(new String("CIT593"))));
+
+		//Test Case 4: Null IDs and unknown handles are rejected
+		assertThrows(IllegalArgumentException.class, () -> dictionary.handle(null));
+		assertThrows(IllegalArgumentException.class, () -> dictionary.id(3));
+		assertThrows(IllegalArgumentException.class, () -> dictionary.id(-1));
+
+	}
+
+	@Test
+	void testGrowing() {
+
+		IdDictionary dictionary = new IdDictionary();
+
+		//Test Case 1: Handles and IDs survive the table growing many times
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i, dictionary.handle("S" + i));
+		}
+		for (int i = 0; i < 100000; i += 997) {
+			assertEquals(i, dictionary.find("S" + i));
+			assertEquals("S" + i, dictionary.id(i));
+		}
+
+	}
+
+	@Test
+	void testConcurrentHandles() throws InterruptedException {
+
+		IdDictionary dictionary = new IdDictionary();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentHashMap<String, Integer> seen = new ConcurrentHashMap<>();
+		List<Throwable> failures = new ArrayList<>();
+
+		//every thread asks for the handles of the same IDs at once
+		for (int thread = 0; thread < 8; thread++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < 20000; i++) {
+						String id = "S" + i;
+						Integer previous = seen.putIfAbsent(id, dictionary.handle(id));
+						if (previous != null && previous != dictionary.handle(id)) {
+							throw new AssertionError(id + " got two handles");
+						}
+					}
+				} catch (Throwable e) {
+					synchronized (failures) {
+						failures.add(e);
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		//Test Case 1: Each ID got one handle, and the handles are dense
+		assertTrue(failures.isEmpty(), failures.toString());
+		assertEquals(20000, dictionary.size());
+		for (int i = 0; i < 20000; i++) {
+			assertEquals("S" + i, dictionary.id(seen.get("S" + i)));
+		}
+
+	}
+
+}
@@ -0,0 +1,229 @@
+package ids;
+
+/**
+ * Map from int keys to int values kept in a single int array, with no boxing and no object per entry
+ * Keys and values sit side by side in an open addressing hash table, and removing a key shifts the keys after it
+ * back instead of leaving a marker, so lookups never slow down as keys come and go
+ * Keys are handles from an IdDictionary, or any other int that isn't negative
+ * A map is not thread-safe; its owner guards it with its own lock
+ * @author Katie
+ */
+public final class IntIntMap {
+
+	//constants
+
+	/**
+	 * Returned for a key that isn't in the map
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * Number of slots a map starts with once the first key is put in it, a power of two
+	 */
+	private static final int INITIAL_SLOTS = 4;
+
+
+	//instance variables
+
+	/**
+	 * Key plus one and value of each slot, side by side, with a key of 0 for an empty slot
+	 * Not allocated until the first key is put in, since many maps stay empty
+	 */
+	private int[] entries;
+
+	/**
+	 * Number of keys in the map
+	 */
+	private int size;
+
+
+	//methods
+
+	/**
+	 * Gets the value of a key
+	 * @param key to look up
+	 * @return value of the key, or NONE if it isn't in the map
+	 */
+	public int get(int key) {
+		int slot = slotOf(key);
+		return slot < 0 ? NONE : entries[slot + 1];
+	}
+
+	/**
+	 * Checks if a key is in the map
+	 */
+	public boolean containsKey(int key) {
+		return slotOf(key) >= 0;
+	}
+
+	/**
+	 * Puts a key in the map, replacing its value if it is there already
+	 * @param key to put, not negative
+	 * @param value to give it
+	 * @return the key's previous value, or NONE if it wasn't in the map
+	 * @throws IllegalArgumentException if key is negative
+	 */
+	public int put(int key, int value) {
+
+		//checks if key is negative
+		if (key < 0) {
+			throw new IllegalArgumentException("Key cannot be negative.");
+		}
+
+		//keeps the table at most three quarters full
+		if (entries == null) {
+			entries = new int[INITIAL_SLOTS * 2];
+		} else if ((size + 1) * 4 > slotCount() * 3) {
+			resize(slotCount() * 2);
+		}
+
+		//finds the key's slot, or the empty slot it goes in
+		int mask = slotCount() - 1;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			int stored = entries[slot * 2];
+			if (stored == 0) {
+				entries[slot * 2] = key + 1;
+				entries[slot * 2 + 1] = value;
+				size++;
+				return NONE;
+			}
+			if (stored == key + 1) {
+				int previous = entries[slot * 2 + 1];
+				entries[slot * 2 + 1] = value;
+				return previous;
+			}
+		}
+
+	}
+
+	/**
+	 * Removes a key from the map
+	 * @param key to remove
+	 * @return the key's value, or NONE if it wasn't in the map
+	 */
+	public int remove(int key) {
+
+		int found = slotOf(key);
+		if (found < 0) {
+			return NONE;
+		}
+		int value = entries[found + 1];
+		size--;
+
+		//moves back each key after the hole that would otherwise no longer be found from its home slot
+		int mask = slotCount() - 1;
+		int hole = found / 2;
+		for (int slot = (hole + 1) & mask; entries[slot * 2] != 0; slot = (slot + 1) & mask) {
+			int home = hash(entries[slot * 2] - 1) & mask;
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				entries[hole * 2] = entries[slot * 2];
+				entries[hole * 2 + 1] = entries[slot * 2 + 1];
+				hole = slot;
+			}
+		}
+		entries[hole * 2] = 0;
+		entries[hole * 2 + 1] = 0;
+
+		return value;
+
+	}
+
+	/**
+	 * Gets the number of keys in the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the map has no keys
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every key, giving the table back
+	 */
+	public void clear() {
+		entries = null;
+		size = 0;
+	}
+
+	/**
+	 * Gets the keys in the map, in no particular order
+	 * @return new array holding each key once
+	 */
+	public int[] keys() {
+
+		int[] keys = new int[size];
+		int count = 0;
+		for (int slot = 0; slot < slotCount(); slot++) {
+			if (entries[slot * 2] != 0) {
+				keys[count++] = entries[slot * 2] - 1;
+			}
+		}
+		return keys;
+
+	}
+
+	/**
+	 * Gets the number of slots in the table
+	 */
+	private int slotCount() {
+		return entries == null ? 0 : entries.length / 2;
+	}
+
+	/**
+	 * Finds the index in entries of a key's slot
+	 * @return index of the key, or -1 if it isn't in the map
+	 */
+	private int slotOf(int key) {
+
+		if (entries == null || key < 0) {
+			return -1;
+		}
+
+		int mask = slotCount() - 1;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			int stored = entries[slot * 2];
+			if (stored == key + 1) {
+				return slot * 2;
+			}
+			if (stored == 0) {
+				return -1;
+			}
+		}
+
+	}
+
+	/**
+	 * Moves every key into a table with a new number of slots
+	 */
+	private void resize(int slotCount) {
+
+		int[] old = entries;
+		entries = new int[slotCount * 2];
+		int mask = slotCount - 1;
+		for (int i = 0; i < old.length; i += 2) {
+			if (old[i] != 0) {
+				int slot = hash(old[i] - 1) & mask;
+				while (entries[slot * 2] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				entries[slot * 2] = old[i];
+				entries[slot * 2 + 1] = old[i + 1];
+			}
+		}
+
+	}
+
+	/**
+	 * Spreads a key's bits, since handles are handed out in order and would otherwise fill runs of neighbouring slots
+	 */
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
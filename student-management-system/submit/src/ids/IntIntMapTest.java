@@ -0,0 +1,76 @@
+package ids;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntIntMapTest {
+
+	@Test
+	void testPutGetRemove() {
+
+		IntIntMap map = new IntIntMap();
+
+		//Test Case 1: An empty map has no keys
+		assertTrue(map.isEmpty());
+		assertEquals(IntIntMap.NONE, map.get(0));
+		assertEquals(IntIntMap.NONE, map.remove(0));
+
+		//Test Case 2: Putting a key again replaces its value
+		assertEquals(IntIntMap.NONE, map.put(7, 70));
+		assertEquals(IntIntMap.NONE, map.put(0, 0));
+		assertEquals(70, map.put(7, 71));
+		assertEquals(71, map.get(7));
+		assertEquals(0, map.get(0));
+		assertEquals(2, map.size());
+
+		//Test Case 3: Removed keys are gone, and the rest are kept
+		assertEquals(71, map.remove(7));
+		assertFalse(map.containsKey(7));
+		assertTrue(map.containsKey(0));
+		assertEquals(1, map.size());
+
+		//Test Case 4: Negative keys are never in the map and can't be put in it
+		assertFalse(map.containsKey(-1));
+		assertThrows(IllegalArgumentException.class, () -> map.put(-1, 1));
+
+	}
+
+	@Test
+	void testMatchesHashMap() {
+
+		//Test Case 1: Random puts and removes, growing the map and shifting keys back, leave it the same as a HashMap
+		IntIntMap map = new IntIntMap();
+		Map<Integer, Integer> expected = new HashMap<>();
+		Random random = new Random(590);
+		for (int i = 0; i < 200000; i++) {
+			int key = random.nextInt(i < 100000 ? 5000 : 200);
+			if (random.nextInt(3) == 0) {
+				Integer previous = expected.remove(key);
+				assertEquals(previous == null ? IntIntMap.NONE : previous, map.remove(key));
+			} else {
+				Integer previous = expected.put(key, i);
+				assertEquals(previous == null ? IntIntMap.NONE : previous, map.put(key, i));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for (int key = 0; key < 5000; key++) {
+			assertEquals((int) expected.getOrDefault(key, IntIntMap.NONE), map.get(key));
+		}
+
+		//Test Case 2: The keys are each key once, and clearing removes them all
+		int[] keys = map.keys();
+		Arrays.sort(keys);
+		assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), keys);
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.keys().length);
+
+	}
+
+}
@@ -0,0 +1,28 @@
+package messages;
+
+/**
+ * Where the messages for reported outcomes go
+ * Only outcomes with a message are reported, and a sink may render them whenever and wherever it likes
+ * @author Katie
+ */
+@FunctionalInterface
+public interface MessageSink {
+
+	/**
+	 * Prints each message to System.out as it is reported, the way the console always has
+	 */
+	MessageSink CONSOLE = (outcome, details) -> System.out.println(outcome.render(details));
+
+	/**
+	 * Drops every message, for work whose outcomes are already collected some other way
+	 */
+	MessageSink DISCARD = (outcome, details) -> { };
+
+	/**
+	 * Reports an outcome
+	 * @param outcome with a message
+	 * @param details filling in the message
+	 */
+	void report(Outcome outcome, Object... details);
+
+}
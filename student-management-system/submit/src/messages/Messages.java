@@ -0,0 +1,87 @@
+package messages;
+
+/**
+ * Holds the sink that domain classes report the outcomes of their operations to
+ * The sink is shared by the whole system and starts as MessageSink.CONSOLE; batch work swaps in its own sink
+ * while it runs, the same way it would swap System.out
+ * A thread can also report to a sink of its own instead, such as a server thread whose outcomes go back in a response
+ * @author Katie
+ */
+public final class Messages {
+
+	//instance variables
+
+	/**
+	 * Sink outcomes are reported to
+	 */
+	private static volatile MessageSink sink = MessageSink.CONSOLE;
+
+	/**
+	 * Sink of each thread reporting to a sink of its own instead of the shared one
+	 */
+	private static final ThreadLocal<MessageSink> threadSink = new ThreadLocal<>();
+
+
+	//constructor
+
+	/**
+	 * Not created, since the sink is shared by the whole system
+	 */
+	private Messages() {
+	}
+
+
+	//methods
+
+	/**
+	 * Gets the sink outcomes are reported to
+	 */
+	public static MessageSink getSink() {
+		return sink;
+	}
+
+	/**
+	 * Sets the sink outcomes are reported to
+	 * @param sink to report to
+	 * @return sink that was replaced, to put back afterwards
+	 */
+	public static MessageSink setSink(MessageSink sink) {
+
+		//checks if sink is null
+		if (sink == null) {
+			throw new IllegalArgumentException("Sink cannot be null.");
+		}
+
+		MessageSink replaced = Messages.sink;
+		Messages.sink = sink;
+		return replaced;
+
+	}
+
+	/**
+	 * Sets the sink the current thread reports to instead of the shared one
+	 * @param sink to report to, or null to go back to the shared sink
+	 */
+	public static void setThreadSink(MessageSink sink) {
+		if (sink == null) {
+			threadSink.remove();
+		} else {
+			threadSink.set(sink);
+		}
+	}
+
+	/**
+	 * Reports an outcome to the current thread's sink or else the shared sink, unless it has no message
+	 * @param outcome to report
+	 * @param details filling in the message
+	 * @return the same outcome, so callers can report and check it in one go
+	 */
+	public static <T extends Outcome> T report(T outcome, Object... details) {
+		if (outcome.getMessage() != null) {
+			MessageSink own = threadSink.get();
+			(own != null ? own : sink).report(outcome, details);
+		}
+		return outcome;
+	}
+
+}
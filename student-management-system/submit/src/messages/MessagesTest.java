@@ -0,0 +1,132 @@
+package messages;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+import courses.SeatResult;
+import roles.Admin;
+import roles.AdminResult;
+import roles.DropResult;
+import roles.EnrollResult;
+import roles.Professor;
+import roles.Student;
+
+class MessagesTest {
+
+	private List<String> reported;
+	private MessageSink console;
+
+	@BeforeEach
+	void setUp() {
+
+		//collects every message reported instead of printing it
+		reported = new ArrayList<>();
+		console = Messages.setSink((outcome, details) -> reported.add(outcome.render(details)));
+
+	}
+
+	@AfterEach
+	void tearDown() {
+		Messages.setSink(console);
+	}
+
+	@Test
+	void testStudentOutcomes() {
+
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1);
+		course.setWaitlistCapacity(0);
+		Student first = new Student("001", "Student 1", "student1", "pass");
+		Student second = new Student("002", "Student 2", "student2", "pass");
+
+		//Test Case 1: Typed methods return the outcome without reporting it
+		assertEquals(EnrollResult.ENROLLED, first.enroll(course));
+		assertEquals(SeatResult.FULL, course.enroll("003"));
+		assertEquals(SeatResult.NOT_ENROLLED, course.withdraw("002"));
+		assertTrue(reported.isEmpty());
+
+		//Test Case 2: The boolean methods report the same messages the console has always shown
+		assertFalse(first.addCourse(course));
+		assertFalse(second.addCourse(course));
+		assertFalse(second.dropCourse(course));
+		assertEquals(List.of(
+				"You are already enrolled in Intro to CS",
+				"Cannot add student 002 to course. Course is already full.",
+				"Cannot add student 002 to waitlist. Student is already waiting or the waitlist is full.",
+				"Course is full or unavailable.",
+				"You are not enrolled in Intro to CS"), reported);
+
+		//Test Case 3: Outcomes without a message are not reported
+		reported.clear();
+		assertEquals(DropResult.DROPPED, first.drop(course));
+		assertTrue(second.addCourse(course));
+		assertEquals(List.of("Course Intro to CS added successfully."), reported);
+
+	}
+
+	@Test
+	void testThreadSink() throws InterruptedException {
+
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 10);
+		List<String> own = new ArrayList<>();
+
+		//Test Case 1: A thread with its own sink reports there instead of the shared sink
+		Thread thread = new Thread(() -> {
+			Messages.setThreadSink((outcome, details) -> own.add(outcome.render(details)));
+			new Student("001", "Student 1", "student1", "pass").addCourse(course);
+		});
+		thread.start();
+		thread.join();
+		assertEquals(List.of("Course Intro to CS added successfully."), own);
+		assertTrue(reported.isEmpty());
+
+		//Test Case 2: Other threads, and a thread that puts its sink back, still use the shared sink
+		Messages.setThreadSink(MessageSink.DISCARD);
+		Messages.setThreadSink(null);
+		new Student("002", "Student 2", "student2", "pass").addCourse(course);
+		assertEquals(List.of("Course Intro to CS added successfully."), reported);
+
+	}
+
+	@Test
+	void testAdminOutcomes() {
+
+		Admin admin = new Admin("001", "Admin", "admin", "pass");
+		Map<String, Course> courses = new HashMap<>();
+		Map<String, Professor> professors = new HashMap<>();
+		Map<String, Professor> professorLogins = new HashMap<>();
+		Map<String, Professor> professorsByName = new HashMap<>();
+		Professor professor = new Professor("001", "John Doe", "johndoe", "pass");
+		Professor namesake = new Professor("002", "John Doe", "jdoe", "pass");
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 10);
+
+		//Test Case 1: Typed methods give the reason something couldn't be added or deleted
+		assertEquals(AdminResult.PROFESSOR_ADDED, admin.putProfessor(courses, professors, professorLogins, professorsByName, professor));
+		assertEquals(AdminResult.PROFESSOR_NAME_TAKEN, admin.putProfessor(courses, professors, professorLogins, professorsByName, namesake));
+		assertEquals(AdminResult.COURSE_ADDED, admin.putCourse(courses, professor, course));
+		assertEquals(AdminResult.COURSE_EXISTS, admin.putCourse(courses, professor, course));
+		assertEquals(AdminResult.STUDENT_NOT_FOUND, admin.removeStudent(new HashMap<>(), new HashMap<>(), "001"));
+		assertTrue(reported.isEmpty());
+
+		//Test Case 2: The boolean methods fill in the messages with the right details
+		assertFalse(admin.addProfessor(courses, professors, professorLogins, professorsByName, namesake));
+		assertFalse(admin.addProfessor(courses, professors, professorLogins, professorsByName, new Professor("003", "Jane Roe", "johndoe", "pass")));
+		assertFalse(admin.addCourse(courses, professor, course));
+		assertTrue(admin.deleteCourse(courses, professorsByName, "CIS101"));
+		assertEquals(List.of(
+				"A professor named John Doe already exists.",
+				"The username johndoe is already taken.",
+				"Course ID CIS101 already exists.",
+				"Course ID CIS101 has been deleted."), reported);
+
+	}
+
+}
@@ -0,0 +1,26 @@
+package messages;
+
+/**
+ * Outcome of an operation on the system's data, such as a student enrolling in a course
+ * Domain methods return outcomes instead of printing them, and the message for an outcome is only rendered
+ * by the MessageSink it is reported to
+ * Outcomes are usually enum constants, each with a message in String.format syntax
+ * @author Katie
+ */
+public interface Outcome {
+
+	/**
+	 * Gets the message shown for this outcome, in String.format syntax, or null if nothing is shown
+	 */
+	String getMessage();
+
+	/**
+	 * Renders the message shown for this outcome
+	 * @param details filling in the message, such as the ID of the course
+	 * @return rendered message, or null if nothing is shown
+	 */
+	default String render(Object... details) {
+		return getMessage() == null ? null : String.format(getMessage(), details);
+	}
+
+}
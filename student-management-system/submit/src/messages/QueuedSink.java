@@ -0,0 +1,243 @@
+package messages;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes messages to a Writer from a background thread, so threads reporting outcomes never wait on output
+ * Reported outcomes are queued as they are, and rendered and written through a buffer by the background thread,
+ * which flushes whenever it runs out of messages to write
+ * If messages are reported faster than they can be written and the queue fills up, new messages are dropped
+ * and counted instead of holding up the reporting thread; the count is written last when the sink is closed
+ * @author Katie
+ */
+public class QueuedSink implements MessageSink, Closeable {
+
+	//constants
+
+	/**
+	 * Number of messages the queue holds by default
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * Size of the buffer messages are written through
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Queued in place of a message to tell the background thread to stop
+	 */
+	private static final Report END = new Report(null, null);
+
+
+	//instance variables
+
+	/**
+	 * Outcomes waiting to be written, in the order they were reported
+	 */
+	private final BlockingQueue<Report> queue;
+
+	/**
+	 * Buffer messages are written through
+	 */
+	private final BufferedWriter out;
+
+	/**
+	 * Thread writing the messages
+	 */
+	private final Thread writer;
+
+	/**
+	 * Number of messages dropped because the queue was full
+	 */
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * First error writing a message, after which messages are no longer written
+	 */
+	private volatile IOException error;
+
+	/**
+	 * True once the sink is closed
+	 */
+	private volatile boolean closed;
+
+
+	//constructors
+
+	/**
+	 * Creates a sink writing to out, queuing up to DEFAULT_CAPACITY messages
+	 * @param out to write messages to, one per line, which is closed along with the sink
+	 */
+	public QueuedSink(Writer out) {
+		this(out, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a sink writing to out and starts its background thread
+	 * @param out to write messages to, one per line, which is closed along with the sink
+	 * @param capacity most messages waiting to be written before new ones are dropped
+	 */
+	public QueuedSink(Writer out, int capacity) {
+
+		//checks that there is somewhere to write and room to queue
+		if (out == null || capacity < 1) {
+			throw new IllegalArgumentException("Sink needs a writer and a capacity of at least 1.");
+		}
+
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.out = new BufferedWriter(out, BUFFER_SIZE);
+		this.writer = new Thread(this::write, "message-writer");
+		writer.setDaemon(true);
+		writer.start();
+
+	}
+
+
+	//methods
+
+	/**
+	 * Queues an outcome to be written, without waiting
+	 * @param outcome with a message
+	 * @param details filling in the message
+	 * @throws IllegalStateException if the sink is closed
+	 */
+	@Override
+	public void report(Outcome outcome, Object... details) {
+
+		//checks that the sink is still open
+		if (closed) {
+			throw new IllegalStateException("Sink is closed.");
+		}
+
+		//drops the message if the queue is full
+		if (!queue.offer(new Report(outcome, details))) {
+			dropped.increment();
+		}
+
+	}
+
+	/**
+	 * Gets the number of messages dropped because the queue was full
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Writes every message still queued, then the number dropped if any were, and closes the writer
+	 * @throws IOException if an error occurred while writing the messages
+	 */
+	@Override
+	public void close() throws IOException {
+
+		//checks if the sink was already closed
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		//waits for the background thread to write everything queued before the end
+		try {
+			queue.put(END);
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing messages.", e);
+		}
+
+		//writes the number of messages dropped, closing the writer even if writing failed
+		try {
+			if (error != null) {
+				throw error;
+			}
+			if (getDroppedCount() > 0) {
+				out.write(getDroppedCount() + " messages were dropped because they were reported faster than they could be written.");
+				out.newLine();
+			}
+		} finally {
+			out.close();
+		}
+
+	}
+
+	/**
+	 * Writes queued messages until the end is reached, flushing whenever the queue runs dry
+	 */
+	private void write() {
+
+		List<Report> reports = new ArrayList<>();
+		while (true) {
+
+			//waits for a message, then takes whatever else has been queued
+			try {
+				reports.add(queue.take());
+			} catch (InterruptedException e) {
+				continue;
+			}
+			queue.drainTo(reports);
+
+			//renders and writes each message, until an error stops the writing
+			for (Report report : reports) {
+				if (report == END) {
+					flush();
+					return;
+				}
+				if (error == null) {
+					try {
+						out.write(report.outcome.render(report.details));
+						out.newLine();
+					} catch (IOException e) {
+						error = e;
+					}
+				}
+			}
+			reports.clear();
+			if (queue.isEmpty()) {
+				flush();
+			}
+
+		}
+
+	}
+
+	/**
+	 * Flushes the messages written so far, unless writing already failed
+	 */
+	private void flush() {
+		if (error == null) {
+			try {
+				out.flush();
+			} catch (IOException e) {
+				error = e;
+			}
+		}
+	}
+
+
+	//nested classes
+
+	/**
+	 * Outcome waiting to be written, with the details filling in its message
+	 */
+	private static class Report {
+
+		final Outcome outcome;
+		final Object[] details;
+
+		Report(Outcome outcome, Object[] details) {
+			this.outcome = outcome;
+			this.details = details;
+		}
+
+	}
+
+}
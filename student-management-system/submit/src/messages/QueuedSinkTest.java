@@ -0,0 +1,105 @@
+package messages;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import roles.EnrollResult;
+
+class QueuedSinkTest {
+
+	@Test
+	void testWritesInOrder() throws IOException, InterruptedException {
+
+		StringWriter out = new StringWriter();
+		QueuedSink sink = new QueuedSink(out);
+
+		//Test Case 1: Messages from one thread are rendered and written in the order they were reported
+		sink.report(EnrollResult.ENROLLED, "Intro to CS");
+		sink.report(EnrollResult.TIME_CONFLICT, "Algorithms");
+
+		//Test Case 2: Every message from many threads is written by the time the sink is closed
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					sink.report(EnrollResult.FULL);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		sink.close();
+		String[] lines = out.toString().split(System.lineSeparator());
+		assertEquals("Course Intro to CS added successfully.", lines[0]);
+		assertEquals("Time conflict. Cannot enroll in Algorithms", lines[1]);
+		assertEquals(4002, lines.length);
+		assertEquals(0, sink.getDroppedCount());
+
+		//Test Case 3: Nothing can be reported once the sink is closed
+		assertThrows(IllegalStateException.class, () -> sink.report(EnrollResult.FULL));
+
+	}
+
+	@Test
+	void testDropsWhenFull() throws IOException, InterruptedException {
+
+		//a writer that holds up the background thread until it is let go, saying when it starts holding it up
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		StringWriter written = new StringWriter();
+		Writer slow = new Writer() {
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException {
+				blocked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				written.write(buffer, offset, length);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				write(new char[0], 0, 0);
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		QueuedSink sink = new QueuedSink(slow, 2);
+
+		//Test Case 1: Reporting never waits on the writer, dropping messages that don't fit in the queue
+		//the first message is written before the rest are reported, so the writer is stuck holding just that one
+		sink.report(EnrollResult.FULL);
+		assertTrue(blocked.await(10, TimeUnit.SECONDS));
+		long start = System.nanoTime();
+		for (int i = 1; i < 100; i++) {
+			sink.report(EnrollResult.FULL);
+		}
+		assertTrue(System.nanoTime() - start < 1_000_000_000L);
+		assertEquals(97, sink.getDroppedCount());
+
+		//Test Case 2: The number dropped is written last when the sink is closed
+		release.countDown();
+		sink.close();
+		String[] lines = written.toString().split(System.lineSeparator());
+		assertEquals(100 - sink.getDroppedCount(), lines.length - 1);
+		assertTrue(lines[lines.length - 1].startsWith(sink.getDroppedCount() + " messages were dropped"));
+
+	}
+
+}
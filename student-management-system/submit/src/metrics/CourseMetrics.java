@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import courses.Course;
+
+/**
+ * Reports how full the courses are, reading the live course map whenever it is asked
+ * Nothing is counted while students enroll, so this costs nothing until it is read
+ * @author Katie
+ */
+final class CourseMetrics implements CourseMetricsMXBean {
+
+	//instance variables
+
+	/**
+	 * Map of courses keyed by ID, safe to read while it changes
+	 */
+	private final Map<String, Course> courses;
+
+
+	//constructor
+
+	/**
+	 * Creates metrics for a map of courses
+	 * @param courses map of courses keyed by ID, safe to read while it changes
+	 */
+	CourseMetrics(Map<String, Course> courses) {
+		this.courses = courses;
+	}
+
+
+	//methods
+
+	/**
+	 * Works out the fill ratio of a course, counting a course with no seats as full
+	 */
+	private static double fillRatio(Course course) {
+		return course.getCapacity() == 0 ? 1 : (double) course.getSeatsTaken() / course.getCapacity();
+	}
+
+	@Override
+	public int getCourseCount() {
+		return courses.size();
+	}
+
+	@Override
+	public int getFullCourseCount() {
+		int full = 0;
+		for (Course course : courses.values()) {
+			if (course.getOpenSeats() == 0) {
+				full++;
+			}
+		}
+		return full;
+	}
+
+	@Override
+	public double getOverallFillRatio() {
+		long taken = 0;
+		long capacity = 0;
+		for (Course course : courses.values()) {
+			taken += course.getSeatsTaken();
+			capacity += course.getCapacity();
+		}
+		return capacity == 0 ? 0 : (double) taken / capacity;
+	}
+
+	@Override
+	public Map<String, Double> getFillRatios() {
+		Map<String, Double> ratios = new TreeMap<>();
+		for (Course course : courses.values()) {
+			ratios.put(course.getId(), fillRatio(course));
+		}
+		return ratios;
+	}
+
+	@Override
+	public double getFillRatio(String courseId) {
+		Course course = courseId == null ? null : courses.get(courseId);
+		return course == null ? -1 : fillRatio(course);
+	}
+
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * How full the courses are, as seen by JMX clients
+ * Fill ratios are seats taken over capacity, worked out each time they are read
+ * @author Katie
+ */
+public interface CourseMetricsMXBean {
+
+	/**
+	 * Gets the number of courses
+	 */
+	int getCourseCount();
+
+	/**
+	 * Gets the number of courses with no open seats
+	 */
+	int getFullCourseCount();
+
+	/**
+	 * Gets the seats taken over the capacity of all courses together
+	 */
+	double getOverallFillRatio();
+
+	/**
+	 * Gets the fill ratio of each course, keyed by course ID
+	 */
+	Map<String, Double> getFillRatios();
+
+	/**
+	 * Gets the fill ratio of one course
+	 * @param courseId of the course
+	 * @return fill ratio, or -1 if there is no such course
+	 */
+	double getFillRatio(String courseId);
+
+}
@@ -0,0 +1,138 @@
+package metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import roles.EnrollResult;
+
+/**
+ * Counts the outcomes of students enrolling in and dropping courses
+ * Every count is a striped counter, so students enrolling at the same time don't contend on one value
+ * @author Katie
+ */
+public final class EnrollmentMetrics implements EnrollmentMetricsMXBean {
+
+	//instance variables
+
+	/**
+	 * Number of enrollment requests with each outcome
+	 */
+	private final Map<EnrollResult, LongAdder> enrollments = new EnumMap<>(EnrollResult.class);
+
+	/**
+	 * Number of courses dropped, waitlists left, and drops of a course the student wasn't in
+	 */
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder waitlistsLeft = new LongAdder();
+	private final LongAdder dropsNotEnrolled = new LongAdder();
+
+
+	//constructor
+
+	/**
+	 * Creates counts starting at 0
+	 */
+	EnrollmentMetrics() {
+		for (EnrollResult result : EnrollResult.values()) {
+			enrollments.put(result, new LongAdder());
+		}
+	}
+
+
+	//methods
+
+	/**
+	 * Counts the outcome of an enrollment request
+	 * @param result of the request
+	 */
+	public void record(EnrollResult result) {
+		enrollments.get(result).increment();
+	}
+
+	/**
+	 * Counts a dropped course
+	 */
+	public void recordDropped() {
+		dropped.increment();
+	}
+
+	/**
+	 * Counts a waitlist left by dropping the course
+	 */
+	public void recordWaitlistLeft() {
+		waitlistsLeft.increment();
+	}
+
+	/**
+	 * Counts a drop of a course the student was neither enrolled in nor waiting for
+	 */
+	public void recordDropNotEnrolled() {
+		dropsNotEnrolled.increment();
+	}
+
+	/**
+	 * Gets the number of enrollment requests with an outcome
+	 * @param result of the requests
+	 * @return number of requests
+	 */
+	public long getCount(EnrollResult result) {
+		return enrollments.get(result).sum();
+	}
+
+	@Override
+	public long getEnrolled() {
+		return getCount(EnrollResult.ENROLLED);
+	}
+
+	@Override
+	public long getWaitlisted() {
+		return getCount(EnrollResult.WAITLISTED);
+	}
+
+	@Override
+	public long getAlreadyEnrolled() {
+		return getCount(EnrollResult.ALREADY_ENROLLED);
+	}
+
+	@Override
+	public long getAlreadyCompleted() {
+		return getCount(EnrollResult.ALREADY_COMPLETED);
+	}
+
+	@Override
+	public long getTimeConflicts() {
+		return getCount(EnrollResult.TIME_CONFLICT);
+	}
+
+	@Override
+	public long getFull() {
+		return getCount(EnrollResult.FULL);
+	}
+
+	@Override
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	@Override
+	public long getWaitlistsLeft() {
+		return waitlistsLeft.sum();
+	}
+
+	@Override
+	public long getDropsNotEnrolled() {
+		return dropsNotEnrolled.sum();
+	}
+
+	@Override
+	public void reset() {
+		for (LongAdder count : enrollments.values()) {
+			count.reset();
+		}
+		dropped.reset();
+		waitlistsLeft.reset();
+		dropsNotEnrolled.reset();
+	}
+
+}
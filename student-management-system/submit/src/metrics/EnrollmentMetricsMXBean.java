@@ -0,0 +1,59 @@
+package metrics;
+
+/**
+ * Counts of the outcomes of students enrolling in and dropping courses, as seen by JMX clients
+ * @author Katie
+ */
+public interface EnrollmentMetricsMXBean {
+
+	/**
+	 * Gets the number of requests that got a seat
+	 */
+	long getEnrolled();
+
+	/**
+	 * Gets the number of requests that joined a waitlist because the course was full
+	 */
+	long getWaitlisted();
+
+	/**
+	 * Gets the number of requests for a course the student was already enrolled in
+	 */
+	long getAlreadyEnrolled();
+
+	/**
+	 * Gets the number of requests for a course the student already completed
+	 */
+	long getAlreadyCompleted();
+
+	/**
+	 * Gets the number of requests turned away for a time conflict
+	 */
+	long getTimeConflicts();
+
+	/**
+	 * Gets the number of requests turned away because the course and its waitlist were full
+	 */
+	long getFull();
+
+	/**
+	 * Gets the number of courses dropped
+	 */
+	long getDropped();
+
+	/**
+	 * Gets the number of waitlists left by dropping a course the student was waiting for
+	 */
+	long getWaitlistsLeft();
+
+	/**
+	 * Gets the number of drops of a course the student was neither enrolled in nor waiting for
+	 */
+	long getDropsNotEnrolled();
+
+	/**
+	 * Sets every count back to 0
+	 */
+	void reset();
+
+}
@@ -0,0 +1,84 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the time taken and records read loading one kind of info file
+ * @author Katie
+ */
+public final class FileLoadMetrics implements FileLoadMetricsMXBean {
+
+	//instance variables
+
+	/**
+	 * Path of the file last loaded, and the records read and nanoseconds taken by the last load
+	 */
+	private volatile String fileName;
+	private volatile long lastRecords;
+	private volatile long lastNanos;
+
+	/**
+	 * Number of loads, and the records read and nanoseconds taken by all of them
+	 */
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder totalRecords = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+
+
+	//constructor
+
+	/**
+	 * Creates counts starting at 0
+	 */
+	FileLoadMetrics() {
+	}
+
+
+	//methods
+
+	/**
+	 * Records a finished load
+	 * @param fileName of the file loaded
+	 * @param records read from the file
+	 * @param nanos taken to load the file
+	 */
+	public void record(String fileName, long records, long nanos) {
+		this.fileName = fileName;
+		lastRecords = records;
+		lastNanos = nanos;
+		loads.increment();
+		totalRecords.add(records);
+		totalNanos.add(nanos);
+	}
+
+	@Override
+	public String getFileName() {
+		return fileName;
+	}
+
+	@Override
+	public long getLoads() {
+		return loads.sum();
+	}
+
+	@Override
+	public long getLastRecordCount() {
+		return lastRecords;
+	}
+
+	@Override
+	public double getLastLoadMillis() {
+		return lastNanos / 1e6;
+	}
+
+	@Override
+	public long getTotalRecordCount() {
+		return totalRecords.sum();
+	}
+
+	@Override
+	public double getTotalLoadMillis() {
+		return totalNanos.sum() / 1e6;
+	}
+
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+/**
+ * Time taken and records read loading one kind of info file, as seen by JMX clients
+ * @author Katie
+ */
+public interface FileLoadMetricsMXBean {
+
+	/**
+	 * Gets the path of the file last loaded, or null if none has been
+	 */
+	String getFileName();
+
+	/**
+	 * Gets the number of times a file was loaded
+	 */
+	long getLoads();
+
+	/**
+	 * Gets the number of records read by the last load
+	 */
+	long getLastRecordCount();
+
+	/**
+	 * Gets the time taken by the last load, in milliseconds
+	 */
+	double getLastLoadMillis();
+
+	/**
+	 * Gets the number of records read by every load
+	 */
+	long getTotalRecordCount();
+
+	/**
+	 * Gets the time taken by every load, in milliseconds
+	 */
+	double getTotalLoadMillis();
+
+}
@@ -0,0 +1,158 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long an operation takes, in nanoseconds, without locking or allocating
+ * Each power of two is split into 8 buckets, so percentiles are accurate to within 12.5%
+ * Buckets are striped counters, so threads recording at the same time don't contend on one value
+ * @author Katie
+ */
+public final class LatencyHistogram {
+
+	//constants
+
+	/**
+	 * Number of buckets each power of two is split into, as a number of bits
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/**
+	 * Number of buckets each power of two is split into
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Number of buckets needed to hold any non-negative long
+	 */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+
+	//instance variables
+
+	/**
+	 * Number of values recorded in each bucket
+	 */
+	private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+	/**
+	 * Sum of the values recorded, for the mean
+	 */
+	private final LongAdder total = new LongAdder();
+
+	/**
+	 * Largest value recorded
+	 */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+
+	//constructor
+
+	/**
+	 * Creates an empty histogram
+	 */
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = new LongAdder();
+		}
+	}
+
+
+	//methods
+
+	/**
+	 * Records a value, counting a negative value as 0
+	 * @param nanos to record
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts[bucket(value)].increment();
+		total.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Gets the number of values recorded
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : counts) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the mean of the values recorded, or 0 if there are none
+	 */
+	public double getMean() {
+		long count = getCount();
+		return count == 0 ? 0 : (double) total.sum() / count;
+	}
+
+	/**
+	 * Gets the largest value recorded, or 0 if there are none
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the value that the given fraction of recorded values are at or below, or 0 if there are none
+	 * Values recorded while the percentile is read may or may not be counted
+	 * @param fraction between 0 and 1, such as 0.99 for the 99th percentile
+	 * @return the largest value in the bucket holding the percentile, or the largest value recorded if that is smaller
+	 */
+	public long getPercentile(double fraction) {
+
+		//reads the buckets once, so the count and the search agree
+		long[] snapshot = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts[i].sum();
+			count += snapshot[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+
+		//finds the bucket where the running count reaches the percentile
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(upperBound(i), getMax());
+			}
+		}
+		return getMax();
+
+	}
+
+	/**
+	 * Finds the bucket a value is counted in
+	 * Values below SUB_BUCKETS each have their own bucket, and every power of two above is split into SUB_BUCKETS
+	 */
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Finds the largest value counted in a bucket
+	 */
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+}
@@ -0,0 +1,66 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+	@Test
+	void testBuckets() {
+
+		//Test Case 1: Small values each have their own bucket
+		for (long value = 0; value < 8; value++) {
+			assertEquals(value, LatencyHistogram.upperBound(LatencyHistogram.bucket(value)));
+		}
+
+		//Test Case 2: Every value falls within its bucket, and buckets are at most 12.5% wide
+		for (long value : new long[] {8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE}) {
+			int bucket = LatencyHistogram.bucket(value);
+			long upperBound = LatencyHistogram.upperBound(bucket);
+			assertTrue(value <= upperBound, "value " + value);
+			assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < value, "value " + value);
+			assertTrue(upperBound - value <= value / 8, "value " + value);
+		}
+
+	}
+
+	@Test
+	void testPercentiles() throws InterruptedException {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		//Test Case 1: An empty histogram reports 0
+		assertEquals(0, histogram.getPercentile(0.99));
+		assertEquals(0, histogram.getMean());
+
+		//Test Case 2: Values recorded from many threads are all counted
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (long value = 1; value <= 1000; value++) {
+					histogram.record(value * 1000);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(4000, histogram.getCount());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500500, histogram.getMean(), 0.001);
+
+		//Test Case 3: Percentiles are within a bucket of the exact value, and never above the max
+		assertEquals(500000, histogram.getPercentile(0.5), 500000 / 8);
+		assertEquals(990000, histogram.getPercentile(0.99), 990000 / 8);
+		assertTrue(histogram.getPercentile(0.5) >= 500000);
+		assertEquals(1000000, histogram.getPercentile(1));
+
+	}
+
+}
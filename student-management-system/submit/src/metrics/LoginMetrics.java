@@ -0,0 +1,81 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts login attempts and how long checking them takes
+ * @author Katie
+ */
+public final class LoginMetrics implements LoginMetricsMXBean {
+
+	//instance variables
+
+	/**
+	 * Number of logins let in and turned away
+	 */
+	private final LongAdder successes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	/**
+	 * Time taken to check each login
+	 */
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+
+	//constructor
+
+	/**
+	 * Creates counts starting at 0
+	 */
+	LoginMetrics() {
+	}
+
+
+	//methods
+
+	/**
+	 * Counts a login attempt
+	 * @param authenticated true if the login was let in, false if not
+	 * @param nanos taken to check the login
+	 */
+	public void record(boolean authenticated, long nanos) {
+		(authenticated ? successes : failures).increment();
+		latency.record(nanos);
+	}
+
+	@Override
+	public long getSuccesses() {
+		return successes.sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	@Override
+	public double getLatencyMeanMicros() {
+		return latency.getMean() / 1000;
+	}
+
+	@Override
+	public double getLatencyP50Micros() {
+		return latency.getPercentile(0.5) / 1000.0;
+	}
+
+	@Override
+	public double getLatencyP90Micros() {
+		return latency.getPercentile(0.9) / 1000.0;
+	}
+
+	@Override
+	public double getLatencyP99Micros() {
+		return latency.getPercentile(0.99) / 1000.0;
+	}
+
+	@Override
+	public double getLatencyMaxMicros() {
+		return latency.getMax() / 1000.0;
+	}
+
+}
@@ -0,0 +1,44 @@
+package metrics;
+
+/**
+ * Counts and latency of login attempts, as seen by JMX clients
+ * @author Katie
+ */
+public interface LoginMetricsMXBean {
+
+	/**
+	 * Gets the number of logins with a matching username and password
+	 */
+	long getSuccesses();
+
+	/**
+	 * Gets the number of logins turned away
+	 */
+	long getFailures();
+
+	/**
+	 * Gets the mean time taken to check a login, in microseconds
+	 */
+	double getLatencyMeanMicros();
+
+	/**
+	 * Gets the time taken by half of the logins, in microseconds
+	 */
+	double getLatencyP50Micros();
+
+	/**
+	 * Gets the time taken by 90% of the logins, in microseconds
+	 */
+	double getLatencyP90Micros();
+
+	/**
+	 * Gets the time taken by 99% of the logins, in microseconds
+	 */
+	double getLatencyP99Micros();
+
+	/**
+	 * Gets the longest time taken to check a login, in microseconds
+	 */
+	double getLatencyMaxMicros();
+
+}
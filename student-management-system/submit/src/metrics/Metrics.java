@@ -0,0 +1,94 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import courses.Course;
+
+/**
+ * Holds the metrics recorded as the system runs, and publishes them as MBeans so monitoring can read them over JMX
+ * Metrics are recorded whether or not they are published, and recording one is a striped counter update
+ * Published names are in the "studentManagement" domain, such as studentManagement:type=Enrollment
+ * @author Katie
+ */
+public final class Metrics {
+
+	//constants
+
+	/**
+	 * Domain the MBeans are published in
+	 */
+	public static final String DOMAIN = "studentManagement";
+
+	/**
+	 * Outcomes of students enrolling in and dropping courses
+	 */
+	public static final EnrollmentMetrics ENROLLMENT = new EnrollmentMetrics();
+
+	/**
+	 * Outcomes and latency of logins
+	 */
+	public static final LoginMetrics LOGINS = new LoginMetrics();
+
+	/**
+	 * Loads of each kind of info file, keyed by the kind of data the file holds
+	 */
+	private static final Map<String, FileLoadMetrics> FILE_LOADS = new ConcurrentHashMap<>();
+
+
+	//constructor
+
+	/**
+	 * Not created, since the metrics are shared by the whole system
+	 */
+	private Metrics() {
+	}
+
+
+	//methods
+
+	/**
+	 * Gets the load metrics of a kind of info file, creating them the first time
+	 * @param type of data the file holds, such as "courses"
+	 * @return load metrics of the file
+	 */
+	public static FileLoadMetrics fileLoad(String type) {
+		return FILE_LOADS.computeIfAbsent(type, t -> new FileLoadMetrics());
+	}
+
+	/**
+	 * Publishes the metrics on an MBean server, replacing any published before
+	 * File loads are published for each kind of file loaded so far
+	 * @param server to publish on, usually ManagementFactory.getPlatformMBeanServer()
+	 * @param courses map of courses keyed by ID to report fill ratios of, safe to read while it changes
+	 * @throws JMException if an MBean can't be published
+	 */
+	public static void register(MBeanServer server, Map<String, Course> courses) throws JMException {
+
+		register(server, "type=Enrollment", ENROLLMENT);
+		register(server, "type=Logins", LOGINS);
+		register(server, "type=Courses", new CourseMetrics(courses));
+		for (Map.Entry<String, FileLoadMetrics> load : FILE_LOADS.entrySet()) {
+			register(server, "type=FileLoad,file=" + ObjectName.quote(load.getKey()), load.getValue());
+		}
+
+	}
+
+	/**
+	 * Publishes one MBean, replacing any with the same name
+	 */
+	private static void register(MBeanServer server, String properties, Object mbean) throws JMException {
+
+		ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+		if (server.isRegistered(name)) {
+			server.unregisterMBean(name);
+		}
+		server.registerMBean(mbean, name);
+
+	}
+
+}
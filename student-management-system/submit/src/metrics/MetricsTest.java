@@ -0,0 +1,131 @@
+package metrics;
+
+import courses.Course;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+import files.FileInfoReader;
+
+class MetricsTest {
+
+	@Test
+	void testEnrollmentCounts() {
+
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1);
+		Course clash = new Course("CIS102", "Data Structures", "John Doe", "MW", "11:00", "12:30", 10);
+		course.setWaitlistCapacity(1);
+		Student first = new Student("001", "Student 1", "student1", "pass");
+		Student second = new Student("002", "Student 2", "student2", "pass");
+		Student third = new Student("003", "Student 3", "student3", "pass");
+		EnrollmentMetrics enrollment = Metrics.ENROLLMENT;
+		enrollment.reset();
+
+		//Test Case 1: Each outcome of adding a course is counted
+		first.addCourse(course);
+		first.addCourse(course);
+		first.addCourse(clash);
+		second.addCourse(course);
+		third.addCourse(course);
+		assertEquals(1, enrollment.getEnrolled());
+		assertEquals(1, enrollment.getAlreadyEnrolled());
+		assertEquals(1, enrollment.getTimeConflicts());
+		assertEquals(1, enrollment.getWaitlisted());
+		assertEquals(1, enrollment.getFull());
+
+		//Test Case 2: Each outcome of dropping a course is counted
+		second.dropCourse(course);
+		third.dropCourse(course);
+		first.dropCourse(course);
+		assertEquals(1, enrollment.getWaitlistsLeft());
+		assertEquals(1, enrollment.getDropsNotEnrolled());
+		assertEquals(1, enrollment.getDropped());
+
+		//Test Case 3: Reset sets every count back to 0
+		enrollment.reset();
+		assertEquals(0, enrollment.getEnrolled());
+		assertEquals(0, enrollment.getDropped());
+
+	}
+
+	@Test
+	void testLoginsAndLoads() throws IOException {
+
+		Student student = new Student("001", "Student 1", "student1", "pass");
+		long successes = Metrics.LOGINS.getSuccesses();
+		long failures = Metrics.LOGINS.getFailures();
+
+		//Test Case 1: Logins let in and turned away are counted, and timed
+		student.authenticate("student1", "pass");
+		student.authenticate("student1", "wrong");
+		student.authenticate(null, "pass");
+		assertEquals(successes + 1, Metrics.LOGINS.getSuccesses());
+		assertEquals(failures + 2, Metrics.LOGINS.getFailures());
+		assertTrue(Metrics.LOGINS.getLatencyMaxMicros() >= Metrics.LOGINS.getLatencyP50Micros());
+
+		//Test Case 2: Each load of an info file is timed and its records counted, read either way
+		File courseFile = Files.createTempFile("testMetricsCourses", ".txt").toFile();
+		Files.writeString(courseFile.toPath(), "CIS101; Intro to CS; John Doe; MW; 10:00; 11:30; 10\n"
+				+ "bad line\nCIS102; Data Structures; John Doe; TR; 10:00; 11:30; 10\n");
+		try {
+			for (FileInfoReader reader : new FileInfoReader[] {new FileInfoReader(), new FileInfoReader(new ForkJoinPool(2))}) {
+				long loads = Metrics.fileLoad("courses").getLoads();
+				reader.loadCourses(courseFile.getPath(), new HashMap<>());
+				assertEquals(loads + 1, Metrics.fileLoad("courses").getLoads());
+				assertEquals(2, Metrics.fileLoad("courses").getLastRecordCount());
+				assertEquals(courseFile.getPath(), Metrics.fileLoad("courses").getFileName());
+				assertTrue(Metrics.fileLoad("courses").getLastLoadMillis() > 0);
+			}
+		} finally {
+			courseFile.delete();
+		}
+
+	}
+
+	@Test
+	void testRegister() throws JMException {
+
+		Map<String, Course> courses = new ConcurrentHashMap<>();
+		courses.put("CIS101", new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 2));
+		courses.put("CIS102", new Course("CIS102", "Data Structures", "John Doe", "TR", "10:00", "11:30", 2));
+		courses.get("CIS101").addStudent("001");
+		courses.get("CIS101").addStudent("002");
+		courses.get("CIS102").addStudent("001");
+		Metrics.fileLoad("courses");
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+		//Test Case 1: Every metric is published, and publishing again replaces them
+		Metrics.register(server, courses);
+		Metrics.register(server, courses);
+		assertTrue(server.isRegistered(new ObjectName("studentManagement:type=Enrollment")));
+		assertTrue(server.isRegistered(new ObjectName("studentManagement:type=Logins")));
+		assertTrue(server.isRegistered(new ObjectName("studentManagement:type=FileLoad,file=\"courses\"")));
+
+		//Test Case 2: Fill ratios are read from the courses as they are now
+		ObjectName name = new ObjectName("studentManagement:type=Courses");
+		assertEquals(1, server.getAttribute(name, "FullCourseCount"));
+		assertEquals(0.75, (double) server.getAttribute(name, "OverallFillRatio"), 0.001);
+		assertEquals(0.5, (double) server.invoke(name, "getFillRatio", new Object[] {"CIS102"}, new String[] {String.class.getName()}), 0.001);
+		assertEquals(2, ((TabularData) server.getAttribute(name, "FillRatios")).size());
+		courses.get("CIS102").addStudent("002");
+		assertEquals(2, server.getAttribute(name, "FullCourseCount"));
+
+	}
+
+}
@@ -0,0 +1,403 @@
+package registration;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+
+import courses.Course;
+import files.Journal;
+import roles.EnrollResult;
+import roles.Student;
+
+/**
+ * Allocates seats from ranked wishlists all at once, instead of to whoever calls Course.addStudent first
+ * While registration is open, students submit a wishlist of courses in order of preference; once it closes,
+ * seats are handed out in a draft: in round n every student still short of maxCourses asks for the nth course
+ * on their list, and each course seats the students asking for it by priority until it is full
+ * Students who rank higher go first, and students with the same priority are ordered by a seeded lottery
+ * A course is skipped for a student the same way Student.addCourse would turn them away: if they completed it,
+ * are already enrolled, or it clashes with a course they got in an earlier round; nobody is put on a waitlist
+ * Within a round every student asks for at most one course, so the courses of a round are seated in parallel on
+ * a fork-join pool, and the allocation is the same however many threads there are
+ * @author Katie
+ */
+public class RegistrationLottery {
+
+	//constants
+
+	/**
+	 * Priority of students who have completed more courses, so students further along register first
+	 */
+	public static final ToIntFunction<Student> COMPLETED_COURSES = student -> student.getCompletedCourses().size();
+
+	/**
+	 * Equal priority for every student, so the lottery alone decides the order
+	 */
+	public static final ToIntFunction<Student> NO_PRIORITY = student -> 0;
+
+	/**
+	 * Fewest requests handed to a task, so small courses are grouped together
+	 */
+	private static final int MIN_TASK_REQUESTS = 1024;
+
+
+	//instance variables
+
+	/**
+	 * Priority of each student, higher going first
+	 */
+	private final ToIntFunction<Student> priority;
+
+	/**
+	 * Most courses each student is given
+	 */
+	private final int maxCourses;
+
+	/**
+	 * Seed of the lottery breaking ties in priority
+	 */
+	private final long seed;
+
+	/**
+	 * Pool the courses of a round are seated on in parallel, or null to allocate on the calling thread
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Wishlists submitted so far, each student's courses in order of preference
+	 */
+	private final Map<Student, List<Course>> wishlists = new IdentityHashMap<>();
+
+	/**
+	 * True while wishlists can be submitted
+	 */
+	private boolean open = true;
+
+
+	//constructor
+
+	/**
+	 * Opens registration
+	 * @param priority of each student, higher going first
+	 * @param maxCourses most courses each student is given
+	 * @param seed of the lottery breaking ties in priority
+	 * @param pool courses are seated on in parallel, or null to allocate on the calling thread
+	 */
+	public RegistrationLottery(ToIntFunction<Student> priority, int maxCourses, long seed, ForkJoinPool pool) {
+
+		//checks that there is a priority and students can get a course
+		if (priority == null || maxCourses < 1) {
+			throw new IllegalArgumentException("Lottery needs a priority and a maxCourses of at least 1.");
+		}
+
+		this.priority = priority;
+		this.maxCourses = maxCourses;
+		this.seed = seed;
+		this.pool = pool;
+
+	}
+
+
+	//methods
+
+	/**
+	 * Checks if wishlists can still be submitted
+	 */
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+	/**
+	 * Gets the number of students who submitted a wishlist
+	 */
+	public synchronized int getSubmissionCount() {
+		return wishlists.size();
+	}
+
+	/**
+	 * Submits a student's wishlist, replacing any they submitted before
+	 * Courses listed more than once only count the first time
+	 * @param student submitting the wishlist
+	 * @param wishlist of courses in order of preference
+	 * @throws IllegalStateException if registration is closed
+	 */
+	public synchronized void submit(Student student, List<Course> wishlist) {
+
+		//checks that the wishlist has courses
+		if (student == null || wishlist == null || wishlist.isEmpty() || wishlist.stream().anyMatch(Objects::isNull)) {
+			throw new IllegalArgumentException("Wishlist needs a student and at least one course.");
+		}
+
+		//checks that registration is still open
+		if (!open) {
+			throw new IllegalStateException("Registration is closed.");
+		}
+
+		wishlists.put(student, new ArrayList<>(new LinkedHashSet<>(wishlist)));
+
+	}
+
+	/**
+	 * Submits every wishlist in a file, one "studentId; courseId, courseId, ..." line per student
+	 * Prints a message for each line that can't be submitted
+	 * @param fileName of the wishlist file
+	 * @param courses map of courses keyed by ID
+	 * @param students map of students keyed by ID
+	 * @return number of wishlists submitted
+	 * @throws IOException if an error occurs while reading the file
+	 */
+	public int submitFile(String fileName, Map<String, Course> courses, Map<String, Student> students) throws IOException {
+
+		int submitted = 0;
+		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+
+				//looks up the student and each course on their list
+				String[] fields = line.split(";");
+				Student student = fields.length == 2 ? students.get(fields[0].trim()) : null;
+				if (student == null) {
+					System.out.println("Invalid wishlist data: " + line);
+					continue;
+				}
+				List<Course> wishlist = new ArrayList<>();
+				for (String courseId : fields[1].split(",")) {
+					Course course = courses.get(courseId.trim());
+					if (course == null) {
+						System.out.println("Unknown course " + courseId.trim() + " in wishlist: " + line);
+					} else {
+						wishlist.add(course);
+					}
+				}
+				if (!wishlist.isEmpty()) {
+					submit(student, wishlist);
+					submitted++;
+				}
+			}
+		}
+		return submitted;
+
+	}
+
+	/**
+	 * Closes registration and hands out seats from the wishlists
+	 * Each round's enrollments are recorded in the journal in an order that replays to the same seats, and forced
+	 * to disk as soon as the round is seated, so a crash part way through loses at most the round being seated
+	 * Nothing else may change the courses or students while seats are handed out
+	 * @param journal to record enrollments in, or null
+	 * @return courses each student got, in the order they got them, for students in lottery order
+	 * @throws IOException if an error occurs while writing the journal
+	 */
+	public Map<Student, List<Course>> allocate(Journal journal) throws IOException {
+
+		//closes registration, so the wishlists stop changing
+		Map<Student, List<Course>> submitted;
+		synchronized (this) {
+			open = false;
+			submitted = new IdentityHashMap<>(wishlists);
+		}
+
+		//orders the students by priority, breaking ties by shuffling them in a fixed starting order
+		List<Student> students = new ArrayList<>(submitted.keySet());
+		students.sort(Comparator.comparing(Student::getId));
+		Collections.shuffle(students, new Random(seed));
+		Map<Student, Integer> priorities = new IdentityHashMap<>();
+		for (Student student : students) {
+			priorities.put(student, priority.applyAsInt(student));
+		}
+		students.sort((first, second) -> Integer.compare(priorities.get(second), priorities.get(first)));
+
+		//lays out each student's wishlist by their place in line
+		Draft draft = new Draft(students.size());
+		for (int rank = 0; rank < students.size(); rank++) {
+			draft.students[rank] = students.get(rank);
+			draft.wishlists[rank] = submitted.get(students.get(rank)).toArray(new Course[0]);
+		}
+
+		//holds rounds until nobody has anything left to ask for, gathering each student's courses in lottery order
+		Map<Student, List<Course>> allocation = new LinkedHashMap<>();
+		for (Student student : students) {
+			allocation.put(student, new ArrayList<>());
+		}
+		List<String> studentIds = new ArrayList<>();
+		List<String> courseIds = new ArrayList<>();
+		while (draft.nextRound(maxCourses)) {
+			seat(draft);
+
+			//records the seats handed out in the order they were taken, journaling the round before the next one starts
+			studentIds.clear();
+			courseIds.clear();
+			for (int k = 0; k < draft.requestCount; k++) {
+				if (draft.seated[k]) {
+					int rank = draft.requests[k];
+					Course course = draft.wishlists[rank][draft.next[rank] - 1];
+					allocation.get(draft.students[rank]).add(course);
+					studentIds.add(draft.students[rank].getId());
+					courseIds.add(course.getId());
+				}
+			}
+			if (journal != null && !studentIds.isEmpty()) {
+				journal.enrollAll(studentIds, courseIds);
+			}
+		}
+		return allocation;
+
+	}
+
+	/**
+	 * Seats the requests of a round, running different courses in parallel
+	 */
+	private void seat(Draft draft) {
+
+		//splits the round into tasks at course boundaries, each with at least MIN_TASK_REQUESTS requests
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		int taskStart = 0;
+		for (int group = 0; group < draft.groupCount; group++) {
+			int groupEnd = draft.groupEnds[group];
+			if (groupEnd - taskStart >= MIN_TASK_REQUESTS || group == draft.groupCount - 1) {
+				tasks.add(new Seating(draft, taskStart, groupEnd));
+				taskStart = groupEnd;
+			}
+		}
+
+		if (pool == null || tasks.size() == 1) {
+			tasks.forEach(ForkJoinTask::invoke);
+		} else {
+			pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+		}
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * State of the draft, with students indexed by their place in line
+	 */
+	private static class Draft {
+
+		final Student[] students;
+		final Course[][] wishlists;
+
+		/**
+		 * Index of the next course each student asks for, and the number of courses they have got
+		 */
+		final int[] next;
+		final int[] won;
+
+		/**
+		 * Requests of the current round, as places in line, sorted by course and then by place in line,
+		 * with the end of each course's requests, and whether each request got a seat
+		 */
+		int[] requests = new int[0];
+		int requestCount;
+		int[] groupEnds = new int[0];
+		int groupCount;
+		boolean[] seated = new boolean[0];
+
+		Draft(int size) {
+			students = new Student[size];
+			wishlists = new Course[size][];
+			next = new int[size];
+			won = new int[size];
+		}
+
+		/**
+		 * Gathers the next course every student still short of maxCourses asks for, sorted by course
+		 * @return true if anybody asked for a course, false if the draft is over
+		 */
+		boolean nextRound(int maxCourses) {
+
+			//finds each student's request, numbering the courses in order of first request
+			Map<Course, Integer> groups = new IdentityHashMap<>();
+			int[] groupOf = new int[students.length];
+			int count = 0;
+			for (int rank = 0; rank < students.length; rank++) {
+				if (won[rank] < maxCourses && next[rank] < wishlists[rank].length) {
+					Course course = wishlists[rank][next[rank]++];
+					groupOf[rank] = groups.computeIfAbsent(course, c -> groups.size());
+					count++;
+				} else {
+					groupOf[rank] = -1;
+				}
+			}
+
+			//sorts the requests by course, keeping each course's requests in line order
+			int[] groupStarts = new int[groups.size() + 1];
+			for (int rank = 0; rank < students.length; rank++) {
+				if (groupOf[rank] >= 0) {
+					groupStarts[groupOf[rank] + 1]++;
+				}
+			}
+			for (int group = 0; group < groups.size(); group++) {
+				groupStarts[group + 1] += groupStarts[group];
+			}
+			requests = new int[count];
+			seated = new boolean[count];
+			int[] groupNext = Arrays.copyOf(groupStarts, groups.size());
+			for (int rank = 0; rank < students.length; rank++) {
+				if (groupOf[rank] >= 0) {
+					requests[groupNext[groupOf[rank]]++] = rank;
+				}
+			}
+			requestCount = count;
+			groupEnds = Arrays.copyOfRange(groupStarts, 1, groupStarts.length);
+			groupCount = groups.size();
+			return count > 0;
+
+		}
+
+	}
+
+	/**
+	 * Seats a run of requests in order, covering whole courses of one round
+	 */
+	private static class Seating extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Draft draft;
+		private final int start;
+		private final int end;
+
+		Seating(Draft draft, int start, int end) {
+			this.draft = draft;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			for (int k = start; k < end; k++) {
+				int rank = draft.requests[k];
+				Course course = draft.wishlists[rank][draft.next[rank] - 1];
+
+				//only enrolls while there are seats, since nobody is put on a waitlist
+				if (course.getOpenSeats() > 0 && draft.students[rank].enroll(course) == EnrollResult.ENROLLED) {
+					draft.seated[k] = true;
+					draft.won[rank]++;
+				}
+			}
+		}
+
+	}
+
+}
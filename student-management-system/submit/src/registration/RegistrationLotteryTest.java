@@ -0,0 +1,140 @@
+package registration;
+
+import courses.Course;
+import files.Journal;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class RegistrationLotteryTest {
+
+	/**
+	 * Creates a student who has completed the given number of courses
+	 */
+	private static Student student(String id, int completed) {
+		Student student = new Student(id, "Student " + id, "student" + id, "pass");
+		for (int i = 0; i < completed; i++) {
+			student.addCompletedCourse("OLD" + i, "A");
+		}
+		return student;
+	}
+
+	@Test
+	void testPriority() throws IOException {
+
+		Course popular = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1);
+		Course clash = new Course("CIS102", "Data Structures", "John Doe", "MW", "11:00", "12:30", 10);
+		Course other = new Course("CIS103", "Algorithms", "John Doe", "TR", "10:00", "11:30", 10);
+		Student senior = student("001", 10);
+		Student junior = student("002", 5);
+		Student freshman = student("003", 0);
+		Student done = student("004", 0);
+		done.addCompletedCourse("CIS101", "B");
+
+		RegistrationLottery lottery = new RegistrationLottery(RegistrationLottery.COMPLETED_COURSES, 2, 7, null);
+		lottery.submit(freshman, List.of(popular, other));
+		lottery.submit(junior, List.of(popular, clash, other));
+		lottery.submit(senior, List.of(clash, popular, popular, other));
+		lottery.submit(done, List.of(popular, other));
+		File journalFile = Files.createTempFile("testLottery", ".dat").toFile();
+		Map<Student, List<Course>> allocation;
+		try (Journal journal = new Journal(journalFile.getPath(), 1, 0)) {
+			allocation = lottery.allocate(journal);
+			assertEquals(6, journal.getRecordCount());
+		} finally {
+			journalFile.delete();
+		}
+
+		//Test Case 1: First choices go first, by priority, so the freshman loses the popular course to the junior
+		assertEquals(List.of(popular, other), allocation.get(junior));
+		assertEquals(List.of(other), allocation.get(freshman));
+
+		//Test Case 2: A course that clashes with one already won, or that was completed, is skipped
+		assertEquals(List.of(clash, other), allocation.get(senior));
+		assertEquals(List.of(other), allocation.get(done));
+		assertEquals(1, popular.getEnrolledStudents().size());
+		assertTrue(popular.getWaitlist().isEmpty());
+
+		//Test Case 3: Registration is closed once seats are handed out
+		assertFalse(lottery.isOpen());
+		assertThrows(IllegalStateException.class, () -> lottery.submit(freshman, List.of(other)));
+
+	}
+
+	@Test
+	void testLotteryIsSeeded() throws IOException {
+
+		//Test Case 1: The same seed picks the same winners, whatever the number of threads
+		List<List<String>> runs = new ArrayList<>();
+		for (ForkJoinPool pool : new ForkJoinPool[] {null, new ForkJoinPool(8), null}) {
+			long seed = runs.size() < 2 ? 42 : 43;
+			List<Course> courses = new ArrayList<>();
+			for (int i = 0; i < 30; i++) {
+				courses.add(new Course("CIS" + (100 + i), "Course " + i, "John Doe", i % 2 == 0 ? "MW" : "TR",
+						(8 + i % 6) + ":00", (9 + i % 6) + ":30", 40));
+			}
+			Random random = new Random(1);
+			RegistrationLottery lottery = new RegistrationLottery(RegistrationLottery.NO_PRIORITY, 3, seed, pool);
+			for (int i = 0; i < 3000; i++) {
+				List<Course> wishlist = new ArrayList<>();
+				for (int j = 0; j < 6; j++) {
+					wishlist.add(courses.get(random.nextInt(courses.size())));
+				}
+				lottery.submit(student(String.format("%04d", i), 0), wishlist);
+			}
+			lottery.allocate(null);
+			List<String> rosters = new ArrayList<>();
+			for (Course course : courses) {
+				assertEquals(40, course.getEnrolledStudents().size());
+				rosters.add(course.getEnrolledStudents().toString());
+			}
+			runs.add(rosters);
+		}
+		assertEquals(runs.get(0), runs.get(1));
+
+		//Test Case 2: Another seed picks other winners
+		assertNotEquals(runs.get(0), runs.get(2));
+
+	}
+
+	@Test
+	void testSubmitFile() throws IOException {
+
+		Map<String, Course> courses = new HashMap<>();
+		Map<String, Student> students = new HashMap<>();
+		courses.put("CIS101", new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1));
+		courses.put("CIS102", new Course("CIS102", "Data Structures", "John Doe", "TR", "10:00", "11:30", 1));
+		students.put("001", student("001", 1));
+		students.put("002", student("002", 0));
+		File wishlistFile = Files.createTempFile("testWishlists", ".txt").toFile();
+		Files.writeString(wishlistFile.toPath(), "001; CIS101, CIS102\n\n002; CIS999, CIS101, CIS102\n003; CIS101\nbad line\n");
+
+		//Test Case 1: Lines naming known students are submitted, skipping unknown courses
+		RegistrationLottery lottery = new RegistrationLottery(RegistrationLottery.COMPLETED_COURSES, 5, 1, null);
+		try {
+			assertEquals(2, lottery.submitFile(wishlistFile.getPath(), courses, students));
+		} finally {
+			wishlistFile.delete();
+		}
+		assertEquals(2, lottery.getSubmissionCount());
+
+		//Test Case 2: The student with priority gets both one-seat courses
+		Map<Student, List<Course>> allocation = lottery.allocate(null);
+		assertEquals(2, allocation.get(students.get("001")).size());
+		assertTrue(allocation.get(students.get("002")).isEmpty());
+
+	}
+
+}
@@ -1,9 +1,12 @@
 package roles;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
 
+import courses.Catalog;
 import courses.Course;
+import messages.Messages;
 
 /**
  * Represents an Admin user in the Student Management System
@@ -29,7 +32,7 @@ public class Admin extends User {
 	}
 	
 	/**
-	 * Displays all available courses in the system
+	 * Displays all available courses in the system, sorted by course ID
 	 * @param courses map of all existing courses
 	 */
 	public void viewAllCourses(Map<String, Course> courses) {
@@ -40,100 +43,145 @@ public class Admin extends User {
 			return;
 		}
 		
-		//if not empty, goes through each course in the list and prints it
+		//if not empty, prints every course in one go
 		System.out.println("All available courses: ");
-		
-		//calls the toString method to print each course
-		for (Course course : courses.values()) {
-			System.out.println(course);
-		}	
+		Catalog.print(new Catalog(courses, courses.size()).page(null), System.out);
 		
 	}
 	
 	/**
-	 * Adds a new course to the system
-	 * @param courses map of existing courses
-	 * @param course to add
+	 * Displays the available courses in the system a page at a time, sorted by course ID
+	 * Asks before showing each page after the first
+	 * @param courses map of all existing courses
+	 * @param pageSize number of courses on a page
+	 * @param scanner for user input
 	 */
-	public void addCourse(Map<String, Course> courses, Map<String, Professor> professors, Course course, Scanner scanner) {
+	public void viewAllCourses(Map<String, Course> courses, int pageSize, Scanner scanner) {
 		
-		//checks if course map is null
-		if (courses == null || professors == null || course == null || scanner == null) {
-			throw new IllegalArgumentException("Courses map or course cannot be null.");
+		//checks if courses list is empty and prints a message
+		if (courses == null || courses.isEmpty()) {
+			System.out.println("No courses are currently available.");
+			return;
 		}
+		
+		//if not empty, shows the courses a page at a time
+		new Catalog(courses, pageSize).browse("All available courses: ", scanner);
+		
+	}
+	
+	/**
+	 * Prompts for the details of a lecturer who isn't in the system yet, without adding them
+	 * Keeps prompting until an ID no other professor has is entered
+	 * @param professors map of existing professors
+	 * @param scanner for prompting
+	 * @return professor with the details entered
+	 */
+	public Professor promptForProfessor(Map<String, Professor> professors, Scanner scanner) {
+		
+		String newProfId;
 
-         //extracts the lecturer's name from the course
-        String lecturerName = course.getLecturer();
-        String professorId = null;
-
-        //checks if the professor exists in the map by matching the name
-        for (Map.Entry<String, Professor> entry : professors.entrySet()) {
-            if (entry.getValue().getName().equalsIgnoreCase(lecturerName)) {
-                professorId = entry.getKey(); // Get the professor's ID
-                break;
-            }
-        }
-
-        //if the professor doesn't exist, prompt the admin to add them
-        if (professorId == null) {
-            String newProfId;
+		//keep prompting until a unique professor ID is entered
+		while (true) {
+			System.out.println("This professor isn't in the system. Please enter a unique ID: ");
+			newProfId = scanner.nextLine().trim();
 
-            //keep prompting until a unique professor ID is entered
-            while (true) {
-                System.out.println("This professor isn't in the system. Please enter a unique ID: ");
-                newProfId = scanner.nextLine().trim();
+			//check if ID already exists
+			if (professors.containsKey(newProfId)) {
+				System.out.println("Professor ID " + newProfId + " already exists.");
+			} else {
+				break;
+			}
+		}
 
-                //check if ID already exists
-                if (professors.containsKey(newProfId)) {
-                    System.out.println("Professor ID " + newProfId + " already exists.");
-                } else {
-                    break;
-                }
-            }
+		System.out.println("Professor's name: ");
+		String newProfName = scanner.nextLine().trim();
 
-            System.out.println("Professor's name: ");
-            String newProfName = scanner.nextLine().trim();
+		System.out.println("Professor's username: ");
+		String newProfUsername = scanner.nextLine().trim();
 
-            System.out.println("Professor's username: ");
-            String newProfUsername = scanner.nextLine().trim();
+		System.out.println("Professor's password: ");
+		String newProfPassword = scanner.nextLine().trim();
 
-            System.out.println("Professor's password: ");
-            String newProfPassword = scanner.nextLine().trim();
+		return new Professor(newProfId, newProfName, newProfUsername, newProfPassword);
+		
+	}
+	
+	/**
+	 * Adds a new course to the system and to its lecturer's teaching list
+	 * Looks the lecturer up by name and only checks the lecturer's own courses for time conflicts
+	 * @param courses map of existing courses
+	 * @param professors map of existing professors
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param course to add
+	 * @param scanner for prompting about a missing professor
+	 * @return true if course is added successfully, false if not
+	 */
+	public boolean addCourse(Map<String, Course> courses, Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, Course course, Scanner scanner) {
+		
+		//checks if any of the maps, the course, or the scanner is null
+		if (courses == null || professors == null || professorLogins == null || professorsByName == null || course == null || scanner == null) {
+			throw new IllegalArgumentException("Courses, professors, their indexes, course, or scanner cannot be null.");
+		}
 
-            //create a new Professor object and add professor to map
-            Professor newProfessor = new Professor(newProfId, newProfName, newProfUsername, newProfPassword);
-            professors.put(newProfId, newProfessor);
-            System.out.println("Successfully added new professor: " + newProfName);
+         //looks up the lecturer of the course by name
+        Professor lecturer = professorsByName.get(Professor.normalizeName(course.getLecturer()));
 
-            //sets the ID for the new professor
-            professorId = newProfId;
+        //if the professor doesn't exist, prompt the admin to add them, giving up on the course if they can't be added
+        if (lecturer == null) {
+            lecturer = promptForProfessor(professors, scanner);
+            if (!addProfessor(courses, professors, professorLogins, professorsByName, lecturer)) {
+                return false;
+            }
         }		
 		
+		return addCourse(courses, lecturer, course);
+		
+	}
+	
+	/**
+	 * Adds a new course to the system and to the teaching list of a lecturer already in the system, reporting the outcome
+	 * Only checks the lecturer's own courses for time conflicts
+	 * @param courses map of existing courses
+	 * @param lecturer teaching the course
+	 * @param course to add
+	 * @return true if course is added successfully, false if not
+	 */
+	public boolean addCourse(Map<String, Course> courses, Professor lecturer, Course course) {
+		return Messages.report(putCourse(courses, lecturer, course), course.getId()).isAccepted();
+	}
+	
+	/**
+	 * Adds a new course the same way addCourse does, leaving the outcome to the caller
+	 * @param courses map of existing courses
+	 * @param lecturer teaching the course
+	 * @param course to add
+	 * @return COURSE_ADDED, COURSE_EXISTS, or COURSE_TIME_CONFLICT
+	 */
+	public AdminResult putCourse(Map<String, Course> courses, Professor lecturer, Course course) {
+		
+		//checks if course map is null
+		if (courses == null || lecturer == null || course == null) {
+			throw new IllegalArgumentException("Courses map or course cannot be null.");
+		}
+		
 		//checks if course already exists in map
 		if (courses.containsKey(course.getId())) {
-            
-            //if course exists, prints an error message
-			System.out.println("Course ID " + course.getId() + " already exists.");
-			return;
+			return AdminResult.COURSE_EXISTS;
 		}
 		
 		//checks for time conflicts with the lecturer's existing courses
-		for (Course existingCourse : courses.values()) {
-			
-			//finds the lecturer and checks each course for time conflicts
-			if (existingCourse.getLecturer().equals(course.getLecturer())) {
-
-                //if time conflict exists, prints an error message
-				if (existingCourse.hasTimeConflict(course)) {
-					System.out.println("The new course has a time conflict with an existing course.");
-					return;
-				}
+		for (Course existingCourse : lecturer.getCoursesTaught()) {
+			if (existingCourse.hasTimeConflict(course)) {
+				return AdminResult.COURSE_TIME_CONFLICT;
 			}
 		}
 			
-		//if course doesn't exist, adds it to the map	
+		//if course doesn't exist, adds it to the map and the lecturer's teaching list
 		courses.put(course.getId(), course);
-		System.out.println("Course ID " + course.getId() + " added successfully.");				
+		lecturer.assignCourse(course);
+		return AdminResult.COURSE_ADDED;
 		
 	}
 	
@@ -141,22 +189,49 @@ public class Admin extends User {
 	 * Deletes a course from the system
 	 * @param courses map of existing courses
 	 * @param courseId to remove
+	 * @return true if course is deleted, false if not
 	 */
-	public void deleteCourse(Map<String, Course> courses, String courseId) {
+	public boolean deleteCourse(Map<String, Course> courses, String courseId) {
+		return deleteCourse(courses, new HashMap<>(), courseId);
+	}
+	
+	/**
+	 * Deletes a course from the system and from its lecturer's teaching list, reporting the outcome
+	 * @param courses map of existing courses
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param courseId to remove
+	 * @return true if course is deleted, false if not
+	 */
+	public boolean deleteCourse(Map<String, Course> courses, Map<String, Professor> professorsByName, String courseId) {
+		return Messages.report(removeCourse(courses, professorsByName, courseId), courseId).isAccepted();
+	}
+	
+	/**
+	 * Deletes a course the same way deleteCourse does, leaving the outcome to the caller
+	 * @param courses map of existing courses
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param courseId to remove
+	 * @return COURSE_DELETED or COURSE_NOT_FOUND
+	 */
+	public AdminResult removeCourse(Map<String, Course> courses, Map<String, Professor> professorsByName, String courseId) {
 		
 		//checks if course map or course ID is null
-		if (courses == null || courseId == null || courseId.trim().isEmpty()) {
+		if (courses == null || professorsByName == null || courseId == null || courseId.trim().isEmpty()) {
 			throw new IllegalArgumentException("Courses map or course ID cannot be null or empty.");
 		}
 		
 		//checks if course exists in the map and can be deleted
-		if (courses.remove(courseId) != null) {		
-			System.out.println("Course ID " + courseId + " has been deleted.");
+		Course course = courses.remove(courseId);
+		if (course == null) {
+			return AdminResult.COURSE_NOT_FOUND;
+		}
 		
-		//prints an error message if course doesn't exist
-		} else {
-			System.out.println("Course ID " + courseId + " is not found.");
+		//takes the course off the lecturer's teaching list
+		Professor lecturer = professorsByName.get(Professor.normalizeName(course.getLecturer()));
+		if (lecturer != null) {
+			lecturer.unassignCourse(course);
 		}
+		return AdminResult.COURSE_DELETED;
 			
 	}
 	
@@ -167,25 +242,70 @@ public class Admin extends User {
 	 * @return true if professor is added successfully, false if not
 	 */
 	public boolean addProfessor(Map<String, Professor> professors, Professor professor) {
+		return addProfessor(new HashMap<>(), professors, new HashMap<>(), new HashMap<>(), professor);
+	}
+	
+	/**
+	 * Adds a new professor to the system, indexes them by username and name,
+	 * and links any existing courses that already list them as lecturer, reporting the outcome
+	 * @param courses map of existing courses
+	 * @param professors map of existing professors
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param professor to add
+	 * @return true if professor is added successfully, false if not
+	 */
+	public boolean addProfessor(Map<String, Course> courses, Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, Professor professor) {
+		return Messages.report(putProfessor(courses, professors, professorLogins, professorsByName, professor),
+				professor.getId(), professor.getUsername(), professor.getName()).isAccepted();
+	}
+	
+	/**
+	 * Adds a new professor the same way addProfessor does, leaving the outcome to the caller
+	 * @param courses map of existing courses
+	 * @param professors map of existing professors
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param professor to add
+	 * @return PROFESSOR_ADDED, PROFESSOR_EXISTS, USERNAME_TAKEN, or PROFESSOR_NAME_TAKEN
+	 */
+	public AdminResult putProfessor(Map<String, Course> courses, Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, Professor professor) {
 		
 		//checks if professors map is null
-		if (professors == null || professor == null) {
+		if (courses == null || professors == null || professorLogins == null || professorsByName == null || professor == null) {
 			throw new IllegalArgumentException("Professors map or professor cannot be null.");
 		}
 		
 		//checks if professor is already on the list
 		if (professors.containsKey(professor.getId())) {
-			
-			//prints a message if professor already exists and return false
-			System.out.println("The professor already exists.");
-			return false;
-			
+			return AdminResult.PROFESSOR_EXISTS;
+		}
+		
+		//checks if another professor already logs in with the same username
+		if (professorLogins.containsKey(professor.getUsername())) {
+			return AdminResult.USERNAME_TAKEN;
+		}
+		
+		//checks if another professor already has the same name, since courses refer to lecturers by name
+		String name = Professor.normalizeName(professor.getName());
+		if (professorsByName.containsKey(name)) {
+			return AdminResult.PROFESSOR_NAME_TAKEN;
 		}
 		
 		//otherwise, successfully adds the professor to the map
 		professors.put(professor.getId(), professor);
-		System.out.println("Professor added successfully.");
-		return true;		
+		professorLogins.put(professor.getUsername(), professor);
+		professorsByName.put(name, professor);
+		
+		//picks up courses that were left without a known lecturer
+		for (Course course : courses.values()) {
+			if (Professor.normalizeName(course.getLecturer()).equals(name)) {
+				professor.assignCourse(course);
+			}
+		}
+		return AdminResult.PROFESSOR_ADDED;		
 		
 	}
 	
@@ -193,22 +313,49 @@ public class Admin extends User {
 	 * Deletes a professor from the system
 	 * @param professors map of existing professors
 	 * @param professorId to delete
+	 * @return true if professor is deleted, false if not
+	 */
+	public boolean deleteProfessor(Map<String, Professor> professors, String professorId) {
+		return deleteProfessor(professors, new HashMap<>(), new HashMap<>(), professorId);
+	}
+	
+	/**
+	 * Deletes a professor from the system along with their login and name lookup, reporting the outcome
+	 * @param professors map of existing professors
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param professorId to delete
+	 * @return true if professor is deleted, false if not
+	 */
+	public boolean deleteProfessor(Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, String professorId) {
+		return Messages.report(removeProfessor(professors, professorLogins, professorsByName, professorId), professorId).isAccepted();
+	}
+	
+	/**
+	 * Deletes a professor the same way deleteProfessor does, leaving the outcome to the caller
+	 * @param professors map of existing professors
+	 * @param professorLogins map of existing professors keyed by username
+	 * @param professorsByName map of existing professors keyed by normalized name
+	 * @param professorId to delete
+	 * @return PROFESSOR_DELETED or PROFESSOR_NOT_FOUND
 	 */
-	public void deleteProfessor(Map<String, Professor> professors, String professorId) {
+	public AdminResult removeProfessor(Map<String, Professor> professors, Map<String, Professor> professorLogins,
+			Map<String, Professor> professorsByName, String professorId) {
 		
 		//checks if professors map or professor ID is null
-		if (professors == null || professorId == null || professorId.trim().isEmpty()) {
+		if (professors == null || professorLogins == null || professorsByName == null || professorId == null || professorId.trim().isEmpty()) {
 			throw new IllegalArgumentException("Professors map or professor ID cannot be null or empty.");
 		}
 		
 		//checks if professor exists on the map and can be deleted
-		if (professors.remove(professorId) != null) {			
-			System.out.println("Professor deleted successfully.");
-			
-		//prints an error message if professor does not exist
-		} else {
-			System.out.println("No professor found.");
-		}	
+		Professor professor = professors.remove(professorId);
+		if (professor == null) {
+			return AdminResult.PROFESSOR_NOT_FOUND;
+		}
+		professorLogins.remove(professor.getUsername(), professor);
+		professorsByName.remove(Professor.normalizeName(professor.getName()), professor);
+		return AdminResult.PROFESSOR_DELETED;
 		
 	}	
 	
@@ -219,25 +366,48 @@ public class Admin extends User {
 	 * @return true if student is added successfully, false if not
 	 */
 	public boolean addStudent(Map<String, Student> students, Student student) {
+		return addStudent(students, new HashMap<>(), student);
+	}
+	
+	/**
+	 * Adds a new student to the system and indexes them by username, reporting the outcome
+	 * @param students map of existing students
+	 * @param studentLogins map of existing students keyed by username
+	 * @param student to add
+	 * @return true if student is added successfully, false if not
+	 */
+	public boolean addStudent(Map<String, Student> students, Map<String, Student> studentLogins, Student student) {
+		return Messages.report(putStudent(students, studentLogins, student), student.getId(), student.getUsername(), student.getName()).isAccepted();
+	}
+	
+	/**
+	 * Adds a new student the same way addStudent does, leaving the outcome to the caller
+	 * @param students map of existing students
+	 * @param studentLogins map of existing students keyed by username
+	 * @param student to add
+	 * @return STUDENT_ADDED, STUDENT_EXISTS, or USERNAME_TAKEN
+	 */
+	public AdminResult putStudent(Map<String, Student> students, Map<String, Student> studentLogins, Student student) {
 		
 		//checks if students map is null
-		if (students == null || student == null) {
+		if (students == null || studentLogins == null || student == null) {
 			throw new IllegalArgumentException("Students map or student cannot be null.");
 		}
 		
 		//checks if student is already on the list
 		if (students.containsKey(student.getId())) {
-			
-			//prints a message if student already exists and returns false
-			System.out.println("The student already exists.");
-			return false;
-			
+			return AdminResult.STUDENT_EXISTS;
+		}
+		
+		//checks if another student already logs in with the same username
+		if (studentLogins.containsKey(student.getUsername())) {
+			return AdminResult.USERNAME_TAKEN;
 		}
 		
 		//otherwise, successfully adds the student to the map
 		students.put(student.getId(), student);
-		System.out.println("Student added successfully.");
-		return true;	
+		studentLogins.put(student.getUsername(), student);
+		return AdminResult.STUDENT_ADDED;	
 		
 	}
 	
@@ -245,22 +415,44 @@ public class Admin extends User {
 	 * Deletes a student from the system
 	 * @param students map of existing students
 	 * @param studentId to delete
+	 * @return true if student is deleted, false if not
+	 */
+	public boolean deleteStudent(Map<String, Student> students, String studentId) {
+		return deleteStudent(students, new HashMap<>(), studentId);
+	}
+	
+	/**
+	 * Deletes a student from the system along with their login, reporting the outcome
+	 * @param students map of existing students
+	 * @param studentLogins map of existing students keyed by username
+	 * @param studentId to delete
+	 * @return true if student is deleted, false if not
 	 */
-	public void deleteStudent(Map<String, Student> students, String studentId) {
+	public boolean deleteStudent(Map<String, Student> students, Map<String, Student> studentLogins, String studentId) {
+		return Messages.report(removeStudent(students, studentLogins, studentId), studentId).isAccepted();
+	}
+	
+	/**
+	 * Deletes a student the same way deleteStudent does, leaving the outcome to the caller
+	 * @param students map of existing students
+	 * @param studentLogins map of existing students keyed by username
+	 * @param studentId to delete
+	 * @return STUDENT_DELETED or STUDENT_NOT_FOUND
+	 */
+	public AdminResult removeStudent(Map<String, Student> students, Map<String, Student> studentLogins, String studentId) {
 		
 		//checks if students map or student ID is null
-		if (students == null || studentId == null || studentId.trim().isEmpty()) {
+		if (students == null || studentLogins == null || studentId == null || studentId.trim().isEmpty()) {
 			throw new IllegalArgumentException("Students map or student ID cannot be null or empty.");
 		}
 		
 		//checks if student exists on the map and can be deleted
-		if (students.remove(studentId) != null) {			
-			System.out.println("Student deleted successfully.");
-			
-		//prints an error message if student does not exist
-		} else {
-			System.out.println("No student found.");
-		}		
+		Student student = students.remove(studentId);
+		if (student == null) {
+			return AdminResult.STUDENT_NOT_FOUND;
+		}
+		studentLogins.remove(student.getUsername(), student);
+		return AdminResult.STUDENT_DELETED;
 		
 	}
 	
@@ -0,0 +1,110 @@
+package roles;
+
+import messages.Outcome;
+
+/**
+ * Outcome of an admin adding or deleting a course, professor, or student
+ * Messages are filled in with the ID of the course, professor, or student, then their username, then their name
+ * @author Katie
+ */
+public enum AdminResult implements Outcome {
+
+	/**
+	 * The course was added
+	 */
+	COURSE_ADDED("Course ID %1$s added successfully."),
+
+	/**
+	 * Another course has the same ID
+	 */
+	COURSE_EXISTS("Course ID %1$s already exists."),
+
+	/**
+	 * The course meets at the same time as another course its lecturer teaches
+	 */
+	COURSE_TIME_CONFLICT("The new course has a time conflict with an existing course."),
+
+	/**
+	 * The course was deleted
+	 */
+	COURSE_DELETED("Course ID %1$s has been deleted."),
+
+	/**
+	 * No course has the ID
+	 */
+	COURSE_NOT_FOUND("Course ID %1$s is not found."),
+
+	/**
+	 * The professor was added
+	 */
+	PROFESSOR_ADDED("Professor added successfully."),
+
+	/**
+	 * Another professor has the same ID
+	 */
+	PROFESSOR_EXISTS("The professor already exists."),
+
+	/**
+	 * Another professor has the same name, which courses refer to their lecturer by
+	 */
+	PROFESSOR_NAME_TAKEN("A professor named %3$s already exists."),
+
+	/**
+	 * The professor was deleted
+	 */
+	PROFESSOR_DELETED("Professor deleted successfully."),
+
+	/**
+	 * No professor has the ID
+	 */
+	PROFESSOR_NOT_FOUND("No professor found."),
+
+	/**
+	 * The student was added
+	 */
+	STUDENT_ADDED("Student added successfully."),
+
+	/**
+	 * Another student has the same ID
+	 */
+	STUDENT_EXISTS("The student already exists."),
+
+	/**
+	 * The student was deleted
+	 */
+	STUDENT_DELETED("Student deleted successfully."),
+
+	/**
+	 * No student has the ID
+	 */
+	STUDENT_NOT_FOUND("No student found."),
+
+	/**
+	 * Another professor or student, the same kind as the one being added, logs in with the same username
+	 */
+	USERNAME_TAKEN("The username %2$s is already taken.");
+
+	/**
+	 * Message shown for the outcome
+	 */
+	private final String message;
+
+	AdminResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Checks if the request changed anything
+	 * @return true if something was added or deleted, false if not
+	 */
+	public boolean isAccepted() {
+		return this == COURSE_ADDED || this == COURSE_DELETED || this == PROFESSOR_ADDED || this == PROFESSOR_DELETED
+				|| this == STUDENT_ADDED || this == STUDENT_DELETED;
+	}
+
+}
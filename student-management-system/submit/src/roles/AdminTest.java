@@ -35,24 +35,85 @@ class AdminTest {
 	void testAddCourse() {
 		
 		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 30);
+		Professor lecturer = professors.get("John Doe");
+		Map<String, Professor> professorLogins = new HashMap<>();
+		professorLogins.put(lecturer.getUsername(), lecturer);
+		Map<String, Professor> professorsByName = new HashMap<>();
+		professorsByName.put(Professor.normalizeName(lecturer.getName()), lecturer);
 				
 		//Test Case 1: Successfully add a new course
-		admin.addCourse(courses, professors, course, new Scanner(System.in));
+		admin.addCourse(courses, professors, professorLogins, professorsByName, course, new Scanner(System.in));
 		assertEquals(1, courses.size());
 		assertTrue(courses.containsKey(course.getId()));
 		
 		//Test Case 2: Cannot add a duplicate course
-		admin.addCourse(courses, professors, course, new Scanner(System.in));
+		admin.addCourse(courses, professors, professorLogins, professorsByName, course, new Scanner(System.in));
 		assertEquals(1, courses.size());
 		
 		//Test Case 3: Cannot add a course with time conflict for lecturer
 		Course conflictingCourse = new Course("CIS102", "Data Structures", "John Doe", "MW", "11:00", "12:30", 50);
 		
-		admin.addCourse(courses, professors, conflictingCourse, new Scanner(System.in));
+		admin.addCourse(courses, professors, professorLogins, professorsByName, conflictingCourse, new Scanner(System.in));
 		assertEquals(1, courses.size());	
 		
 	}
 	
+	@Test
+	void testLecturerTeachingList() {
+		
+		Professor lecturer = professors.get("John Doe");
+		Map<String, Professor> professorsByName = new HashMap<>();
+		professorsByName.put(Professor.normalizeName(lecturer.getName()), lecturer);
+		Course course = new Course("CIS101", "Intro to CS", "john doe", "MW", "10:00", "11:30", 30);
+		
+		//Test Case 1: Adding a course puts it on the lecturer's teaching list, ignoring case
+		admin.addCourse(courses, professors, new HashMap<>(), professorsByName, course, new Scanner(System.in));
+		assertTrue(lecturer.getCoursesTaught().contains(course));
+		
+		//Test Case 2: Lecturer's own courses are checked for time conflicts
+		Course conflictingCourse = new Course("CIS102", "Data Structures", "John Doe", "MW", "11:00", "12:30", 50);
+		admin.addCourse(courses, professors, new HashMap<>(), professorsByName, conflictingCourse, new Scanner(System.in));
+		assertEquals(1, lecturer.getCoursesTaught().size());
+		
+		//Test Case 3: Deleting the course takes it off the teaching list
+		admin.deleteCourse(courses, professorsByName, course.getId());
+		assertTrue(lecturer.getCoursesTaught().isEmpty());
+		
+	}
+	
+	@Test
+	void testMissingLecturer() {
+		
+		Map<String, Professor> professorsByName = new HashMap<>();
+		Course course = new Course("CIS101", "Intro to CS", "Jane Smith", "MW", "10:00", "11:30", 30);
+		
+		//Test Case 1: Prompting for a missing lecturer re-asks for a taken ID and doesn't add them
+		Professor lecturer = admin.promptForProfessor(professors, new Scanner("John Doe\n002\nJane Smith\njanesmith\npass2\n"));
+		assertEquals("002", lecturer.getId());
+		assertEquals("janesmith", lecturer.getUsername());
+		assertEquals(1, professors.size());
+		
+		//Test Case 2: A course can be added for a lecturer entered that way
+		assertTrue(admin.addCourse(courses, lecturer, course));
+		assertTrue(lecturer.getCoursesTaught().contains(course));
+		assertFalse(admin.addCourse(courses, lecturer, course));
+		
+		//Test Case 3: Adding a course with an unknown lecturer prompts for and adds them, including to the login map
+		Map<String, Professor> professorLogins = new HashMap<>();
+		Course other = new Course("CIS102", "Data Structures", "Bob Ross", "TR", "10:00", "11:30", 30);
+		assertTrue(admin.addCourse(courses, professors, professorLogins, professorsByName, other, new Scanner("003\nBob Ross\nbobross\npass3\n")));
+		assertSame(professors.get("003"), professorLogins.get("bobross"));
+		assertTrue(professors.get("003").getCoursesTaught().contains(other));
+		assertNotNull(professorsByName.get(Professor.normalizeName("Bob Ross")));
+		
+		//Test Case 4: A lecturer entered with a username another professor has isn't added, and neither is the course
+		Course third = new Course("CIS103", "Algorithms", "Amy Poe", "F", "10:00", "11:30", 30);
+		assertFalse(admin.addCourse(courses, professors, professorLogins, professorsByName, third, new Scanner("004\nAmy Poe\nbobross\npass4\n")));
+		assertNull(professors.get("004"));
+		assertFalse(courses.containsKey("CIS103"));
+		
+	}
+	
 	@Test
 	void testDeleteCourse() {
 		
@@ -117,6 +178,26 @@ class AdminTest {
 		
 	}
 	
+	@Test
+	void testStudentLogins() {
+		
+		Map<String, Student> studentLogins = new HashMap<>();
+		Student student = new Student("001", "Bob Bobby", "bobby", "pass1");
+		
+		//Test Case 1: Adding a student indexes their username
+		assertTrue(admin.addStudent(students, studentLogins, student));
+		assertSame(student, studentLogins.get("bobby"));
+		
+		//Test Case 2: Cannot add another student with the same username
+		assertFalse(admin.addStudent(students, studentLogins, new Student("002", "Rob Robby", "bobby", "pass2")));
+		assertEquals(1, students.size());
+		
+		//Test Case 3: Deleting the student removes their login
+		admin.deleteStudent(students, studentLogins, student.getId());
+		assertTrue(studentLogins.isEmpty());
+		
+	}
+	
 	@Test
 	void testDeleteStudent() {
 		
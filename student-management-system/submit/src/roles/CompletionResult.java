@@ -0,0 +1,36 @@
+package roles;
+
+import messages.Outcome;
+
+/**
+ * Outcome of adding a completed course to a student's record
+ * Messages are filled in with the course's ID
+ * @author Katie
+ */
+public enum CompletionResult implements Outcome {
+
+	/**
+	 * The course and grade were added to the record
+	 */
+	COMPLETED(null),
+
+	/**
+	 * The course was already on the record, so its grade was left as it was
+	 */
+	ALREADY_COMPLETED("%s is already marked as completed.");
+
+	/**
+	 * Message shown for the outcome, or null if nothing is shown
+	 */
+	private final String message;
+
+	CompletionResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+}
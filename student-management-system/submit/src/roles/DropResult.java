@@ -0,0 +1,49 @@
+package roles;
+
+import messages.Outcome;
+
+/**
+ * Outcome of a student asking to drop a course
+ * Messages are filled in with the course's name
+ * @author Katie
+ */
+public enum DropResult implements Outcome {
+
+	/**
+	 * The student gave up their seat
+	 */
+	DROPPED("Course %s dropped successfully."),
+
+	/**
+	 * The student was still waiting for a seat, and left the waitlist
+	 */
+	LEFT_WAITLIST("You have left the waitlist for %s"),
+
+	/**
+	 * The student was neither enrolled in nor waiting for the course
+	 */
+	NOT_ENROLLED("You are not enrolled in %s");
+
+	/**
+	 * Message shown for the outcome
+	 */
+	private final String message;
+
+	DropResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Checks if the request changed anything, by freeing a seat or a place on the waitlist
+	 * @return true if dropped or left the waitlist, false if not
+	 */
+	public boolean isAccepted() {
+		return this != NOT_ENROLLED;
+	}
+
+}
@@ -0,0 +1,64 @@
+package roles;
+
+import messages.Outcome;
+
+/**
+ * Outcome of a student asking to enroll in a course
+ * Messages are filled in with the course's name
+ * @author Katie
+ */
+public enum EnrollResult implements Outcome {
+
+	/**
+	 * The student got a seat
+	 */
+	ENROLLED("Course %s added successfully."),
+
+	/**
+	 * The course was full, so the student joined its waitlist
+	 */
+	WAITLISTED("Course %s is full. You have been added to the waitlist."),
+
+	/**
+	 * The student was already enrolled in the course
+	 */
+	ALREADY_ENROLLED("You are already enrolled in %s"),
+
+	/**
+	 * The student already completed the course
+	 */
+	ALREADY_COMPLETED("You have already completed %s"),
+
+	/**
+	 * The course meets at the same time as one the student is enrolled in
+	 */
+	TIME_CONFLICT("Time conflict. Cannot enroll in %s"),
+
+	/**
+	 * The course and its waitlist were full, or the student was already waiting
+	 */
+	FULL("Course is full or unavailable.");
+
+	/**
+	 * Message shown for the outcome
+	 */
+	private final String message;
+
+	EnrollResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Checks if the request changed anything, by enrolling the student or putting them on the waitlist
+	 * @return true if enrolled or waitlisted, false if turned away
+	 */
+	public boolean isAccepted() {
+		return this == ENROLLED || this == WAITLISTED;
+	}
+
+}
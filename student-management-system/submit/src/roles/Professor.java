@@ -3,8 +3,10 @@ package roles;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import courses.Course;
+import messages.Messages;
 
 /**
  * Represents a Professor user in the Student Management System
@@ -49,44 +51,73 @@ public class Professor extends User {
 	}
 	
 	
+	//helper methods
+	
+	/**
+	 * Normalizes a professor or lecturer name so lookups ignore case and surrounding spaces
+	 * @param name to normalize
+	 * @return normalized name used as the key for name lookups
+	 */
+	public static String normalizeName(String name) {
+		return name.trim().toLowerCase();
+	}
+	
+	
 	//methods
 	
 	/**
-	 * Adds a course to the professor's teaching list
-	 * @param course to add
+	 * Records a course on the professor's teaching list without printing a message
+	 * @param course to record
+	 * @return true if the course was recorded, false if it was already on the list
 	 */
-	public void addCourse(Course course) {
+	public boolean assignCourse(Course course) {
 		
 		//checks if course is null
 		if (course == null) {
 			throw new IllegalArgumentException("Course cannot be null.");
 		}
 		
-		//if list doesn't contain given course, adds given course to teaching list
-		if (!coursesTaught.contains(course)) {
-			coursesTaught.add(course);
-			System.out.println("Course added to teaching list.");
-		
-		//otherwise, prints a message alerting user that the course is already on the list
-		} else {
-			System.out.println("You are already teaching this course.");
+		//only records the course once
+		if (coursesTaught.contains(course)) {
+			return false;
 		}
 		
+		coursesTaught.add(course);
+		return true;
+		
+	}
+	
+	/**
+	 * Removes a course from the professor's teaching list
+	 * @param course to remove
+	 * @return true if the course was removed, false if it was not on the list
+	 */
+	public boolean unassignCourse(Course course) {
+		return coursesTaught.remove(course);
+	}
+	
+	/**
+	 * Adds a course to the professor's teaching list, reporting whether it was already on it
+	 * @param course to add
+	 */
+	public void addCourse(Course course) {
+		Messages.report(assignCourse(course) ? TeachingResult.ASSIGNED : TeachingResult.ALREADY_TEACHING);
 	}
 	
 	/**
 	 * Displays all courses taught by the professor
+	 * @param courses map of existing courses
 	 */
 	public void viewGivenCourses(Map<String, Course> courses) {
 		
 		//initializes boolean variable indicating whether a course is found
 		boolean found = false;
 		
-		//iterates through each course in the map
-		for (Course course : courses.values()) {
+		//iterates through the professor's teaching list
+		for (Course course : coursesTaught) {
 			
-			//if a course is found with a matching lecturer ID, prints the course
-			if (course.getLecturer().equals(this.getName())) {
+			//prints the course if it is still offered
+			if (courses.get(course.getId()) == course) {
 				System.out.println(course);
 				found = true;
 			}
@@ -120,8 +151,8 @@ public class Professor extends User {
 			
 		}
 		
-		//initializes a list to store student info
-		List<String> enrolledStudents = course.getEnrolledStudents();
+		//gets the IDs of the enrolled students in enrollment order
+		Set<String> enrolledStudents = course.getEnrolledStudents();
 		
 		//otherwise, goes through the course's enrollment list and prints student IDs
 		System.out.println("Students enrolled in " + course.getName() + ":");		
@@ -0,0 +1,41 @@
+package roles;
+
+import messages.Outcome;
+
+/**
+ * Outcome of offering a waiting student a seat that opened up
+ * Messages are filled in with the student's ID and the course's name
+ * @author Katie
+ */
+public enum PromotionResult implements Outcome {
+
+	/**
+	 * The student took the seat
+	 */
+	PROMOTED("Student %s moved off the waitlist into %s"),
+
+	/**
+	 * The student had picked up a conflicting course while waiting, so was taken off the waitlist
+	 */
+	TIME_CONFLICT("Time conflict. Student %s was removed from the waitlist for %s"),
+
+	/**
+	 * The student had enrolled in or completed the course some other way while waiting
+	 */
+	NOT_NEEDED(null);
+
+	/**
+	 * Message shown for the outcome, or null if nothing is shown
+	 */
+	private final String message;
+
+	PromotionResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+}
@@ -1,24 +1,65 @@
 package roles;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import courses.Catalog;
 import courses.Course;
+import courses.CourseIndex;
+import courses.Enrollee;
+import courses.WeeklySchedule;
+import ids.IdDictionary;
+import ids.IntIntMap;
+import messages.Messages;
+import metrics.Metrics;
 
 /**
  * Represents a Student user in the Student Management System
  * Students can manage their enrolled courses and view grades
+ * Students can also wait for a seat in a full course and be enrolled once a seat opens up
  * @author Katie
  */
-public class Student extends User {
+public class Student extends User implements Enrollee {
+	
+	//constants
+	
+	//grade of a course the student is still taking
+	private static final String NOT_GRADED = "Not Graded";
+	
+	//shared by every student who isn't waiting for any course
+	private static final Course[] NO_COURSES = new Course[0];
+	
 	
 	//instance variables
 
-	//initializes map of student's enrolled courses and grades
-	private Map<Course, String> enrolledCourses;
+	//student's enrolled courses and grades, replaced as a whole whenever they change so they can be read without locking
+	private volatile Enrollments enrolledCourses = Enrollments.EMPTY;
+	
+	//student's completed courses and grades, as handles of the course IDs and grades
+	private final IntIntMap completedCourses = new IntIntMap();
 	
-	//initializes map of student's completed courses and grades
-	private Map<String, String> completedCourses;
+	//time slots taken up by the student's enrolled courses
+	private WeeklySchedule schedule;
+	
+	//courses whose waitlists the student is on, replaced as a whole whenever it changes so it can be read without locking
+	private volatile Course[] waitlistedCourses = NO_COURSES;
+	
+	//told when the student stops being idle, or null
+	private volatile Consumer<Student> activeListener;
+	
+	//outcomes of seats offered to the student off waitlists, kept until the student next sees their menu, or null
+	private List<Map.Entry<PromotionResult, Course>> notices;
 	
 	
 	//constructor
@@ -35,9 +76,7 @@ public class Student extends User {
 		//calls the superclass constructor
 		super(id, name, username, password);
 
-        //initializes hashmaps for enrolled and completed courses
-		enrolledCourses = new HashMap<>();
-		completedCourses = new HashMap<>();
+		schedule = new WeeklySchedule();
 		
 	}
 	
@@ -46,59 +85,149 @@ public class Student extends User {
 	
 	/**
 	 * Gets enrolled courses
+	 * The map is read-only, since courses must be added and dropped through addCourse and dropCourse
 	 */
 	public Map<Course, String> getEnrolledCourses() {
-		return enrolledCourses;
+		return Collections.unmodifiableMap(enrolledCourses.asMap());
 	}
 
 	/**
 	 * Sets enrolled courses
 	 */
 	public void setEnrolledCourses(Map<Course, String> enrolledCourses) {
-		this.enrolledCourses = enrolledCourses;
+		
+		Enrollments enrollments = Enrollments.EMPTY;
+		for (Map.Entry<Course, String> entry : enrolledCourses.entrySet()) {
+			enrollments = enrollments.with(entry.getKey(), entry.getValue());
+		}
+		synchronized (this) {
+			this.enrolledCourses = enrollments;
+			rebuildSchedule();
+		}
+		if (enrollments.size() > 0) {
+			notifyActive();
+		}
+		
+	}
+
+	/**
+	 * Gets the courses whose waitlists the student is on, in the order they joined them
+	 * The list is a copy, since waitlists must be joined and left through enroll and drop
+	 */
+	public List<Course> getWaitlistedCourses() {
+		return List.of(waitlistedCourses);
 	}
 
 	/**
-	 * Gets completed courses
+	 * Gets completed courses keyed by course ID
+	 * The map is a view of the student's record, so changes to it change the record
 	 */
 	public Map<String, String> getCompletedCourses() {
-		return completedCourses;
+		return new CompletedCourses();
 	}
 
 	/**
 	 * Sets completed courses
 	 */
 	public void setCompletedCourses(Map<String, String> completedCourses) {
-		this.completedCourses = completedCourses;
+		this.completedCourses.clear();
+		getCompletedCourses().putAll(completedCourses);
+	}
+	
+	/**
+	 * Checks if the student is not enrolled in or waiting for any course,
+	 * so their info file line still holds everything about them
+	 * @return true if idle, false if not
+	 */
+	public synchronized boolean isIdle() {
+		return enrolledCourses.size() == 0 && waitlistedCourses.length == 0;
+	}
+	
+	/**
+	 * Sets what is told when the student enrolls in or starts waiting for a course, so that a store that lets go of
+	 * idle students can hold on to them again
+	 * The listener is called without the student's lock held, and must be set before checking isIdle so a change
+	 * made in between is never missed
+	 * @param listener to tell, or null for none
+	 */
+	public void setActiveListener(Consumer<Student> listener) {
+		activeListener = listener;
 	}
 
 	
 	
+	//helper methods
+	
+	/**
+	 * Checks if a course has a time conflict with any enrolled course
+	 * @param course to check
+	 * @return true if time conflict exists, false if not
+	 */
+	private boolean hasTimeConflict(Course course) {
+		
+		//rules out most courses using the weekly schedule
+		if (!schedule.overlaps(course)) {
+			return false;
+		}
+		
+		//otherwise, confirms against each enrolled course since slots are only 5 minutes precise
+		for (Course enrolledCourse : enrolledCourses.courses) {
+			if (enrolledCourse.hasTimeConflict(course)) {
+				return true;
+			}
+		}
+		
+		return false;
+		
+	}
+	
+	/**
+	 * Rebuilds the weekly schedule from the enrolled courses
+	 */
+	private void rebuildSchedule() {
+		
+		schedule.clear();
+		for (Course enrolledCourse : enrolledCourses.courses) {
+			schedule.add(enrolledCourse);
+		}
+		
+	}
+	
+	
 	//methods
 	
 	/**
-	 * Adds a completed course with the corresponding grade to the student's record
+	 * Adds a completed course with the corresponding grade to the student's record, reporting the outcome
+	 * @param courseId of the completed course
+	 * @param grade achieved in the completed course
+	 * @return true if the course was added, false if it was already completed
+	 */
+	public boolean addCompletedCourse(String courseId, String grade) {
+		return Messages.report(completeCourse(courseId, grade), courseId) == CompletionResult.COMPLETED;
+	}
+	
+	/**
+	 * Adds a completed course the same way addCompletedCourse does, leaving the outcome to the caller
 	 * @param courseId of the completed course
 	 * @param grade achieved in the completed course
+	 * @return COMPLETED, or ALREADY_COMPLETED if the course was already on the record
 	 */
-	public void addCompletedCourse(String courseId, String grade) {
+	public CompletionResult completeCourse(String courseId, String grade) {
 		
 		//check if course is already in completed courses
-		if (completedCourses.containsKey(courseId)) {
-
-            //if already completed, prints a message
-			System.out.println(courseId + " is already marked as completed.");
-			return;
-
+		int course = IdDictionary.COURSES.handle(courseId);
+		if (completedCourses.containsKey(course)) {
+			return CompletionResult.ALREADY_COMPLETED;
 		}
 		
-		//otherwise, adds the course and grade to the completed courses map
-		completedCourses.put(courseId, grade);
+		//otherwise, adds the course and grade to the completed courses
+		completedCourses.put(course, IdDictionary.GRADES.handle(grade));
+		return CompletionResult.COMPLETED;
 		
 	}			
 	
 	/**
-	 * Displays all available courses in the system
+	 * Displays all available courses in the system, sorted by course ID
 	 * @param courses map of all courses
 	 */
 	public void viewAllCourses(Map<String, Course> courses) {
@@ -109,80 +238,322 @@ public class Student extends User {
 			return;
 		}
 		
-		//otherwise, goes through all available courses and prints them
+		//otherwise, prints every course in one go
 		System.out.println("Available Courses:");
+		Catalog.print(new Catalog(courses, courses.size()).page(null), System.out);
 		
-		//calls the toString method to print each course
+	}
+	
+	/**
+	 * Displays the available courses in the system a page at a time, sorted by course ID
+	 * Asks before showing each page after the first
+	 * @param courses map of all courses
+	 * @param pageSize number of courses on a page
+	 * @param scanner for user input
+	 */
+	public void viewAllCourses(Map<String, Course> courses, int pageSize, Scanner scanner) {
+		
+		//prints a message if there are no available courses for the student
+		if (courses == null || courses.isEmpty()) {
+			System.out.println("No courses are currently available.");
+			return;
+		}
+		
+		//otherwise, shows the courses a page at a time
+		new Catalog(courses, pageSize).browse("Available Courses:", scanner);
+		
+	}
+	
+	/**
+	 * Displays the courses whose ID starts with a query or whose name has its words, best matches first
+	 * @param courses index of all courses
+	 * @param query start of a course ID, or words from a course name
+	 * @param limit most courses to show
+	 */
+	public void searchCourses(CourseIndex courses, String query, int limit) {
+		
+		//prints a message if nothing was searched for
+		if (courses == null || query == null || query.trim().isEmpty()) {
+			System.out.println("Please enter part of a course ID or name to search for.");
+			return;
+		}
+		
+		//prints a message if no courses match
+		List<Course> found = courses.search(query, limit);
+		if (found.isEmpty()) {
+			System.out.println("No courses match '" + query.trim() + "'.");
+			return;
+		}
+		
+		//otherwise, prints the matching courses in one go
+		System.out.println("Courses matching '" + query.trim() + "':");
+		Catalog.print(found, System.out);
+		
+	}
+	
+	/**
+	 * Finds every course the student could join right now: ones with open seats, not held at the same time as an
+	 * enrolled course, and not already enrolled in or completed
+	 * Each course is checked against the weekly schedule using its precomputed slot mask, so a full catalog takes one
+	 * pass of a few ANDs per course, and only courses touching an occupied slot are compared against each enrolled course
+	 * @param courses map of courses keyed by ID
+	 * @return courses that fit, in the order the map gives them
+	 */
+	public synchronized List<Course> findCoursesThatFit(Map<String, Course> courses) {
+		
+		List<Course> fitting = new ArrayList<>();
 		for (Course course : courses.values()) {
-			System.out.println(course);
-		}	
+			
+			//skips full courses, then ones held during the student's other courses, then ones already taken
+			if (course.getOpenSeats() > 0 && !hasTimeConflict(course)
+					&& !enrolledCourses.contains(course) && !completedCourses.containsKey(course.getHandle())) {
+				fitting.add(course);
+			}
+		}
+		
+		return fitting;
+		
+	}
+	
+	/**
+	 * Prints every course with open seats that fits the student's schedule
+	 * @param courses map of courses keyed by ID
+	 */
+	public void viewCoursesThatFit(Map<String, Course> courses) {
+		
+		//prints a message if no courses fit
+		List<Course> fitting = findCoursesThatFit(courses);
+		if (fitting.isEmpty()) {
+			System.out.println("No courses with open seats fit your schedule.");
+			return;
+		}
+		
+		//otherwise, prints the courses that fit in ID order in one go
+		fitting.sort(Comparator.comparing(Course::getId));
+		System.out.println("Courses with open seats that fit your schedule:");
+		Catalog.print(fitting, System.out);
 		
 	}
 	
 	
 	/**
-	 * Enrolls the student in a course
+	 * Enrolls the student in a course, reporting the outcome
+	 * If the course is full, the student joins its waitlist and is enrolled once a seat opens up
 	 * @param course to add
 	 * @return true if successfully added, false if not
 	 */
 	public boolean addCourse(Course course) {
 		
+		//checks if course is null and throws exception if yes
+		if (course == null) {
+			throw new IllegalArgumentException("Course cannot be null.");
+		}
+		
+		//reports the outcome, which is shown on the console unless another sink is set
+		return Messages.report(enroll(course), course.getName()) == EnrollResult.ENROLLED;
+		
+	}
+	
+	/**
+	 * Enrolls the student in a course the same way addCourse does, leaving the outcome to the caller
+	 * The course still reports why it turned the student away before they try its waitlist
+	 * If the course is full, the student joins its waitlist and is enrolled once a seat opens up
+	 * @param course to add
+	 * @return outcome of the request
+	 */
+	public EnrollResult enroll(Course course) {
+		
 		//checks if course is null and throws exception if yes
 		if (course == null) {
 			throw new IllegalArgumentException("Course cannot be null.");
 		}		
 		
-		//checks if student is already enrolled in the course
-		if (enrolledCourses.containsKey(course)) {
+		//counts the outcome for monitoring
+		EnrollResult result = tryEnroll(course);
+		Metrics.ENROLLMENT.record(result);
+		if (result == EnrollResult.ENROLLED || result == EnrollResult.WAITLISTED) {
+			notifyActive();
+		}
+		return result;
+		
+	}
+	
+	/**
+	 * Enrolls the student in a course, or puts them on its waitlist
+	 * @param course to add
+	 * @return outcome of the request
+	 */
+	private EnrollResult tryEnroll(Course course) {
+		
+		synchronized (this) {
 			
-			//if student is already enrolled, prints a message alerting the user
-			System.out.println("You are already enrolled in " + course.getName());
-			return false;
+			//checks if student is already enrolled in the course
+			if (enrolledCourses.contains(course)) {
+				return EnrollResult.ALREADY_ENROLLED;
+			}
+			
+			//checks if student has already completed the course, and does not let them re-enroll
+			if (completedCourses.containsKey(course.getHandle())) {
+				return EnrollResult.ALREADY_COMPLETED;
+			}
+			
+			//checks for time conflicts with already enrolled courses
+			if (hasTimeConflict(course)) {
+				return EnrollResult.TIME_CONFLICT;
+			}
+			
+			//checks if course is available, and if so adds it for the student
+			if (course.addStudent(getId())) {
+				enrolledCourses = enrolledCourses.with(course, NOT_GRADED);
+				schedule.add(course);
+				return EnrollResult.ENROLLED;
+			}
 			
 		}
 		
-		//checks if student has already completed the course
-		if (completedCourses.containsKey(course.getId())) {
+		//if full, joins the waitlist outside the lock, since joining can move other students off the waitlist
+		if (joinWaitlist(course)) {
 			
-			//if student has already completed the course, does not let them re-enroll
-			System.out.println("You have already completed " + course.getName());
-			return false;
+			//a seat may have opened up while joining
+			return enrolledCourses.contains(course) ? EnrollResult.ENROLLED : EnrollResult.WAITLISTED;
 			
 		}
 		
-		//checks for time conflicts with already enrolled courses
-		for (Course enrolledCourse : enrolledCourses.keySet()) {
-					
-			//if time conflict exists, does not allow student to add course
-			if (enrolledCourse.hasTimeConflict(course)) {
-				System.out.println("Time conflict. Cannot enroll in " + course.getName());
-				return false;
+		//the waitlist is full too
+		return EnrollResult.FULL;
+		
+	}
+	
+	/**
+	 * Puts the student on a course's waitlist, keeping track of the waitlists they are on
+	 * Must not be called while holding the student's lock, since joining can move other students off the waitlist
+	 * @param course to wait for
+	 * @return true if the student joined the waitlist, false if not
+	 */
+	public boolean joinWaitlist(Course course) {
+		
+		//adds the course first, since the student can be moved off its waitlist before joinWaitlist returns
+		synchronized (this) {
+			Course[] waiting = Arrays.copyOf(waitlistedCourses, waitlistedCourses.length + 1);
+			waiting[waiting.length - 1] = course;
+			waitlistedCourses = waiting;
+		}
+		if (course.joinWaitlist(this)) {
+			notifyActive();
+			return true;
+		}
+		synchronized (this) {
+			leftWaitlist(course);
+		}
+		return false;
+		
+	}
+	
+	/**
+	 * Takes a seat that opened up in a course the student was waiting for
+	 * Re-checks that the student can still take the course, since their schedule may have changed while waiting
+	 * The seat is offered on the thread of whoever freed it, so the outcome is kept for the student's own menu
+	 * instead of being reported to that thread
+	 * @param course with the reserved seat
+	 * @return true if the student was enrolled, false if not
+	 */
+	@Override
+	public boolean acceptSeat(Course course) {
+		
+		PromotionResult result = takeSeat(course);
+		if (result.getMessage() != null) {
+			synchronized (this) {
+				if (notices == null) {
+					notices = new ArrayList<>(1);
 				}
+				notices.add(Map.entry(result, course));
+			}
 		}
+		return result == PromotionResult.PROMOTED;
 		
-		//checks if course is available
-		if (course.addStudent(getId())) {
-			
-			//if available, successfully adds the course for the student
-			enrolledCourses.put(course, "Not Graded");
-			System.out.println("Course " + course.getName() + " added successfully.");
-			return true;
-			
-		//if full or unavailable, prints a message to alert the student
-		} else {
-			System.out.println("Course is full or unavailable.");
-			return false;
-		}		
+	}
+	
+	/**
+	 * Reports the outcomes of seats offered to the student since their menu was last shown
+	 */
+	private void reportNotices() {
+		
+		List<Map.Entry<PromotionResult, Course>> taken;
+		synchronized (this) {
+			taken = notices;
+			notices = null;
+		}
+		if (taken != null) {
+			for (Map.Entry<PromotionResult, Course> notice : taken) {
+				Messages.report(notice.getKey(), getId(), notice.getValue().getName());
+			}
+		}
 		
 	}
 	
+	/**
+	 * Takes a seat that opened up the same way acceptSeat does, leaving the outcome to the caller
+	 * @param course with the reserved seat
+	 * @return outcome of the offer
+	 */
+	private synchronized PromotionResult takeSeat(Course course) {
+		
+		//the course took the student off its waitlist to offer the seat
+		leftWaitlist(course);
+		
+		//checks if the student enrolled or completed the course some other way while waiting
+		if (enrolledCourses.contains(course) || completedCourses.containsKey(course.getHandle())) {
+			return PromotionResult.NOT_NEEDED;
+		}
+		
+		//checks if the student picked up a conflicting course while waiting
+		if (hasTimeConflict(course)) {
+			return PromotionResult.TIME_CONFLICT;
+		}
+		
+		//otherwise, enrolls the student in the course
+		enrolledCourses = enrolledCourses.with(course, NOT_GRADED);
+		schedule.add(course);
+		return PromotionResult.PROMOTED;
+		
+	}
+	
+	/**
+	 * Takes a course off the waitlists the student is on, once, while holding the student's lock
+	 */
+	private void leftWaitlist(Course course) {
+		
+		Course[] waiting = waitlistedCourses;
+		for (int i = 0; i < waiting.length; i++) {
+			if (waiting[i] == course) {
+				Course[] left = waiting.length == 1 ? NO_COURSES : new Course[waiting.length - 1];
+				System.arraycopy(waiting, 0, left, 0, i);
+				System.arraycopy(waiting, i + 1, left, i, waiting.length - i - 1);
+				waitlistedCourses = left;
+				return;
+			}
+		}
+		
+	}
+	
+	/**
+	 * Tells the listener, if there is one, that the student is enrolled in or waiting for a course
+	 * Must not be called while holding the student's lock, since the listener may check isIdle under a lock of its own
+	 */
+	private void notifyActive() {
+		Consumer<Student> listener = activeListener;
+		if (listener != null) {
+			listener.accept(this);
+		}
+	}
+	
 	/**
 	 * Displays all courses that student is currently enrolled in
 	 */
 	public void viewEnrolledCourses() {
 		
 		//checks if list of enrolled courses is empty
-		if (enrolledCourses.isEmpty()) {
+		if (enrolledCourses.size() == 0) {
 
             //if list is empty, prints a message
 			System.out.println("You are not enrolled in any courses.");
@@ -194,14 +565,14 @@ public class Student extends User {
 		System.out.println("The courses in your list:");
 		
 		//calls the toString method to print each course
-		for (Course course : enrolledCourses.keySet()) {
+		for (Course course : enrolledCourses.courses) {
 			System.out.println(course);
 		}		
 		
 	}
 	
 	/**
-	 * Drops the student from a course
+	 * Drops the student from a course, or takes them off its waitlist if they are still waiting, reporting the outcome
 	 * @param course to drop
 	 * @return true if course is successfully dropped, false if not
 	 */
@@ -212,20 +583,50 @@ public class Student extends User {
 			throw new IllegalArgumentException("Course cannot be null.");
 		}
 		
-		//checks if student is enrolled in the course
-		if (!enrolledCourses.containsKey(course)) {
+		return Messages.report(drop(course), course.getName()).isAccepted();
+		
+	}
+	
+	/**
+	 * Drops the student from a course the same way dropCourse does, leaving the outcome to the caller
+	 * @param course to drop
+	 * @return outcome of the request
+	 */
+	public DropResult drop(Course course) {
+		
+		//checks if course is null
+		if (course == null) {
+			throw new IllegalArgumentException("Course cannot be null.");
+		}
+		
+		synchronized (this) {
 			
-			//if not enrolled, prints a message and returns false
-			System.out.println("You are not enrolled in " + course.getName());
-			return false;
+			//checks if student is enrolled in the course
+			if (!enrolledCourses.contains(course)) {
+				
+				//if still waiting for a seat, leaves the waitlist
+				if (course.leaveWaitlist(getId())) {
+					leftWaitlist(course);
+					Metrics.ENROLLMENT.recordWaitlistLeft();
+					return DropResult.LEFT_WAITLIST;
+				}
+				
+				//if not enrolled, the course can't be dropped
+				Metrics.ENROLLMENT.recordDropNotEnrolled();
+				return DropResult.NOT_ENROLLED;
+				
+			}
+			
+			//if enrolled, successfully drops the course and frees its time slots
+			enrolledCourses = enrolledCourses.without(course);
+			rebuildSchedule();
 			
 		}
 		
-		//if enrolled, successfully drops the course
-		enrolledCourses.remove(course);
+		//frees the seat outside the lock, since it can move another student off the waitlist
 		course.removeStudent(getId());
-		System.out.println("Course " + course.getName() + " dropped successfully.");
-		return true;	
+		Metrics.ENROLLMENT.recordDropped();
+		return DropResult.DROPPED;
 		
 	}
 	
@@ -242,27 +643,288 @@ public class Student extends User {
 		
 		//otherwise, goes through each course in completedCourses and prints the course and grade
 		System.out.println("Here are the courses you've already taken with your grade in letter format:");
-		for (Map.Entry<String, String> entry : completedCourses.entrySet()) {
+		for (Map.Entry<String, String> entry : getCompletedCourses().entrySet()) {
 			System.out.println("Course ID: " + entry.getKey() + ", Grade: " + entry.getValue());
 		}		
 		
 	}
 	
 	/**
-	 * Displays the student-specific menu
+	 * Displays the student-specific menu, after any seats the student was offered off waitlists since it was last shown
 	 */
 	@Override
 	public void displayMenu() {		
 		
+		reportNotices();
 		System.out.println();
 		System.out.println("1 -- View all courses");
 		System.out.println("2 -- Add courses to your list");
 		System.out.println("3 -- View enrolled courses");
 		System.out.println("4 -- Drop courses in your list");
 		System.out.println("5 -- View grades");
-		System.out.println("6 -- Return to previous menu");
+		System.out.println("6 -- Search courses");
+		System.out.println("7 -- Find open courses that fit your schedule");
+		System.out.println("8 -- Return to previous menu");
 		
 	}
 	
 	
+	//nested classes
+	
+	/**
+	 * Courses a student is enrolled in with their grades, never changed once created
+	 * A handful of courses in two small arrays take far less memory than a concurrent map, and are checked just as fast
+	 */
+	private static final class Enrollments {
+		
+		//enrollments of a student who isn't enrolled in anything
+		static final Enrollments EMPTY = new Enrollments(new Course[0], new String[0]);
+		
+		//enrolled courses, and the grade in each, kept as it is rather than as a handle since the grades given
+		//to courses still being taken are never kept in IdDictionary.GRADES
+		final Course[] courses;
+		final String[] grades;
+		
+		Enrollments(Course[] courses, String[] grades) {
+			this.courses = courses;
+			this.grades = grades;
+		}
+		
+		/**
+		 * Gets the number of enrolled courses
+		 */
+		int size() {
+			return courses.length;
+		}
+		
+		/**
+		 * Finds where a course is in the arrays
+		 * @return index of the course, or -1 if not enrolled
+		 */
+		int indexOf(Object course) {
+			for (int i = 0; i < courses.length; i++) {
+				if (courses[i] == course) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		/**
+		 * Checks if a course is enrolled
+		 */
+		boolean contains(Course course) {
+			return indexOf(course) >= 0;
+		}
+		
+		/**
+		 * Gets the enrollments with a course added, or its grade replaced if it is already enrolled
+		 */
+		Enrollments with(Course course, String grade) {
+			
+			int index = indexOf(course);
+			Course[] newCourses = index < 0 ? Arrays.copyOf(courses, courses.length + 1) : courses;
+			String[] newGrades = Arrays.copyOf(grades, newCourses.length);
+			if (index < 0) {
+				index = courses.length;
+				newCourses[index] = course;
+			}
+			newGrades[index] = grade;
+			return new Enrollments(newCourses, newGrades);
+			
+		}
+		
+		/**
+		 * Gets the enrollments with a course removed
+		 */
+		Enrollments without(Course course) {
+			
+			int index = indexOf(course);
+			if (index < 0) {
+				return this;
+			}
+			if (courses.length == 1) {
+				return EMPTY;
+			}
+			
+			//moves the last course into the removed course's place
+			Course[] newCourses = Arrays.copyOf(courses, courses.length - 1);
+			String[] newGrades = Arrays.copyOf(grades, grades.length - 1);
+			if (index < newCourses.length) {
+				newCourses[index] = courses[courses.length - 1];
+				newGrades[index] = grades[grades.length - 1];
+			}
+			return new Enrollments(newCourses, newGrades);
+			
+		}
+		
+		/**
+		 * Gets the enrollments as a map from course to grade
+		 */
+		Map<Course, String> asMap() {
+			
+			return new AbstractMap<Course, String>() {
+				
+				@Override
+				public int size() {
+					return courses.length;
+				}
+				
+				@Override
+				public boolean containsKey(Object course) {
+					return indexOf(course) >= 0;
+				}
+				
+				@Override
+				public String get(Object course) {
+					int index = indexOf(course);
+					return index < 0 ? null : grades[index];
+				}
+				
+				@Override
+				public Set<Map.Entry<Course, String>> entrySet() {
+					
+					return new AbstractSet<Map.Entry<Course, String>>() {
+						
+						@Override
+						public int size() {
+							return courses.length;
+						}
+						
+						@Override
+						public Iterator<Map.Entry<Course, String>> iterator() {
+							
+							return new Iterator<Map.Entry<Course, String>>() {
+								
+								private int next;
+								
+								@Override
+								public boolean hasNext() {
+									return next < courses.length;
+								}
+								
+								@Override
+								public Map.Entry<Course, String> next() {
+									if (!hasNext()) {
+										throw new NoSuchElementException();
+									}
+									int index = next++;
+									return new AbstractMap.SimpleImmutableEntry<>(courses[index], grades[index]);
+								}
+								
+							};
+							
+						}
+						
+					};
+					
+				}
+				
+			};
+			
+		}
+		
+	}
+	
+	/**
+	 * Completed courses keyed by course ID, read from and written to the student's handles
+	 */
+	private final class CompletedCourses extends AbstractMap<String, String> {
+		
+		@Override
+		public int size() {
+			return completedCourses.size();
+		}
+		
+		@Override
+		public boolean containsKey(Object courseId) {
+			return courseId instanceof String && completedCourses.containsKey(IdDictionary.COURSES.find((String) courseId));
+		}
+		
+		@Override
+		public String get(Object courseId) {
+			
+			if (!(courseId instanceof String)) {
+				return null;
+			}
+			int grade = completedCourses.get(IdDictionary.COURSES.find((String) courseId));
+			return grade == IntIntMap.NONE ? null : IdDictionary.GRADES.id(grade);
+			
+		}
+		
+		@Override
+		public String put(String courseId, String grade) {
+			int previous = completedCourses.put(IdDictionary.COURSES.handle(courseId), IdDictionary.GRADES.handle(grade));
+			return previous == IntIntMap.NONE ? null : IdDictionary.GRADES.id(previous);
+		}
+		
+		@Override
+		public String remove(Object courseId) {
+			
+			if (!(courseId instanceof String)) {
+				return null;
+			}
+			int previous = completedCourses.remove(IdDictionary.COURSES.find((String) courseId));
+			return previous == IntIntMap.NONE ? null : IdDictionary.GRADES.id(previous);
+			
+		}
+		
+		@Override
+		public void clear() {
+			completedCourses.clear();
+		}
+		
+		@Override
+		public Set<Map.Entry<String, String>> entrySet() {
+			
+			return new AbstractSet<Map.Entry<String, String>>() {
+				
+				@Override
+				public int size() {
+					return completedCourses.size();
+				}
+				
+				@Override
+				public Iterator<Map.Entry<String, String>> iterator() {
+					
+					//goes through the courses completed when the iterator was created
+					int[] courses = completedCourses.keys();
+					
+					return new Iterator<Map.Entry<String, String>>() {
+						
+						private int next;
+						
+						@Override
+						public boolean hasNext() {
+							return next < courses.length;
+						}
+						
+						@Override
+						public Map.Entry<String, String> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int course = courses[next++];
+							return new AbstractMap.SimpleImmutableEntry<>(IdDictionary.COURSES.id(course),
+									IdDictionary.GRADES.id(completedCourses.get(course)));
+						}
+						
+						@Override
+						public void remove() {
+							if (next == 0) {
+								throw new IllegalStateException();
+							}
+							completedCourses.remove(courses[next - 1]);
+						}
+						
+					};
+					
+				}
+				
+			};
+			
+		}
+		
+	}
+	
 }
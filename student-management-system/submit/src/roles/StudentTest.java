@@ -2,10 +2,25 @@ package roles;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import courses.Course;
+import ids.IdDictionary;
+import messages.MessageSink;
+import messages.Messages;
 
 class StudentTest {
 	
@@ -32,9 +47,40 @@ class StudentTest {
 		assertEquals("A", student.getCompletedCourses().get("CIS101"));
 		
 		//Test Case 2: Cannot add the same completed course again
-		student.addCompletedCourse("CIS101", "A");
+		assertFalse(student.addCompletedCourse("CIS101", "A"));
 		assertEquals(1, student.getCompletedCourses().size());		
 		
+		//Test Case 3: The repeat is reported through the message sink rather than printed, and keeps the first grade
+		List<String> reported = new ArrayList<>();
+		MessageSink previous = Messages.setSink((outcome, details) -> reported.add(outcome.render(details)));
+		try {
+			assertFalse(student.addCompletedCourse("CIS101", "B"));
+			assertTrue(student.addCompletedCourse("CIS102", "B"));
+		} finally {
+			Messages.setSink(previous);
+		}
+		assertEquals(List.of("CIS101 is already marked as completed."), reported);
+		assertEquals("A", student.getCompletedCourses().get("CIS101"));
+		assertEquals(CompletionResult.ALREADY_COMPLETED, student.completeCourse("CIS102", "C"));
+		
+	}
+	
+	@Test
+	void testCourseHandles() {
+		
+		//Test Case 1: Creating a course and enrolling in it don't give its ID a handle
+		Course course = new Course("CIS590", "Interning", "John Doe", "F", "09:00", "10:00", 30);
+		assertTrue(student.addCourse(course));
+		assertEquals(IdDictionary.NONE, IdDictionary.COURSES.find("CIS590"));
+		assertEquals(IdDictionary.NONE, course.getHandle());
+		
+		//Test Case 2: Completing the course gives its ID a handle, which the course then finds
+		Student other = new Student("002", "Bob Bobby", "bobby", "pass1");
+		other.addCompletedCourse("CIS590", "B");
+		assertNotEquals(IdDictionary.NONE, IdDictionary.COURSES.find("CIS590"));
+		assertEquals(IdDictionary.COURSES.find("CIS590"), course.getHandle());
+		assertFalse(other.addCourse(course));
+		
 	}
 	
 	@Test
@@ -56,6 +102,30 @@ class StudentTest {
 		
 	}
 	
+	@Test
+	void testEnrollResults() {
+		
+		Course smallCourse = new Course("CIS110", "Intro to Programming", "Jane Smith", "F", "09:00", "10:30", 1);
+		smallCourse.setWaitlistCapacity(1);
+		Student second = new Student("002", "Bob Bobby", "bobby", "pass1");
+		Student third = new Student("003", "Jane Doe", "janedoe", "pass2");
+		
+		//Test Case 1: Each outcome is told apart
+		assertEquals(EnrollResult.ENROLLED, student.enroll(course1));
+		assertEquals(EnrollResult.ALREADY_ENROLLED, student.enroll(course1));
+		student.addCompletedCourse("CIS102", "A");
+		assertEquals(EnrollResult.ALREADY_COMPLETED, student.enroll(course2));
+		assertEquals(EnrollResult.TIME_CONFLICT, student.enroll(new Course("CIS103", "Operating Systems", "Bob Bobby", "MW", "11:00", "12:30", 50)));
+		
+		//Test Case 2: A full course puts students on the waitlist until it fills up too
+		assertEquals(EnrollResult.ENROLLED, student.enroll(smallCourse));
+		assertEquals(EnrollResult.WAITLISTED, second.enroll(smallCourse));
+		assertEquals(EnrollResult.FULL, third.enroll(smallCourse));
+		assertTrue(EnrollResult.WAITLISTED.isAccepted());
+		assertFalse(EnrollResult.FULL.isAccepted());
+		
+	}
+	
 	@Test
 	void testDropCourse() {
 		
@@ -68,5 +138,159 @@ class StudentTest {
 		assertFalse(student.dropCourse(course2));		
 		
 	}
+	
+	@Test
+	void testFindCoursesThatFit() {
+		
+		Course clash = new Course("CIS103", "Operating Systems", "Bob Bobby", "W", "11:00", "12:30", 50);
+		Course backToBack = new Course("CIS104", "Algorithms", "James Bond", "MW", "11:30", "13:00", 50);
+		Course full = new Course("CIS105", "Web Design", "John Doe", "F", "09:00", "10:00", 1);
+		Course completed = new Course("CIS106", "Networks", "Jane Smith", "F", "13:00", "14:00", 50);
+		Map<String, Course> courses = new HashMap<>();
+		for (Course course : List.of(course1, course2, clash, backToBack, full, completed)) {
+			courses.put(course.getId(), course);
+		}
+		
+		//Test Case 1: With nothing enrolled or completed, every course with open seats fits
+		full.enroll("002");
+		assertEquals(Set.of(course1, course2, clash, backToBack, completed), new HashSet<>(student.findCoursesThatFit(courses)));
+		
+		//Test Case 2: Enrolled and completed courses, and courses held at the same time, are left out
+		student.addCourse(course1);
+		student.addCompletedCourse("CIS106", "A");
+		assertEquals(Set.of(course2, backToBack), new HashSet<>(student.findCoursesThatFit(courses)));
+		
+		//Test Case 3: Dropping a course frees its times, and a course moved to other times is checked at them
+		student.dropCourse(course1);
+		backToBack.setStartTime("08:00");
+		backToBack.setEndTime("09:30");
+		student.addCourse(clash);
+		assertEquals(Set.of(course2, backToBack), new HashSet<>(student.findCoursesThatFit(courses)));
+		
+	}
+	
+	@Test
+	void testWaitlist() {
+		
+		Course smallCourse = new Course("CIS110", "Intro to Programming", "Jane Smith", "TR", "09:00", "10:30", 1);
+		Student second = new Student("002", "Bob Bobby", "bobby", "pass1");
+		Student third = new Student("003", "Jane Doe", "janedoe", "pass2");
+		assertTrue(student.addCourse(smallCourse));
+		
+		//Test Case 1: Students join the waitlist in order when the course is full
+		assertFalse(second.addCourse(smallCourse));
+		assertFalse(third.addCourse(smallCourse));
+		assertEquals(Arrays.asList("002", "003"), smallCourse.getWaitlist());
+		assertEquals(List.of(smallCourse), second.getWaitlistedCourses());
+		
+		//Test Case 2: Dropping the course moves the head of the waitlist into the seat
+		assertTrue(student.dropCourse(smallCourse));
+		assertTrue(second.getEnrolledCourses().containsKey(smallCourse));
+		assertTrue(smallCourse.getEnrolledStudents().contains("002"));
+		assertEquals(Arrays.asList("003"), smallCourse.getWaitlist());
+		assertTrue(second.getWaitlistedCourses().isEmpty());
+		
+		//Test Case 3: A waiting student who picked up a conflicting course is skipped
+		Student fourth = new Student("004", "Tom Smith", "tomsmith", "pass3");
+		assertFalse(fourth.addCourse(smallCourse));
+		assertTrue(third.addCourse(new Course("CIS111", "Discrete Math", "John Doe", "TR", "10:00", "11:00", 10)));
+		assertTrue(second.dropCourse(smallCourse));
+		assertFalse(third.getEnrolledCourses().containsKey(smallCourse));
+		assertTrue(fourth.getEnrolledCourses().containsKey(smallCourse));
+		assertTrue(smallCourse.getWaitlist().isEmpty());
+		assertTrue(third.getWaitlistedCourses().isEmpty());
+		assertTrue(fourth.getWaitlistedCourses().isEmpty());
+		
+		//Test Case 4: Raising the capacity fills the new seats from the waitlist
+		assertFalse(student.addCourse(smallCourse));
+		assertFalse(second.addCourse(smallCourse));
+		smallCourse.setCapacity(3);
+		assertEquals(3, smallCourse.getEnrolledStudents().size());
+		assertTrue(student.getEnrolledCourses().containsKey(smallCourse));
+		assertTrue(second.getEnrolledCourses().containsKey(smallCourse));
+		
+		//Test Case 5: Students can't join a full waitlist, and can leave one they joined
+		smallCourse.setWaitlistCapacity(1);
+		assertFalse(third.dropCourse(smallCourse));
+		Student fifth = new Student("005", "Ann Lee", "annlee", "pass4");
+		assertFalse(fifth.addCourse(smallCourse));
+		assertFalse(new Student("006", "Sam Lee", "samlee", "pass5").addCourse(smallCourse));
+		assertEquals(Arrays.asList("005"), smallCourse.getWaitlist());
+		assertEquals(List.of(smallCourse), fifth.getWaitlistedCourses());
+		assertTrue(fifth.dropCourse(smallCourse));
+		assertTrue(smallCourse.getWaitlist().isEmpty());
+		assertTrue(fifth.getWaitlistedCourses().isEmpty());
+		assertTrue(fifth.isIdle());
+		
+	}
+	
+	@Test
+	void testPromotionNotice() {
+		
+		Course smallCourse = new Course("CIS110", "Intro to Programming", "Jane Smith", "TR", "09:00", "10:30", 1);
+		Student second = new Student("002", "Bob Bobby", "bobby", "pass1");
+		assertTrue(student.addCourse(smallCourse));
+		assertFalse(second.addCourse(smallCourse));
+		
+		List<String> reported = new ArrayList<>();
+		MessageSink previous = Messages.setSink((outcome, details) -> reported.add(outcome.render(details)));
+		try {
+			
+			//Test Case 1: The student dropping the course isn't told who got the seat
+			assertTrue(student.dropCourse(smallCourse));
+			assertFalse(reported.stream().anyMatch(message -> message.contains("002")));
+			
+			//Test Case 2: The promoted student is told when their menu is next shown, once
+			reported.clear();
+			second.displayMenu();
+			assertEquals(List.of("Student 002 moved off the waitlist into Intro to Programming"), reported);
+			reported.clear();
+			second.displayMenu();
+			assertTrue(reported.isEmpty());
+			
+		} finally {
+			Messages.setSink(previous);
+		}
+		
+	}
+	
+	@Test
+	void testConcurrentAddCourse() throws InterruptedException {
+		
+		Course hotCourse = new Course("CIS120", "Programming Languages", "Jane Smith", "MW", "13:00", "14:30", 50);
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Student> applicants = new ArrayList<>();
+		
+		//many students try to enroll in the same course at once, some dropping and retrying
+		for (int i = 0; i < 2000; i++) {
+			Student applicant = new Student("S" + i, "Student " + i, "student" + i, "password");
+			applicants.add(applicant);
+			boolean retries = i % 4 == 0;
+			executor.execute(() -> {
+				try {
+					start.await();
+					if (applicant.addCourse(hotCourse) && retries) {
+						applicant.dropCourse(hotCourse);
+						applicant.addCourse(hotCourse);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		
+		//Test Case 1: Capacity is never exceeded
+		assertTrue(hotCourse.getEnrolledStudents().size() <= hotCourse.getCapacity());
+		
+		//Test Case 2: Every seat is filled and the roster agrees with the students, including those promoted from the waitlist
+		long enrolled = applicants.stream().filter(applicant -> applicant.getEnrolledCourses().containsKey(hotCourse)).count();
+		assertEquals(hotCourse.getCapacity(), hotCourse.getEnrolledStudents().size());
+		assertEquals(enrolled, hotCourse.getEnrolledStudents().size());
+		
+	}
 
 }
@@ -0,0 +1,35 @@
+package roles;
+
+import messages.Outcome;
+
+/**
+ * Outcome of adding a course to a professor's teaching list
+ * @author Katie
+ */
+public enum TeachingResult implements Outcome {
+
+	/**
+	 * The course was added to the list
+	 */
+	ASSIGNED("Course added to teaching list."),
+
+	/**
+	 * The course was already on the list
+	 */
+	ALREADY_TEACHING("You are already teaching this course.");
+
+	/**
+	 * Message shown for the outcome
+	 */
+	private final String message;
+
+	TeachingResult(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+}
@@ -1,5 +1,7 @@
 package roles;
 
+import metrics.Metrics;
+
 /**
  * Abstract superclass for all user roles in the Student Management System
  * Contains shared properties and methods for the Admin, Professor, and Student roles
@@ -144,6 +146,22 @@ public abstract class User {
 	 */
 	public boolean authenticate(String username, String password) {
 		
+		//times the check and counts its outcome for monitoring
+		long start = System.nanoTime();
+		boolean authenticated = checkLogin(username, password);
+		Metrics.LOGINS.record(authenticated, System.nanoTime() - start);
+		return authenticated;
+		
+	}
+	
+	/**
+	 * Checks if the username and password match the user's login
+	 * @param username to validate
+	 * @param password to validate
+	 * @return true if username and password match, false if not
+	 */
+	private boolean checkLogin(String username, String password) {
+		
 		//checks if username or password is null
 		if (username == null || password == null) {
 			return false;
@@ -0,0 +1,879 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import courses.Course;
+import courses.CourseFilter;
+import courses.CourseIndex;
+import files.Journal;
+import messages.MessageSink;
+import messages.Messages;
+import metrics.Metrics;
+import roles.Admin;
+import roles.AdminResult;
+import roles.DropResult;
+import roles.EnrollResult;
+import roles.Professor;
+import roles.Student;
+import roles.User;
+
+/**
+ * Serves the student, professor, and admin actions as a JSON API over HTTP, so many users can use the system at once
+ * Users log in with POST /api/login and send the token they get back as "Authorization: Bearer token" afterwards
+ * A token stops working once it goes unused for longer than the session idle time, 30 minutes unless set otherwise
+ * <pre>
+ * POST   /api/login                         {"role": "student", "username": "...", "password": "..."}
+ * POST   /api/logout
+ * GET    /api/courses                       catalog of every course
+ * GET    /api/courses?q=...&limit=...       courses whose ID starts with q or whose name has its words, best first
+ * GET    /api/courses?days=TR&openSeats=1  courses meeting a filter of days, onlyOn, from, to, lecturer, and openSeats,
+ *                                           with an optional limit, most open seats first
+ * GET    /api/student/courses               courses the student is enrolled in or waiting for
+ * POST   /api/student/courses               {"courseId": "..."} enrolls, or joins the waitlist if full
+ * DELETE /api/student/courses/{id}          drops a course or leaves its waitlist
+ * GET    /api/student/grades                completed courses and grades
+ * GET    /api/professor/courses             courses the professor teaches
+ * GET    /api/professor/courses/{id}/roster students enrolled in one of their courses
+ * POST   /api/admin/courses                 {"id", "name", "lecturer", "days", "startTime", "endTime", "capacity"}
+ * DELETE /api/admin/courses/{id}
+ * POST   /api/admin/professors              {"id", "name", "username", "password"}
+ * DELETE /api/admin/professors/{id}
+ * POST   /api/admin/students                {"id", "name", "username", "password"}
+ * DELETE /api/admin/students/{id}
+ * </pre>
+ * Requests call the same Student, Professor, and Admin methods as the console, on the same maps, and record
+ * changes in the same journal
+ * Admin changes hold the write half of the shared lock, and everything else holds the read half, so a course or
+ * student can't be deleted halfway through a request that uses it
+ * Enrolling and dropping go through the journal, which keeps each course's and each student's records in the order
+ * they happened so they replay to the same seats and waitlists, without making other courses wait
+ * Requests run on virtual threads when the JDK has them, otherwise on a fixed pool of threads
+ * Passwords and tokens are sent in plain text, so the server only listens on localhost unless given another host
+ * @author Katie
+ */
+public class ApiServer implements Closeable {
+
+	//constants
+
+	/**
+	 * Number of pending connections the server queues before turning new ones away
+	 */
+	private static final int BACKLOG = 1024;
+
+	/**
+	 * Largest request body read, in bytes
+	 */
+	private static final int MAX_BODY = 1 << 16;
+
+	/**
+	 * Most courses a search or filter returns
+	 */
+	private static final int MAX_SEARCH_LIMIT = 100;
+
+	/**
+	 * Query string parameters a course filter is built from
+	 */
+	private static final List<String> FILTER_PARAMS = List.of("days", "onlyOn", "from", "to", "lecturer", "openSeats");
+
+	/**
+	 * Time a session may go unused before it is logged out, unless set otherwise
+	 */
+	public static final long DEFAULT_SESSION_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+	/**
+	 * Shortest time between looking through every session for ones left unused
+	 */
+	private static final long SWEEP_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+
+	//instance variables
+
+	/**
+	 * Shared data, and the lock guarding it
+	 */
+	private final CourseIndex courses;
+	private final Map<String, Admin> admins;
+	private final Map<String, Professor> professors;
+	private final Map<String, Professor> professorLogins;
+	private final Map<String, Professor> professorsByName;
+	private final Map<String, Student> students;
+	private final Map<String, Student> studentLogins;
+	private final Journal journal;
+	private final ReadWriteLock lock;
+
+	/**
+	 * Logged in users keyed by token
+	 */
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+	private final SecureRandom random = new SecureRandom();
+
+	/**
+	 * Time a session may go unused before it is logged out, and when sessions are next looked through for that
+	 */
+	private volatile long sessionIdleMillis = DEFAULT_SESSION_IDLE_MILLIS;
+	private volatile long nextSweep;
+
+	/**
+	 * HTTP server and the threads requests run on
+	 */
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+
+	//constructor
+
+	/**
+	 * Creates a server on a port, without starting it
+	 * The maps must be safe to read from many threads, like ConcurrentHashMap
+	 * @param host name or address to listen on, or null for localhost only
+	 * @param port to listen on, or 0 for any free port
+	 * @param threads number of threads requests run on, if the JDK has no virtual threads
+	 * @param courses index of courses keyed by ID
+	 * @param admins map of admins keyed by username
+	 * @param professors map of professors keyed by ID
+	 * @param professorLogins map of professors keyed by username
+	 * @param professorsByName map of professors keyed by normalized name
+	 * @param students map of students keyed by ID
+	 * @param studentLogins map of students keyed by username
+	 * @param journal to record changes in
+	 * @param lock shared with the console, written to by admin changes
+	 * @throws IOException if the port can't be opened
+	 */
+	public ApiServer(String host, int port, int threads, CourseIndex courses, Map<String, Admin> admins, Map<String, Professor> professors,
+			Map<String, Professor> professorLogins, Map<String, Professor> professorsByName, Map<String, Student> students,
+			Map<String, Student> studentLogins, Journal journal, ReadWriteLock lock) throws IOException {
+
+		this.courses = courses;
+		this.admins = admins;
+		this.professors = professors;
+		this.professorLogins = professorLogins;
+		this.professorsByName = professorsByName;
+		this.students = students;
+		this.studentLogins = studentLogins;
+		this.journal = journal;
+		this.lock = lock;
+
+		InetSocketAddress address = host == null ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+				: new InetSocketAddress(host, port);
+		server = HttpServer.create(address, BACKLOG);
+		executor = newExecutor(threads);
+		server.setExecutor(executor);
+		server.createContext("/api/", this::handle);
+
+	}
+
+
+	//methods
+
+	/**
+	 * Starts serving requests in the background
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Sets the time a session may go unused before it is logged out
+	 * @param millis idle time, more than 0
+	 */
+	public void setSessionIdleMillis(long millis) {
+
+		//checks for an invalid time
+		if (millis <= 0) {
+			throw new IllegalArgumentException("Session idle time must be more than 0.");
+		}
+
+		sessionIdleMillis = millis;
+
+	}
+
+	/**
+	 * Gets the port the server listens on
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops serving requests, giving requests already running a moment to finish
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdown();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Creates a virtual thread per request when the JDK has virtual threads, otherwise a fixed pool of threads
+	 */
+	private static ExecutorService newExecutor(int threads) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(threads);
+		}
+	}
+
+	/**
+	 * Handles a request, sending back the result or an error as JSON
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+
+		//outcomes go back in the response, so the messages the domain classes report are dropped
+		//rather than printed on the server's console
+		Messages.setThreadSink(MessageSink.DISCARD);
+		int status;
+		String body;
+		try {
+			String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+			Json json = new Json();
+			status = route(exchange.getRequestMethod(), path, exchange, json);
+			body = json.toString();
+		} catch (ApiException e) {
+			status = e.status;
+			body = new Json().beginObject().field("error", e.getMessage()).endObject().toString();
+		} catch (RuntimeException e) {
+
+			//the details stay in the server's log, since they can show how the data is kept
+			System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+					+ ": " + e);
+			e.printStackTrace();
+			status = 500;
+			body = new Json().beginObject().field("error", "Internal error.").endObject().toString();
+		} finally {
+			Messages.setThreadSink(null);
+		}
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+
+	}
+
+	/**
+	 * Sends a request to the action for its method and path
+	 * @return HTTP status of the response
+	 */
+	private int route(String method, String[] path, HttpExchange exchange, Json json) throws ApiException, IOException {
+
+		String route = method + " " + path[0] + (path.length > 1 ? "/" + path[1] : "");
+		switch (route) {
+
+			case "POST login":
+				return login(readBody(exchange), json);
+
+			case "POST logout":
+				sessions.remove(token(exchange));
+				json.beginObject().field("loggedOut", true).endObject();
+				return 200;
+
+			case "GET courses":
+				user(exchange, User.class);
+				if (exchange.getRequestURI().getRawQuery() != null) {
+					return findCourses(exchange.getRequestURI().getRawQuery(), json);
+				}
+				return catalog(json);
+
+			case "GET student/courses":
+				return enrolledCourses(user(exchange, Student.class), json);
+
+			case "POST student/courses":
+				return enroll(user(exchange, Student.class), required(readBody(exchange), "courseId"), json);
+
+			case "DELETE student/courses":
+				return drop(user(exchange, Student.class), pathId(path, 3), json);
+
+			case "GET student/grades":
+				return grades(user(exchange, Student.class), json);
+
+			case "GET professor/courses":
+				if (path.length == 4 && path[3].equals("roster")) {
+					return roster(user(exchange, Professor.class), path[2], json);
+				}
+				return coursesTaught(user(exchange, Professor.class), json);
+
+			case "POST admin/courses":
+			case "POST admin/professors":
+			case "POST admin/students":
+				return adminAdd(user(exchange, Admin.class), path[1], readBody(exchange), json);
+
+			case "DELETE admin/courses":
+			case "DELETE admin/professors":
+			case "DELETE admin/students":
+				return adminDelete(user(exchange, Admin.class), path[1], pathId(path, 3), json);
+
+			default:
+				throw new ApiException(404, "No action for " + method + " " + exchange.getRequestURI().getPath());
+
+		}
+
+	}
+
+	/**
+	 * Logs a user in, checking their username and password the same way the console does
+	 */
+	private int login(Map<String, String> body, Json json) throws ApiException {
+
+		String role = required(body, "role");
+		String username = required(body, "username").trim();
+		String password = required(body, "password").trim();
+
+		//looks up the user by username for their role
+		long start = System.nanoTime();
+		User user;
+		switch (role) {
+			case "student":
+				user = studentLogins.get(username);
+				break;
+			case "professor":
+				user = professorLogins.get(username);
+				break;
+			case "admin":
+				user = admins.get(username);
+				break;
+			default:
+				throw new ApiException(400, "Role must be student, professor, or admin.");
+		}
+
+		//an unknown username counts as a failed login, the same as a wrong password
+		if (user == null) {
+			Metrics.LOGINS.record(false, System.nanoTime() - start);
+		}
+		if (user == null || !user.authenticate(username, password)) {
+			throw new ApiException(401, "Invalid " + role + " credentials.");
+		}
+
+		//hands out a random token for the session
+		byte[] bytes = new byte[16];
+		random.nextBytes(bytes);
+		StringBuilder token = new StringBuilder(32);
+		for (byte b : bytes) {
+			token.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		sessions.put(token.toString(), new Session(user));
+		sweepSessions();
+
+		json.beginObject().field("token", token.toString()).field("role", role).field("id", user.getId())
+				.field("name", user.getName()).endObject();
+		return 200;
+
+	}
+
+	/**
+	 * Lists every course
+	 */
+	private int catalog(Json json) {
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			json.beginArray();
+			for (Course course : courses.values()) {
+				writeCourse(course, json);
+			}
+			json.endArray();
+		} finally {
+			read.unlock();
+		}
+		return 200;
+
+	}
+
+	/**
+	 * Lists the courses matching a search, best first, or meeting a filter, most open seats first
+	 * The query string holds the search as q, or the filter's conditions as days, onlyOn, from, to, lecturer,
+	 * and openSeats, and optionally the most courses to list as limit
+	 */
+	private int findCourses(String rawQuery, Json json) throws ApiException {
+
+		//reads the parameters from the query string
+		Map<String, String> params = new HashMap<>();
+		for (String param : rawQuery.split("&")) {
+			int equals = param.indexOf('=');
+			if (equals > 0) {
+				params.put(URLDecoder.decode(param.substring(0, equals), StandardCharsets.UTF_8),
+						URLDecoder.decode(param.substring(equals + 1), StandardCharsets.UTF_8));
+			}
+		}
+		int limit = CourseIndex.DEFAULT_LIMIT;
+		if (params.containsKey("limit")) {
+			try {
+				limit = Integer.parseInt(params.get("limit"));
+			} catch (NumberFormatException e) {
+				limit = 0;
+			}
+			if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+				throw new ApiException(400, "Limit must be a number from 1 to " + MAX_SEARCH_LIMIT + ".");
+			}
+		}
+
+		//builds the filter from whichever conditions were given, unless there is a search
+		String query = params.get("q");
+		CourseFilter filter = null;
+		if (query == null) {
+			filter = filter(params);
+		} else if (query.trim().isEmpty()) {
+			throw new ApiException(400, "Missing q.");
+		}
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			json.beginArray();
+			for (Course course : query != null ? courses.search(query, limit) : courses.filter(filter, limit)) {
+				writeCourse(course, json);
+			}
+			json.endArray();
+		} finally {
+			read.unlock();
+		}
+		return 200;
+
+	}
+
+	/**
+	 * Builds a course filter from the conditions in a query string
+	 */
+	private static CourseFilter filter(Map<String, String> params) throws ApiException {
+
+		//checks that there is something to filter by
+		if (!params.keySet().stream().anyMatch(FILTER_PARAMS::contains)) {
+			throw new ApiException(400, "Missing q, or a filter of " + String.join(", ", FILTER_PARAMS) + ".");
+		}
+
+		try {
+			CourseFilter filter = new CourseFilter();
+			if (params.containsKey("days")) {
+				filter.on(params.get("days"));
+			}
+			if (params.containsKey("onlyOn")) {
+				filter.onlyOn(params.get("onlyOn"));
+			}
+			if (params.containsKey("from")) {
+				filter.startingFrom(params.get("from"));
+			}
+			if (params.containsKey("to")) {
+				filter.endingBy(params.get("to"));
+			}
+			if (params.containsKey("lecturer")) {
+				filter.taughtBy(params.get("lecturer"));
+			}
+			if (params.containsKey("openSeats")) {
+				filter.withOpenSeats(Integer.parseInt(params.get("openSeats")));
+			}
+			return filter;
+		} catch (IllegalArgumentException e) {
+			throw new ApiException(400, e.getMessage());
+		}
+
+	}
+
+	/**
+	 * Lists the courses a student is enrolled in, then the ones they are waiting for
+	 */
+	private int enrolledCourses(Student student, Json json) {
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			json.beginObject().name("enrolled").beginArray();
+			for (Map.Entry<Course, String> entry : student.getEnrolledCourses().entrySet()) {
+				writeCourse(entry.getKey(), json.beginObject().field("grade", entry.getValue()).name("course"));
+				json.endObject();
+			}
+			json.endArray().name("waitlisted").beginArray();
+			for (Course course : student.getWaitlistedCourses()) {
+				if (courses.get(course.getId()) == course) {
+					writeCourse(course, json);
+				}
+			}
+			json.endArray().endObject();
+		} finally {
+			read.unlock();
+		}
+		return 200;
+
+	}
+
+	/**
+	 * Adds a course for a student, who joins the waitlist if it is full, and records it the way the console does
+	 */
+	private int enroll(Student student, String courseId, Json json) throws ApiException {
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			Course course = courses.get(courseId);
+			if (course == null) {
+				throw new ApiException(404, "Course " + courseId + " not found.");
+			}
+
+			//records the request if the student got a seat or joined the waitlist
+			EnrollResult result = journal.enroll(student, course);
+			boolean enrolled = result == EnrollResult.ENROLLED;
+			boolean waitlisted = !enrolled && student.getWaitlistedCourses().contains(course);
+
+			json.beginObject().field("courseId", courseId).field("enrolled", enrolled).field("waitlisted", waitlisted)
+					.field("result", result.name()).endObject();
+			return enrolled || waitlisted ? 200 : 409;
+		} finally {
+			read.unlock();
+		}
+
+	}
+
+	/**
+	 * Drops a course for a student, or takes them off its waitlist, and records it the way the console does
+	 */
+	private int drop(Student student, String courseId, Json json) throws ApiException {
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			Course course = courses.get(courseId);
+			if (course == null) {
+				throw new ApiException(404, "Course " + courseId + " not found.");
+			}
+
+			DropResult result = journal.drop(student, course);
+
+			json.beginObject().field("courseId", courseId).field("dropped", result.isAccepted()).field("result", result.name()).endObject();
+			return result.isAccepted() ? 200 : 409;
+		} finally {
+			read.unlock();
+		}
+
+	}
+
+	/**
+	 * Lists the courses a student has completed with their grades
+	 */
+	private int grades(Student student, Json json) {
+		json.beginArray();
+		for (Map.Entry<String, String> entry : student.getCompletedCourses().entrySet()) {
+			json.beginObject().field("courseId", entry.getKey()).field("grade", entry.getValue()).endObject();
+		}
+		json.endArray();
+		return 200;
+	}
+
+	/**
+	 * Lists the courses a professor teaches that are still offered
+	 */
+	private int coursesTaught(Professor professor, Json json) {
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			json.beginArray();
+			for (Course course : professor.getCoursesTaught()) {
+				if (courses.get(course.getId()) == course) {
+					writeCourse(course, json);
+				}
+			}
+			json.endArray();
+		} finally {
+			read.unlock();
+		}
+		return 200;
+
+	}
+
+	/**
+	 * Lists the students enrolled in a course the professor teaches, in enrollment order
+	 */
+	private int roster(Professor professor, String courseId, Json json) throws ApiException {
+
+		Lock read = lock.readLock();
+		read.lock();
+		try {
+			Course course = courses.get(courseId);
+			if (course == null) {
+				throw new ApiException(404, "Course " + courseId + " not found.");
+			}
+			if (!course.getLecturer().equals(professor.getName())) {
+				throw new ApiException(403, "You do not teach " + course.getName());
+			}
+
+			json.beginArray();
+			for (String studentId : course.getEnrolledStudents()) {
+				Student student = students.get(studentId);
+				json.beginObject().field("id", studentId).field("name", student == null ? null : student.getName()).endObject();
+			}
+			json.endArray();
+		} finally {
+			read.unlock();
+		}
+		return 200;
+
+	}
+
+	/**
+	 * Adds a course, professor, or student, and records it the way the console does
+	 */
+	private int adminAdd(Admin admin, String kind, Map<String, String> body, Json json) throws ApiException {
+
+		//builds the new course or user first, so invalid fields are turned away before locking
+		Course course = null;
+		Professor professor = null;
+		Student student = null;
+		try {
+			if (kind.equals("courses")) {
+				int capacity;
+				try {
+					capacity = Integer.parseInt(required(body, "capacity"));
+				} catch (NumberFormatException e) {
+					throw new ApiException(400, "Capacity must be a whole number.");
+				}
+				course = new Course(required(body, "id"), required(body, "name"), required(body, "lecturer"), required(body, "days"),
+						required(body, "startTime"), required(body, "endTime"), capacity);
+			} else if (kind.equals("professors")) {
+				professor = new Professor(required(body, "id"), required(body, "name"), required(body, "username"), required(body, "password"));
+			} else {
+				student = new Student(required(body, "id"), required(body, "name"), required(body, "username"), required(body, "password"));
+			}
+		} catch (IllegalArgumentException e) {
+			throw new ApiException(400, e.getMessage());
+		}
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			if (course != null) {
+
+				//the console asks for a missing lecturer's details, so over the API the lecturer must be added first
+				Professor lecturer = professorsByName.get(Professor.normalizeName(course.getLecturer()));
+				if (lecturer == null) {
+					throw new ApiException(404, "Lecturer " + course.getLecturer() + " isn't in the system. Add them as a professor first.");
+				}
+				AdminResult result = admin.putCourse(courses, lecturer, course);
+				if (!result.isAccepted()) {
+					throw new ApiException(409, result.render(course.getId()));
+				}
+				journal.addCourse(course, lecturer);
+			} else if (professor != null) {
+				AdminResult result = admin.putProfessor(courses, professors, professorLogins, professorsByName, professor);
+				if (!result.isAccepted()) {
+					throw new ApiException(409, result.render(professor.getId(), professor.getUsername(), professor.getName()));
+				}
+				journal.addProfessor(professor);
+			} else {
+				AdminResult result = admin.putStudent(students, studentLogins, student);
+				if (!result.isAccepted()) {
+					throw new ApiException(409, result.render(student.getId(), student.getUsername(), student.getName()));
+				}
+				journal.addStudent(student);
+			}
+
+			json.beginObject().field("added", true).endObject();
+			return 201;
+		} finally {
+			write.unlock();
+		}
+
+	}
+
+	/**
+	 * Deletes a course, professor, or student, and records it the way the console does
+	 */
+	private int adminDelete(Admin admin, String kind, String id, Json json) throws ApiException {
+
+		Lock write = lock.writeLock();
+		write.lock();
+		try {
+			AdminResult result;
+			if (kind.equals("courses")) {
+				result = admin.removeCourse(courses, professorsByName, id);
+				if (result.isAccepted()) {
+					journal.deleteCourse(id);
+				}
+			} else if (kind.equals("professors")) {
+				result = admin.removeProfessor(professors, professorLogins, professorsByName, id);
+				if (result.isAccepted()) {
+					journal.deleteProfessor(id);
+				}
+			} else {
+				result = admin.removeStudent(students, studentLogins, id);
+				if (result.isAccepted()) {
+					journal.deleteStudent(id);
+				}
+			}
+
+			if (!result.isAccepted()) {
+				throw new ApiException(404, "No " + kind.substring(0, kind.length() - 1) + " " + id + " found.");
+			}
+			json.beginObject().field("deleted", true).endObject();
+			return 200;
+		} finally {
+			write.unlock();
+		}
+
+	}
+
+	/**
+	 * Writes a course as a JSON object
+	 */
+	private static void writeCourse(Course course, Json json) {
+		json.beginObject().field("id", course.getId()).field("name", course.getName()).field("lecturer", course.getLecturer())
+				.field("days", course.getDays()).field("startTime", course.getStartTime()).field("endTime", course.getEndTime())
+				.field("capacity", course.getCapacity()).field("enrolled", course.getEnrolledStudents().size())
+				.field("waitlisted", course.getWaitlist().size()).endObject();
+	}
+
+	/**
+	 * Gets the logged in user making a request, who must have the given role and still be in the system
+	 */
+	private <T extends User> T user(HttpExchange exchange, Class<T> role) throws ApiException {
+
+		//a session left unused too long is logged out
+		Session session = sessions.get(token(exchange));
+		long now = System.currentTimeMillis();
+		if (session != null && now - session.lastUsed > sessionIdleMillis) {
+			sessions.remove(token(exchange));
+			session = null;
+		}
+		if (session == null) {
+			throw new ApiException(401, "Please log in first.");
+		}
+		session.lastUsed = now;
+		User user = session.user;
+		if (!role.isInstance(user)) {
+			throw new ApiException(403, "This action is not available to you.");
+		}
+
+		//a user deleted by an admin is logged out
+		boolean current = user instanceof Student ? students.get(user.getId()) == user
+				: user instanceof Professor ? professors.get(user.getId()) == user
+				: admins.get(user.getUsername()) == user;
+		if (!current) {
+			sessions.remove(token(exchange));
+			throw new ApiException(401, "Please log in first.");
+		}
+		return role.cast(user);
+
+	}
+
+	/**
+	 * Logs out every session left unused too long, at most once per SWEEP_MILLIS,
+	 * so tokens that are never sent again don't stay in memory
+	 */
+	private void sweepSessions() {
+
+		long now = System.currentTimeMillis();
+		if (now < nextSweep) {
+			return;
+		}
+		nextSweep = now + SWEEP_MILLIS;
+		long idle = sessionIdleMillis;
+		sessions.values().removeIf(session -> now - session.lastUsed > idle);
+
+	}
+
+	/**
+	 * Gets the session token sent with a request, or "" if there is none
+	 */
+	private static String token(HttpExchange exchange) {
+		String header = exchange.getRequestHeaders().getFirst("Authorization");
+		return header != null && header.startsWith("Bearer ") ? header.substring("Bearer ".length()).trim() : "";
+	}
+
+	/**
+	 * Reads a request body as a flat JSON object
+	 */
+	private static Map<String, String> readBody(HttpExchange exchange) throws ApiException, IOException {
+
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] bytes = in.readNBytes(MAX_BODY + 1);
+			if (bytes.length > MAX_BODY) {
+				throw new ApiException(413, "Request body is too large.");
+			}
+			return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			throw new ApiException(400, e.getMessage());
+		}
+
+	}
+
+	/**
+	 * Gets a field of a request body that must not be missing or empty
+	 */
+	private static String required(Map<String, String> body, String name) throws ApiException {
+		String value = body.get(name);
+		if (value == null || value.trim().isEmpty()) {
+			throw new ApiException(400, "Missing " + name + ".");
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the ID at the end of a path like student/courses/{id}
+	 */
+	private static String pathId(String[] path, int length) throws ApiException {
+		if (path.length != length || path[length - 1].isEmpty()) {
+			throw new ApiException(404, "Expected an ID at the end of the path.");
+		}
+		return path[length - 1];
+	}
+
+
+	//nested classes
+
+	/**
+	 * A logged in user and when their token was last used
+	 */
+	private static class Session {
+
+		final User user;
+		volatile long lastUsed = System.currentTimeMillis();
+
+		Session(User user) {
+			this.user = user;
+		}
+
+	}
+
+	/**
+	 * Thrown when a request can't be carried out, with the HTTP status to answer with
+	 */
+	private static class ApiException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		final int status;
+
+		ApiException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+
+	}
+
+}
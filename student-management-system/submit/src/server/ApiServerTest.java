@@ -0,0 +1,274 @@
+package server;
+
+import courses.Course;
+import courses.CourseIndex;
+import files.Journal;
+import metrics.Metrics;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ApiServerTest {
+
+	private CourseIndex courses;
+	private Map<String, Admin> admins;
+	private Map<String, Professor> professors;
+	private Map<String, Professor> professorLogins;
+	private Map<String, Professor> professorsByName;
+	private Map<String, Student> students;
+	private Map<String, Student> studentLogins;
+	private File journalFile;
+	private Journal journal;
+	private ApiServer server;
+	private HttpClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		//one admin, one professor teaching a one-seat course, and two students
+		courses = new CourseIndex();
+		admins = new ConcurrentHashMap<>();
+		professors = new ConcurrentHashMap<>();
+		professorLogins = new ConcurrentHashMap<>();
+		professorsByName = new ConcurrentHashMap<>();
+		students = new ConcurrentHashMap<>();
+		studentLogins = new ConcurrentHashMap<>();
+
+		admins.put("admin01", new Admin("A01", "Admin One", "admin01", "password"));
+		Professor professor = new Professor("P01", "John Doe", "johndoe", "password");
+		professors.put("P01", professor);
+		professorLogins.put("johndoe", professor);
+		professorsByName.put(Professor.normalizeName("John Doe"), professor);
+		Course course = new Course("CIS101", "Intro to CS", "John Doe", "MW", "10:00", "11:30", 1);
+		courses.put("CIS101", course);
+		professor.assignCourse(course);
+		for (String[] info : new String[][] {{"001", "Jane Smith", "janesmith"}, {"002", "Bob Bobby", "bobby"}}) {
+			Student student = new Student(info[0], info[1], info[2], "pass");
+			students.put(info[0], student);
+			studentLogins.put(info[2], student);
+		}
+
+		journalFile = Files.createTempFile("testApiServer", ".dat").toFile();
+		journal = new Journal(journalFile.getPath(), 1, 0);
+		server = new ApiServer(null, 0, 8, courses, admins, professors, professorLogins, professorsByName, students, studentLogins,
+				journal, new ReentrantReadWriteLock());
+		server.start();
+		client = HttpClient.newHttpClient();
+
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+
+		//stop the server and clean up temp file
+		server.close();
+		journal.close();
+		journalFile.delete();
+
+	}
+
+	/**
+	 * Sends a request and returns the response
+	 */
+	private HttpResponse<String> send(String method, String path, String token, String body) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/api/" + path))
+				.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+		if (token != null) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * Logs in and returns the session token
+	 */
+	private String login(String role, String username, String password) throws Exception {
+		HttpResponse<String> response = send("POST", "login", null,
+				"{\"role\": \"" + role + "\", \"username\": \"" + username + "\", \"password\": \"" + password + "\"}");
+		assertEquals(200, response.statusCode(), response.body());
+		return Json.parseObject(response.body()).get("token");
+	}
+
+	@Test
+	void testLogin() throws Exception {
+
+		//Test Case 1: Wrong passwords and unknown users are turned away, and both count as failed logins
+		long failures = Metrics.LOGINS.getFailures();
+		assertEquals(401, send("POST", "login", null, "{\"role\": \"student\", \"username\": \"janesmith\", \"password\": \"wrong\"}").statusCode());
+		assertEquals(401, send("POST", "login", null, "{\"role\": \"professor\", \"username\": \"janesmith\", \"password\": \"pass\"}").statusCode());
+		assertEquals(400, send("POST", "login", null, "{\"role\": \"student\"").statusCode());
+		assertEquals(failures + 2, Metrics.LOGINS.getFailures());
+
+		//Test Case 2: Actions need a session with the right role
+		assertEquals(401, send("GET", "courses", null, null).statusCode());
+		String token = login("student", "janesmith", "pass");
+		assertEquals(200, send("GET", "courses", token, null).statusCode());
+		assertEquals(403, send("GET", "professor/courses", token, null).statusCode());
+
+		//Test Case 3: Logging out ends the session
+		assertEquals(200, send("POST", "logout", token, null).statusCode());
+		assertEquals(401, send("GET", "courses", token, null).statusCode());
+
+		//Test Case 4: A session left unused longer than the idle time is logged out, while one in use keeps going
+		server.setSessionIdleMillis(300);
+		String idle = login("student", "janesmith", "pass");
+		String busy = login("student", "bobby", "pass");
+		for (int i = 0; i < 4; i++) {
+			Thread.sleep(100);
+			assertEquals(200, send("GET", "student/grades", busy, null).statusCode());
+		}
+		assertEquals(401, send("GET", "courses", idle, null).statusCode());
+		assertEquals(200, send("GET", "courses", busy, null).statusCode());
+
+	}
+
+	@Test
+	void testSearch() throws Exception {
+
+		String jane = login("student", "janesmith", "pass");
+
+		//Test Case 1: Courses are found by the start of their ID or a word of their name
+		HttpResponse<String> response = send("GET", "courses?q=cis1", jane, null);
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().contains("CIS101"), response.body());
+		assertTrue(send("GET", "courses?q=intro%20cs&limit=5", jane, null).body().contains("CIS101"));
+		assertEquals("[]", send("GET", "courses?q=biology", jane, null).body().replaceAll("\\s", ""));
+
+		//Test Case 2: A missing search or a bad limit is a bad request
+		assertEquals(400, send("GET", "courses?limit=5", jane, null).statusCode());
+		assertEquals(400, send("GET", "courses?q=cis&limit=0", jane, null).statusCode());
+		assertEquals(400, send("GET", "courses?q=cis&limit=many", jane, null).statusCode());
+
+		//Test Case 3: Courses are found by a filter, and a bad condition is a bad request
+		assertTrue(send("GET", "courses?days=MW&from=10:00&openSeats=1", jane, null).body().contains("CIS101"));
+		assertEquals("[]", send("GET", "courses?days=TR", jane, null).body().replaceAll("\\s", ""));
+		assertTrue(send("GET", "courses?lecturer=john%20doe", jane, null).body().contains("CIS101"));
+		assertEquals(400, send("GET", "courses?days=XYZ", jane, null).statusCode());
+		assertEquals(400, send("GET", "courses?openSeats=some", jane, null).statusCode());
+
+	}
+
+	@Test
+	void testEnrollAndDrop() throws Exception {
+
+		String jane = login("student", "janesmith", "pass");
+		String bob = login("student", "bobby", "pass");
+
+		//Test Case 1: The first student gets the only seat and the second joins the waitlist
+		HttpResponse<String> response = send("POST", "student/courses", jane, "{\"courseId\": \"CIS101\"}");
+		assertEquals(200, response.statusCode());
+		assertEquals("true", Json.parseObject(response.body()).get("enrolled"));
+		response = send("POST", "student/courses", bob, "{\"courseId\": \"CIS101\"}");
+		assertEquals("true", Json.parseObject(response.body()).get("waitlisted"));
+		assertEquals(404, send("POST", "student/courses", bob, "{\"courseId\": \"CIS999\"}").statusCode());
+
+		//Test Case 2: The professor sees the roster
+		String professor = login("professor", "johndoe", "password");
+		response = send("GET", "professor/courses/CIS101/roster", professor, null);
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().contains("Jane Smith"));
+		assertFalse(response.body().contains("Bob Bobby"));
+
+		//Test Case 3: Dropping the course moves the waiting student into the seat
+		assertEquals(200, send("DELETE", "student/courses/CIS101", jane, null).statusCode());
+		assertEquals(409, send("DELETE", "student/courses/CIS101", jane, null).statusCode());
+		assertTrue(students.get("002").getEnrolledCourses().containsKey(courses.get("CIS101")));
+		assertEquals(3, journal.getRecordCount());
+
+	}
+
+	@Test
+	void testAdmin() throws Exception {
+
+		String admin = login("admin", "admin01", "password");
+
+		//Test Case 1: Added students can log in, and duplicates are turned away
+		String body = "{\"id\": \"003\", \"name\": \"Tom Hanks\", \"username\": \"tomhanks\", \"password\": \"pass1\"}";
+		assertEquals(201, send("POST", "admin/students", admin, body).statusCode());
+		assertEquals(409, send("POST", "admin/students", admin, body).statusCode());
+		String tom = login("student", "tomhanks", "pass1");
+
+		//Test Case 2: Deleted students are logged out
+		assertEquals(200, send("DELETE", "admin/students/003", admin, null).statusCode());
+		assertEquals(404, send("DELETE", "admin/students/003", admin, null).statusCode());
+		assertEquals(401, send("GET", "student/grades", tom, null).statusCode());
+
+		//Test Case 3: Courses need a known lecturer and valid times
+		String course = "{\"id\": \"CIS102\", \"name\": \"Data Structures\", \"lecturer\": \"%s\", \"days\": \"TR\", "
+				+ "\"startTime\": \"%s\", \"endTime\": \"13:30\", \"capacity\": 50}";
+		assertEquals(404, send("POST", "admin/courses", admin, String.format(course, "Nobody", "12:00")).statusCode());
+		assertEquals(400, send("POST", "admin/courses", admin, String.format(course, "John Doe", "noon")).statusCode());
+		assertEquals(201, send("POST", "admin/courses", admin, String.format(course, "John Doe", "12:00")).statusCode());
+		assertTrue(professors.get("P01").getCoursesTaught().contains(courses.get("CIS102")));
+		assertEquals(200, send("DELETE", "admin/courses/CIS102", admin, null).statusCode());
+		assertFalse(courses.containsKey("CIS102"));
+
+		//Test Case 4: Students can't use admin actions
+		String jane = login("student", "janesmith", "pass");
+		assertEquals(403, send("DELETE", "admin/students/001", jane, null).statusCode());
+
+	}
+
+	@Test
+	void testConcurrentEnrollment() throws Exception {
+
+		//a course with 50 seats and 100 students trying to enroll at once
+		Course course = new Course("CIS200", "Algorithms", "John Doe", "F", "10:00", "11:30", 50);
+		course.setWaitlistCapacity(20);
+		courses.put("CIS200", course);
+		for (int i = 0; i < 100; i++) {
+			Student student = new Student("S" + i, "Student " + i, "student" + i, "pass");
+			students.put(student.getId(), student);
+			studentLogins.put(student.getUsername(), student);
+		}
+
+		ExecutorService clients = Executors.newFixedThreadPool(16);
+		Future<?>[] results = new Future<?>[100];
+		for (int i = 0; i < 100; i++) {
+			String username = "student" + i;
+			results[i] = clients.submit(() -> {
+				String token = login("student", username, "pass");
+				return send("POST", "student/courses", token, "{\"courseId\": \"CIS200\"}").statusCode();
+			});
+		}
+		int turnedAway = 0;
+		for (Future<?> result : results) {
+			if ((Integer) result.get() == 409) {
+				turnedAway++;
+			}
+		}
+		clients.shutdown();
+		clients.awaitTermination(10, TimeUnit.SECONDS);
+
+		//Test Case 1: Every seat and waitlist place is filled exactly once
+		assertEquals(50, course.getEnrolledStudents().size());
+		assertEquals(20, course.getWaitlist().size());
+		assertEquals(30, turnedAway);
+
+		//Test Case 2: Every seat and waitlist place was recorded
+		assertEquals(70, journal.getRecordCount());
+
+	}
+
+}
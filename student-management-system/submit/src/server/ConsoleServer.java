@@ -0,0 +1,267 @@
+package server;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the console menus over TCP on localhost, so many users can use one running system from their terminals,
+ * eg. with "telnet localhost 5900" or "nc localhost 5900"
+ * Each connection runs a session, usually the main menu, with its own Scanner reading from the connection, and
+ * with System.out on the session's thread printing to the connection
+ * Output is buffered and sent whenever the session waits for input, or when it ends
+ * Sessions run on virtual threads when the JDK has them, otherwise on platform threads with small stacks, so
+ * thousands of idle sessions cost little more than their sockets and buffers
+ * @author Katie
+ */
+public class ConsoleServer implements Closeable {
+
+	//constants
+
+	/**
+	 * Number of pending connections the server queues before turning new ones away
+	 */
+	private static final int BACKLOG = 1024;
+
+	/**
+	 * Size of each session's input and output buffers, in bytes
+	 */
+	private static final int BUFFER_SIZE = 1024;
+
+	/**
+	 * Stack size of session threads when there are no virtual threads, in bytes
+	 */
+	private static final long STACK_SIZE = 256 << 10;
+
+
+	//instance variables
+
+	/**
+	 * What each connection runs
+	 */
+	private final Session session;
+
+	/**
+	 * Most sessions running at once, beyond which new connections are turned away
+	 */
+	private final int maxSessions;
+
+	/**
+	 * Socket accepting connections, and the sockets of running sessions
+	 */
+	private final ServerSocket serverSocket;
+	private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Threads sessions run on, and the thread accepting connections
+	 */
+	private final ExecutorService executor;
+	private Thread acceptor;
+
+	/**
+	 * System.out while the server runs
+	 */
+	private SessionPrintStream out;
+
+
+	//constructor
+
+	/**
+	 * Creates a server on a localhost port, without starting it
+	 * @param port to listen on, or 0 for any free port
+	 * @param maxSessions most sessions running at once
+	 * @param session run for each connection
+	 * @throws IOException if the port can't be opened
+	 */
+	public ConsoleServer(int port, int maxSessions, Session session) throws IOException {
+		this.session = session;
+		this.maxSessions = maxSessions;
+		serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+		executor = newExecutor();
+	}
+
+
+	//methods
+
+	/**
+	 * Starts accepting connections in the background, and sends what sessions print to their connections
+	 */
+	public synchronized void start() {
+		out = new SessionPrintStream(System.out);
+		System.setOut(out);
+		acceptor = new Thread(this::accept, "console-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/**
+	 * Gets the port the server listens on
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Gets the number of sessions running
+	 */
+	public int getSessionCount() {
+		return sockets.size();
+	}
+
+	/**
+	 * Stops accepting connections, disconnects every session, and puts System.out back
+	 */
+	@Override
+	public synchronized void close() {
+
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			//already closed
+		}
+		for (Socket socket : sockets) {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				//already closed
+			}
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (out != null && System.out == out) {
+			System.setOut(out.getFallback());
+		}
+
+	}
+
+	/**
+	 * Accepts connections until the server is closed, starting a session for each
+	 */
+	private void accept() {
+
+		while (!serverSocket.isClosed()) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (IOException e) {
+				//the server was closed
+				return;
+			}
+
+			//turns the connection away if too many sessions are running
+			if (sockets.size() >= maxSessions) {
+				try (socket) {
+					socket.getOutputStream().write("The system is busy. Please try again later.\n".getBytes(StandardCharsets.UTF_8));
+				} catch (IOException e) {
+					//the client already left
+				}
+				continue;
+			}
+			sockets.add(socket);
+			executor.execute(() -> run(socket));
+		}
+
+	}
+
+	/**
+	 * Runs a session on a connection until it ends or the client disconnects
+	 */
+	private void run(Socket socket) {
+
+		try (socket) {
+
+			//output is flushed before each read, so prompts reach the client before the session waits for an answer
+			socket.setTcpNoDelay(true);
+			PrintStream sessionOut = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE), false,
+					StandardCharsets.UTF_8);
+			InputStream in = new FilterInputStream(socket.getInputStream()) {
+
+				@Override
+				public int read() throws IOException {
+					sessionOut.flush();
+					return super.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					sessionOut.flush();
+					return super.read(b, off, len);
+				}
+
+			};
+
+			//sends whatever the session printed last before the connection is closed
+			out.setSession(sessionOut);
+			try {
+				session.run(new Scanner(in, StandardCharsets.UTF_8));
+			} finally {
+				sessionOut.flush();
+			}
+
+		} catch (IOException | NoSuchElementException e) {
+			//the client disconnected, or the server was closed
+		} finally {
+			out.setSession(null);
+			sockets.remove(socket);
+		}
+
+	}
+
+	/**
+	 * Creates a virtual thread per session when the JDK has virtual threads, otherwise a platform thread per session
+	 * with a small stack
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger count = new AtomicInteger();
+			ThreadFactory factory = task -> {
+				Thread thread = new Thread(null, task, "console-session-" + count.incrementAndGet(), STACK_SIZE);
+				thread.setDaemon(true);
+				return thread;
+			};
+			return Executors.newCachedThreadPool(factory);
+		}
+	}
+
+
+	//nested classes
+
+	/**
+	 * What each connection runs, reading input from the scanner and printing with System.out
+	 */
+	public interface Session {
+
+		/**
+		 * Runs until the user quits
+		 * Running out of input ends the session with a NoSuchElementException, as from Scanner.nextLine
+		 * Input the session can't make sense of is the session's to reprompt for, reading whole lines rather than
+		 * Scanner.nextInt, whose InputMismatchException is also a NoSuchElementException and would end the connection
+		 * @param scanner reading what the user types
+		 */
+		void run(Scanner scanner);
+
+	}
+
+}
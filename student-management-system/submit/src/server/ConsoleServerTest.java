@@ -0,0 +1,150 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConsoleServerTest {
+
+	private PrintStream originalOut;
+	private ByteArrayOutputStream localOut;
+	private ConsoleServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		//print locally to a buffer, and echo what each session types back with its own name until it types "q"
+		originalOut = System.out;
+		localOut = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(localOut, true, StandardCharsets.UTF_8));
+		server = new ConsoleServer(0, 3, scanner -> {
+			System.out.println("Name?");
+			String name = scanner.nextLine();
+			while (true) {
+				System.out.println("Say something, " + name + ":");
+				String line = scanner.nextLine();
+				if (line.equals("q")) {
+					System.out.println("Goodbye, " + name + "!");
+					return;
+				}
+				System.out.println(name + " said " + line);
+			}
+		});
+		server.start();
+
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		//stop the server and put System.out back
+		server.close();
+		System.setOut(originalOut);
+
+	}
+
+	/**
+	 * Client connected to the server
+	 */
+	private class Client implements AutoCloseable {
+
+		final Socket socket;
+		final BufferedReader in;
+		final PrintWriter out;
+
+		Client() throws IOException {
+			socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+			socket.setSoTimeout(5000);
+			in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+		}
+
+		String send(String line) throws IOException {
+			out.println(line);
+			return in.readLine();
+		}
+
+		@Override
+		public void close() throws IOException {
+			socket.close();
+		}
+
+	}
+
+	/**
+	 * Waits up to a few seconds for the number of sessions running
+	 */
+	private void awaitSessions(int count) throws InterruptedException {
+		for (int i = 0; i < 500 && server.getSessionCount() != count; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(count, server.getSessionCount());
+	}
+
+	@Test
+	void testSessions() throws Exception {
+
+		try (Client alice = new Client(); Client bob = new Client()) {
+
+			//Test Case 1: Each session gets its prompts and only its own output, even when they take turns
+			assertEquals("Name?", alice.in.readLine());
+			assertEquals("Name?", bob.in.readLine());
+			assertEquals("Say something, Alice:", alice.send("Alice"));
+			assertEquals("Say something, Bob:", bob.send("Bob"));
+			assertEquals("Bob said hi", bob.send("hi"));
+			assertEquals("Alice said hello", alice.send("hello"));
+			assertEquals("Say something, Alice:", alice.in.readLine());
+			assertEquals("Say something, Bob:", bob.in.readLine());
+			awaitSessions(2);
+
+			//Test Case 2: Printing outside a session still goes to the local console
+			System.out.println("local");
+			assertEquals("local", localOut.toString(StandardCharsets.UTF_8).trim());
+
+			//Test Case 3: Quitting ends the session and closes the connection
+			assertEquals("Goodbye, Alice!", alice.send("q"));
+			assertNull(alice.in.readLine());
+			awaitSessions(1);
+
+		}
+
+		//Test Case 4: Disconnecting ends the session
+		awaitSessions(0);
+
+	}
+
+	@Test
+	void testMaxSessions() throws Exception {
+
+		try (Client first = new Client(); Client second = new Client(); Client third = new Client()) {
+			assertEquals("Name?", first.in.readLine());
+			assertEquals("Name?", second.in.readLine());
+			assertEquals("Name?", third.in.readLine());
+			awaitSessions(3);
+
+			//Test Case 1: Connections beyond the limit are turned away
+			try (Client fourth = new Client()) {
+				assertEquals("The system is busy. Please try again later.", fourth.in.readLine());
+				assertNull(fourth.in.readLine());
+			}
+		}
+
+		//Test Case 2: Closing the server puts System.out back
+		server.close();
+		assertNotEquals(SessionPrintStream.class, System.out.getClass());
+
+	}
+
+}
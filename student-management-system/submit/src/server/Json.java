@@ -0,0 +1,359 @@
+package server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes JSON responses and reads JSON request bodies for the API server
+ * Only what the API needs is supported: responses are built a value at a time, and request bodies
+ * are flat objects whose values are strings, numbers, booleans, or null
+ * @author Katie
+ */
+final class Json {
+
+	//instance variables
+
+	/**
+	 * JSON written so far
+	 */
+	private final StringBuilder out = new StringBuilder(256);
+
+	/**
+	 * True if a comma is needed before the next value or name
+	 */
+	private boolean needsComma;
+
+
+	//writing methods
+
+	/**
+	 * Starts an object
+	 */
+	Json beginObject() {
+		comma();
+		out.append('{');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Ends the current object
+	 */
+	Json endObject() {
+		out.append('}');
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Starts an array
+	 */
+	Json beginArray() {
+		comma();
+		out.append('[');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Ends the current array
+	 */
+	Json endArray() {
+		out.append(']');
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes the name of the next field of an object
+	 */
+	Json name(String name) {
+		comma();
+		quote(name);
+		out.append(':');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Writes a string, or null
+	 */
+	Json value(String value) {
+		comma();
+		if (value == null) {
+			out.append("null");
+		} else {
+			quote(value);
+		}
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a number
+	 */
+	Json value(long value) {
+		comma();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a boolean
+	 */
+	Json value(boolean value) {
+		comma();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes a field of an object holding a string
+	 */
+	Json field(String name, String value) {
+		return name(name).value(value);
+	}
+
+	/**
+	 * Writes a field of an object holding a number
+	 */
+	Json field(String name, long value) {
+		return name(name).value(value);
+	}
+
+	/**
+	 * Writes a field of an object holding a boolean
+	 */
+	Json field(String name, boolean value) {
+		return name(name).value(value);
+	}
+
+	/**
+	 * Gets the JSON written so far
+	 */
+	@Override
+	public String toString() {
+		return out.toString();
+	}
+
+	/**
+	 * Writes a comma if one is needed before the next value
+	 */
+	private void comma() {
+		if (needsComma) {
+			out.append(',');
+		}
+	}
+
+	/**
+	 * Writes a string in quotes, escaping the characters JSON requires
+	 */
+	private void quote(String value) {
+
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					if (c < ' ') {
+						out.append(String.format("\\u%04x", (int) c));
+					} else {
+						out.append(c);
+					}
+			}
+		}
+		out.append('"');
+
+	}
+
+
+	//reading methods
+
+	/**
+	 * Reads a flat JSON object, keeping every value as text
+	 * @param text to read
+	 * @return fields of the object in order, with null for JSON null
+	 * @throws IllegalArgumentException if the text is not a flat JSON object
+	 */
+	static Map<String, String> parseObject(String text) {
+
+		Reader reader = new Reader(text);
+		Map<String, String> fields = new LinkedHashMap<>();
+		reader.expect('{');
+		if (!reader.skip('}')) {
+			do {
+				String name = reader.string();
+				reader.expect(':');
+				fields.put(name, reader.value());
+			} while (reader.skip(','));
+			reader.expect('}');
+		}
+		reader.end();
+		return fields;
+
+	}
+
+
+	//nested classes
+
+	/**
+	 * Reads JSON text a token at a time
+	 */
+	private static class Reader {
+
+		private final String text;
+		private int position;
+
+		Reader(String text) {
+			this.text = text;
+		}
+
+		/**
+		 * Skips whitespace, then a character if it is next
+		 * @return true if the character was skipped, false if something else is next
+		 */
+		boolean skip(char c) {
+			whitespace();
+			if (position < text.length() && text.charAt(position) == c) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Skips whitespace, then a character that must be next
+		 */
+		void expect(char c) {
+			if (!skip(c)) {
+				throw error("Expected '" + c + "'");
+			}
+		}
+
+		/**
+		 * Checks that only whitespace is left
+		 */
+		void end() {
+			whitespace();
+			if (position < text.length()) {
+				throw error("Unexpected text after the object");
+			}
+		}
+
+		/**
+		 * Reads a string, number, boolean, or null as text
+		 */
+		String value() {
+
+			whitespace();
+			if (position < text.length() && text.charAt(position) == '"') {
+				return string();
+			}
+
+			//reads a bare word or number up to the next separator
+			int start = position;
+			while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+				position++;
+			}
+			String word = text.substring(start, position);
+			if (word.equals("null")) {
+				return null;
+			}
+			if (word.equals("true") || word.equals("false") || word.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+				return word;
+			}
+			throw error("Invalid value");
+
+		}
+
+		/**
+		 * Reads a string in quotes, undoing escapes
+		 */
+		String string() {
+
+			expect('"');
+			StringBuilder value = new StringBuilder();
+			while (position < text.length()) {
+				char c = text.charAt(position++);
+				if (c == '"') {
+					return value.toString();
+				}
+				if (c != '\\') {
+					value.append(c);
+					continue;
+				}
+				if (position >= text.length()) {
+					break;
+				}
+				char escaped = text.charAt(position++);
+				switch (escaped) {
+					case 'n':
+						value.append('\n');
+						break;
+					case 'r':
+						value.append('\r');
+						break;
+					case 't':
+						value.append('\t');
+						break;
+					case 'b':
+						value.append('\b');
+						break;
+					case 'f':
+						value.append('\f');
+						break;
+					case 'u':
+						if (position + 4 > text.length()) {
+							throw error("Invalid escape");
+						}
+						try {
+							value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+						} catch (NumberFormatException e) {
+							throw error("Invalid escape");
+						}
+						position += 4;
+						break;
+					default:
+						value.append(escaped);
+				}
+			}
+			throw error("Unterminated string");
+
+		}
+
+		/**
+		 * Skips whitespace
+		 */
+		private void whitespace() {
+			while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+				position++;
+			}
+		}
+
+		/**
+		 * Creates an error pointing at the current position
+		 */
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at position " + position + " of the request body.");
+		}
+
+	}
+
+}
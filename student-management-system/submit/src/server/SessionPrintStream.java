@@ -0,0 +1,242 @@
+package server;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Stands in for System.out while console sessions run, sending what each session's thread prints to that session
+ * The menus and the Student, Professor, and Admin classes print with System.out, so this lets them run unchanged
+ * for many users at once
+ * Threads without a session print to the stream System.out was before
+ * Every method hands off to the thread's own stream, so sessions never wait on each other to print
+ * @author Katie
+ */
+final class SessionPrintStream extends PrintStream {
+
+	//instance variables
+
+	/**
+	 * Stream printed to by threads without a session
+	 */
+	private final PrintStream fallback;
+
+	/**
+	 * Stream of the session running on each thread
+	 */
+	private final ThreadLocal<PrintStream> session = new ThreadLocal<>();
+
+
+	//constructor
+
+	/**
+	 * Creates a stream printing to a fallback stream until a thread sets its own
+	 * @param fallback stream for threads without a session, usually the current System.out
+	 */
+	SessionPrintStream(PrintStream fallback) {
+		super(fallback, true);
+		this.fallback = fallback;
+	}
+
+
+	//methods
+
+	/**
+	 * Sets the stream the current thread prints to, or null to go back to the fallback
+	 */
+	void setSession(PrintStream stream) {
+		if (stream == null) {
+			session.remove();
+		} else {
+			session.set(stream);
+		}
+	}
+
+	/**
+	 * Gets the stream printed to before sessions were set up
+	 */
+	PrintStream getFallback() {
+		return fallback;
+	}
+
+	/**
+	 * Gets the stream the current thread prints to
+	 */
+	private PrintStream target() {
+		PrintStream stream = session.get();
+		return stream == null ? fallback : stream;
+	}
+
+	@Override
+	public void flush() {
+		target().flush();
+	}
+
+	@Override
+	public void close() {
+		target().close();
+	}
+
+	@Override
+	public boolean checkError() {
+		return target().checkError();
+	}
+
+	@Override
+	public void write(int b) {
+		target().write(b);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) {
+		target().write(buf, off, len);
+	}
+
+	@Override
+	public void write(byte[] buf) throws IOException {
+		target().write(buf);
+	}
+
+	@Override
+	public void writeBytes(byte[] buf) {
+		target().writeBytes(buf);
+	}
+
+	@Override
+	public void print(boolean b) {
+		target().print(b);
+	}
+
+	@Override
+	public void print(char c) {
+		target().print(c);
+	}
+
+	@Override
+	public void print(int i) {
+		target().print(i);
+	}
+
+	@Override
+	public void print(long l) {
+		target().print(l);
+	}
+
+	@Override
+	public void print(float f) {
+		target().print(f);
+	}
+
+	@Override
+	public void print(double d) {
+		target().print(d);
+	}
+
+	@Override
+	public void print(char[] s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(String s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(Object obj) {
+		target().print(obj);
+	}
+
+	@Override
+	public void println() {
+		target().println();
+	}
+
+	@Override
+	public void println(boolean x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(int x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(long x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(float x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(double x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char[] x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(String x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(Object x) {
+		target().println(x);
+	}
+
+	@Override
+	public PrintStream printf(String format, Object... args) {
+		target().printf(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream printf(Locale l, String format, Object... args) {
+		target().printf(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(String format, Object... args) {
+		target().format(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(Locale l, String format, Object... args) {
+		target().format(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq) {
+		target().append(csq);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq, int start, int end) {
+		target().append(csq, start, end);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(char c) {
+		target().append(c);
+		return this;
+	}
+
+}